@@ -0,0 +1,63 @@
+-- Log de alterações usado pela sincronização incremental (GET /rest/<entidade>/changes?since=<token>).
+-- Os serviços gravam uma linha por registro inserido (I), atualizado (U) ou excluído (D), na mesma
+-- transação da escrita.
+-- O token entregue aos clientes é o SCN de commit da linha, e não o ID: o ID é atribuído na inserção, e uma
+-- transação longa (cadastro em lote, upsert, /rest/batch) confirmaria IDs menores que os já entregues.
+-- Com ROWDEPENDENCIES o ORA_ROWSCN é mantido por linha, em vez de por bloco. Como ele não é indexável, a
+-- aplicação o copia para nr_scn antes de cada leitura (UPDATE ... SET nr_scn = ORA_ROWSCN WHERE nr_scn IS
+-- NULL, confirmado na hora); as leituras usam apenas nr_scn, pelo índice IX_ALTERACAO_TABELA, e o custo
+-- acompanha a quantidade de alterações depois do token, não o tamanho do log. Linhas de transações ainda
+-- abertas não são vistas pelo carimbo e receberão um SCN maior que qualquer token já entregue.
+-- ROWDEPENDENCIES só pode ser definido na criação: uma G_ALTERACAO já existente deve ser recriada
+-- (os tokens antigos, IDs, ficam menores que qualquer SCN e só fazem o cliente receber alterações de novo).
+
+CREATE TABLE G_ALTERACAO (
+    id_alteracao NUMBER GENERATED ALWAYS AS IDENTITY (ORDER) PRIMARY KEY,
+    nm_tabela VARCHAR2(30) NOT NULL,
+    id_registro NUMBER NOT NULL,
+    tp_operacao CHAR(1) NOT NULL CHECK (tp_operacao IN ('I', 'U', 'D')),
+    dt_alteracao TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+    nr_scn NUMBER
+) ROWDEPENDENCIES;
+
+-- Cobre a leitura por tabela a partir de um token e o carimbo (nm_tabela = ? AND nr_scn IS NULL: como
+-- nm_tabela nunca é nulo, as linhas sem SCN também ficam no índice).
+CREATE INDEX IX_ALTERACAO_TABELA ON G_ALTERACAO (nm_tabela, nr_scn, id_alteracao, id_registro, tp_operacao);
+
+-- Expurgo: alterações com mais de p_dias dias saem do log, e o maior SCN expurgado de cada tabela fica em
+-- G_ALTERACAO_EXPURGO. Tokens anteriores a ele são recusados com 400 (as exclusões expurgadas não seriam
+-- entregues): o cliente baixa a listagem completa e recomeça pelo token atual.
+
+CREATE TABLE G_ALTERACAO_EXPURGO (
+    nm_tabela VARCHAR2(30) PRIMARY KEY,
+    nr_scn NUMBER NOT NULL
+);
+
+CREATE OR REPLACE PROCEDURE PR_EXPURGAR_ALTERACOES (p_dias IN NUMBER DEFAULT 30) AS
+BEGIN
+    MERGE INTO G_ALTERACAO_EXPURGO e
+    USING (SELECT nm_tabela, MAX(nr_scn) AS nr_scn
+           FROM G_ALTERACAO
+           WHERE nr_scn IS NOT NULL AND dt_alteracao < SYSTIMESTAMP - NUMTODSINTERVAL(p_dias, 'DAY')
+           GROUP BY nm_tabela) a
+    ON (e.nm_tabela = a.nm_tabela)
+    WHEN MATCHED THEN UPDATE SET e.nr_scn = GREATEST(e.nr_scn, a.nr_scn)
+    WHEN NOT MATCHED THEN INSERT (nm_tabela, nr_scn) VALUES (a.nm_tabela, a.nr_scn);
+
+    DELETE FROM G_ALTERACAO a
+    WHERE a.nr_scn <= (SELECT e.nr_scn FROM G_ALTERACAO_EXPURGO e WHERE e.nm_tabela = a.nm_tabela);
+
+    COMMIT;
+END;
+/
+
+BEGIN
+    DBMS_SCHEDULER.CREATE_JOB(
+        job_name        => 'JOB_EXPURGAR_ALTERACOES',
+        job_type        => 'STORED_PROCEDURE',
+        job_action      => 'PR_EXPURGAR_ALTERACOES',
+        repeat_interval => 'FREQ=DAILY;BYHOUR=3;BYMINUTE=0',
+        enabled         => TRUE
+    );
+END;
+/
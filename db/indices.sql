@@ -0,0 +1,47 @@
+-- Índices das colunas filtráveis dos endpoints de listagem (?campo=valor&sort=...).
+-- Cada coluna marcada como filtrável em um DAO deve ter um índice aqui, para que os filtros
+-- não façam varredura completa da tabela. As chaves primárias já são indexadas pelo Oracle.
+-- Placa, CPF e código da linha são chaves naturais: os endpoints de upsert (MERGE) dependem
+-- de que sejam únicas, por isso os seus índices são UNIQUE (prefixo UX_). A placa também é única entre
+-- ônibus, carros e motos, garantido pela G_PLACA e seus gatilhos (db/placas.sql).
+
+-- Chaves estrangeiras
+CREATE INDEX IX_ONIBUS_GARAGEM ON G_ONIBUS (id_garagem);
+CREATE INDEX IX_ONIBUS_LINHA ON G_ONIBUS (id_linha);
+CREATE INDEX IX_CARRO_GARAGEM ON G_CARRO (id_garagem);
+CREATE INDEX IX_MOTO_GARAGEM ON G_MOTO (id_garagem);
+CREATE INDEX IX_CONSUMO_ONIBUS ON G_CONSUMO (id_onibus);
+CREATE INDEX IX_CARREGADOR_ESTACAO ON G_CARREGADOR (id_estacao);
+CREATE INDEX IX_ESTACAO_GARAGEM ON G_ESTACAO_RECARGA_SOLAR (id_garagem);
+CREATE INDEX IX_OPERADOR_GARAGEM ON G_OPERADOR (id_garagem);
+CREATE INDEX IX_PONTO_RECARGA_LINHA ON G_PONTO_RECARGA (id_linha);
+CREATE INDEX IX_ENDERECO_GARAGEM_GARAGEM ON G_ENDERECO_GARAGEM (id_garagem);
+CREATE INDEX IX_ENDERECO_LINHA_LINHA ON G_ENDERECO_LINHA (id_linha);
+
+-- Situação de carregadores, estações e pontos de recarga
+CREATE INDEX IX_CARREGADOR_STATUS ON G_CARREGADOR (st_status);
+CREATE INDEX IX_ESTACAO_OCUPADA ON G_ESTACAO_RECARGA_SOLAR (st_ocupada);
+CREATE INDEX IX_PONTO_RECARGA_OCUPADO ON G_PONTO_RECARGA (st_ocupado);
+
+-- Veículos: placa, prefixo e ano de fabricação
+CREATE UNIQUE INDEX UX_ONIBUS_PLACA ON G_ONIBUS (ds_placa);
+CREATE INDEX IX_ONIBUS_PREFIXO ON G_ONIBUS (nr_prefixo);
+CREATE INDEX IX_ONIBUS_ANO ON G_ONIBUS (nr_ano_fabricacao);
+CREATE UNIQUE INDEX UX_CARRO_PLACA ON G_CARRO (ds_placa);
+CREATE INDEX IX_CARRO_PREFIXO ON G_CARRO (nr_prefixo);
+CREATE INDEX IX_CARRO_ANO ON G_CARRO (nr_ano_fabricacao);
+CREATE UNIQUE INDEX UX_MOTO_PLACA ON G_MOTO (ds_placa);
+CREATE INDEX IX_MOTO_PREFIXO ON G_MOTO (nr_prefixo);
+CREATE INDEX IX_MOTO_ANO ON G_MOTO (nr_ano_fabricacao);
+
+-- Operadores, garagens e linhas
+CREATE UNIQUE INDEX UX_OPERADOR_CPF ON G_OPERADOR (nr_cpf);
+CREATE INDEX IX_GARAGEM_NOME ON G_GARAGEM (nm_garagem);
+CREATE UNIQUE INDEX UX_LINHA_CODIGO ON G_LINHA_DE_ONIBUS (nr_linha);
+CREATE INDEX IX_LINHA_NOME ON G_LINHA_DE_ONIBUS (nm_linha);
+
+-- Endereços
+CREATE INDEX IX_ENDERECO_GARAGEM_CEP ON G_ENDERECO_GARAGEM (nr_cep);
+CREATE INDEX IX_ENDERECO_GARAGEM_UF_CIDADE ON G_ENDERECO_GARAGEM (sg_uf, nm_cidade);
+CREATE INDEX IX_ENDERECO_LINHA_CEP ON G_ENDERECO_LINHA (nr_cep);
+CREATE INDEX IX_ENDERECO_LINHA_UF_CIDADE ON G_ENDERECO_LINHA (sg_uf, nm_cidade);
@@ -0,0 +1,60 @@
+-- Unicidade da placa entre ônibus, carros e motos.
+-- Os índices UX_ONIBUS_PLACA, UX_CARRO_PLACA e UX_MOTO_PLACA (db/indices.sql) só valem dentro de cada
+-- tabela; a G_PLACA guarda a placa de todos os veículos, com a placa como chave primária, e é mantida por
+-- gatilhos na mesma transação da escrita. Um veículo gravado com a placa de outro, de qualquer tipo, falha
+-- com ORA-00001 (PK_PLACA), inclusive em cadastros simultâneos que passaram pela verificação em memória.
+-- Executar depois das tabelas de veículos e de db/indices.sql; a carga inicial copia as placas existentes
+-- e falha se já houver placas repetidas entre as tabelas, que devem ser corrigidas antes.
+
+CREATE TABLE G_PLACA (
+    ds_placa VARCHAR2(20) NOT NULL,
+    nm_tabela VARCHAR2(30) NOT NULL,
+    id_registro NUMBER NOT NULL,
+    CONSTRAINT PK_PLACA PRIMARY KEY (ds_placa)
+);
+
+INSERT INTO G_PLACA (ds_placa, nm_tabela, id_registro)
+SELECT ds_placa, 'G_ONIBUS', id_onibus FROM G_ONIBUS WHERE ds_placa IS NOT NULL
+UNION ALL
+SELECT ds_placa, 'G_CARRO', id_carro FROM G_CARRO WHERE ds_placa IS NOT NULL
+UNION ALL
+SELECT ds_placa, 'G_MOTO', id_moto FROM G_MOTO WHERE ds_placa IS NOT NULL;
+
+CREATE OR REPLACE TRIGGER TG_ONIBUS_PLACA
+AFTER INSERT OR DELETE OR UPDATE OF ds_placa ON G_ONIBUS
+FOR EACH ROW
+BEGIN
+    IF :OLD.ds_placa IS NOT NULL THEN
+        DELETE FROM G_PLACA WHERE ds_placa = :OLD.ds_placa AND nm_tabela = 'G_ONIBUS';
+    END IF;
+    IF :NEW.ds_placa IS NOT NULL THEN
+        INSERT INTO G_PLACA (ds_placa, nm_tabela, id_registro) VALUES (:NEW.ds_placa, 'G_ONIBUS', :NEW.id_onibus);
+    END IF;
+END;
+/
+
+CREATE OR REPLACE TRIGGER TG_CARRO_PLACA
+AFTER INSERT OR DELETE OR UPDATE OF ds_placa ON G_CARRO
+FOR EACH ROW
+BEGIN
+    IF :OLD.ds_placa IS NOT NULL THEN
+        DELETE FROM G_PLACA WHERE ds_placa = :OLD.ds_placa AND nm_tabela = 'G_CARRO';
+    END IF;
+    IF :NEW.ds_placa IS NOT NULL THEN
+        INSERT INTO G_PLACA (ds_placa, nm_tabela, id_registro) VALUES (:NEW.ds_placa, 'G_CARRO', :NEW.id_carro);
+    END IF;
+END;
+/
+
+CREATE OR REPLACE TRIGGER TG_MOTO_PLACA
+AFTER INSERT OR DELETE OR UPDATE OF ds_placa ON G_MOTO
+FOR EACH ROW
+BEGIN
+    IF :OLD.ds_placa IS NOT NULL THEN
+        DELETE FROM G_PLACA WHERE ds_placa = :OLD.ds_placa AND nm_tabela = 'G_MOTO';
+    END IF;
+    IF :NEW.ds_placa IS NOT NULL THEN
+        INSERT INTO G_PLACA (ds_placa, nm_tabela, id_registro) VALUES (:NEW.ds_placa, 'G_MOTO', :NEW.id_moto);
+    END IF;
+END;
+/
@@ -0,0 +1,204 @@
+package org.example.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifica e mede o {@link OffHeapCache} com blocos pequenos (4 KB, 1 MB por cache), sem banco.
+ *
+ * <p>Antes das medições, {@link #setup()} confere que os registros voltam intactos depois de gravados em
+ * blocos que não comportam um número inteiro deles (inclusive um registro do tamanho exato do bloco), depois
+ * de uma compactação com lixo suficiente (nenhum registro vivo é perdido), depois de compactações que descartam
+ * os blocos mais antigos (os registros recentes continuam em cache) e depois de expirar o TTL. Qualquer
+ * divergência interrompe a execução. Execução: {@code mvn -Pbenchmark compile exec:exec -Djmh.args=OffHeapCache}.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dverdebus.offheap.slabKb=4", "-Dverdebus.offheap.maxMb=1",
+        "-Dverdebus.cache.verificacao.ttlS=3600", "-Dverdebus.cache.expiracao.ttlS=1"})
+public class OffHeapCacheBenchmark {
+
+    private static final int SLAB = 4096;
+
+    // Cabeçalho do cache (int + long) e do codec (long + int) em volta dos dados de cada registro.
+    private static final int OVERHEAD = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private OffHeapCache<Registro> cache;
+    private int cargas;
+    private long id;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        cache = OffHeapCache.of("verificacao", new RegistroCodec());
+        verificarLimitesDosBlocos();
+        verificarCompactacao();
+        verificarDescarteDosMaisAntigos();
+        verificarExpiracao();
+        carregar(cache, 1, 201);
+    }
+
+    @Benchmark
+    public Registro leituraEmCache() throws SQLException {
+        id = id % 200 + 1;
+        return cache.get(id, () -> registro(id));
+    }
+
+    // Tamanhos variados: a maior parte dos blocos termina com uma sobra que não comporta o próximo registro.
+    private static int tamanho(long id) {
+        if (id == 0) {
+            return SLAB - OVERHEAD;
+        }
+        return 300 + (int) (id * 37 % 900);
+    }
+
+    private static Registro registro(long id) {
+        byte[] dados = new byte[tamanho(id)];
+        for (int i = 0; i < dados.length; i++) {
+            dados[i] = (byte) (id * 31 + i);
+        }
+        return new Registro(id, dados);
+    }
+
+    private void verificarLimitesDosBlocos() throws SQLException {
+        carregar(cache, 0, 200);
+        conferir(cache, 0, 200, true);
+        cache.get(-1L, () -> new Registro(-1, new byte[SLAB]));
+        verificar(metrica("verificacao", "recusados") == 1, "registro maior que o bloco deveria ser recusado");
+    }
+
+    private void verificarCompactacao() throws SQLException {
+        // Dois terços de cada grupo são invalidados, deixando lixo bem acima de um quarto dos blocos.
+        for (long i = 1; i < 200; i++) {
+            if (i % 3 != 0) {
+                cache.invalidate(i);
+            }
+        }
+        long compactacoes = metrica("verificacao", "compactacoes");
+        long proximo = 1000;
+        while (metrica("verificacao", "compactacoes") == compactacoes) {
+            carregar(cache, proximo, proximo + 30);
+            for (long i = proximo; i < proximo + 30; i++) {
+                if (i % 3 != 0) {
+                    cache.invalidate(i);
+                }
+            }
+            proximo += 30;
+        }
+        verificar(metrica("verificacao", "remocoes") == 0, "a compactação com lixo não deveria descartar registros vivos");
+        for (long i = 0; i < proximo; i += 3) {
+            if (i < 200 || i >= 1000) {
+                conferir(cache, i, i + 1, true);
+            }
+        }
+    }
+
+    private void verificarDescarteDosMaisAntigos() throws SQLException {
+        long compactacoes = metrica("verificacao", "compactacoes");
+        long remocoes = metrica("verificacao", "remocoes");
+        long proximo = 100_000;
+        while (metrica("verificacao", "compactacoes") < compactacoes + 2) {
+            carregar(cache, proximo, proximo + 50);
+            proximo += 50;
+        }
+        verificar(metrica("verificacao", "remocoes") > remocoes, "a compactação sem lixo deveria descartar os blocos mais antigos");
+        conferir(cache, proximo - 50, proximo, true);
+        // Os registros antigos podem ter saído do cache, mas os que restaram devem estar intactos.
+        conferir(cache, 0, 200, false);
+        conferir(cache, 1000, 2000, false);
+        conferir(cache, 100_000, proximo, false);
+    }
+
+    private void verificarExpiracao() throws SQLException, InterruptedException {
+        OffHeapCache<Registro> expiracao = OffHeapCache.of("expiracao", new RegistroCodec());
+        carregar(expiracao, 1, 100);
+        conferir(expiracao, 1, 100, true);
+        Thread.sleep(1100);
+        cargas = 0;
+        conferir(expiracao, 1, 100, false);
+        verificar(cargas == 99, "registros expirados deveriam ser lidos de novo: " + cargas + " de 99");
+        conferir(expiracao, 1, 100, true);
+    }
+
+    private void carregar(OffHeapCache<Registro> alvo, long de, long ate) throws SQLException {
+        for (long i = de; i < ate; i++) {
+            long chave = i;
+            alvo.get(chave, () -> registro(chave));
+        }
+    }
+
+    // Lê os IDs e compara com o esperado; se emCache, nenhum pode ter vindo do carregamento.
+    private void conferir(OffHeapCache<Registro> alvo, long de, long ate, boolean emCache) throws SQLException {
+        for (long i = de; i < ate; i++) {
+            long chave = i;
+            int antes = cargas;
+            Registro lido = alvo.get(chave, () -> {
+                cargas++;
+                return registro(chave);
+            });
+            Registro esperado = registro(chave);
+            verificar(lido.id == chave && Arrays.equals(lido.dados, esperado.dados), "registro " + chave + " corrompido");
+            verificar(!emCache || cargas == antes, "registro " + chave + " deveria estar em cache");
+        }
+    }
+
+    private static long metrica(String cache, String nome) {
+        return ((Number) OffHeapCache.metrics().get(cache).get(nome)).longValue();
+    }
+
+    private static void verificar(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException(mensagem);
+        }
+    }
+
+    public static final class Registro {
+
+        private final long id;
+        private final byte[] dados;
+
+        private Registro(long id, byte[] dados) {
+            this.id = id;
+            this.dados = dados;
+        }
+    }
+
+    private static final class RegistroCodec implements OffHeapCache.Codec<Registro> {
+
+        @Override
+        public void write(Registro value, DataOutput out) throws IOException {
+            out.writeLong(value.id);
+            out.writeInt(value.dados.length);
+            out.write(value.dados);
+        }
+
+        @Override
+        public Registro read(DataInput in) throws IOException {
+            long id = in.readLong();
+            byte[] dados = new byte[in.readInt()];
+            in.readFully(dados);
+            return new Registro(id, dados);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.daos;
+
+import org.example.models.Onibus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a leitura de linhas de G_ONIBUS pelo {@link RowMapper} (posições resolvidas uma vez por resultado)
+ * com a leitura anterior, que buscava cada coluna pelo nome ({@code rs.getX("coluna")}) em toda linha.
+ *
+ * <p>As linhas vêm de um {@link CachedRowSet} em memória com as colunas da tabela, de modo que a medida não
+ * inclui rede nem banco. Execução: {@code mvn -Pbenchmark compile exec:exec}.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    @Param({"1000"})
+    private int linhas;
+
+    private CachedRowSet rs;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        List<Column> columns = OnibusDaoImpl.TABELA.getColumns();
+        RowSetMetaData metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            metaData.setColumnName(i + 1, columns.get(i).getName().toUpperCase());
+            metaData.setColumnLabel(i + 1, columns.get(i).getName().toUpperCase());
+            metaData.setColumnType(i + 1, sqlType(columns.get(i)));
+        }
+        rs = RowSetProvider.newFactory().createCachedRowSet();
+        rs.setMetaData(metaData);
+        for (int linha = 1; linha <= linhas; linha++) {
+            rs.moveToInsertRow();
+            for (int i = 0; i < columns.size(); i++) {
+                switch (columns.get(i).getType()) {
+                    case LONG:
+                        rs.updateLong(i + 1, linha);
+                        break;
+                    case INTEGER:
+                        rs.updateInt(i + 1, linha % 100);
+                        break;
+                    case DOUBLE:
+                        rs.updateDouble(i + 1, linha / 10.0);
+                        break;
+                    default:
+                        rs.updateString(i + 1, "VAL" + linha);
+                }
+            }
+            rs.insertRow();
+        }
+        rs.moveToCurrentRow();
+    }
+
+    @Benchmark
+    public void rowMapper(Blackhole bh) throws SQLException {
+        rs.beforeFirst();
+        RowMapper.Reader<Onibus> reader = OnibusDaoImpl.MAPPER.reader(rs);
+        while (rs.next()) {
+            bh.consume(reader.read());
+        }
+    }
+
+    @Benchmark
+    public void porNome(Blackhole bh) throws SQLException {
+        rs.beforeFirst();
+        while (rs.next()) {
+            bh.consume(porNome(rs));
+        }
+    }
+
+    // Leitura por nome usada pelos DAOs antes do RowMapper.
+    private static Onibus porNome(ResultSet rs) throws SQLException {
+        return new Onibus(
+                rs.getLong("id_onibus"),
+                rs.getInt("nr_prefixo"),
+                rs.getInt("qt_capacidade_passageiros"),
+                rs.getDouble("qt_painel_solar"),
+                rs.getDouble("qt_pelicula_solar"),
+                rs.getString("ds_placa"),
+                rs.getString("ds_modelo"),
+                rs.getString("nm_fabricante"),
+                rs.getInt("nr_ano_fabricacao"),
+                rs.getDouble("qt_capacidade_bateria"),
+                rs.getLong("id_garagem"),
+                rs.getLong("id_linha")
+        );
+    }
+
+    private static int sqlType(Column column) {
+        switch (column.getType()) {
+            case LONG:
+                return Types.BIGINT;
+            case INTEGER:
+                return Types.INTEGER;
+            case DOUBLE:
+                return Types.DOUBLE;
+            default:
+                return Types.VARCHAR;
+        }
+    }
+}
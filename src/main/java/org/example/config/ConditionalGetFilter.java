@@ -0,0 +1,87 @@
+package org.example.config;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * {@code GET} condicional nos recursos marcados com {@link Versioned}.
+ *
+ * <p>A {@code ETag} (forte) combina a {@link TableVersion} da tabela com a URI completa e o {@code Accept} da
+ * requisição, já que filtros, campos, páginas e formato mudam a representação. Ela é calculada antes da
+ * leitura: se coincidir com {@code If-None-Match}, a requisição termina com {@code 304} sem chegar ao recurso
+ * (e, portanto, ao DAO); caso contrário, acompanha a resposta {@code 200}. Uma escrita concluída durante a
+ * leitura apenas faz a próxima requisição receber o conteúdo completo novamente.</p>
+ *
+ * <p>Como a versão só muda depois que a escrita é confirmada na base principal, a leitura de uma requisição
+ * que recebe {@code ETag} é feita na principal ({@link UnitOfWork#readFromPrimary()}): uma réplica atrasada
+ * devolveria dados anteriores à escrita com a versão posterior, e o {@code 304} os manteria até a escrita
+ * seguinte. A versão também não enxerga escritas de outras instâncias ou feitas direto no banco; nesses
+ * casos o filtro deve ser desligado com {@code -Dverdebus.etag.enabled=false}.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+@Provider
+public class ConditionalGetFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String PROPERTY = ConditionalGetFilter.class.getName();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!HttpMethod.GET.equals(requestContext.getMethod()) || resourceInfo.getResourceClass() == null
+                || !DatabaseConfig.isConditionalGetEnabled()) {
+            return;
+        }
+        Versioned versioned = resourceInfo.getResourceClass().getAnnotation(Versioned.class);
+        if (versioned == null || resourceInfo.getResourceMethod().isAnnotationPresent(Versioned.Exclude.class)) {
+            return;
+        }
+        EntityTag tag = new EntityTag(TableVersion.of(versioned.value()).current() + "."
+                + hash(requestContext.getUriInfo().getRequestUri().toString() + "|"
+                + requestContext.getHeaderString(HttpHeaders.ACCEPT)));
+        Response.ResponseBuilder notModified = requestContext.getRequest().evaluatePreconditions(tag);
+        if (notModified != null) {
+            requestContext.abortWith(notModified.header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build());
+            return;
+        }
+        requestContext.setProperty(PROPERTY, tag);
+        UnitOfWork.current().ifPresent(UnitOfWork::readFromPrimary);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object tag = requestContext.getProperty(PROPERTY);
+        if (tag instanceof EntityTag && responseContext.getStatus() == Response.Status.OK.getStatusCode()) {
+            responseContext.getHeaders().putSingle(HttpHeaders.ETAG, tag);
+            responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    private static String hash(String variante) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(variante.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 12; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
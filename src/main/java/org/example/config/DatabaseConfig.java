@@ -1,5 +1,9 @@
 package org.example.config;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 final class DatabaseConfig {
 
     private DatabaseConfig() {
@@ -18,4 +22,166 @@ final class DatabaseConfig {
         return "181088";
     }
 
+    /**
+     * URLs JDBC das réplicas de leitura, separadas por vírgula (-Dverdebus.db.replicas). Vazio desativa o roteamento.
+     */
+    static List<String> getReplicaUrls(){
+        String replicas = System.getProperty("verdebus.db.replicas", "");
+        return Arrays.stream(replicas.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    static String getReplicaUser(){
+        return System.getProperty("verdebus.db.replicaUser", getUser());
+    }
+
+    static String getReplicaPassword(){
+        return System.getProperty("verdebus.db.replicaPassword", getPassword());
+    }
+
+    static long getReplicaRetryMillis(){
+        return Long.getLong("verdebus.db.replicaRetryMs", 30_000L);
+    }
+
+    // Configurações do pool de conexões. Podem ser sobrescritas por propriedades de sistema (-Dverdebus.pool.*).
+
+    static int getPoolMinSize(){
+        return Integer.getInteger("verdebus.pool.min", 2);
+    }
+
+    static int getPoolMaxSize(){
+        return Integer.getInteger("verdebus.pool.max", 20);
+    }
+
+    static long getPoolBorrowTimeoutMillis(){
+        return Long.getLong("verdebus.pool.borrowTimeoutMs", 5_000L);
+    }
+
+    static int getPoolValidationTimeoutSeconds(){
+        return Integer.getInteger("verdebus.pool.validationTimeoutS", 2);
+    }
+
+    static long getPoolIdleTimeoutMillis(){
+        return Long.getLong("verdebus.pool.idleTimeoutMs", 300_000L);
+    }
+
+    static long getPoolEvictionIntervalMillis(){
+        return Long.getLong("verdebus.pool.evictionIntervalMs", 30_000L);
+    }
+
+    static long getPoolLeakThresholdMillis(){
+        return Long.getLong("verdebus.pool.leakThresholdMs", 60_000L);
+    }
+
+    /**
+     * Guarda a pilha de chamadas de cada empréstimo para mostrá-la no aviso de vazamento
+     * (-Dverdebus.pool.leakStackTrace); tem custo em todo empréstimo, por isso vem desligado.
+     */
+    static boolean isPoolLeakStackTrace(){
+        return Boolean.getBoolean("verdebus.pool.leakStackTrace");
+    }
+
+    // Execução assíncrona dos recursos REST (-Dverdebus.async.*).
+
+    static int getAsyncMaxConcurrent(){
+        return Integer.getInteger("verdebus.async.maxConcurrent", getPoolMaxSize());
+    }
+
+    static int getAsyncRetryAfterSeconds(){
+        return Integer.getInteger("verdebus.async.retryAfterS", 1);
+    }
+
+    static int getStatementCacheSize(){
+        return Integer.getInteger("verdebus.pool.statementCacheSize", 50);
+    }
+
+    /**
+     * Linhas trazidas por ida ao banco nas listagens em streaming (-Dverdebus.stream.fetchSize).
+     */
+    static int getStreamFetchSize(){
+        return Integer.getInteger("verdebus.stream.fetchSize", 500);
+    }
+
+    // Cadastro em lote (-Dverdebus.batch.*).
+
+    static int getBatchChunkSize(){
+        return Integer.getInteger("verdebus.batch.chunkSize", 100);
+    }
+
+    static int getBatchMaxItems(){
+        return Integer.getInteger("verdebus.batch.maxItems", 5000);
+    }
+
+    // GET condicional (ETag) dos recursos @Versioned (-Dverdebus.etag.enabled). A versão das tabelas é mantida
+    // em memória e só acompanha as escritas feitas por esta instância: desligar quando houver várias instâncias
+    // ou escritas diretas no banco.
+
+    static boolean isConditionalGetEnabled(){
+        return Boolean.parseBoolean(System.getProperty("verdebus.etag.enabled", "true"));
+    }
+
+    // Cache de leitura dos dados de referência (-Dverdebus.cache.*); cada entidade pode sobrescrever os
+    // valores gerais, por exemplo -Dverdebus.cache.garagem.ttlS. TTL 0 desliga o cache da entidade.
+
+    static int getCacheTtlSeconds(String nome){
+        return Integer.getInteger("verdebus.cache." + nome + ".ttlS", Integer.getInteger("verdebus.cache.ttlS", 300));
+    }
+
+    static int getCacheMaxEntries(String nome){
+        return Integer.getInteger("verdebus.cache." + nome + ".maxEntries", Integer.getInteger("verdebus.cache.maxEntries", 1000));
+    }
+
+    // Cache fora do heap dos endereços (-Dverdebus.offheap.*): tamanho de cada bloco de memória direta e
+    // memória máxima por entidade, por exemplo -Dverdebus.offheap.endereco-linha.maxMb. O TTL é o do cache
+    // de leitura da entidade.
+
+    static int getOffHeapSlabKb(){
+        return Integer.getInteger("verdebus.offheap.slabKb", 1024);
+    }
+
+    static int getOffHeapMaxMb(String nome){
+        return Integer.getInteger("verdebus.offheap." + nome + ".maxMb", Integer.getInteger("verdebus.offheap.maxMb", 64));
+    }
+
+    /**
+     * Por quanto tempo uma leitura concluída ainda é compartilhada com chamadas idênticas
+     * (-Dverdebus.singleflight.<nome>.windowMs, ou -Dverdebus.singleflight.windowMs para todas as tabelas).
+     */
+    static int getSingleFlightWindowMillis(String nome){
+        return Integer.getInteger("verdebus.singleflight." + nome + ".windowMs", Integer.getInteger("verdebus.singleflight.windowMs", 200));
+    }
+
+    /**
+     * Taxa de falsos positivos dos filtros de Bloom dos índices de chaves naturais (-Dverdebus.keyindex.fpp).
+     */
+    static double getKeyIndexFalsePositiveRate(){
+        return Double.parseDouble(System.getProperty("verdebus.keyindex.fpp", "0.01"));
+    }
+
+    // Eventos em streaming (Server-Sent Events, -Dverdebus.sse.*): histórico para retomada por Last-Event-ID,
+    // eventos pendentes por cliente antes de desconectá-lo, threads de envio, intervalo dos heartbeats e
+    // tempo máximo de escrita de um evento antes de desconectar o cliente.
+
+    static int getSseHistorySize(){
+        return Integer.getInteger("verdebus.sse.historySize", 1000);
+    }
+
+    static int getSseBufferSize(){
+        return Integer.getInteger("verdebus.sse.bufferSize", 256);
+    }
+
+    static int getSseThreads(){
+        return Integer.getInteger("verdebus.sse.threads", 2);
+    }
+
+    static int getSseHeartbeatSeconds(){
+        return Integer.getInteger("verdebus.sse.heartbeatS", 30);
+    }
+
+    static int getSseWriteTimeoutSeconds(){
+        return Integer.getInteger("verdebus.sse.writeTimeoutS", 10);
+    }
+
 }
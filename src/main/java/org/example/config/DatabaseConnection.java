@@ -6,4 +6,15 @@ import java.sql.SQLException;
 public interface DatabaseConnection {
 
     Connection get() throws SQLException;
+
+    /**
+     * Retorna uma conexão para operações somente leitura, que pode vir de uma réplica.
+     * Por padrão, é a mesma conexão de {@link #get()}.
+     *
+     * @return Uma conexão adequada para leituras.
+     * @throws SQLException Se nenhuma conexão estiver disponível.
+     */
+    default Connection getReadOnly() throws SQLException {
+        return get();
+    }
 }
@@ -1,6 +1,9 @@
 package org.example.config;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 public final class DatabaseConnectionFactory {
 
@@ -9,6 +12,59 @@ public final class DatabaseConnectionFactory {
     }
 
     public static DatabaseConnection create() throws SQLException {
-         return DatabaseConnectionImpl.getInstance();
+         // Dentro de uma requisição, todas as chamadas compartilham a conexão da unidade de trabalho.
+         return UnitOfWork.current()
+                 .map(DatabaseConnection.class::cast)
+                 .orElseGet(RoutingDatabaseConnection::getInstance);
      }
+
+    /**
+     * Conexão própria da base principal, fora da unidade de trabalho da requisição, para escritas de
+     * manutenção que precisam ser confirmadas na hora; o chamador confirma e fecha.
+     *
+     * @return Uma conexão do pool da base principal.
+     * @throws SQLException Se não houver conexão disponível.
+     */
+    public static Connection primary() throws SQLException {
+        return RoutingDatabaseConnection.getInstance().get();
+    }
+
+    public static List<PoolMetrics> metrics() {
+        List<PoolMetrics> metrics = new ArrayList<>();
+        metrics.add(DatabaseConnectionPool.getInstance().metrics());
+        metrics.addAll(RoutingDatabaseConnection.getInstance().replicaMetrics());
+        return metrics;
+    }
+
+    /**
+     * Quantidade de linhas por ida ao banco nas leituras percorridas em streaming.
+     *
+     * @return O fetch size configurado para streaming.
+     */
+    public static int streamFetchSize() {
+        return Math.max(1, DatabaseConfig.getStreamFetchSize());
+    }
+
+    /**
+     * Quantidade de registros inseridos por comando nos cadastros em lote.
+     *
+     * @return O tamanho dos blocos de inserção.
+     */
+    public static int batchChunkSize() {
+        return Math.max(1, DatabaseConfig.getBatchChunkSize());
+    }
+
+    /**
+     * Quantidade máxima de itens aceita em uma requisição de cadastro em lote.
+     *
+     * @return O limite de itens por lote.
+     */
+    public static int batchMaxItems() {
+        return Math.max(1, DatabaseConfig.getBatchMaxItems());
+    }
+
+    static void shutdown() {
+        RoutingDatabaseConnection.shutdown();
+        DatabaseConnectionPool.shutdown();
+    }
 }
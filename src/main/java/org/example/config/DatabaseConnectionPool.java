@@ -0,0 +1,398 @@
+package org.example.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool de conexões JDBC por trás da interface {@link DatabaseConnection}.
+ *
+ * <p>Cada chamada a {@link #get()} empresta uma conexão física exclusiva. O {@link Connection#close()}
+ * da conexão emprestada devolve a conexão ao pool (desfazendo qualquer transação pendente) em vez de
+ * encerrá-la. O pool valida a conexão no empréstimo, remove conexões ociosas acima do tamanho mínimo,
+ * registra possíveis vazamentos (conexões emprestadas por tempo demais; a pilha do empréstimo só é guardada
+ * com {@code -Dverdebus.pool.leakStackTrace=true}) e expõe métricas de saturação
+ * através de {@link #metrics()}.</p>
+ *
+ * <p>Cada conexão física mantém um {@link StatementCache}, de modo que {@code prepareStatement(sql)} e
+ * {@code prepareCall(sql)} reaproveitam statements já preparados para o mesmo texto SQL.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class DatabaseConnectionPool implements DatabaseConnection {
+
+    private static DatabaseConnectionPool instance;
+
+    private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+    private final String nome;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+
+    // Conexões ociosas; a cabeça da fila é a mais recentemente devolvida (uso LIFO).
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService maintenance;
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+
+    private volatile boolean closed;
+
+    DatabaseConnectionPool(String nome, String url, String user, String password) {
+        this.nome = nome;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = Math.max(0, DatabaseConfig.getPoolMinSize());
+        this.maxSize = Math.max(1, Math.max(this.minSize, DatabaseConfig.getPoolMaxSize()));
+        this.permits = new Semaphore(this.maxSize, true);
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "verdebus-pool-" + nome);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = DatabaseConfig.getPoolEvictionIntervalMillis();
+        this.maintenance.scheduleWithFixedDelay(this::maintain, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retorna o pool da base principal, criando-o na primeira chamada.
+     *
+     * @return O pool de conexões da base principal.
+     */
+    static synchronized DatabaseConnectionPool getInstance() {
+        if (instance == null || instance.closed) {
+            instance = new DatabaseConnectionPool(
+                    "primary",
+                    DatabaseConfig.getUrl(),
+                    DatabaseConfig.getUser(),
+                    DatabaseConfig.getPassword()
+            );
+        }
+        return instance;
+    }
+
+    /**
+     * Encerra o pool da base principal, se já tiver sido criado.
+     */
+    static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Empresta uma conexão do pool. A conexão deve ser fechada pelo chamador para voltar ao pool.
+     *
+     * @return Uma conexão exclusiva, com auto-commit desligado.
+     * @throws SQLException Se o pool estiver esgotado pelo tempo configurado ou a conexão não puder ser aberta.
+     */
+    @Override
+    public Connection get() throws SQLException {
+        if (closed) {
+            throw new SQLException("Pool de conexões '" + nome + "' encerrado");
+        }
+        long inicio = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean adquirido;
+        try {
+            adquirido = permits.tryAcquire(DatabaseConfig.getPoolBorrowTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão do pool '" + nome + "'", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        totalWaitNanos.addAndGet(System.nanoTime() - inicio);
+        if (!adquirido) {
+            timeouts.incrementAndGet();
+            logger.warning("Pool de conexões '" + nome + "' saturado: " + borrowed.size() + "/" + maxSize + " conexões em uso");
+            throw new SQLTransientConnectionException("Nenhuma conexão disponível no pool '" + nome + "'");
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            pooled.lease();
+            borrowed.add(pooled);
+            borrows.incrementAndGet();
+            peakActive.accumulateAndGet(borrowed.size(), Math::max);
+            return pooled.proxy();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Retorna um retrato das métricas atuais do pool.
+     *
+     * @return As métricas do pool.
+     */
+    PoolMetrics metrics() {
+        int ativos = borrowed.size();
+        long emprestimos = borrows.get();
+        return new PoolMetrics(
+                nome,
+                minSize,
+                maxSize,
+                total.get(),
+                ativos,
+                idle.size(),
+                waiting.get(),
+                peakActive.get(),
+                emprestimos,
+                timeouts.get(),
+                created.get(),
+                destroyed.get(),
+                leaks.get(),
+                emprestimos == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / emprestimos,
+                statementStats.hits.get(),
+                statementStats.misses.get(),
+                statementStats.evictions.get()
+        );
+    }
+
+    /**
+     * Encerra o pool, fechando as conexões ociosas. Conexões emprestadas são fechadas ao serem devolvidas.
+     */
+    void close() {
+        closed = true;
+        maintenance.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(DatabaseConfig.getPoolValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        try {
+            Class.forName("oracle.jdbc.driver.OracleDriver");
+        } catch (ClassNotFoundException e) {
+            logger.severe("não foi localizada a classe Driver do Oracle");
+        }
+        Connection physical = DriverManager.getConnection(url, user, password);
+        physical.setAutoCommit(false);
+        total.incrementAndGet();
+        created.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            boolean reutilizavel = !closed && !pooled.physical.isClosed();
+            if (reutilizavel) {
+                // Nenhuma transação pendente deve vazar para o próximo usuário da conexão.
+                if (pooled.physical.getAutoCommit()) {
+                    pooled.physical.setAutoCommit(false);
+                } else {
+                    pooled.physical.rollback();
+                }
+                pooled.statements.releaseAll();
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            logger.warning("Descartando conexão inválida do pool '" + nome + "': " + e.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        total.decrementAndGet();
+        destroyed.incrementAndGet();
+        pooled.statements.closeAll();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            logger.fine("Erro ao fechar conexão descartada: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rotina periódica: remove conexões ociosas além do mínimo, completa o mínimo e detecta vazamentos.
+     */
+    private void maintain() {
+        try {
+            long agora = System.currentTimeMillis();
+            long idleTimeout = DatabaseConfig.getPoolIdleTimeoutMillis();
+
+            // As conexões mais antigas ficam no fim da fila.
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total.get() > minSize) {
+                PooledConnection pooled = it.next();
+                if (agora - pooled.lastUsed > idleTimeout && idle.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+
+            while (!closed && total.get() < minSize) {
+                idle.offerLast(open());
+            }
+
+            long leakThreshold = DatabaseConfig.getPoolLeakThresholdMillis();
+            if (leakThreshold > 0) {
+                for (PooledConnection pooled : borrowed) {
+                    if (!pooled.leakReported && agora - pooled.borrowedAt > leakThreshold) {
+                        pooled.leakReported = true;
+                        leaks.incrementAndGet();
+                        Throwable borrowSite = pooled.borrowSite;
+                        logger.log(Level.WARNING, "Possível vazamento de conexão no pool '" + nome
+                                + "': emprestada há " + (agora - pooled.borrowedAt) + " ms"
+                                + (borrowSite == null ? " (-Dverdebus.pool.leakStackTrace=true mostra onde foi emprestada)" : ""),
+                                borrowSite);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro na manutenção do pool '" + nome + "': " + e.getMessage());
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Erro inesperado na manutenção do pool '" + nome + "'", e);
+        }
+    }
+
+    /**
+     * Conexão física administrada pelo pool. Cada empréstimo gera um proxy próprio, de modo que uma
+     * referência antiga (já devolvida) não consiga mais usar a conexão física.
+     */
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile boolean leakReported;
+        private volatile Throwable borrowSite;
+        private Connection proxy;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, DatabaseConfig.getStatementCacheSize(), statementStats);
+        }
+
+        private void lease() {
+            borrowedAt = System.currentTimeMillis();
+            leakReported = false;
+            borrowSite = DatabaseConfig.getPoolLeakThresholdMillis() > 0 && DatabaseConfig.isPoolLeakStackTrace()
+                    ? new Throwable("Conexão emprestada aqui")
+                    : null;
+            proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this)
+            );
+        }
+
+        private Connection proxy() {
+            return proxy;
+        }
+    }
+
+    /**
+     * Encaminha as chamadas do proxy para a conexão física enquanto o empréstimo estiver ativo.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "prepareStatement":
+                case "prepareCall":
+                    if (!returned && args.length == 1) {
+                        return pooled.statements.prepare((Connection) proxy, (String) args[0],
+                                "prepareCall".equals(method.getName()));
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + nome + "]@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Conexão já devolvida ao pool '" + nome + "'");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
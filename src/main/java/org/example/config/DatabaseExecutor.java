@@ -0,0 +1,131 @@
+package org.example.config;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Executa as chamadas bloqueantes (JDBC) dos recursos REST fora das threads do container.
+ *
+ * <p>O recurso suspende a requisição com {@code @Suspended AsyncResponse} e entrega o trabalho a
+ * {@link #submit(AsyncResponse, Callable)}. A concorrência é limitada por um semáforo dimensionado pelo
+ * pool de conexões: acima da capacidade, a requisição falha imediatamente com 503 e {@code Retry-After},
+ * em vez de ficar bloqueada aguardando conexão.</p>
+ *
+ * <p>Em JVMs com threads virtuais (Java 21+), cada tarefa roda em uma thread virtual; no Java 17 usado
+ * pelo build, as tarefas rodam em um pool de threads de plataforma limitado ao mesmo número de permissões.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class DatabaseExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(DatabaseExecutor.class.getName());
+
+    private static final int MAX_CONCURRENT = Math.max(1, DatabaseConfig.getAsyncMaxConcurrent());
+    private static final Semaphore PERMITS = new Semaphore(MAX_CONCURRENT);
+    private static final ExecutorService EXECUTOR = createExecutor();
+    private static final AtomicLong REJECTED = new AtomicLong();
+
+    private DatabaseExecutor() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Executa a tarefa de forma assíncrona e conclui a resposta com o seu resultado.
+     *
+     * <p>A {@link UnitOfWork} da requisição, se houver, acompanha a tarefa até a thread de execução.</p>
+     *
+     * @param response A resposta suspensa da requisição.
+     * @param task     A tarefa que produz a resposta HTTP; exceções são entregues ao Jersey para mapeamento.
+     */
+    public static void submit(AsyncResponse response, Callable<Response> task) {
+        if (!PERMITS.tryAcquire()) {
+            reject(response);
+            return;
+        }
+        UnitOfWork unitOfWork = UnitOfWork.current().orElse(null);
+        if (unitOfWork != null) {
+            unitOfWork.unbind();
+        }
+        try {
+            EXECUTOR.execute(() -> {
+                if (unitOfWork != null) {
+                    unitOfWork.bind();
+                }
+                try {
+                    response.resume(task.call());
+                } catch (Throwable e) {
+                    response.resume(e);
+                } finally {
+                    if (unitOfWork != null) {
+                        unitOfWork.unbind();
+                    }
+                    PERMITS.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            PERMITS.release();
+            reject(response);
+        }
+    }
+
+    /**
+     * Quantidade de tarefas em execução no momento.
+     *
+     * @return O número de permissões em uso.
+     */
+    public static int active() {
+        return MAX_CONCURRENT - PERMITS.availablePermits();
+    }
+
+    /**
+     * Quantidade de requisições recusadas com 503 desde o início da aplicação.
+     *
+     * @return O total de recusas.
+     */
+    public static long rejected() {
+        return REJECTED.get();
+    }
+
+    private static void reject(AsyncResponse response) {
+        REJECTED.incrementAndGet();
+        response.resume(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, DatabaseConfig.getAsyncRetryAfterSeconds())
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(Map.of("mensagem", "Servidor ocupado, tente novamente em instantes"))
+                .build());
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            Method virtual = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            LOGGER.info("Executando recursos REST em threads virtuais");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger sequence = new AtomicInteger();
+            // O semáforo já limita as tarefas; a fila só absorve o instante entre liberar a permissão e a thread voltar.
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_CONCURRENT, MAX_CONCURRENT, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "verdebus-db-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.config;
+
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Encerra o pool de conexões (e o pool de envio de eventos e os caches fora do heap) quando a aplicação Jersey é desligada ou recarregada.
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+@Provider
+public class DatabaseLifecycleListener implements ContainerLifecycleListener {
+
+    @Override
+    public void onStartup(Container container) {
+        // O pool é criado sob demanda no primeiro empréstimo.
+    }
+
+    @Override
+    public void onReload(Container container) {
+        EventBroadcaster.shutdown();
+        OffHeapCache.shutdown();
+        DatabaseConnectionFactory.shutdown();
+    }
+
+    @Override
+    public void onShutdown(Container container) {
+        EventBroadcaster.shutdown();
+        OffHeapCache.shutdown();
+        DatabaseConnectionFactory.shutdown();
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.config;
+
+import org.example.exceptions.DuplicateKeyException;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+import java.util.Map;
+
+/**
+ * Converte chaves naturais já cadastradas (placa, CPF, código da linha) em respostas 409.
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+@Provider
+public class DuplicateKeyExceptionMapper implements ExceptionMapper<DuplicateKeyException> {
+
+    @Override
+    public Response toResponse(DuplicateKeyException exception) {
+        return Response.status(Response.Status.CONFLICT)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(Map.of("mensagem", exception.getMessage()))
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.config;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de leitura (read-through) das entidades de referência, entre os serviços e os DAOs.
+ *
+ * <p>Cada entidade tem um cache próprio, compartilhado por todas as instâncias do seu serviço, com TTL e
+ * quantidade máxima de entradas configuráveis ({@code -Dverdebus.cache.<nome>.ttlS} e
+ * {@code -Dverdebus.cache.<nome>.maxEntries}); acima do máximo, sai a entrada usada há mais tempo. As leituras
+ * ao banco acontecem fora da trava do cache.</p>
+ *
+ * <p>Toda escrita do serviço invalida o cache da entidade: na hora e, dentro de uma {@link UnitOfWork},
+ * novamente quando a transação da requisição termina, para descartar o que tenha sido lido antes do commit.
+ * Uma leitura que começou antes de uma invalidação não grava o seu resultado. Leituras dentro de uma
+ * {@link UnitOfWork} que já usou a sua conexão não consultam nem alimentam o cache, porque podem enxergar
+ * escritas ainda não confirmadas.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class EntityCache {
+
+    private static final Map<String, EntityCache> CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * Leitura do valor no banco, feita quando a entrada não está no cache.
+     *
+     * @param <T> Tipo do valor.
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+
+        T load() throws SQLException;
+    }
+
+    private final String nome;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LinkedHashMap<Object, Entry> entries;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private EntityCache(String nome) {
+        this.nome = nome;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, DatabaseConfig.getCacheTtlSeconds(nome)));
+        this.maxEntries = Math.max(0, DatabaseConfig.getCacheMaxEntries(nome));
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > EntityCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retorna o cache da entidade, criando-o no primeiro uso.
+     *
+     * @param nome Nome da entidade, usado na configuração e nas métricas.
+     * @return O cache compartilhado da entidade.
+     */
+    public static EntityCache of(String nome) {
+        return CACHES.computeIfAbsent(nome, EntityCache::new);
+    }
+
+    /**
+     * Métricas de todos os caches: entradas, acertos, falhas, remoções (por tamanho ou TTL) e invalidações.
+     *
+     * @return As métricas de cada cache, pelo nome da entidade.
+     */
+    public static Map<String, Map<String, Object>> metrics() {
+        Map<String, Map<String, Object>> metricas = new TreeMap<>();
+        CACHES.forEach((nome, cache) -> metricas.put(nome, cache.snapshot()));
+        return metricas;
+    }
+
+    /**
+     * Retorna o valor da chave, lendo-o do banco e guardando-o se não estiver no cache ou tiver expirado.
+     *
+     * @param key    A chave (por exemplo, o ID do registro).
+     * @param loader A leitura do valor no banco.
+     * @param <T>    Tipo do valor.
+     * @return O valor em cache ou o valor lido.
+     * @throws SQLException Se a leitura falhar; falhas não são guardadas.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Loader<T> loader) throws SQLException {
+        if (ttlNanos == 0 || maxEntries == 0 || UnitOfWork.current().map(UnitOfWork::hasConnection).orElse(false)) {
+            return loader.load();
+        }
+        long geracao;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    hits++;
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            geracao = generation;
+        }
+        T value = loader.load();
+        synchronized (this) {
+            if (geracao == generation) {
+                entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Descarta todas as entradas depois de uma escrita na entidade.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            invalidations++;
+        }
+        clear();
+        UnitOfWork.current().ifPresent(unitOfWork -> unitOfWork.afterFinish(this::clear));
+    }
+
+    private synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    private synchronized Map<String, Object> snapshot() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("entradas", entries.size());
+        metricas.put("maximoEntradas", maxEntries);
+        metricas.put("ttlSegundos", TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        metricas.put("acertos", hits);
+        metricas.put("falhas", misses);
+        metricas.put("remocoes", evictions);
+        metricas.put("invalidacoes", invalidations);
+        return metricas;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache[" + nome + "]";
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package org.example.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Distribuição de eventos a clientes conectados por streaming (Server-Sent Events), a partir de um único
+ * fluxo publicado pelos serviços.
+ *
+ * <p>Cada evento recebe um ID formado pela época do processo e por uma sequência crescente, e fica em um
+ * histórico com os {@code -Dverdebus.sse.historySize} eventos mais recentes. Um cliente que reconecta com
+ * {@code Last-Event-ID} recebe os eventos do histórico posteriores a esse ID; se o ID for de outro processo ou
+ * já tiver saído do histórico, recebe antes um aviso de reinício, para recarregar o estado completo.</p>
+ *
+ * <p>A publicação não escreve nas conexões: cada assinatura tem uma fila própria, esvaziada por um pool de
+ * {@code -Dverdebus.sse.threads} threads. Um cliente que acumula mais de {@code -Dverdebus.sse.bufferSize}
+ * eventos sem consumi-los é desconectado (e pode retomar pelo último ID recebido), sem atrasar os demais.
+ * Assinaturas ociosas recebem um comentário a cada {@code -Dverdebus.sse.heartbeatS} segundos, o que mantém
+ * a conexão aberta em proxies e detecta clientes que já se desconectaram. Cada escrita espera no máximo
+ * {@code -Dverdebus.sse.writeTimeoutS} segundos ({@link #await}); um cliente que não a recebe nesse prazo é
+ * desconectado, para não prender uma das threads de envio, compartilhadas com os heartbeats.</p>
+ *
+ * @param <E> Tipo dos eventos.
+ * @version 1.0
+ * @since 1.1
+ */
+public final class EventBroadcaster<E> {
+
+    private static final Logger LOGGER = Logger.getLogger(EventBroadcaster.class.getName());
+
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private static ScheduledExecutorService executor;
+
+    /**
+     * Conexão de um cliente. As chamadas de uma mesma assinatura nunca são concorrentes.
+     *
+     * @param <E> Tipo dos eventos.
+     */
+    public interface Sink<E> {
+
+        void send(String id, E event) throws Exception;
+
+        /**
+         * Avisa que os eventos perdidos não podem ser reenviados e o estado deve ser relido.
+         */
+        void reset() throws Exception;
+
+        void heartbeat() throws Exception;
+
+        void close();
+    }
+
+    private final String nome;
+    private final int historySize;
+    private final int bufferSize;
+    private final Deque<Published<E>> history = new ArrayDeque<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private long sequence;
+
+    /**
+     * @param nome Nome do fluxo, usado no log.
+     */
+    public EventBroadcaster(String nome) {
+        this.nome = nome;
+        this.historySize = Math.max(0, DatabaseConfig.getSseHistorySize());
+        this.bufferSize = Math.max(1, DatabaseConfig.getSseBufferSize());
+    }
+
+    /**
+     * Publica um evento para todas as assinaturas cujo filtro o aceita.
+     *
+     * @param event O evento.
+     */
+    public void publish(E event) {
+        List<Subscription> atrasadas = new ArrayList<>();
+        synchronized (this) {
+            // As filas são alimentadas sob o mesmo bloqueio que atribui a sequência, para que duas publicações
+            // concorrentes não cheguem a um assinante em ordem diferente dos seus IDs.
+            Published<E> published = new Published<>(++sequence, event);
+            history.addLast(published);
+            while (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Subscription subscription : subscriptions) {
+                if (!subscription.offer(published)) {
+                    atrasadas.add(subscription);
+                }
+            }
+        }
+        for (Subscription subscription : atrasadas) {
+            LOGGER.info("Assinante de " + nome + " não acompanhou os eventos; desconectando.");
+            subscription.close();
+        }
+    }
+
+    /**
+     * Registra uma nova assinatura, reenviando antes os eventos do histórico posteriores a {@code lastEventId}.
+     *
+     * @param filter      Filtro dos eventos entregues a esta assinatura.
+     * @param lastEventId O último ID recebido pelo cliente em uma conexão anterior, ou nulo.
+     * @param sink        A conexão do cliente.
+     * @return A assinatura, encerrada quando o cliente se desconecta ou fica para trás.
+     */
+    public Subscription subscribe(Predicate<E> filter, String lastEventId, Sink<E> sink) {
+        Subscription subscription = new Subscription(filter, sink);
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long last = parse(lastEventId);
+                long oldest = history.isEmpty() ? sequence + 1 : history.getFirst().sequence;
+                if (last < 0 || last > sequence || last + 1 < oldest) {
+                    subscription.reset.set(true);
+                } else {
+                    for (Published<E> published : history) {
+                        if (published.sequence > last && filter.test(published.event)) {
+                            subscription.queue.add(published);
+                        }
+                    }
+                    // O reenvio não conta para o limite da fila: apenas o atraso em relação aos eventos novos.
+                    subscription.limit = bufferSize + subscription.queue.size();
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        subscription.schedule();
+        return subscription;
+    }
+
+    /**
+     * Aguarda a conclusão de uma escrita assíncrona na conexão de um cliente, por até
+     * {@code -Dverdebus.sse.writeTimeoutS} segundos. Usado pelos {@link Sink}: a exceção encerra a assinatura.
+     *
+     * @param write A escrita em andamento.
+     * @throws TimeoutException Se a escrita não terminar no prazo.
+     * @throws ExecutionException Se a escrita falhar.
+     * @throws InterruptedException Se a thread de envio for interrompida.
+     */
+    public static void await(CompletionStage<?> write) throws TimeoutException, ExecutionException, InterruptedException {
+        write.toCompletableFuture().get(Math.max(1, DatabaseConfig.getSseWriteTimeoutSeconds()), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Encerra o pool de envio (desligamento da aplicação); as conexões abertas são fechadas pelo contêiner.
+     */
+    static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static synchronized ScheduledExecutorService executor() {
+        if (executor == null) {
+            AtomicInteger threads = new AtomicInteger();
+            executor = Executors.newScheduledThreadPool(Math.max(1, DatabaseConfig.getSseThreads()), runnable -> {
+                Thread thread = new Thread(runnable, "verdebus-sse-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private static long parse(String lastEventId) {
+        int separador = lastEventId.lastIndexOf('.');
+        if (separador < 0 || !lastEventId.substring(0, separador).equals(EPOCH)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Published<E> {
+
+        private final long sequence;
+        private final E event;
+
+        private Published(long sequence, E event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+
+        private String id() {
+            return EPOCH + "." + sequence;
+        }
+    }
+
+    /**
+     * Assinatura de um cliente: filtro, fila de eventos pendentes e conexão.
+     */
+    public final class Subscription {
+
+        private final Predicate<E> filter;
+        private final Sink<E> sink;
+        private final BlockingQueue<Published<E>> queue = new LinkedBlockingQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean reset = new AtomicBoolean();
+        private final AtomicBoolean heartbeat = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final ScheduledFuture<?> heartbeats;
+        private int limit = bufferSize;
+
+        private Subscription(Predicate<E> filter, Sink<E> sink) {
+            this.filter = filter;
+            this.sink = sink;
+            long intervalo = Math.max(1, DatabaseConfig.getSseHeartbeatSeconds());
+            this.heartbeats = executor().scheduleWithFixedDelay(() -> {
+                heartbeat.set(true);
+                schedule();
+            }, intervalo, intervalo, TimeUnit.SECONDS);
+        }
+
+        /**
+         * @return Falso se a fila está cheia e a assinatura deve ser encerrada.
+         */
+        private boolean offer(Published<E> published) {
+            if (closed.get() || !filter.test(published.event)) {
+                return true;
+            }
+            if (queue.size() >= limit) {
+                return false;
+            }
+            queue.add(published);
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor().execute(this::drain);
+                } catch (RuntimeException e) {
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                if (reset.getAndSet(false)) {
+                    sink.reset();
+                }
+                List<Published<E>> pendentes = new ArrayList<>();
+                while (!closed.get() && queue.drainTo(pendentes) > 0) {
+                    for (Published<E> published : pendentes) {
+                        sink.send(published.id(), published.event);
+                    }
+                    pendentes.clear();
+                    heartbeat.set(false);
+                }
+                if (heartbeat.getAndSet(false)) {
+                    sink.heartbeat();
+                }
+            } catch (Exception e) {
+                LOGGER.fine("Assinante de " + nome + " desconectado: " + e.getMessage());
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        /**
+         * Encerra a assinatura e a conexão do cliente.
+         */
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscriptions.remove(this);
+                heartbeats.cancel(false);
+                queue.clear();
+                sink.close();
+            }
+        }
+    }
+}
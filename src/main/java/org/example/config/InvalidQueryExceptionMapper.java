@@ -0,0 +1,27 @@
+package org.example.config;
+
+import org.example.exceptions.InvalidQueryException;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+import java.util.Map;
+
+/**
+ * Converte parâmetros de consulta inválidos (paginação, filtros, campos) em respostas 400.
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+@Provider
+public class InvalidQueryExceptionMapper implements ExceptionMapper<InvalidQueryException> {
+
+    @Override
+    public Response toResponse(InvalidQueryException exception) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(Map.of("mensagem", exception.getMessage()))
+                .build();
+    }
+}
@@ -0,0 +1,363 @@
+package org.example.config;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Índice em memória de uma chave natural (placa, CPF, código da linha), compartilhado por uma ou mais tabelas,
+ * com um filtro de Bloom à frente.
+ *
+ * <p>Cada tabela participante registra uma {@link Source}, que lê todas as chaves no primeiro uso do índice
+ * e confirma, pelo ID, a chave atual de um registro. Os serviços mantêm o índice em dia depois de cada escrita
+ * confirmada ({@link #put} e {@link #remove}). A maior parte das chaves novas é descartada pelo filtro de
+ * Bloom sem consultar o mapa; uma chave encontrada no mapa é confirmada no banco pelo ID (uma leitura pela
+ * chave primária), de modo que escritas feitas fora deste processo não causam recusas indevidas.</p>
+ *
+ * <p>O índice é um filtro prévio: as restrições do banco (db/indices.sql e, para chaves compartilhadas entre
+ * tabelas como a placa, db/placas.sql) continuam sendo a garantia final. Se a carga ou a confirmação falhar, a busca responde "não encontrado" e a decisão fica com o banco.
+ * O filtro de Bloom não remove chaves; ele é reconstruído quando o índice cresce além da capacidade
+ * planejada ou acumula remoções demais ({@code -Dverdebus.keyindex.fpp} define a taxa de falsos positivos).</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class NaturalKeyIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(NaturalKeyIndex.class.getName());
+
+    private static final Map<String, NaturalKeyIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * Origem das chaves de uma tabela participante.
+     */
+    public interface Source {
+
+        /**
+         * @return As chaves preenchidas da tabela, pelo ID.
+         */
+        Map<Long, String> loadAll() throws SQLException;
+
+        /**
+         * @param id O ID do registro.
+         * @return A chave atual do registro, ou nulo se ele não existir.
+         */
+        String keyOf(Long id) throws SQLException;
+    }
+
+    /**
+     * Registro dono de uma chave: a tabela (pelo nome registrado) e o ID.
+     */
+    public static final class Owner {
+
+        private final String type;
+        private final Long id;
+
+        private Owner(String type, Long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        /**
+         * @param type Nome da tabela.
+         * @param id   ID do registro, ou nulo para um registro ainda não gravado.
+         * @return {@code true} se a chave pertence ao registro informado.
+         */
+        public boolean is(String type, Long id) {
+            return this.type.equals(type) && this.id.equals(id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Owner && is(((Owner) o).type, ((Owner) o).id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+    }
+
+    private final String nome;
+    private final double fpp;
+    private final Map<String, Source> sources = new ConcurrentHashMap<>();
+    private final Map<String, Owner> byKey = new ConcurrentHashMap<>();
+    private final Map<Owner, String> byOwner = new ConcurrentHashMap<>();
+    private volatile Bloom bloom;
+    private volatile boolean loaded;
+    private long removed;
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong bloomRejections = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleEntries = new AtomicLong();
+
+    private NaturalKeyIndex(String nome) {
+        this.nome = nome;
+        this.fpp = Math.min(0.5, Math.max(1e-6, DatabaseConfig.getKeyIndexFalsePositiveRate()));
+        this.bloom = new Bloom(MIN_CAPACITY, fpp);
+    }
+
+    /**
+     * Retorna o índice da chave natural, criando-o no primeiro uso.
+     *
+     * @param nome Nome da chave (por exemplo, {@code placa}).
+     * @return O índice compartilhado.
+     */
+    public static NaturalKeyIndex of(String nome) {
+        return INDEXES.computeIfAbsent(nome, NaturalKeyIndex::new);
+    }
+
+    /**
+     * Métricas de todos os índices: chaves, buscas, descartes pelo filtro de Bloom, acertos e entradas
+     * desatualizadas encontradas na confirmação.
+     *
+     * @return As métricas de cada índice, pelo nome.
+     */
+    public static Map<String, Map<String, Object>> metrics() {
+        Map<String, Map<String, Object>> metricas = new TreeMap<>();
+        INDEXES.forEach((nome, index) -> {
+            Map<String, Object> valores = new LinkedHashMap<>();
+            valores.put("carregado", index.loaded);
+            valores.put("chaves", index.byKey.size());
+            valores.put("buscas", index.lookups.get());
+            valores.put("descartadasPeloBloom", index.bloomRejections.get());
+            valores.put("encontradas", index.hits.get());
+            valores.put("desatualizadas", index.staleEntries.get());
+            metricas.put(nome, valores);
+        });
+        return metricas;
+    }
+
+    /**
+     * Registra uma tabela participante; as suas chaves são lidas no próximo uso do índice.
+     *
+     * @param type   Nome da tabela no índice.
+     * @param source Origem das chaves da tabela.
+     */
+    public synchronized void register(String type, Source source) {
+        if (sources.putIfAbsent(type, source) == null) {
+            loaded = false;
+        }
+    }
+
+    /**
+     * Busca o dono atual de uma chave, confirmando-o no banco pelo ID.
+     *
+     * @param key A chave.
+     * @return O registro dono da chave, ou vazio se nenhum registro a usa (ou se não for possível confirmar).
+     */
+    public Optional<Owner> find(String key) {
+        Owner owner = lookup(key).orElse(null);
+        if (owner == null) {
+            return Optional.empty();
+        }
+        try {
+            if (key.equals(sources.get(owner.type).keyOf(owner.id))) {
+                return Optional.of(owner);
+            }
+        } catch (SQLException e) {
+            LOGGER.warning("Erro ao confirmar a chave " + nome + " no banco: " + e.getMessage());
+            return Optional.empty();
+        }
+        discard(owner);
+        return Optional.empty();
+    }
+
+    /**
+     * Descarta uma associação encontrada por {@link #lookup} que não confere com o registro no banco.
+     *
+     * @param owner O registro associado à chave no índice.
+     */
+    public void discard(Owner owner) {
+        staleEntries.incrementAndGet();
+        remove(owner);
+    }
+
+    /**
+     * Busca o dono de uma chave apenas na memória, sem confirmá-lo no banco; quem usar o resultado deve
+     * conferir a chave no registro lido.
+     *
+     * @param key A chave.
+     * @return O registro associado à chave no índice, ou vazio.
+     */
+    public Optional<Owner> lookup(String key) {
+        if (key == null || !load()) {
+            return Optional.empty();
+        }
+        lookups.incrementAndGet();
+        if (!bloom.mightContain(key)) {
+            bloomRejections.incrementAndGet();
+            return Optional.empty();
+        }
+        Owner owner = byKey.get(key);
+        if (owner != null) {
+            hits.incrementAndGet();
+        }
+        return Optional.ofNullable(owner);
+    }
+
+    /**
+     * Associa a chave ao registro, substituindo a chave anterior do mesmo registro, depois que a escrita
+     * corrente for confirmada.
+     *
+     * @param type Nome da tabela.
+     * @param id   ID do registro.
+     * @param key  A chave atual do registro, ou nulo se ela foi apagada.
+     */
+    public void put(String type, Long id, String key) {
+        if (id == null) {
+            return;
+        }
+        UnitOfWork.runAfterCommit(() -> {
+            Owner owner = new Owner(type, id);
+            synchronized (this) {
+                remove(owner);
+                if (key != null) {
+                    bloom.put(key);
+                    Owner anterior = byKey.put(key, owner);
+                    if (anterior != null && !anterior.equals(owner)) {
+                        byOwner.remove(anterior, key);
+                    }
+                    byOwner.put(owner, key);
+                    if (byKey.size() > bloom.capacity) {
+                        rebuild();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove a chave do registro, depois que a escrita corrente (uma exclusão) for confirmada.
+     *
+     * @param type Nome da tabela.
+     * @param id   ID do registro.
+     */
+    public void remove(String type, Long id) {
+        UnitOfWork.runAfterCommit(() -> remove(new Owner(type, id)));
+    }
+
+    private synchronized void remove(Owner owner) {
+        String key = byOwner.remove(owner);
+        if (key != null && byKey.remove(key, owner) && ++removed > bloom.capacity / 4) {
+            rebuild();
+        }
+    }
+
+    private boolean load() {
+        if (loaded) {
+            return true;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return true;
+            }
+            Map<String, Owner> chaves = new ConcurrentHashMap<>();
+            try {
+                for (Map.Entry<String, Source> source : sources.entrySet()) {
+                    for (Map.Entry<Long, String> entry : source.getValue().loadAll().entrySet()) {
+                        chaves.put(entry.getValue(), new Owner(source.getKey(), entry.getKey()));
+                    }
+                }
+            } catch (SQLException e) {
+                LOGGER.warning("Erro ao carregar o índice " + nome + "; as verificações ficam a cargo do banco: "
+                        + e.getMessage());
+                return false;
+            }
+            byKey.clear();
+            byOwner.clear();
+            byKey.putAll(chaves);
+            chaves.forEach((key, owner) -> byOwner.put(owner, key));
+            rebuild();
+            loaded = true;
+            LOGGER.info("Índice " + nome + " carregado com " + byKey.size() + " chaves.");
+            return true;
+        }
+    }
+
+    private void rebuild() {
+        Bloom novo = new Bloom(Math.max(MIN_CAPACITY, byKey.size() * 2), fpp);
+        byKey.keySet().forEach(novo::put);
+        bloom = novo;
+        removed = 0;
+    }
+
+    /**
+     * Filtro de Bloom com {@code k} posições por chave, obtidas por hashing duplo.
+     */
+    private static final class Bloom {
+
+        private final int capacity;
+        private final int bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+
+        private Bloom(int capacity, double fpp) {
+            this.capacity = capacity;
+            this.bits = (int) Math.min(Integer.MAX_VALUE - 63,
+                    Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        private void put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long atual;
+                do {
+                    atual = words.get(word);
+                } while ((atual & mask) == 0 && !words.compareAndSet(word, atual, atual | mask));
+            }
+        }
+
+        private boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a de 64 bits seguido da finalização do MurmurHash3, para espalhar bem chaves curtas e parecidas.
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
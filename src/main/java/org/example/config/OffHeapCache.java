@@ -0,0 +1,434 @@
+package org.example.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura fora do heap, para entidades numerosas e lidas com frequência (os endereços).
+ *
+ * <p>Os registros são serializados por um {@link Codec} e gravados em sequência em blocos de memória direta
+ * ({@link ByteBuffer#allocateDirect}) de {@code -Dverdebus.offheap.slabKb} KB, até
+ * {@code -Dverdebus.offheap.<nome>.maxMb} MB por cache. No heap ficam apenas o índice do ID para a posição do
+ * registro e a ordem da última listagem completa, de modo que um conjunto grande de registros não pesa na
+ * coleta da geração antiga. O TTL é o mesmo do {@link EntityCache} da entidade
+ * ({@code -Dverdebus.cache.<nome>.ttlS}; 0 desliga o cache).</p>
+ *
+ * <p>Cada registro ocupa um cabeçalho (tamanho e expiração) seguido dos bytes serializados. Um registro
+ * substituído, expirado ou invalidado deixa o seu espaço como lixo no bloco; quando os blocos se esgotam, os
+ * registros vivos são compactados no início dos blocos, na ordem em que foram gravados. Se o lixo não chegar a um
+ * quarto da memória, o quarto mais antigo dos blocos é descartado na mesma compactação.</p>
+ *
+ * <p>As escritas na entidade invalidam o registro alterado (e a listagem completa) na hora e, dentro de uma
+ * {@link UnitOfWork}, novamente quando a transação da requisição termina. Uma leitura que começou antes de
+ * uma invalidação não grava o seu resultado, e leituras dentro de uma {@link UnitOfWork} que já usou a sua
+ * conexão não consultam nem alimentam o cache, porque podem enxergar escritas ainda não confirmadas.</p>
+ *
+ * @param <T> Tipo do registro.
+ * @version 1.0
+ * @since 1.1
+ */
+public final class OffHeapCache<T> {
+
+    private static final Map<String, OffHeapCache<?>> CACHES = new ConcurrentHashMap<>();
+
+    // Cabeçalho de cada registro: tamanho dos dados (int) e instante de expiração em System.nanoTime (long).
+    private static final int HEADER = Integer.BYTES + Long.BYTES;
+
+    /**
+     * Serialização dos registros guardados no cache.
+     *
+     * @param <T> Tipo do registro.
+     */
+    public interface Codec<T> {
+
+        void write(T value, DataOutput out) throws IOException;
+
+        T read(DataInput in) throws IOException;
+    }
+
+    private final String nome;
+    private final Codec<T> codec;
+    private final long ttlNanos;
+    private final int slabSize;
+    private final ByteBuffer[] slabs;
+    private final int[] garbage;
+    private int allocated;
+    private int current;
+    // Posição de cada registro: índice do bloco nos 32 bits altos e deslocamento nos 32 bits baixos.
+    private final Map<Long, Long> index = new HashMap<>();
+    private long[] allIds;
+    private long allExpiresAt;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private long compactions;
+    private long rejected;
+
+    private OffHeapCache(String nome, Codec<T> codec) {
+        this.nome = nome;
+        this.codec = codec;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, DatabaseConfig.getCacheTtlSeconds(nome)));
+        this.slabSize = (int) Math.min(1L << 30, Math.max(4L, DatabaseConfig.getOffHeapSlabKb()) * 1024);
+        long maxBytes = Math.max(0L, DatabaseConfig.getOffHeapMaxMb(nome)) * 1024 * 1024;
+        int maxSlabs = (int) Math.min(Integer.MAX_VALUE - 8, maxBytes / slabSize);
+        this.slabs = new ByteBuffer[maxSlabs];
+        this.garbage = new int[maxSlabs];
+    }
+
+    /**
+     * Retorna o cache da entidade, criando-o no primeiro uso.
+     *
+     * @param nome  Nome da entidade, usado na configuração e nas métricas.
+     * @param codec Serialização dos registros.
+     * @param <T>   Tipo do registro.
+     * @return O cache compartilhado da entidade.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> OffHeapCache<T> of(String nome, Codec<T> codec) {
+        return (OffHeapCache<T>) CACHES.computeIfAbsent(nome, n -> new OffHeapCache<>(n, codec));
+    }
+
+    /**
+     * Métricas de todos os caches fora do heap: registros, memória alocada e em uso, acertos, falhas,
+     * descartes, invalidações e compactações.
+     *
+     * @return As métricas de cada cache, pelo nome da entidade.
+     */
+    public static Map<String, Map<String, Object>> metrics() {
+        Map<String, Map<String, Object>> metricas = new TreeMap<>();
+        CACHES.forEach((nome, cache) -> metricas.put(nome, cache.snapshot()));
+        return metricas;
+    }
+
+    /**
+     * Libera os blocos de memória de todos os caches, quando a aplicação é desligada ou recarregada.
+     */
+    public static void shutdown() {
+        CACHES.values().forEach(OffHeapCache::release);
+    }
+
+    /**
+     * Retorna o registro do ID, lendo-o do banco e guardando-o se não estiver no cache ou tiver expirado.
+     *
+     * @param id     O ID do registro.
+     * @param loader A leitura do registro no banco.
+     * @return O registro em cache (uma cópia nova a cada chamada) ou o registro lido.
+     * @throws SQLException Se a leitura falhar; falhas não são guardadas.
+     */
+    public T get(Long id, EntityCache.Loader<T> loader) throws SQLException {
+        if (bypassed()) {
+            return loader.load();
+        }
+        long geracao;
+        byte[] encontrado;
+        synchronized (this) {
+            encontrado = read(id, System.nanoTime());
+            if (encontrado != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            geracao = generation;
+        }
+        if (encontrado != null) {
+            return decode(encontrado);
+        }
+        T value = loader.load();
+        byte[] dados = encode(value);
+        synchronized (this) {
+            if (geracao == generation) {
+                put(id, dados, System.nanoTime() + ttlNanos);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Retorna todos os registros, montados a partir do cache se a última listagem completa ainda estiver
+     * inteira e dentro do TTL; caso contrário, lê a listagem do banco e guarda cada registro.
+     *
+     * @param loader A leitura de todos os registros no banco.
+     * @param id     Função que lê o ID de um registro.
+     * @return Os registros, na ordem da última listagem lida.
+     * @throws SQLException Se a leitura falhar; falhas não são guardadas.
+     */
+    public List<T> getAll(EntityCache.Loader<List<T>> loader, Function<T, Long> id) throws SQLException {
+        if (bypassed()) {
+            return loader.load();
+        }
+        long geracao;
+        List<byte[]> encontrados = null;
+        synchronized (this) {
+            long agora = System.nanoTime();
+            if (allIds != null && agora - allExpiresAt < 0) {
+                encontrados = new ArrayList<>(allIds.length);
+                for (long registro : allIds) {
+                    byte[] dados = read(registro, agora);
+                    if (dados == null) {
+                        encontrados = null;
+                        break;
+                    }
+                    encontrados.add(dados);
+                }
+            }
+            if (encontrados != null) {
+                hits++;
+            } else {
+                allIds = null;
+                misses++;
+            }
+            geracao = generation;
+        }
+        if (encontrados != null) {
+            List<T> values = new ArrayList<>(encontrados.size());
+            for (byte[] dados : encontrados) {
+                values.add(decode(dados));
+            }
+            return values;
+        }
+        List<T> values = loader.load();
+        long[] ids = new long[values.size()];
+        List<byte[]> registros = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            ids[i] = id.apply(values.get(i));
+            registros.add(encode(values.get(i)));
+        }
+        synchronized (this) {
+            if (geracao == generation) {
+                long expiresAt = System.nanoTime() + ttlNanos;
+                for (int i = 0; i < ids.length; i++) {
+                    put(ids[i], registros.get(i), expiresAt);
+                }
+                // Registros que não couberam são lidos do banco na próxima listagem, que volta a ser completa.
+                allIds = ids;
+                allExpiresAt = expiresAt;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Descarta o registro do ID (e a listagem completa) depois de uma escrita nele.
+     *
+     * @param id O ID do registro criado, alterado ou excluído.
+     */
+    public void invalidate(Long id) {
+        synchronized (this) {
+            invalidations++;
+        }
+        remove(id);
+        UnitOfWork.current().ifPresent(unitOfWork -> unitOfWork.afterFinish(() -> remove(id)));
+    }
+
+    private boolean bypassed() {
+        return ttlNanos == 0 || slabs.length == 0
+                || UnitOfWork.current().map(UnitOfWork::hasConnection).orElse(false);
+    }
+
+    private synchronized void remove(Long id) {
+        generation++;
+        allIds = null;
+        Long location = index.remove(id);
+        if (location != null) {
+            discard(location);
+        }
+    }
+
+    // Lê os dados do registro, descartando-o se tiver expirado. Chamado com a trava do cache.
+    private byte[] read(Long id, long agora) {
+        Long location = index.get(id);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer slab = slabs[slab(location)];
+        int offset = offset(location);
+        if (agora - slab.getLong(offset + Integer.BYTES) >= 0) {
+            index.remove(id);
+            discard(location);
+            evictions++;
+            return null;
+        }
+        byte[] dados = new byte[slab.getInt(offset)];
+        slab.get(offset + HEADER, dados);
+        return dados;
+    }
+
+    // Grava o registro no fim do bloco atual, compactando ou descartando o bloco mais antigo se faltar espaço.
+    // Chamado com a trava do cache.
+    private void put(Long id, byte[] dados, long expiresAt) {
+        Long anterior = index.remove(id);
+        if (anterior != null) {
+            discard(anterior);
+        }
+        int tamanho = HEADER + dados.length;
+        if (tamanho > slabSize) {
+            rejected++;
+            return;
+        }
+        if (!reserve(tamanho)) {
+            long totalGarbage = 0;
+            for (int i = 0; i < allocated; i++) {
+                totalGarbage += garbage[i];
+            }
+            // Com menos de um quarto de lixo, a compactação sozinha liberaria pouco espaço e voltaria a ser
+            // necessária logo em seguida: o quarto mais antigo dos blocos é descartado junto.
+            compact(totalGarbage < (long) allocated * slabSize / 4 ? Math.max(1, allocated / 4) : 0);
+            if (!reserve(tamanho)) {
+                rejected++;
+                return;
+            }
+        }
+        ByteBuffer slab = slabs[current];
+        int offset = slab.position();
+        slab.putInt(dados.length).putLong(expiresAt).put(dados);
+        index.put(id, ((long) current << 32) | offset);
+    }
+
+    // Garante espaço para o registro no bloco atual, passando ao próximo bloco (já alocado ou novo).
+    private boolean reserve(int tamanho) {
+        if (allocated == 0) {
+            slabs[0] = ByteBuffer.allocateDirect(slabSize);
+            allocated = 1;
+            current = 0;
+        }
+        if (slabs[current].remaining() >= tamanho) {
+            return true;
+        }
+        // O fim do bloco atual fica sem uso até a próxima compactação.
+        garbage[current] += slabs[current].remaining();
+        slabs[current].position(slabSize);
+        if (current + 1 < allocated) {
+            current++;
+            return true;
+        }
+        if (allocated < slabs.length) {
+            slabs[allocated] = ByteBuffer.allocateDirect(slabSize);
+            current = allocated++;
+            return true;
+        }
+        return false;
+    }
+
+    // Desloca os registros vivos para o início dos blocos, na ordem em que foram gravados, descartando os dos
+    // primeiros blocos (os mais antigos) e os expirados. Um registro nunca é gravado depois da sua posição
+    // original, por isso a cópia pode ser feita nos próprios blocos.
+    private void compact(int dropOldest) {
+        compactions++;
+        TreeMap<Long, Long> ordem = new TreeMap<>();
+        index.forEach((id, location) -> ordem.put(location, id));
+        index.clear();
+        long agora = System.nanoTime();
+        int[] usados = new int[allocated];
+        int destino = 0;
+        int posicao = 0;
+        for (Map.Entry<Long, Long> entry : ordem.entrySet()) {
+            ByteBuffer origem = slabs[slab(entry.getKey())];
+            int offset = offset(entry.getKey());
+            if (slab(entry.getKey()) < dropOldest || agora - origem.getLong(offset + Integer.BYTES) >= 0) {
+                evictions++;
+                continue;
+            }
+            byte[] registro = new byte[HEADER + origem.getInt(offset)];
+            origem.get(offset, registro);
+            if (posicao + registro.length > slabSize) {
+                usados[destino++] = posicao;
+                posicao = 0;
+            }
+            slabs[destino].put(posicao, registro);
+            index.put(entry.getValue(), ((long) destino << 32) | posicao);
+            posicao += registro.length;
+        }
+        // O espaço deixado no fim dos blocos já cheios fica como lixo até a próxima compactação.
+        for (int i = 0; i < allocated; i++) {
+            slabs[i].position(i < destino ? slabSize : i == destino ? posicao : 0);
+            garbage[i] = i < destino ? slabSize - usados[i] : 0;
+        }
+        current = destino;
+    }
+
+    private void discard(long location) {
+        garbage[slab(location)] += HEADER + slabs[slab(location)].getInt(offset(location));
+    }
+
+    private synchronized void release() {
+        generation++;
+        allIds = null;
+        index.clear();
+        for (int i = 0; i < allocated; i++) {
+            slabs[i] = null;
+            garbage[i] = 0;
+        }
+        allocated = 0;
+        current = 0;
+    }
+
+    private byte[] encode(T value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            codec.write(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private T decode(byte[] dados) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(dados))) {
+            return codec.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int slab(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+
+    private synchronized Map<String, Object> snapshot() {
+        long usado = 0;
+        for (int i = 0; i < allocated; i++) {
+            usado += slabs[i].position() - garbage[i];
+        }
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("registros", index.size());
+        metricas.put("bytesAlocados", (long) allocated * slabSize);
+        metricas.put("bytesEmUso", usado);
+        metricas.put("maximoBytes", (long) slabs.length * slabSize);
+        metricas.put("ttlSegundos", TimeUnit.NANOSECONDS.toSeconds(ttlNanos));
+        metricas.put("acertos", hits);
+        metricas.put("falhas", misses);
+        metricas.put("remocoes", evictions);
+        metricas.put("invalidacoes", invalidations);
+        metricas.put("compactacoes", compactions);
+        metricas.put("recusados", rejected);
+        return metricas;
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapCache[" + nome + "]";
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.config;
+
+/**
+ * Retrato imutável das métricas de um pool de conexões.
+ *
+ * <p>Os campos de saturação ({@code ativas}, {@code aguardando}, {@code esgotamentos} e {@code utilizacao})
+ * indicam quando o tamanho máximo do pool passou a limitar a vazão da API.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class PoolMetrics {
+
+    private final String nome;
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    private final int total;
+    private final int ativas;
+    private final int ociosas;
+    private final int aguardando;
+    private final int picoAtivas;
+    private final long emprestimos;
+    private final long esgotamentos;
+    private final long criadas;
+    private final long descartadas;
+    private final long vazamentosDetectados;
+    private final double esperaMediaMs;
+    private final long statementsCacheAcertos;
+    private final long statementsCacheFalhas;
+    private final long statementsCacheRemocoes;
+
+    PoolMetrics(String nome, int tamanhoMinimo, int tamanhoMaximo, int total, int ativas, int ociosas,
+                int aguardando, int picoAtivas, long emprestimos, long esgotamentos, long criadas,
+                long descartadas, long vazamentosDetectados, double esperaMediaMs,
+                long statementsCacheAcertos, long statementsCacheFalhas, long statementsCacheRemocoes) {
+        this.nome = nome;
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.total = total;
+        this.ativas = ativas;
+        this.ociosas = ociosas;
+        this.aguardando = aguardando;
+        this.picoAtivas = picoAtivas;
+        this.emprestimos = emprestimos;
+        this.esgotamentos = esgotamentos;
+        this.criadas = criadas;
+        this.descartadas = descartadas;
+        this.vazamentosDetectados = vazamentosDetectados;
+        this.esperaMediaMs = esperaMediaMs;
+        this.statementsCacheAcertos = statementsCacheAcertos;
+        this.statementsCacheFalhas = statementsCacheFalhas;
+        this.statementsCacheRemocoes = statementsCacheRemocoes;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int getTamanhoMinimo() {
+        return tamanhoMinimo;
+    }
+
+    public int getTamanhoMaximo() {
+        return tamanhoMaximo;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getAtivas() {
+        return ativas;
+    }
+
+    public int getOciosas() {
+        return ociosas;
+    }
+
+    public int getAguardando() {
+        return aguardando;
+    }
+
+    public int getPicoAtivas() {
+        return picoAtivas;
+    }
+
+    public long getEmprestimos() {
+        return emprestimos;
+    }
+
+    public long getEsgotamentos() {
+        return esgotamentos;
+    }
+
+    public long getCriadas() {
+        return criadas;
+    }
+
+    public long getDescartadas() {
+        return descartadas;
+    }
+
+    public long getVazamentosDetectados() {
+        return vazamentosDetectados;
+    }
+
+    public double getEsperaMediaMs() {
+        return esperaMediaMs;
+    }
+
+    public long getStatementsCacheAcertos() {
+        return statementsCacheAcertos;
+    }
+
+    public long getStatementsCacheFalhas() {
+        return statementsCacheFalhas;
+    }
+
+    public long getStatementsCacheRemocoes() {
+        return statementsCacheRemocoes;
+    }
+
+    /**
+     * Fração do tamanho máximo do pool atualmente em uso (0.0 a 1.0).
+     *
+     * @return A utilização do pool.
+     */
+    public double getUtilizacao() {
+        return tamanhoMaximo == 0 ? 0.0 : (double) ativas / tamanhoMaximo;
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * {@link DatabaseConnection} que separa escritas e leituras: {@link #get()} usa sempre a base principal,
+ * enquanto {@link #getReadOnly()} distribui as leituras entre as réplicas configuradas (rodízio).
+ *
+ * <p>As leituras toleram o atraso de replicação das réplicas. Se uma réplica falhar ao emprestar uma
+ * conexão, ela fica fora do rodízio por {@code verdebus.db.replicaRetryMs} e a leitura segue para a
+ * próxima réplica ou, na falta delas, para a base principal.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class RoutingDatabaseConnection implements DatabaseConnection {
+
+    private static RoutingDatabaseConnection instance;
+
+    private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+    private final DatabaseConnection primary;
+    private final List<Route> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    RoutingDatabaseConnection(DatabaseConnection primary, List<? extends DatabaseConnection> replicas) {
+        this.primary = primary;
+        List<Route> routes = new ArrayList<>();
+        for (DatabaseConnection replica : replicas) {
+            routes.add(new Route(replica));
+        }
+        this.replicas = Collections.unmodifiableList(routes);
+    }
+
+    /**
+     * Retorna o roteador da aplicação, com a base principal e as réplicas de {@link DatabaseConfig}.
+     *
+     * @return O roteador de conexões.
+     */
+    static synchronized RoutingDatabaseConnection getInstance() {
+        if (instance == null) {
+            List<DatabaseConnectionPool> replicas = new ArrayList<>();
+            List<String> urls = DatabaseConfig.getReplicaUrls();
+            for (int i = 0; i < urls.size(); i++) {
+                replicas.add(new DatabaseConnectionPool(
+                        "replica-" + (i + 1),
+                        urls.get(i),
+                        DatabaseConfig.getReplicaUser(),
+                        DatabaseConfig.getReplicaPassword()
+                ));
+            }
+            instance = new RoutingDatabaseConnection(DatabaseConnectionPool.getInstance(), replicas);
+        }
+        return instance;
+    }
+
+    /**
+     * Encerra os pools das réplicas e descarta o roteador.
+     */
+    static synchronized void shutdown() {
+        if (instance != null) {
+            for (Route route : instance.replicas) {
+                if (route.database instanceof DatabaseConnectionPool) {
+                    ((DatabaseConnectionPool) route.database).close();
+                }
+            }
+            instance = null;
+        }
+    }
+
+    @Override
+    public Connection get() throws SQLException {
+        return primary.get();
+    }
+
+    boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    @Override
+    public Connection getReadOnly() throws SQLException {
+        int quantidade = replicas.size();
+        if (quantidade > 0) {
+            int inicio = Math.floorMod(next.getAndIncrement(), quantidade);
+            long agora = System.currentTimeMillis();
+            for (int i = 0; i < quantidade; i++) {
+                Route route = replicas.get((inicio + i) % quantidade);
+                if (route.unavailableUntil.get() > agora) {
+                    continue;
+                }
+                try {
+                    return route.database.get();
+                } catch (SQLTransientConnectionException e) {
+                    // Réplica saturada, mas saudável: tenta a próxima rota sem retirá-la do rodízio.
+                    logger.fine("Réplica de leitura saturada, usando a próxima rota: " + e.getMessage());
+                } catch (SQLException e) {
+                    route.unavailableUntil.set(agora + DatabaseConfig.getReplicaRetryMillis());
+                    logger.warning("Réplica de leitura indisponível, usando a próxima rota: " + e.getMessage());
+                }
+            }
+        }
+        return primary.get();
+    }
+
+    /**
+     * Métricas dos pools das réplicas, na ordem de configuração.
+     *
+     * @return As métricas de cada réplica administrada por pool.
+     */
+    List<PoolMetrics> replicaMetrics() {
+        List<PoolMetrics> metrics = new ArrayList<>();
+        for (Route route : replicas) {
+            if (route.database instanceof DatabaseConnectionPool) {
+                metrics.add(((DatabaseConnectionPool) route.database).metrics());
+            }
+        }
+        return metrics;
+    }
+
+    private static final class Route {
+
+        private final DatabaseConnection database;
+        private final AtomicLong unavailableUntil = new AtomicLong();
+
+        private Route(DatabaseConnection database) {
+            this.database = database;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.config;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalescência de leituras idênticas e simultâneas de uma tabela ("single-flight"), entre os serviços e os
+ * DAOs.
+ *
+ * <p>Enquanto uma leitura está em andamento, as chamadas com a mesma chave (método e parâmetros) aguardam o
+ * seu resultado em vez de repetir o comando no banco; depois de concluída, a leitura ainda é reaproveitada
+ * por {@code -Dverdebus.singleflight.<nome>.windowMs} milissegundos (0 restringe o compartilhamento às
+ * chamadas simultâneas). Falhas, inclusive {@link Error}s, são entregues a todas as chamadas que aguardavam e
+ * não são reaproveitadas.</p>
+ *
+ * <p>Uma leitura só é compartilhada enquanto a {@link TableVersion} da tabela não mudar, de modo que nenhuma
+ * chamada iniciada depois de uma escrita recebe dados lidos antes dela. Chamadas dentro de uma
+ * {@link UnitOfWork} que já usou a sua conexão não participam, porque podem enxergar escritas ainda não
+ * confirmadas. O resultado é o mesmo objeto para todas as chamadas e não deve ser modificado.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class SingleFlight {
+
+    private static final Map<String, SingleFlight> FLIGHTS = new ConcurrentHashMap<>();
+
+    // Acima desta quantidade de chaves, as leituras concluídas fora da janela são removidas a cada nova leitura.
+    private static final int PURGE_THRESHOLD = 256;
+
+    /**
+     * Leitura do valor no banco, executada por uma das chamadas e compartilhada com as demais.
+     *
+     * @param <T> Tipo do valor.
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+
+        T load() throws SQLException;
+    }
+
+    private final TableVersion version;
+    private final long windowNanos;
+    private final Map<Object, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    private SingleFlight(String nome) {
+        this.version = TableVersion.of(nome);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(
+                Math.max(0, DatabaseConfig.getSingleFlightWindowMillis(nome)));
+    }
+
+    /**
+     * Retorna a coalescência de leituras da tabela, criando-a no primeiro uso.
+     *
+     * @param nome Nome da tabela, o mesmo da sua {@link TableVersion}.
+     * @return A coalescência compartilhada da tabela.
+     */
+    public static SingleFlight of(String nome) {
+        return FLIGHTS.computeIfAbsent(nome, SingleFlight::new);
+    }
+
+    /**
+     * Métricas de todas as tabelas: leituras executadas no banco e chamadas atendidas por outra leitura.
+     *
+     * @return As métricas de cada tabela, pelo nome.
+     */
+    public static Map<String, Map<String, Object>> metrics() {
+        Map<String, Map<String, Object>> metricas = new TreeMap<>();
+        FLIGHTS.forEach((nome, flight) -> {
+            Map<String, Object> valores = new LinkedHashMap<>();
+            valores.put("execucoes", flight.executions.get());
+            valores.put("compartilhadas", flight.shared.get());
+            valores.put("janelaMs", TimeUnit.NANOSECONDS.toMillis(flight.windowNanos));
+            metricas.put(nome, valores);
+        });
+        return metricas;
+    }
+
+    /**
+     * Executa a leitura, ou aguarda e devolve o resultado de uma leitura idêntica em andamento ou recente.
+     *
+     * @param key    Chave da leitura: o método e os parâmetros, com {@code equals} por valor.
+     * @param loader A leitura no banco.
+     * @param <T>    Tipo do valor.
+     * @return O valor lido.
+     * @throws SQLException Se a leitura falhar.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Loader<T> loader) throws SQLException {
+        if (UnitOfWork.current().map(UnitOfWork::hasConnection).orElse(false)) {
+            return loader.load();
+        }
+        long versao = version.value();
+        long agora = System.nanoTime();
+        Flight nova = new Flight(versao);
+        Flight flight = flights.compute(key,
+                (k, atual) -> atual != null && atual.reusable(versao, agora) ? atual : nova);
+        if (flight != nova) {
+            shared.incrementAndGet();
+            return (T) flight.await();
+        }
+
+        executions.incrementAndGet();
+        if (flights.size() > PURGE_THRESHOLD) {
+            flights.values().removeIf(antiga -> !antiga.reusable(versao, agora));
+        }
+        try {
+            T value = loader.load();
+            nova.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Qualquer falha, inclusive um Error, conclui a leitura: senão as chamadas que a aguardam ficariam
+            // presas e a chave continuaria reaproveitável.
+            flights.remove(key, nova);
+            nova.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (windowNanos == 0) {
+                flights.remove(key, nova);
+            }
+        }
+    }
+
+    private final class Flight {
+
+        private final long versao;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        private Flight(long versao) {
+            this.versao = versao;
+        }
+
+        private boolean reusable(long versaoAtual, long agora) {
+            if (versao != versaoAtual || future.isCompletedExceptionally()) {
+                return false;
+            }
+            return !future.isDone() || agora - completedAt <= windowNanos;
+        }
+
+        private void complete(Object value) {
+            completedAt = System.nanoTime();
+            future.complete(value);
+        }
+
+        private Object await() throws SQLException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Leitura interrompida enquanto aguardava uma leitura idêntica", e);
+            } catch (ExecutionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof SQLException) {
+                    throw (SQLException) causa;
+                }
+                if (causa instanceof RuntimeException) {
+                    throw (RuntimeException) causa;
+                }
+                if (causa instanceof Error) {
+                    throw (Error) causa;
+                }
+                throw new SQLException(causa);
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Cache LRU de {@link PreparedStatement}/{@link CallableStatement} de uma conexão física, indexado pelo
+ * texto SQL.
+ *
+ * <p>O {@code close()} do statement entregue ao chamador apenas limpa os parâmetros e o devolve ao cache,
+ * evitando um novo parse no Oracle na próxima execução do mesmo SQL. Statements removidos pela política
+ * LRU são fechados de fato (imediatamente, ou no {@code close()} do chamador se ainda estiverem em uso).</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class StatementCache {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection physical;
+    private final int capacity;
+    private final Stats stats;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection physical, int capacity, Stats stats) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.stats = stats;
+    }
+
+    /**
+     * Retorna um statement para o SQL informado, reaproveitando o do cache quando estiver livre.
+     *
+     * @param owner    A conexão (proxy) que será devolvida por {@code getConnection()}.
+     * @param sql      O texto SQL.
+     * @param callable Se o statement é uma chamada PL/SQL ({@code prepareCall}).
+     * @return O statement pronto para uso.
+     * @throws SQLException Se o statement não puder ser preparado.
+     */
+    synchronized PreparedStatement prepare(Connection owner, String sql, boolean callable) throws SQLException {
+        if (capacity <= 0) {
+            return uncached(owner, sql, callable);
+        }
+        String key = (callable ? "C:" : "P:") + sql;
+        Entry entry = entries.get(key);
+        if (entry != null && entry.broken) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry != null) {
+            if (!entry.inUse) {
+                stats.hits.incrementAndGet();
+                entry.checkout();
+                return entry.proxy(owner);
+            }
+            // O mesmo SQL já está aberto nesta conexão (por exemplo, consultas aninhadas): não armazena.
+            return uncached(owner, sql, callable);
+        }
+
+        stats.misses.incrementAndGet();
+        PreparedStatement statement = callable ? physical.prepareCall(sql) : physical.prepareStatement(sql);
+        entry = new Entry(statement, callable);
+        entry.checkout();
+        entries.put(key, entry);
+        evictOverflow();
+        return entry.proxy(owner);
+    }
+
+    /**
+     * Statement fora do cache, com o mesmo proxy dos armazenados: {@code getConnection()} devolve o dono e o
+     * {@code close()} fecha o statement físico. Não conta como acerto nem como falha do cache.
+     */
+    private PreparedStatement uncached(Connection owner, String sql, boolean callable) throws SQLException {
+        Entry entry = new Entry(callable ? physical.prepareCall(sql) : physical.prepareStatement(sql), callable);
+        entry.evicted = true;
+        entry.checkout();
+        return entry.proxy(owner);
+    }
+
+    /**
+     * Libera todos os statements (chamado quando a conexão volta ao pool).
+     */
+    synchronized void releaseAll() {
+        for (Entry entry : entries.values()) {
+            if (entry.inUse) {
+                entry.inUse = false;
+                entry.reset();
+            }
+        }
+    }
+
+    /**
+     * Fecha todos os statements armazenados (chamado quando a conexão física é descartada).
+     */
+    synchronized void closeAll() {
+        for (Entry entry : entries.values()) {
+            entry.closePhysical();
+        }
+        entries.clear();
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > capacity && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            stats.evictions.incrementAndGet();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                eldest.closePhysical();
+            }
+        }
+    }
+
+    private synchronized void giveBack(Entry entry, long generation) {
+        if (!entry.inUse || entry.generation != generation) {
+            // Empréstimo antigo, já recolhido quando a conexão voltou ao pool.
+            return;
+        }
+        entry.inUse = false;
+        if (entry.evicted) {
+            entry.closePhysical();
+        } else {
+            entry.reset();
+        }
+    }
+
+    /**
+     * Contadores agregados de todos os caches de um pool.
+     */
+    static final class Stats {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+    }
+
+    private final class Entry {
+
+        private final PreparedStatement statement;
+        private final boolean callable;
+        private final int defaultFetchSize;
+        private boolean inUse;
+        private boolean evicted;
+        private boolean broken;
+        private long generation;
+
+        private Entry(PreparedStatement statement, boolean callable) throws SQLException {
+            this.statement = statement;
+            this.callable = callable;
+            this.defaultFetchSize = statement.getFetchSize();
+        }
+
+        private void checkout() {
+            inUse = true;
+            generation++;
+        }
+
+        private PreparedStatement proxy(Connection owner) {
+            Class<?> type = callable ? CallableStatement.class : PreparedStatement.class;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    type.getClassLoader(),
+                    new Class<?>[]{type},
+                    new Handler(this, generation, owner)
+            );
+        }
+
+        private void reset() {
+            try {
+                statement.clearParameters();
+                statement.clearWarnings();
+                if (statement.getFetchSize() != defaultFetchSize) {
+                    statement.setFetchSize(defaultFetchSize);
+                }
+            } catch (SQLException e) {
+                LOGGER.fine("Descartando statement em cache que não pôde ser reiniciado: " + e.getMessage());
+                broken = true;
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.fine("Erro ao fechar statement removido do cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Encaminha as chamadas ao statement físico e intercepta o {@code close()} para devolvê-lo ao cache.
+     */
+    private final class Handler implements InvocationHandler {
+
+        private final Entry entry;
+        private final long generation;
+        private final Connection owner;
+        private boolean closed;
+
+        private Handler(Entry entry, long generation, Connection owner) {
+            this.entry = entry;
+            this.generation = generation;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        giveBack(entry, generation);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement já fechado");
+                    }
+                    try {
+                        return method.invoke(entry.statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de versão de uma tabela, incrementado a cada escrita feita pelo serviço da entidade.
+ *
+ * <p>A versão identifica o estado dos dados servidos pela aplicação: enquanto ela não muda, as leituras da
+ * tabela devolvem o mesmo conteúdo, e a {@code ETag} derivada dela pode ser validada sem acessar o banco.
+ * Cada processo começa em uma época própria, para que {@code ETag}s emitidas antes de um reinício não sejam
+ * aceitas depois dele.</p>
+ *
+ * <p>Dentro de uma {@link UnitOfWork}, a versão é incrementada na escrita e novamente quando a transação da
+ * requisição termina, de modo que nenhuma leitura feita antes do commit fique associada à versão final.</p>
+ *
+ * <p>O contador fica na memória deste processo: ele pressupõe uma única instância da aplicação escrevendo no
+ * banco e leituras feitas na base principal. Escritas de outras instâncias ou direto no banco não o
+ * incrementam, e uma réplica atrasada pode devolver dados anteriores à versão atual; por isso o
+ * {@link ConditionalGetFilter} lê da principal e pode ser desligado ({@code -Dverdebus.etag.enabled=false}).</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class TableVersion {
+
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private static final Map<String, TableVersion> VERSIONS = new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private TableVersion() {
+    }
+
+    /**
+     * Retorna a versão da tabela, criando-a no primeiro uso.
+     *
+     * @param nome Nome da tabela (o mesmo de {@link Versioned}).
+     * @return A versão compartilhada da tabela.
+     */
+    public static TableVersion of(String nome) {
+        return VERSIONS.computeIfAbsent(nome, key -> new TableVersion());
+    }
+
+    /**
+     * Registra uma escrita na tabela.
+     */
+    public void bump() {
+        version.incrementAndGet();
+        UnitOfWork.current().ifPresent(unitOfWork -> unitOfWork.afterFinish(version::incrementAndGet));
+    }
+
+    /**
+     * @return A versão atual, que só aumenta.
+     */
+    long value() {
+        return version.get();
+    }
+
+    /**
+     * Identificador do estado atual da tabela, único entre reinícios da aplicação.
+     *
+     * @return A época do processo e a versão atual.
+     */
+    String current() {
+        return EPOCH + "." + version.get();
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.config;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Converte exceções não tratadas pelos controladores em respostas 500.
+ *
+ * <p>Sem este mapeamento a exceção seria propagada ao container e os filtros de resposta não
+ * executariam, deixando a {@link UnitOfWork} da requisição sem ser encerrada.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+@Provider
+public class UnhandledExceptionMapper implements ExceptionMapper<Exception> {
+
+    private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+    @Override
+    public Response toResponse(Exception exception) {
+        if (exception instanceof WebApplicationException) {
+            return ((WebApplicationException) exception).getResponse();
+        }
+        logger.log(Level.WARNING, "Erro não tratado na requisição", exception);
+        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(Map.of("mensagem", "Erro inesperado ao processar a requisição"))
+                .build();
+    }
+}
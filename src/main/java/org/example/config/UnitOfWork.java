@@ -0,0 +1,313 @@
+package org.example.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Unidade de trabalho associada a uma requisição: uma única conexão e uma única transação.
+ *
+ * <p>Enquanto a unidade estiver vinculada à thread corrente, {@link DatabaseConnectionFactory#create()}
+ * a devolve no lugar do pool, de modo que todos os serviços e DAOs chamados durante a requisição
+ * compartilhem a mesma conexão. A conexão só é emprestada do pool no primeiro {@link #get()}.</p>
+ *
+ * <p>A conexão emprestada ignora {@code commit()} e {@code close()}; {@code rollback()} apenas marca a
+ * unidade para desfazer. A decisão final é tomada uma única vez em {@link #finish(boolean)}.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class UnitOfWork implements DatabaseConnection {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private static final Logger LOGGER = Logger.getLogger(UnitOfWork.class.getName());
+
+    private final RoutingDatabaseConnection source;
+    private Connection connection;
+    private Connection lent;
+    private final List<Runnable> afterFinish = new ArrayList<>();
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private boolean rollbackOnly;
+    private boolean primaryReads;
+    private boolean finished;
+    private boolean committed;
+
+    private UnitOfWork(RoutingDatabaseConnection source) {
+        this.source = source;
+    }
+
+    /**
+     * Inicia uma nova unidade de trabalho e a vincula à thread corrente.
+     *
+     * @return A unidade de trabalho iniciada.
+     */
+    public static UnitOfWork begin() {
+        UnitOfWork anterior = CURRENT.get();
+        if (anterior != null && !anterior.isFinished()) {
+            LOGGER.warning("Unidade de trabalho anterior não foi encerrada nesta thread; desfazendo.");
+            anterior.finishQuietly();
+        }
+        UnitOfWork unitOfWork = new UnitOfWork(RoutingDatabaseConnection.getInstance());
+        unitOfWork.bind();
+        return unitOfWork;
+    }
+
+    /**
+     * Retorna a unidade de trabalho ativa na thread corrente, se houver.
+     *
+     * @return A unidade de trabalho ativa.
+     */
+    public static Optional<UnitOfWork> current() {
+        UnitOfWork unitOfWork = CURRENT.get();
+        return unitOfWork == null || unitOfWork.isFinished() ? Optional.empty() : Optional.of(unitOfWork);
+    }
+
+    /**
+     * Vincula esta unidade à thread corrente (por exemplo, ao continuar a requisição em outra thread).
+     */
+    public void bind() {
+        CURRENT.set(this);
+    }
+
+    /**
+     * Desvincula esta unidade da thread corrente, sem encerrá-la.
+     */
+    public void unbind() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Empresta, na primeira chamada, a conexão da unidade; as chamadas seguintes recebem a mesma conexão.
+     *
+     * @return A conexão compartilhada da unidade de trabalho.
+     * @throws SQLException Se a unidade já foi encerrada ou não houver conexão disponível.
+     */
+    @Override
+    public synchronized Connection get() throws SQLException {
+        if (finished) {
+            throw new SQLException("Unidade de trabalho já encerrada");
+        }
+        if (connection == null) {
+            connection = source.get();
+            lent = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LentConnectionHandler()
+            );
+        }
+        return lent;
+    }
+
+    /**
+     * Leituras usam a conexão da unidade quando ela já participou de alguma operação (para enxergar as
+     * próprias escritas) ou quando não há réplicas; caso contrário, recebem uma conexão própria de uma
+     * réplica (ou da base principal, depois de {@link #readFromPrimary()}), que o chamador deve fechar.
+     *
+     * @return Uma conexão adequada para leituras.
+     * @throws SQLException Se a unidade já foi encerrada ou não houver conexão disponível.
+     */
+    @Override
+    public Connection getReadOnly() throws SQLException {
+        boolean principal;
+        synchronized (this) {
+            if (connection != null || !source.hasReplicas()) {
+                return get();
+            }
+            principal = primaryReads;
+        }
+        return principal ? source.get() : source.getReadOnly();
+    }
+
+    /**
+     * Faz as leituras desta unidade usarem a base principal em vez das réplicas, por exemplo quando a resposta
+     * recebe uma {@code ETag} da {@link TableVersion}, que só acompanha as escritas já confirmadas na principal.
+     */
+    public synchronized void readFromPrimary() {
+        primaryReads = true;
+    }
+
+    /**
+     * Indica se a unidade já emprestou uma conexão (isto é, se já participou de alguma operação).
+     *
+     * @return {@code true} se já houver conexão emprestada.
+     */
+    public synchronized boolean hasConnection() {
+        return connection != null;
+    }
+
+    /**
+     * Marca a unidade para ser desfeita ao final, independentemente do resultado da requisição.
+     */
+    public synchronized void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    public synchronized boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Registra uma ação a ser executada depois que a unidade for encerrada, com a transação já confirmada ou
+     * desfeita (por exemplo, invalidar um cache com dados alterados pela requisição).
+     *
+     * @param action A ação; falhas são registradas no log e não afetam o encerramento.
+     */
+    public synchronized void afterFinish(Runnable action) {
+        if (finished) {
+            action.run();
+        } else {
+            afterFinish.add(action);
+        }
+    }
+
+    /**
+     * Registra uma ação a ser executada somente se a transação da unidade for confirmada, depois das ações de
+     * {@link #afterFinish(Runnable)} (por exemplo, notificar outros clientes de uma alteração).
+     *
+     * @param action A ação; falhas são registradas no log e não afetam o encerramento.
+     */
+    public synchronized void afterCommit(Runnable action) {
+        if (finished) {
+            if (committed) {
+                action.run();
+            }
+        } else {
+            afterCommit.add(action);
+        }
+    }
+
+    /**
+     * Executa a ação quando a escrita corrente estiver confirmada: ao final da unidade de trabalho ativa, se
+     * houver, e apenas se ela for confirmada; caso contrário, imediatamente (o serviço já fez o commit).
+     *
+     * @param action A ação.
+     */
+    public static void runAfterCommit(Runnable action) {
+        current().ifPresentOrElse(unitOfWork -> unitOfWork.afterCommit(action), action);
+    }
+
+    /**
+     * Encerra a unidade: confirma a transação se {@code success} for verdadeiro e a unidade não estiver
+     * marcada para desfazer; caso contrário, desfaz. A conexão volta ao pool em qualquer caso.
+     *
+     * @param success Se a requisição terminou com sucesso.
+     * @return {@code true} se a transação foi confirmada.
+     * @throws SQLException Se o commit falhar (a transação é desfeita antes de relançar).
+     */
+    public synchronized boolean finish(boolean success) throws SQLException {
+        if (finished) {
+            return false;
+        }
+        finished = true;
+        unbind();
+        try {
+            if (connection == null) {
+                return false;
+            }
+            boolean commit = success && !rollbackOnly;
+            try {
+                if (commit) {
+                    connection.commit();
+                    committed = true;
+                } else {
+                    connection.rollback();
+                }
+                return commit;
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                connection.close();
+                connection = null;
+                lent = null;
+            }
+        } finally {
+            runAfterFinish();
+        }
+    }
+
+    private void runAfterFinish() {
+        List<Runnable> actions = new ArrayList<>(afterFinish);
+        if (committed) {
+            actions.addAll(afterCommit);
+        }
+        afterFinish.clear();
+        afterCommit.clear();
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.warning("Erro em ação após o encerramento da unidade de trabalho: " + e.getMessage());
+            }
+        }
+    }
+
+    private void finishQuietly() {
+        try {
+            finish(false);
+        } catch (SQLException e) {
+            LOGGER.warning("Erro ao desfazer unidade de trabalho: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Conexão entregue a serviços e DAOs: a transação pertence à unidade, não a quem a usa.
+     */
+    private final class LentConnectionHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        setRollbackOnly();
+                        return null;
+                    }
+                    break;
+                case "isClosed":
+                    return isFinished();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "UnitOfWorkConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+            Connection atual;
+            synchronized (UnitOfWork.this) {
+                atual = connection;
+            }
+            if (atual == null) {
+                throw new SQLException("Unidade de trabalho já encerrada");
+            }
+            try {
+                return method.invoke(atual, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.config;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Abre uma {@link UnitOfWork} no início de cada requisição e a encerra uma única vez na resposta:
+ * respostas com status abaixo de 400 confirmam a transação; as demais a desfazem. Roda antes dos demais
+ * filtros de requisição, que podem assim configurar a unidade (por exemplo, {@link ConditionalGetFilter}).
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+@Provider
+@Priority(Priorities.USER - 100)
+public class UnitOfWorkFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String PROPERTY = UnitOfWork.class.getName();
+
+    private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        requestContext.setProperty(PROPERTY, UnitOfWork.begin());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object property = requestContext.getProperty(PROPERTY);
+        if (!(property instanceof UnitOfWork)) {
+            return;
+        }
+        requestContext.removeProperty(PROPERTY);
+        UnitOfWork unitOfWork = (UnitOfWork) property;
+        try {
+            unitOfWork.finish(responseContext.getStatus() < 400);
+        } catch (SQLException e) {
+            logger.warning("Erro ao confirmar a transação da requisição: " + e.getMessage());
+            responseContext.setStatus(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            responseContext.setEntity(
+                    Map.of("mensagem", "Erro inesperado ao confirmar as alterações"),
+                    null,
+                    MediaType.APPLICATION_JSON_TYPE
+            );
+        }
+    }
+}
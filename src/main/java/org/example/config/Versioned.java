@@ -0,0 +1,33 @@
+package org.example.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um recurso REST cujas leituras ({@code GET}) dependem de uma única tabela, identificada pelo nome da
+ * sua {@link TableVersion}. As respostas desses recursos recebem {@code ETag} e atendem {@code If-None-Match}
+ * com {@code 304} (ver {@link ConditionalGetFilter}).
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Versioned {
+
+    /**
+     * @return O nome da versão da tabela, o mesmo usado pelo serviço ao registrar as escritas.
+     */
+    String value();
+
+    /**
+     * Exclui um método do recurso do {@code GET} condicional, quando a sua resposta não depende apenas da versão
+     * da tabela (por exemplo, {@code /changes}, que libera alterações conforme o tempo passa).
+     */
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Exclude {
+    }
+}
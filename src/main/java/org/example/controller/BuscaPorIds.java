@@ -0,0 +1,89 @@
+package org.example.controller;
+
+import org.example.config.DatabaseConnectionFactory;
+import org.example.dtos.BuscaPorIdsDto;
+import org.example.exceptions.InvalidQueryException;
+
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Regras comuns dos endpoints de busca por uma lista de IDs ({@code GET ?ids=1,2,3} e {@code POST /ids}).
+ *
+ * <p>A lista precisa ter entre 1 e {@link DatabaseConnectionFactory#batchMaxItems()} IDs; IDs repetidos são
+ * considerados uma única vez. A resposta traz os registros na ordem pedida e os IDs não encontrados.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class BuscaPorIds {
+
+    private BuscaPorIds() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Lê os IDs do parâmetro {@code ids}.
+     *
+     * @param ids Os IDs separados por vírgula.
+     * @return Os IDs distintos, na ordem informada.
+     * @throws InvalidQueryException Se o parâmetro estiver vazio, tiver valores não numéricos ou IDs demais.
+     */
+    static Set<Long> of(String ids) {
+        if (ids == null || ids.isBlank()) {
+            throw new InvalidQueryException("O parâmetro ids deve listar ao menos um ID");
+        }
+        List<Long> lista = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            try {
+                lista.add(Long.valueOf(id.trim()));
+            } catch (NumberFormatException e) {
+                throw new InvalidQueryException("ID inválido no parâmetro ids: " + id.trim());
+            }
+        }
+        return of(lista);
+    }
+
+    /**
+     * Valida os IDs recebidos no corpo da requisição.
+     *
+     * @param ids Os IDs recebidos.
+     * @return Os IDs distintos, na ordem informada.
+     * @throws InvalidQueryException Se a lista estiver vazia, tiver IDs nulos ou IDs demais.
+     */
+    static Set<Long> of(Collection<Long> ids) {
+        int maximo = DatabaseConnectionFactory.batchMaxItems();
+        if (ids == null || ids.isEmpty() || ids.size() > maximo) {
+            throw new InvalidQueryException("A lista de IDs deve ter entre 1 e " + maximo + " itens");
+        }
+        if (ids.contains(null)) {
+            throw new InvalidQueryException("A lista de IDs não pode conter itens nulos");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+
+    /**
+     * Monta a resposta da busca.
+     *
+     * @param ids         Os IDs pedidos.
+     * @param encontrados Os registros encontrados, indexados pelo ID na ordem pedida.
+     * @param <T>         Tipo dos registros.
+     * @return {@code 200} com os registros encontrados e os IDs não encontrados.
+     */
+    static <T> Response resposta(Set<Long> ids, Map<Long, T> encontrados) {
+        List<Long> naoEncontrados = new ArrayList<>();
+        for (Long id : ids) {
+            if (!encontrados.containsKey(id)) {
+                naoEncontrados.add(id);
+            }
+        }
+        return Response.status(Response.Status.OK)
+                .entity(new BuscaPorIdsDto<>(new ArrayList<>(encontrados.values()), naoEncontrados))
+                .build();
+    }
+}
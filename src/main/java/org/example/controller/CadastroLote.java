@@ -0,0 +1,55 @@
+package org.example.controller;
+
+import org.example.config.DatabaseConnectionFactory;
+import org.example.exceptions.InvalidQueryException;
+import org.example.models.ResultadoLote;
+
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Regras comuns dos endpoints de cadastro em lote ({@code /cadastre/lote}).
+ *
+ * <p>O lote precisa ter entre 1 e {@link DatabaseConnectionFactory#batchMaxItems()} itens. A resposta é
+ * {@code 201} quando todos os itens foram criados e {@code 200} quando algum foi recusado; em ambos os
+ * casos, o corpo traz o resultado de cada item.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class CadastroLote {
+
+    private CadastroLote() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Valida o tamanho e o conteúdo do lote recebido.
+     *
+     * @param itens Os itens recebidos.
+     * @throws InvalidQueryException Se o lote estiver vazio, for grande demais ou tiver itens nulos.
+     */
+    static void validar(List<?> itens) {
+        int maximo = DatabaseConnectionFactory.batchMaxItems();
+        if (itens == null || itens.isEmpty() || itens.size() > maximo) {
+            throw new InvalidQueryException("O lote deve ter entre 1 e " + maximo + " itens");
+        }
+        if (itens.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidQueryException("O lote não pode conter itens nulos");
+        }
+    }
+
+    /**
+     * Monta a resposta do cadastro em lote.
+     *
+     * @param resultados O resultado de cada item.
+     * @return {@code 201} se todos os itens foram criados, ou {@code 200} caso contrário.
+     */
+    static Response resposta(List<ResultadoLote> resultados) {
+        boolean todos = resultados.stream().allMatch(ResultadoLote::isSucesso);
+        return Response.status(todos ? Response.Status.CREATED : Response.Status.OK)
+                .entity(resultados)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.controller;
+
+import org.example.exceptions.InvalidQueryException;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parâmetro {@code fields} dos endpoints de consulta: a lista, separada por vírgulas, dos campos JSON que
+ * o cliente quer receber.
+ *
+ * <p>Os campos são validados pelo DAO contra as colunas da tabela e viram uma lista explícita de colunas
+ * no SQL; a resposta traz objetos parciais com esses campos e o ID.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class CamposParciais {
+
+    private CamposParciais() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Interpreta o parâmetro {@code fields}.
+     *
+     * @param fields O valor recebido, por exemplo {@code idCarregador,status}.
+     * @return Os campos pedidos, ou {@code null} se o parâmetro não foi informado (objeto completo).
+     * @throws InvalidQueryException Se o parâmetro foi informado sem nenhum campo.
+     */
+    static Set<String> of(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> campos = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(campo -> !campo.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (campos.isEmpty()) {
+            throw new InvalidQueryException("O parâmetro fields deve informar ao menos um campo");
+        }
+        return campos;
+    }
+}
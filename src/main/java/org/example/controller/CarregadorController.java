@@ -1,18 +1,29 @@
 package org.example.controller;
 
+import org.example.config.DatabaseExecutor;
+import org.example.config.Versioned;
+import org.example.daos.Consulta;
 import org.example.dtos.CarregadorDto;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
-import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Carregador;
 import org.example.services.interfaces.CarregadorService;
 import org.example.services.CarregadorServiceFactory;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para a entidade Carregador.
@@ -21,6 +32,7 @@ import java.util.Map;
  * @since 1.0
  */
 @Path("/rest/carregador")
+@Versioned("carregador")
 public class CarregadorController {
 
     // Instância de CarregadorService obtida da factory
@@ -30,52 +42,215 @@ public class CarregadorController {
      * Endpoint para criar um novo carregador.
      *
      * @param input DTO de entrada para criação de um carregador.
-     * @return Resposta HTTP indicando sucesso ou erro.
-     * @throws UnsupportedServiceOperationException Se ocorrer um erro na operação.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @POST
     @Path("/cadastre")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response add(CarregadorDto input) throws UnsupportedServiceOperationException {
-        if (input.getIdCarregador() == null) {
-            try {
-                // Criação do objeto Carregador com base no DTO recebido
-                Carregador carregador = this.carregadorService.create(
-                        new Carregador(
-                                null,
-                                input.getPotencia(),
-                                input.getStatus(),
-                                input.getIdEstacaoRecargaSolar()
-                        )
-                );
-                return Response.status(Response.Status.CREATED)
-                        .entity(carregador)
+    public void add(CarregadorDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            if (input.getIdCarregador() == null) {
+                try {
+                    // Criação do objeto Carregador com base no DTO recebido
+                    Carregador carregador = this.carregadorService.create(input.toModel(null));
+                    return Response.status(Response.Status.CREATED)
+                            .entity(carregador)
+                            .build();
+                } catch (SQLException | NotSavedException e) {
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir carregador"))
+                            .build();
+                }
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("mensagem", "Esse método só permite a criação de novos carregadores"))
                         .build();
-            } catch (SQLException | NotSavedException e) {
+            }
+        });
+    }
+
+    /**
+     * Endpoint para criar vários carregadores de uma vez.
+     * Os itens são inseridos em blocos, na mesma transação; itens recusados não impedem o cadastro dos demais.
+     *
+     * @param input DTOs de entrada, um por registro a ser criado.
+     * @param response Resposta assíncrona, concluída com o resultado de cada item: o ID gerado ou o motivo da recusa.
+     */
+    @POST
+    @Path("/cadastre/lote")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void addLote(List<CarregadorDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<Carregador> carregadores = new ArrayList<>(input.size());
+            for (CarregadorDto item : input) {
+                carregadores.add(item.toModel(item.getIdCarregador()));
+            }
+            try {
+                return CadastroLote.resposta(this.carregadorService.createAll(carregadores));
+            } catch (SQLException e) {
                 return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir carregador"))
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir carregador em lote"))
                         .build();
             }
-        } else {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(Map.of("mensagem", "Esse método só permite a criação de novos carregadores"))
-                    .build();
-        }
+        });
     }
 
     /**
      * Endpoint para listar todos os carregadores.
+     * Com {@code limit} ou {@code cursor}, a listagem é paginada em ordem crescente de ID; com
+     * {@code stream=true} ou NDJSON, é escrita em streaming sem ser montada em memória. Termos
+     * {@code campo=valor} (ou {@code !=}, {@code >=}, {@code <=}, {@code >}, {@code <}) sobre os campos filtráveis
+     * restringem a listagem, e {@code sort} a ordena; a ordenação não se combina com a paginação.
      *
-     * @return Resposta HTTP com a lista de todos os carregadores.
+     * @param limit Quantidade máxima de itens por página (opcional).
+     * @param cursor Cursor devolvido pela página anterior (opcional).
+     * @param stream Se verdadeiro, escreve o array JSON à medida que as linhas são lidas.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param sort Campos de ordenação, separados por vírgula; {@code -} antes do campo inverte a ordem (opcional).
+     * @param uriInfo URI da requisição, de onde são lidos os filtros.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a lista de todos os carregadores.
      */
     @GET
     @Path("/all")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAll(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor,
+                        @QueryParam("stream") boolean stream, @QueryParam("fields") String fields,
+                        @QueryParam("sort") String sort, @Context UriInfo uriInfo,
+                        @Context HttpHeaders headers, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            Set<String> campos = CamposParciais.of(fields);
+            Consulta consulta = FiltrosConsulta.of(uriInfo, sort);
+            if (StreamingJson.solicitado(headers, stream, Paginacao.solicitada(limit, cursor))) {
+                return campos == null
+                        ? StreamingJson.<Carregador>resposta(headers, action -> this.carregadorService.streamAll(consulta, action))
+                        : StreamingJson.<Map<String, Object>>resposta(headers, action -> this.carregadorService.streamAll(consulta, campos, action));
+            }
+            if (Paginacao.solicitada(limit, cursor)) {
+                Paginacao paginacao = Paginacao.of(limit, cursor);
+                Consulta pagina = paginacao.consulta(consulta);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null
+                                ? paginacao.pagina(
+                                        this.carregadorService.find(pagina),
+                                        Carregador::getIdCarregador)
+                                : paginacao.pagina(
+                                        this.carregadorService.find(pagina, campos),
+                                        item -> (Long) item.get("idCarregador")))
+                        .build();
+            }
+            return Response.status(Response.Status.OK)
+                    .entity(campos != null
+                            ? this.carregadorService.find(consulta, campos)
+                            : consulta.isVazia() ? this.carregadorService.findAll() : this.carregadorService.find(consulta))
+                    .build();
+        });
+    }
+
+    /**
+     * Endpoint para buscar um carregador pelo ID.
+     *
+     * @param id ID do carregador a ser buscado.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com o carregador ou 404 se não existir.
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findById(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                         @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null ? this.carregadorService.findById(id) : this.carregadorService.findById(id, campos))
+                        .build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar carregador"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar vários carregadores pelos IDs, informados em {@code ids} separados por vírgula.
+     *
+     * @param ids IDs separados por vírgula; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response findAll() throws SQLException {
-        return Response.status(Response.Status.OK)
-                .entity(this.carregadorService.findAll())
-                .build();
+    public void findByIds(@QueryParam("ids") String ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    /**
+     * Endpoint para buscar vários carregadores pelos IDs, informados no corpo da requisição; indicado para listas longas.
+     *
+     * @param ids IDs a buscar; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @POST
+    @Path("/ids")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findByIdsPost(List<Long> ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    private Response buscarPorIds(Set<Long> ids) {
+        try {
+            return BuscaPorIds.resposta(ids, this.carregadorService.findByIds(ids));
+        } catch (SQLException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar carregadores"))
+                    .build();
+        }
+    }
+
+    /**
+     * Endpoint de sincronização incremental: as inserções, atualizações e exclusões de carregadores posteriores ao
+     * token {@code since}, agregadas por registro e na ordem de commit. Sem {@code since}, devolve apenas o token
+     * atual, a partir do qual a sincronização deve começar; com {@code limit}, a resposta é paginada e traz o
+     * próximo token; com {@code stream=true} ou NDJSON, todas as alterações são escritas em streaming, cada
+     * uma com o seu token.
+     *
+     * @param since Token da última alteração já recebida (opcional).
+     * @param limit Quantidade de alterações por página (opcional); a página se estende para não dividir uma transação.
+     * @param stream Se verdadeiro, escreve as alterações à medida que são lidas.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com as alterações e o próximo token.
+     */
+    @GET
+    @Path("/changes")
+    @Versioned.Exclude
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAlteracoes(@QueryParam("since") String since, @QueryParam("limit") Integer limit,
+                               @QueryParam("stream") boolean stream, @Context HttpHeaders headers,
+                               @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                if (since == null) {
+                    return Sincronizacao.inicio(this.carregadorService.findUltimaAlteracao());
+                }
+                long desde = Sincronizacao.token(since);
+                if (StreamingJson.solicitado(headers, stream, limit != null)) {
+                    return StreamingJson.<Alteracao<Carregador>>resposta(headers, action -> this.carregadorService.streamAlteracoes(desde, action));
+                }
+                Sincronizacao sincronizacao = Sincronizacao.of(desde, limit);
+                return sincronizacao.resposta(this.carregadorService.findAlteracoes(desde, sincronizacao.getLimiteConsulta()));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar alterações de carregadores"))
+                        .build();
+            }
+        });
     }
 
     /**
@@ -83,51 +258,74 @@ public class CarregadorController {
      *
      * @param id    ID do carregador a ser atualizado.
      * @param input DTO de entrada para atualização do carregador.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response update(@PathParam("id") Long id, CarregadorDto input) {
-        try {
-            // Atualização do objeto Carregador com base no DTO e ID recebidos
-            Carregador updated = this.carregadorService.update(
-                    new Carregador(
-                            id,
-                            input.getPotencia(),
-                            input.getStatus(),
-                            input.getIdEstacaoRecargaSolar()
-                    )
-            );
-            return Response.status(Response.Status.OK).entity(updated).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        } catch (SQLException s) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar carregador"))
-                    .build();
-        }
+    public void update(@PathParam("id") Long id, CarregadorDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                // Atualização do objeto Carregador com base no DTO e ID recebidos
+                Carregador updated = this.carregadorService.update(input.toModel(id));
+                return Response.status(Response.Status.OK).entity(updated).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar carregador"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para atualizar apenas alguns campos de um carregador (JSON Merge Patch): os campos enviados são gravados,
+     * {@code null} limpa o campo e os campos ausentes permanecem como estão.
+     *
+     * @param id ID do carregador a ser atualizado.
+     * @param patch Campos JSON e os novos valores.
+     * @param response Resposta assíncrona, concluída com 204 se o carregador foi atualizado ou 404 se não existir.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON})
+    public void patch(@PathParam("id") Long id, Map<String, Object> patch, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                this.carregadorService.patch(id, MergePatch.campos(patch));
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar carregador"))
+                        .build();
+            }
+        });
     }
 
     /**
      * Endpoint para excluir um carregador existente.
      *
      * @param id ID do carregador a ser excluído.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @DELETE
     @Path("/{id}")
-    public Response delete(@PathParam("id") Long id) {
-        try {
-            this.carregadorService.deleteById(id);
-            return Response.status(Response.Status.NO_CONTENT).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        } catch (SQLException s) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar carregador"))
-                    .build();
-        }
+    public void delete(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                this.carregadorService.deleteById(id);
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar carregador"))
+                        .build();
+            }
+        });
     }
 }
@@ -1,18 +1,28 @@
 package org.example.controller;
 
+import org.example.config.DatabaseExecutor;
+import org.example.daos.Consulta;
 import org.example.dtos.ConsumoDto;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
-import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Consumo;
 import org.example.services.interfaces.ConsumoService;
 import org.example.services.ConsumoServiceFactory;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para a entidade Consumo.
@@ -30,53 +40,214 @@ public class ConsumoController {
      * Endpoint para criar um novo registro de consumo.
      *
      * @param input DTO de entrada para criação de um registro de consumo.
-     * @return Resposta HTTP indicando sucesso ou erro.
-     * @throws UnsupportedServiceOperationException Se ocorrer um erro na operação.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @POST
     @Path("/cadastre")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response add(ConsumoDto input) throws UnsupportedServiceOperationException {
-        if (input.getIdConsumo() == null) {
-            try {
-                // Criação do objeto Consumo com base no DTO recebido
-                Consumo consumo = this.consumoService.create(
-                        new Consumo(
-                                null,
-                                input.getConsumoPorKm(),
-                                input.getDistanciaPercorrida(),
-                                input.getEnergiaTotalConsumida(),
-                                input.getIdOnibus()
-                        )
-                );
-                return Response.status(Response.Status.CREATED)
-                        .entity(consumo)
+    public void add(ConsumoDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            if (input.getIdConsumo() == null) {
+                try {
+                    // Criação do objeto Consumo com base no DTO recebido
+                    Consumo consumo = this.consumoService.create(input.toModel(null));
+                    return Response.status(Response.Status.CREATED)
+                            .entity(consumo)
+                            .build();
+                } catch (SQLException | NotSavedException e) {
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir registro de consumo"))
+                            .build();
+                }
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("mensagem", "Esse método só permite a criação de novos registros de consumo"))
                         .build();
-            } catch (SQLException | NotSavedException e) {
+            }
+        });
+    }
+
+    /**
+     * Endpoint para criar vários consumos de uma vez.
+     * Os itens são inseridos em blocos, na mesma transação; itens recusados não impedem o cadastro dos demais.
+     *
+     * @param input DTOs de entrada, um por registro a ser criado.
+     * @param response Resposta assíncrona, concluída com o resultado de cada item: o ID gerado ou o motivo da recusa.
+     */
+    @POST
+    @Path("/cadastre/lote")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void addLote(List<ConsumoDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<Consumo> consumos = new ArrayList<>(input.size());
+            for (ConsumoDto item : input) {
+                consumos.add(item.toModel(item.getIdConsumo()));
+            }
+            try {
+                return CadastroLote.resposta(this.consumoService.createAll(consumos));
+            } catch (SQLException e) {
                 return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir registro de consumo"))
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir registro de consumo em lote"))
                         .build();
             }
-        } else {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(Map.of("mensagem", "Esse método só permite a criação de novos registros de consumo"))
-                    .build();
-        }
+        });
     }
 
     /**
      * Endpoint para listar todos os registros de consumo.
+     * Com {@code limit} ou {@code cursor}, a listagem é paginada em ordem crescente de ID; com
+     * {@code stream=true} ou NDJSON, é escrita em streaming sem ser montada em memória. Termos
+     * {@code campo=valor} (ou {@code !=}, {@code >=}, {@code <=}, {@code >}, {@code <}) sobre os campos filtráveis
+     * restringem a listagem, e {@code sort} a ordena; a ordenação não se combina com a paginação.
      *
-     * @return Resposta HTTP com a lista de todos os registros de consumo.
+     * @param limit Quantidade máxima de itens por página (opcional).
+     * @param cursor Cursor devolvido pela página anterior (opcional).
+     * @param stream Se verdadeiro, escreve o array JSON à medida que as linhas são lidas.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param sort Campos de ordenação, separados por vírgula; {@code -} antes do campo inverte a ordem (opcional).
+     * @param uriInfo URI da requisição, de onde são lidos os filtros.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a lista de todos os registros de consumo.
      */
     @GET
     @Path("/all")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAll(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor,
+                        @QueryParam("stream") boolean stream, @QueryParam("fields") String fields,
+                        @QueryParam("sort") String sort, @Context UriInfo uriInfo,
+                        @Context HttpHeaders headers, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            Set<String> campos = CamposParciais.of(fields);
+            Consulta consulta = FiltrosConsulta.of(uriInfo, sort);
+            if (StreamingJson.solicitado(headers, stream, Paginacao.solicitada(limit, cursor))) {
+                return campos == null
+                        ? StreamingJson.<Consumo>resposta(headers, action -> this.consumoService.streamAll(consulta, action))
+                        : StreamingJson.<Map<String, Object>>resposta(headers, action -> this.consumoService.streamAll(consulta, campos, action));
+            }
+            if (Paginacao.solicitada(limit, cursor)) {
+                Paginacao paginacao = Paginacao.of(limit, cursor);
+                Consulta pagina = paginacao.consulta(consulta);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null
+                                ? paginacao.pagina(
+                                        this.consumoService.find(pagina),
+                                        Consumo::getIdConsumo)
+                                : paginacao.pagina(
+                                        this.consumoService.find(pagina, campos),
+                                        item -> (Long) item.get("idConsumo")))
+                        .build();
+            }
+            return Response.status(Response.Status.OK)
+                    .entity(campos != null
+                            ? this.consumoService.find(consulta, campos)
+                            : consulta.isVazia() ? this.consumoService.findAll() : this.consumoService.find(consulta))
+                    .build();
+        });
+    }
+
+    /**
+     * Endpoint para buscar um registro de consumo pelo ID.
+     *
+     * @param id ID do registro de consumo a ser buscado.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com o registro de consumo ou 404 se não existir.
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findById(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                         @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null ? this.consumoService.findById(id) : this.consumoService.findById(id, campos))
+                        .build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar registro de consumo"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar vários consumos pelos IDs, informados em {@code ids} separados por vírgula.
+     *
+     * @param ids IDs separados por vírgula; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response findAll() throws SQLException {
-        return Response.status(Response.Status.OK)
-                .entity(this.consumoService.findAll())
-                .build();
+    public void findByIds(@QueryParam("ids") String ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    /**
+     * Endpoint para buscar vários consumos pelos IDs, informados no corpo da requisição; indicado para listas longas.
+     *
+     * @param ids IDs a buscar; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @POST
+    @Path("/ids")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findByIdsPost(List<Long> ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    private Response buscarPorIds(Set<Long> ids) {
+        try {
+            return BuscaPorIds.resposta(ids, this.consumoService.findByIds(ids));
+        } catch (SQLException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar consumos"))
+                    .build();
+        }
+    }
+
+    /**
+     * Endpoint de sincronização incremental: as inserções, atualizações e exclusões de consumos posteriores ao
+     * token {@code since}, agregadas por registro e na ordem de commit. Sem {@code since}, devolve apenas o token
+     * atual, a partir do qual a sincronização deve começar; com {@code limit}, a resposta é paginada e traz o
+     * próximo token; com {@code stream=true} ou NDJSON, todas as alterações são escritas em streaming, cada
+     * uma com o seu token.
+     *
+     * @param since Token da última alteração já recebida (opcional).
+     * @param limit Quantidade de alterações por página (opcional); a página se estende para não dividir uma transação.
+     * @param stream Se verdadeiro, escreve as alterações à medida que são lidas.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com as alterações e o próximo token.
+     */
+    @GET
+    @Path("/changes")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAlteracoes(@QueryParam("since") String since, @QueryParam("limit") Integer limit,
+                               @QueryParam("stream") boolean stream, @Context HttpHeaders headers,
+                               @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                if (since == null) {
+                    return Sincronizacao.inicio(this.consumoService.findUltimaAlteracao());
+                }
+                long desde = Sincronizacao.token(since);
+                if (StreamingJson.solicitado(headers, stream, limit != null)) {
+                    return StreamingJson.<Alteracao<Consumo>>resposta(headers, action -> this.consumoService.streamAlteracoes(desde, action));
+                }
+                Sincronizacao sincronizacao = Sincronizacao.of(desde, limit);
+                return sincronizacao.resposta(this.consumoService.findAlteracoes(desde, sincronizacao.getLimiteConsulta()));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar alterações de consumos"))
+                        .build();
+            }
+        });
     }
 
     /**
@@ -84,52 +255,74 @@ public class ConsumoController {
      *
      * @param id    ID do registro de consumo a ser atualizado.
      * @param input DTO de entrada para atualização do registro de consumo.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response update(@PathParam("id") Long id, ConsumoDto input) {
-        try {
-            // Atualização do objeto Consumo com base no DTO e ID recebidos
-            Consumo updated = this.consumoService.update(
-                    new Consumo(
-                            id,
-                            input.getConsumoPorKm(),
-                            input.getDistanciaPercorrida(),
-                            input.getEnergiaTotalConsumida(),
-                            input.getIdOnibus()
-                    )
-            );
-            return Response.status(Response.Status.OK).entity(updated).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        } catch (SQLException s) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar registro de consumo"))
-                    .build();
-        }
+    public void update(@PathParam("id") Long id, ConsumoDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                // Atualização do objeto Consumo com base no DTO e ID recebidos
+                Consumo updated = this.consumoService.update(input.toModel(id));
+                return Response.status(Response.Status.OK).entity(updated).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar registro de consumo"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para atualizar apenas alguns campos de um consumo (JSON Merge Patch): os campos enviados são gravados,
+     * {@code null} limpa o campo e os campos ausentes permanecem como estão.
+     *
+     * @param id ID do consumo a ser atualizado.
+     * @param patch Campos JSON e os novos valores.
+     * @param response Resposta assíncrona, concluída com 204 se o consumo foi atualizado ou 404 se não existir.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON})
+    public void patch(@PathParam("id") Long id, Map<String, Object> patch, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                this.consumoService.patch(id, MergePatch.campos(patch));
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar registro de consumo"))
+                        .build();
+            }
+        });
     }
 
     /**
      * Endpoint para excluir um registro de consumo existente.
      *
      * @param id ID do registro de consumo a ser excluído.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @DELETE
     @Path("/{id}")
-    public Response delete(@PathParam("id") Long id) {
-        try {
-            this.consumoService.deleteById(id);
-            return Response.status(Response.Status.NO_CONTENT).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        } catch (SQLException s) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar registro de consumo"))
-                    .build();
-        }
+    public void delete(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                this.consumoService.deleteById(id);
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar registro de consumo"))
+                        .build();
+            }
+        });
     }
 }
@@ -1,18 +1,28 @@
 package org.example.controller;
 
+import org.example.config.DatabaseExecutor;
+import org.example.daos.Consulta;
 import org.example.dtos.EnderecoDto;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
-import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Endereco;
 import org.example.services.EnderecoLinhaServiceFactory;
 import org.example.services.interfaces.EnderecoService;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para a entidade EnderecoLinha.
@@ -30,120 +40,299 @@ public class EnderecoLinhaController {
      * Endpoint para criar um novo endereço de linha.
      *
      * @param input DTO de entrada para criação de um endereço de linha.
-     * @return Resposta HTTP indicando sucesso ou erro.
-     * @throws UnsupportedServiceOperationException Se ocorrer um erro na operação.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @POST
     @Path("/cadastre")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response add(EnderecoDto input) throws UnsupportedServiceOperationException {
-        if (input.getIdEndereco() == null) {
-            try {
-                // Criação do objeto Endereco com base no DTO recebido
-                Endereco endereco = enderecoService.create(
-                        new Endereco(
-                                null,
-                                input.getLogradouro(),
-                                input.getNumero(),
-                                input.getBairro(),
-                                input.getCidade(),
-                                input.getUf(),
-                                input.getIdReferencia()
-                        )
-                );
-                return Response.status(Response.Status.CREATED)
-                        .entity(endereco)
+    public void add(EnderecoDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            if (input.getIdEndereco() == null) {
+                try {
+                    // Criação do objeto Endereco com base no DTO recebido
+                    Endereco endereco = enderecoService.create(input.toModel(null));
+                    return Response.status(Response.Status.CREATED)
+                            .entity(endereco)
+                            .build();
+                } catch (SQLException | NotSavedException e) {
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir endereço de linha"))
+                            .build();
+                }
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("mensagem", "Esse método só permite a criação de novos endereços"))
                         .build();
-            } catch (SQLException | NotSavedException e) {
+            }
+        });
+    }
+
+    /**
+     * Endpoint para criar vários endereços de linhas de uma vez.
+     * Os itens são inseridos em blocos, na mesma transação; itens recusados não impedem o cadastro dos demais.
+     *
+     * @param input DTOs de entrada, um por registro a ser criado.
+     * @param response Resposta assíncrona, concluída com o resultado de cada item: o ID gerado ou o motivo da recusa.
+     */
+    @POST
+    @Path("/cadastre/lote")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void addLote(List<EnderecoDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<Endereco> enderecos = new ArrayList<>(input.size());
+            for (EnderecoDto item : input) {
+                enderecos.add(item.toModel(item.getIdEndereco()));
+            }
+            try {
+                return CadastroLote.resposta(enderecoService.createAll(enderecos));
+            } catch (SQLException e) {
                 return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir endereço de linha"))
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir endereço de linha em lote"))
                         .build();
             }
-        } else {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(Map.of("mensagem", "Esse método só permite a criação de novos endereços"))
-                    .build();
-        }
+        });
     }
 
     /**
      * Endpoint para listar todos os endereços de linhas.
+     * Com {@code limit} ou {@code cursor}, a listagem é paginada em ordem crescente de ID; com
+     * {@code stream=true} ou NDJSON, é escrita em streaming sem ser montada em memória. Termos
+     * {@code campo=valor} (ou {@code !=}, {@code >=}, {@code <=}, {@code >}, {@code <}) sobre os campos filtráveis
+     * restringem a listagem, e {@code sort} a ordena; a ordenação não se combina com a paginação.
      *
-     * @return Resposta HTTP com a lista de todos os endereços de linhas.
+     * @param limit Quantidade máxima de itens por página (opcional).
+     * @param cursor Cursor devolvido pela página anterior (opcional).
+     * @param stream Se verdadeiro, escreve o array JSON à medida que as linhas são lidas.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param sort Campos de ordenação, separados por vírgula; {@code -} antes do campo inverte a ordem (opcional).
+     * @param uriInfo URI da requisição, de onde são lidos os filtros.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a lista de todos os endereços de linhas.
      */
     @GET
     @Path("/all")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAll(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor,
+                        @QueryParam("stream") boolean stream, @QueryParam("fields") String fields,
+                        @QueryParam("sort") String sort, @Context UriInfo uriInfo,
+                        @Context HttpHeaders headers, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                Consulta consulta = FiltrosConsulta.of(uriInfo, sort);
+                if (StreamingJson.solicitado(headers, stream, Paginacao.solicitada(limit, cursor))) {
+                    return campos == null
+                            ? StreamingJson.<Endereco>resposta(headers, action -> enderecoService.streamAll(consulta, action))
+                            : StreamingJson.<Map<String, Object>>resposta(headers, action -> enderecoService.streamAll(consulta, campos, action));
+                }
+                if (Paginacao.solicitada(limit, cursor)) {
+                    Paginacao paginacao = Paginacao.of(limit, cursor);
+                    Consulta pagina = paginacao.consulta(consulta);
+                    return Response.status(Response.Status.OK)
+                            .entity(campos == null
+                                    ? paginacao.pagina(
+                                            enderecoService.find(pagina),
+                                            Endereco::getIdEndereco)
+                                    : paginacao.pagina(
+                                            enderecoService.find(pagina, campos),
+                                            item -> (Long) item.get("idEndereco")))
+                            .build();
+                }
+                return Response.status(Response.Status.OK)
+                        .entity(campos != null
+                                ? enderecoService.find(consulta, campos)
+                                : consulta.isVazia() ? enderecoService.findAll() : enderecoService.find(consulta))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro ao buscar os endereços de linhas"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar um endereço de linha pelo ID.
+     *
+     * @param id ID do endereço de linha a ser buscado.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com o endereço de linha ou 404 se não existir.
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findById(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                         @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null ? enderecoService.findById(id) : enderecoService.findById(id, campos))
+                        .build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar endereço de linha"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar vários endereços de linhas pelos IDs, informados em {@code ids} separados por vírgula.
+     *
+     * @param ids IDs separados por vírgula; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findByIds(@QueryParam("ids") String ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    /**
+     * Endpoint para buscar vários endereços de linhas pelos IDs, informados no corpo da requisição; indicado para listas longas.
+     *
+     * @param ids IDs a buscar; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @POST
+    @Path("/ids")
+    @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response findAll() {
+    public void findByIdsPost(List<Long> ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    private Response buscarPorIds(Set<Long> ids) {
         try {
-            return Response.status(Response.Status.OK)
-                    .entity(enderecoService.findAll())
-                    .build();
+            return BuscaPorIds.resposta(ids, this.enderecoService.findByIds(ids));
         } catch (SQLException e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro ao buscar os endereços de linhas"))
+                    .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar endereços de linhas"))
                     .build();
         }
     }
 
+    /**
+     * Endpoint de sincronização incremental: as inserções, atualizações e exclusões de endereços de linhas posteriores ao
+     * token {@code since}, agregadas por registro e na ordem de commit. Sem {@code since}, devolve apenas o token
+     * atual, a partir do qual a sincronização deve começar; com {@code limit}, a resposta é paginada e traz o
+     * próximo token; com {@code stream=true} ou NDJSON, todas as alterações são escritas em streaming, cada
+     * uma com o seu token.
+     *
+     * @param since Token da última alteração já recebida (opcional).
+     * @param limit Quantidade de alterações por página (opcional); a página se estende para não dividir uma transação.
+     * @param stream Se verdadeiro, escreve as alterações à medida que são lidas.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com as alterações e o próximo token.
+     */
+    @GET
+    @Path("/changes")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAlteracoes(@QueryParam("since") String since, @QueryParam("limit") Integer limit,
+                               @QueryParam("stream") boolean stream, @Context HttpHeaders headers,
+                               @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                if (since == null) {
+                    return Sincronizacao.inicio(this.enderecoService.findUltimaAlteracao());
+                }
+                long desde = Sincronizacao.token(since);
+                if (StreamingJson.solicitado(headers, stream, limit != null)) {
+                    return StreamingJson.<Alteracao<Endereco>>resposta(headers, action -> this.enderecoService.streamAlteracoes(desde, action));
+                }
+                Sincronizacao sincronizacao = Sincronizacao.of(desde, limit);
+                return sincronizacao.resposta(this.enderecoService.findAlteracoes(desde, sincronizacao.getLimiteConsulta()));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar alterações de endereços de linhas"))
+                        .build();
+            }
+        });
+    }
+
     /**
      * Endpoint para atualizar um endereço de linha existente.
      *
      * @param id    ID do endereço de linha a ser atualizado.
      * @param input DTO de entrada para atualização do endereço de linha.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response update(@PathParam("id") Long id, EnderecoDto input) {
-        try {
-            // Atualização do objeto Endereco com base no DTO e ID recebidos
-            Endereco updated = enderecoService.update(
-                    new Endereco(
-                            id,
-                            input.getLogradouro(),
-                            input.getNumero(),
-                            input.getBairro(),
-                            input.getCidade(),
-                            input.getUf(),
-                            input.getIdReferencia()
-                    )
-            );
-            return Response.status(Response.Status.OK).entity(updated).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(Map.of("mensagem", "Endereço de linha não encontrado"))
-                    .build();
-        } catch (SQLException e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar endereço de linha"))
-                    .build();
-        }
+    public void update(@PathParam("id") Long id, EnderecoDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                // Atualização do objeto Endereco com base no DTO e ID recebidos
+                Endereco updated = enderecoService.update(input.toModel(id));
+                return Response.status(Response.Status.OK).entity(updated).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(Map.of("mensagem", "Endereço de linha não encontrado"))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar endereço de linha"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para atualizar apenas alguns campos de um endereço de linha (JSON Merge Patch): os campos enviados são gravados,
+     * {@code null} limpa o campo e os campos ausentes permanecem como estão.
+     *
+     * @param id ID do endereço de linha a ser atualizado.
+     * @param patch Campos JSON e os novos valores.
+     * @param response Resposta assíncrona, concluída com 204 se o endereço de linha foi atualizado ou 404 se não existir.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON})
+    public void patch(@PathParam("id") Long id, Map<String, Object> patch, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                enderecoService.patch(id, MergePatch.campos(patch));
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar endereço de linha"))
+                        .build();
+            }
+        });
     }
 
     /**
      * Endpoint para excluir um endereço de linha existente.
      *
      * @param id ID do endereço de linha a ser excluído.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @DELETE
     @Path("/{id}")
-    public Response delete(@PathParam("id") Long id) {
-        try {
-            enderecoService.deleteById(id);
-            return Response.status(Response.Status.NO_CONTENT).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(Map.of("mensagem", "Endereço de linha não encontrado"))
-                    .build();
-        } catch (SQLException e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar endereço de linha"))
-                    .build();
-        }
+    public void delete(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                enderecoService.deleteById(id);
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(Map.of("mensagem", "Endereço de linha não encontrado"))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar endereço de linha"))
+                        .build();
+            }
+        });
     }
 }
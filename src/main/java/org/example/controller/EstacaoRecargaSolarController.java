@@ -1,18 +1,29 @@
 package org.example.controller;
 
+import org.example.config.DatabaseExecutor;
+import org.example.config.Versioned;
+import org.example.daos.Consulta;
 import org.example.dtos.EstacaoRecargaSolarDto;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
-import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.EstacaoRecargaSolar;
 import org.example.services.EstacaoRecargaSolarServiceFactory;
 import org.example.services.interfaces.EstacaoRecargaSolarService;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para a entidade EstacaoRecargaSolar.
@@ -21,6 +32,7 @@ import java.util.Map;
  * @since 1.0
  */
 @Path("/rest/estacao-recarga-solar")
+@Versioned("estacao-recarga-solar")
 public class EstacaoRecargaSolarController {
 
     // Instância de EstacaoRecargaSolarService obtida da factory
@@ -30,118 +42,300 @@ public class EstacaoRecargaSolarController {
      * Endpoint para criar uma nova estação de recarga solar.
      *
      * @param input DTO de entrada para criação de uma estação de recarga solar.
-     * @return Resposta HTTP indicando sucesso ou erro.
-     * @throws UnsupportedServiceOperationException Se ocorrer um erro na operação.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @POST
     @Path("/cadastre")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response add(EstacaoRecargaSolarDto input) throws UnsupportedServiceOperationException {
-        if (input.getIdEstacao() == null) {
-            try {
-                // Criação do objeto EstacaoRecargaSolar com base no DTO recebido
-                EstacaoRecargaSolar estacao = estacaoService.create(
-                        new EstacaoRecargaSolar(
-                                null,
-                                input.getPotenciaMaxima(),
-                                input.getNumeroPaineis(),
-                                input.getEnergiaGerada(),
-                                input.getOcupada(),
-                                input.getIdGaragem()
-                        )
-                );
-                return Response.status(Response.Status.CREATED)
-                        .entity(estacao)
+    public void add(EstacaoRecargaSolarDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            if (input.getIdEstacao() == null) {
+                try {
+                    // Criação do objeto EstacaoRecargaSolar com base no DTO recebido
+                    EstacaoRecargaSolar estacao = estacaoService.create(input.toModel(null));
+                    return Response.status(Response.Status.CREATED)
+                            .entity(estacao)
+                            .build();
+                } catch (SQLException | NotSavedException e) {
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir estação de recarga solar"))
+                            .build();
+                }
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("mensagem", "Esse método só permite a criação de novas estações"))
                         .build();
-            } catch (SQLException | NotSavedException e) {
+            }
+        });
+    }
+
+    /**
+     * Endpoint para criar vários estações de recarga solar de uma vez.
+     * Os itens são inseridos em blocos, na mesma transação; itens recusados não impedem o cadastro dos demais.
+     *
+     * @param input DTOs de entrada, um por registro a ser criado.
+     * @param response Resposta assíncrona, concluída com o resultado de cada item: o ID gerado ou o motivo da recusa.
+     */
+    @POST
+    @Path("/cadastre/lote")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void addLote(List<EstacaoRecargaSolarDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<EstacaoRecargaSolar> estacoes = new ArrayList<>(input.size());
+            for (EstacaoRecargaSolarDto item : input) {
+                estacoes.add(item.toModel(item.getIdEstacao()));
+            }
+            try {
+                return CadastroLote.resposta(estacaoService.createAll(estacoes));
+            } catch (SQLException e) {
                 return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir estação de recarga solar"))
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir estação de recarga solar em lote"))
                         .build();
             }
-        } else {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(Map.of("mensagem", "Esse método só permite a criação de novas estações"))
-                    .build();
-        }
+        });
     }
 
     /**
      * Endpoint para listar todas as estações de recarga solar.
+     * Com {@code limit} ou {@code cursor}, a listagem é paginada em ordem crescente de ID; com
+     * {@code stream=true} ou NDJSON, é escrita em streaming sem ser montada em memória. Termos
+     * {@code campo=valor} (ou {@code !=}, {@code >=}, {@code <=}, {@code >}, {@code <}) sobre os campos filtráveis
+     * restringem a listagem, e {@code sort} a ordena; a ordenação não se combina com a paginação.
      *
-     * @return Resposta HTTP com a lista de todas as estações de recarga solar.
+     * @param limit Quantidade máxima de itens por página (opcional).
+     * @param cursor Cursor devolvido pela página anterior (opcional).
+     * @param stream Se verdadeiro, escreve o array JSON à medida que as linhas são lidas.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param sort Campos de ordenação, separados por vírgula; {@code -} antes do campo inverte a ordem (opcional).
+     * @param uriInfo URI da requisição, de onde são lidos os filtros.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a lista de todas as estações de recarga solar.
      */
     @GET
     @Path("/all")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAll(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor,
+                        @QueryParam("stream") boolean stream, @QueryParam("fields") String fields,
+                        @QueryParam("sort") String sort, @Context UriInfo uriInfo,
+                        @Context HttpHeaders headers, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                Consulta consulta = FiltrosConsulta.of(uriInfo, sort);
+                if (StreamingJson.solicitado(headers, stream, Paginacao.solicitada(limit, cursor))) {
+                    return campos == null
+                            ? StreamingJson.<EstacaoRecargaSolar>resposta(headers, action -> estacaoService.streamAll(consulta, action))
+                            : StreamingJson.<Map<String, Object>>resposta(headers, action -> estacaoService.streamAll(consulta, campos, action));
+                }
+                if (Paginacao.solicitada(limit, cursor)) {
+                    Paginacao paginacao = Paginacao.of(limit, cursor);
+                    Consulta pagina = paginacao.consulta(consulta);
+                    return Response.status(Response.Status.OK)
+                            .entity(campos == null
+                                    ? paginacao.pagina(
+                                            estacaoService.find(pagina),
+                                            EstacaoRecargaSolar::getIdEstacao)
+                                    : paginacao.pagina(
+                                            estacaoService.find(pagina, campos),
+                                            item -> (Long) item.get("idEstacao")))
+                            .build();
+                }
+                return Response.status(Response.Status.OK)
+                        .entity(campos != null
+                                ? estacaoService.find(consulta, campos)
+                                : consulta.isVazia() ? estacaoService.findAll() : estacaoService.find(consulta))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro ao buscar as estações de recarga solar"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar uma estação de recarga solar pelo ID.
+     *
+     * @param id ID da estação de recarga solar a ser buscada.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a estação de recarga solar ou 404 se não existir.
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findById(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                         @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null ? estacaoService.findById(id) : estacaoService.findById(id, campos))
+                        .build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar estação de recarga solar"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar várias estações de recarga solar pelos IDs, informados em {@code ids} separados por vírgula.
+     *
+     * @param ids IDs separados por vírgula; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findByIds(@QueryParam("ids") String ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    /**
+     * Endpoint para buscar várias estações de recarga solar pelos IDs, informados no corpo da requisição; indicado para listas longas.
+     *
+     * @param ids IDs a buscar; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @POST
+    @Path("/ids")
+    @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response findAll() {
+    public void findByIdsPost(List<Long> ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    private Response buscarPorIds(Set<Long> ids) {
         try {
-            return Response.status(Response.Status.OK)
-                    .entity(estacaoService.findAll())
-                    .build();
+            return BuscaPorIds.resposta(ids, this.estacaoService.findByIds(ids));
         } catch (SQLException e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro ao buscar as estações de recarga solar"))
+                    .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar estações de recarga solar"))
                     .build();
         }
     }
 
+    /**
+     * Endpoint de sincronização incremental: as inserções, atualizações e exclusões de estações de recarga solar posteriores ao
+     * token {@code since}, agregadas por registro e na ordem de commit. Sem {@code since}, devolve apenas o token
+     * atual, a partir do qual a sincronização deve começar; com {@code limit}, a resposta é paginada e traz o
+     * próximo token; com {@code stream=true} ou NDJSON, todas as alterações são escritas em streaming, cada
+     * uma com o seu token.
+     *
+     * @param since Token da última alteração já recebida (opcional).
+     * @param limit Quantidade de alterações por página (opcional); a página se estende para não dividir uma transação.
+     * @param stream Se verdadeiro, escreve as alterações à medida que são lidas.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com as alterações e o próximo token.
+     */
+    @GET
+    @Path("/changes")
+    @Versioned.Exclude
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAlteracoes(@QueryParam("since") String since, @QueryParam("limit") Integer limit,
+                               @QueryParam("stream") boolean stream, @Context HttpHeaders headers,
+                               @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                if (since == null) {
+                    return Sincronizacao.inicio(this.estacaoService.findUltimaAlteracao());
+                }
+                long desde = Sincronizacao.token(since);
+                if (StreamingJson.solicitado(headers, stream, limit != null)) {
+                    return StreamingJson.<Alteracao<EstacaoRecargaSolar>>resposta(headers, action -> this.estacaoService.streamAlteracoes(desde, action));
+                }
+                Sincronizacao sincronizacao = Sincronizacao.of(desde, limit);
+                return sincronizacao.resposta(this.estacaoService.findAlteracoes(desde, sincronizacao.getLimiteConsulta()));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar alterações de estações de recarga solar"))
+                        .build();
+            }
+        });
+    }
+
     /**
      * Endpoint para atualizar uma estação de recarga solar existente.
      *
      * @param id    ID da estação de recarga solar a ser atualizada.
      * @param input DTO de entrada para atualização da estação de recarga solar.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response update(@PathParam("id") Long id, EstacaoRecargaSolarDto input) {
-        try {
-            // Atualização do objeto EstacaoRecargaSolar com base no DTO e ID recebidos
-            EstacaoRecargaSolar updated = estacaoService.update(
-                    new EstacaoRecargaSolar(
-                            id,
-                            input.getPotenciaMaxima(),
-                            input.getNumeroPaineis(),
-                            input.getEnergiaGerada(),
-                            input.getOcupada(),
-                            input.getIdGaragem()
-                    )
-            );
-            return Response.status(Response.Status.OK).entity(updated).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(Map.of("mensagem", "Estação de recarga solar não encontrada"))
-                    .build();
-        } catch (SQLException e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar estação de recarga solar"))
-                    .build();
-        }
+    public void update(@PathParam("id") Long id, EstacaoRecargaSolarDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                // Atualização do objeto EstacaoRecargaSolar com base no DTO e ID recebidos
+                EstacaoRecargaSolar updated = estacaoService.update(input.toModel(id));
+                return Response.status(Response.Status.OK).entity(updated).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(Map.of("mensagem", "Estação de recarga solar não encontrada"))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar estação de recarga solar"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para atualizar apenas alguns campos de uma estação de recarga solar (JSON Merge Patch): os campos enviados são gravados,
+     * {@code null} limpa o campo e os campos ausentes permanecem como estão.
+     *
+     * @param id ID da estação de recarga solar a ser atualizada.
+     * @param patch Campos JSON e os novos valores.
+     * @param response Resposta assíncrona, concluída com 204 se a estação de recarga solar foi atualizada ou 404 se não existir.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON})
+    public void patch(@PathParam("id") Long id, Map<String, Object> patch, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                estacaoService.patch(id, MergePatch.campos(patch));
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar estação de recarga solar"))
+                        .build();
+            }
+        });
     }
 
     /**
      * Endpoint para excluir uma estação de recarga solar existente.
      *
      * @param id ID da estação de recarga solar a ser excluída.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @DELETE
     @Path("/{id}")
-    public Response delete(@PathParam("id") Long id) {
-        try {
-            estacaoService.deleteById(id);
-            return Response.status(Response.Status.NO_CONTENT).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(Map.of("mensagem", "Estação de recarga solar não encontrada"))
-                    .build();
-        } catch (SQLException e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar estação de recarga solar"))
-                    .build();
-        }
+    public void delete(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                estacaoService.deleteById(id);
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(Map.of("mensagem", "Estação de recarga solar não encontrada"))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar estação de recarga solar"))
+                        .build();
+            }
+        });
     }
 }
@@ -0,0 +1,108 @@
+package org.example.controller;
+
+import org.example.config.EventBroadcaster;
+import org.example.exceptions.InvalidQueryException;
+import org.example.models.EventoRecarga;
+import org.example.services.EventosRecarga;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Controlador REST dos fluxos de eventos (Server-Sent Events).
+ *
+ * @since 1.1
+ */
+@Path("/rest/eventos")
+public class EventosController {
+
+    /**
+     * Endpoint que envia as mudanças de {@code status} dos carregadores, de {@code ocupada} das estações de
+     * recarga solar e de {@code ocupado} dos pontos de recarga, à medida que são confirmadas pelos serviços.
+     * Cada evento tem o nome do seu recurso ({@code carregador}, {@code estacao-recarga-solar} ou
+     * {@code ponto-recarga}) e um ID; ao reconectar com {@code Last-Event-ID}, o cliente recebe os eventos
+     * perdidos ou, se não for possível, um evento {@code reinicio}, indicando que deve reler as listagens.
+     *
+     * @param garagens IDs de garagens separados por vírgula: eventos das suas estações e carregadores (opcional).
+     * @param linhas IDs de linhas separados por vírgula: eventos dos seus pontos de recarga (opcional).
+     * @param lastEventId Último ID de evento recebido, enviado pelo navegador ao reconectar (opcional).
+     * @param sink Conexão de eventos com o cliente.
+     * @param sse Fábrica dos eventos enviados.
+     */
+    @GET
+    @Path("/recarga")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void recarga(@QueryParam("garagens") String garagens, @QueryParam("linhas") String linhas,
+                        @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+                        @Context SseEventSink sink, @Context Sse sse) {
+        EventosRecarga.assinar(ids("garagens", garagens), ids("linhas", linhas), lastEventId, new Conexao(sink, sse));
+    }
+
+    private static Set<Long> ids(String parametro, String valor) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (valor == null || valor.isBlank()) {
+            return ids;
+        }
+        for (String id : valor.split(",")) {
+            try {
+                ids.add(Long.valueOf(id.trim()));
+            } catch (NumberFormatException e) {
+                throw new InvalidQueryException("ID inválido no parâmetro " + parametro + ": " + id.trim());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Envio dos eventos de recarga por uma conexão SSE. Cada escrita tem o prazo de
+     * {@link EventBroadcaster#await}; se ele se esgota, a assinatura e a conexão são encerradas.
+     */
+    private static final class Conexao implements EventBroadcaster.Sink<EventoRecarga> {
+
+        private final SseEventSink sink;
+        private final Sse sse;
+
+        private Conexao(SseEventSink sink, Sse sse) {
+            this.sink = sink;
+            this.sse = sse;
+        }
+
+        @Override
+        public void send(String id, EventoRecarga evento) throws Exception {
+            EventBroadcaster.await(sink.send(sse.newEventBuilder()
+                    .id(id)
+                    .name(evento.getTipo())
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(EventoRecarga.class, evento)
+                    .build()));
+        }
+
+        @Override
+        public void reset() throws Exception {
+            EventBroadcaster.await(sink.send(sse.newEventBuilder()
+                    .name("reinicio")
+                    .data(String.class, "Eventos anteriores indisponíveis; releia as listagens.")
+                    .build()));
+        }
+
+        @Override
+        public void heartbeat() throws Exception {
+            EventBroadcaster.await(sink.send(sse.newEventBuilder().comment("").build()));
+        }
+
+        @Override
+        public void close() {
+            sink.close();
+        }
+    }
+}
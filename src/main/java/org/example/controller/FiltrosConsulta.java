@@ -0,0 +1,103 @@
+package org.example.controller;
+
+import org.example.daos.Consulta;
+import org.example.exceptions.InvalidQueryException;
+
+import javax.ws.rs.core.UriInfo;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Filtros e ordenação dos endpoints de listagem, lidos da query string.
+ *
+ * <p>Cada termo {@code campo<operador>valor} vira um filtro (por exemplo, {@code idGaragem=3} ou
+ * {@code anoFabricacao>=2020}); os operadores aceitos são {@code =}, {@code !=}, {@code >=}, {@code <=},
+ * {@code >} e {@code <}. O parâmetro {@code sort} lista os campos de ordenação separados por vírgula, com
+ * {@code -} na frente para ordem decrescente. Os campos são validados pelo DAO contra as colunas
+ * filtráveis da tabela.</p>
+ *
+ * <p>A query string é lida crua porque {@code >=} e {@code <=} não são pares {@code chave=valor}.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class FiltrosConsulta {
+
+    private static final Set<String> RESERVADOS = Set.of("limit", "cursor", "stream", "fields", "sort");
+
+    private static final Pattern TERMO = Pattern.compile("^(\\w+)(!=|>=|<=|=|>|<)(.*)$", Pattern.DOTALL);
+
+    private FiltrosConsulta() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Interpreta os filtros e a ordenação da requisição.
+     *
+     * @param uriInfo Informações da URI da requisição.
+     * @param sort    O parâmetro {@code sort}, por exemplo {@code prefixo,-anoFabricacao} (opcional).
+     * @return A consulta, sem paginação.
+     * @throws InvalidQueryException Se algum termo não for um filtro válido.
+     */
+    static Consulta of(UriInfo uriInfo, String sort) {
+        List<Consulta.Filtro> filtros = new ArrayList<>();
+        String query = uriInfo.getRequestUri().getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            for (String termo : query.split("&")) {
+                if (termo.isEmpty()) {
+                    continue;
+                }
+                String decodificado = URLDecoder.decode(termo, StandardCharsets.UTF_8);
+                Matcher matcher = TERMO.matcher(decodificado);
+                if (!matcher.matches()) {
+                    if (RESERVADOS.contains(decodificado)) {
+                        continue;
+                    }
+                    throw new InvalidQueryException("Filtro inválido: " + decodificado);
+                }
+                String campo = matcher.group(1);
+                if (RESERVADOS.contains(campo)) {
+                    continue;
+                }
+                filtros.add(new Consulta.Filtro(campo, operador(matcher.group(2)), matcher.group(3)));
+            }
+        }
+        return new Consulta(filtros, ordem(sort), null, null);
+    }
+
+    private static Consulta.Operador operador(String simbolo) {
+        for (Consulta.Operador operador : Consulta.Operador.values()) {
+            if (operador.getSimbolo().equals(simbolo)) {
+                return operador;
+            }
+        }
+        throw new InvalidQueryException("Operador inválido: " + simbolo);
+    }
+
+    private static List<Consulta.Ordem> ordem(String sort) {
+        List<Consulta.Ordem> ordem = new ArrayList<>();
+        if (sort == null) {
+            return ordem;
+        }
+        for (String item : sort.split(",")) {
+            String campo = item.trim();
+            if (campo.isEmpty()) {
+                continue;
+            }
+            boolean decrescente = campo.startsWith("-");
+            if (decrescente) {
+                campo = campo.substring(1);
+            }
+            if (campo.isEmpty()) {
+                throw new InvalidQueryException("Ordenação inválida: " + sort);
+            }
+            ordem.add(new Consulta.Ordem(campo, decrescente));
+        }
+        return ordem;
+    }
+}
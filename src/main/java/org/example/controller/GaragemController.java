@@ -1,18 +1,28 @@
 package org.example.controller;
 
+import org.example.config.DatabaseExecutor;
+import org.example.daos.Consulta;
 import org.example.dtos.GaragemDto;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
-import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Garagem;
 import org.example.services.interfaces.GaragemService;
 import org.example.services.GaragemServiceFactory;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para a entidade Garagem.
@@ -30,51 +40,240 @@ public class GaragemController {
      * Endpoint para criar uma nova garagem.
      *
      * @param input DTO de entrada para criação de uma garagem.
-     * @return Resposta HTTP indicando sucesso ou erro.
-     * @throws UnsupportedServiceOperationException Se ocorrer um erro na operação.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @POST
     @Path("/cadastre")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response add(GaragemDto input) throws UnsupportedServiceOperationException {
-        if (input.getIdGaragem() == null) {
+    public void add(GaragemDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            if (input.getIdGaragem() == null) {
+                try {
+                    // Criação do objeto Garagem com base no DTO recebido
+                    Garagem garagem = this.garagemService.create(input.toModel(null));
+                    return Response.status(Response.Status.CREATED)
+                            .entity(garagem)
+                            .build();
+                } catch (SQLException | NotSavedException e) {
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir garagem"))
+                            .build();
+                }
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("mensagem", "Esse método só permite a criação de novas garagens"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para criar vários garagens de uma vez.
+     * Os itens são inseridos em blocos, na mesma transação; itens recusados não impedem o cadastro dos demais.
+     *
+     * @param input DTOs de entrada, um por registro a ser criado.
+     * @param response Resposta assíncrona, concluída com o resultado de cada item: o ID gerado ou o motivo da recusa.
+     */
+    @POST
+    @Path("/cadastre/lote")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void addLote(List<GaragemDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<Garagem> garagens = new ArrayList<>(input.size());
+            for (GaragemDto item : input) {
+                garagens.add(item.toModel(item.getIdGaragem()));
+            }
             try {
-                // Criação do objeto Garagem com base no DTO recebido
-                Garagem garagem = this.garagemService.create(
-                        new Garagem(
-                                null,
-                                input.getNome(),
-                                input.getCapacidadeOnibus()
-                        )
-                );
-                return Response.status(Response.Status.CREATED)
-                        .entity(garagem)
+                return CadastroLote.resposta(this.garagemService.createAll(garagens));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir garagem em lote"))
                         .build();
-            } catch (SQLException | NotSavedException e) {
+            }
+        });
+    }
+
+    /**
+     * Endpoint para listar todas as garagens.
+     * Com {@code limit} ou {@code cursor}, a listagem é paginada em ordem crescente de ID; com
+     * {@code stream=true} ou NDJSON, é escrita em streaming sem ser montada em memória. Termos
+     * {@code campo=valor} (ou {@code !=}, {@code >=}, {@code <=}, {@code >}, {@code <}) sobre os campos filtráveis
+     * restringem a listagem, e {@code sort} a ordena; a ordenação não se combina com a paginação.
+     *
+     * @param limit Quantidade máxima de itens por página (opcional).
+     * @param cursor Cursor devolvido pela página anterior (opcional).
+     * @param stream Se verdadeiro, escreve o array JSON à medida que as linhas são lidas.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param sort Campos de ordenação, separados por vírgula; {@code -} antes do campo inverte a ordem (opcional).
+     * @param uriInfo URI da requisição, de onde são lidos os filtros.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a lista de todas as garagens.
+     */
+    @GET
+    @Path("/all")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAll(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor,
+                        @QueryParam("stream") boolean stream, @QueryParam("fields") String fields,
+                        @QueryParam("sort") String sort, @Context UriInfo uriInfo,
+                        @Context HttpHeaders headers, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            Set<String> campos = CamposParciais.of(fields);
+            Consulta consulta = FiltrosConsulta.of(uriInfo, sort);
+            if (StreamingJson.solicitado(headers, stream, Paginacao.solicitada(limit, cursor))) {
+                return campos == null
+                        ? StreamingJson.<Garagem>resposta(headers, action -> this.garagemService.streamAll(consulta, action))
+                        : StreamingJson.<Map<String, Object>>resposta(headers, action -> this.garagemService.streamAll(consulta, campos, action));
+            }
+            if (Paginacao.solicitada(limit, cursor)) {
+                Paginacao paginacao = Paginacao.of(limit, cursor);
+                Consulta pagina = paginacao.consulta(consulta);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null
+                                ? paginacao.pagina(
+                                        this.garagemService.find(pagina),
+                                        Garagem::getIdGaragem)
+                                : paginacao.pagina(
+                                        this.garagemService.find(pagina, campos),
+                                        item -> (Long) item.get("idGaragem")))
+                        .build();
+            }
+            return Response.status(Response.Status.OK)
+                    .entity(campos != null
+                            ? this.garagemService.find(consulta, campos)
+                            : consulta.isVazia() ? this.garagemService.findAll() : this.garagemService.find(consulta))
+                    .build();
+        });
+    }
+
+    /**
+     * Endpoint para buscar uma garagem pelo ID.
+     *
+     * @param id ID da garagem a ser buscada.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a garagem ou 404 se não existir.
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findById(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                         @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null ? this.garagemService.findById(id) : this.garagemService.findById(id, campos))
+                        .build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
                 return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir garagem"))
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar garagem"))
                         .build();
             }
-        } else {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(Map.of("mensagem", "Esse método só permite a criação de novas garagens"))
+        });
+    }
+
+    /**
+     * Endpoint para buscar várias garagens pelos IDs, informados em {@code ids} separados por vírgula.
+     *
+     * @param ids IDs separados por vírgula; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findByIds(@QueryParam("ids") String ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    /**
+     * Endpoint para buscar várias garagens pelos IDs, informados no corpo da requisição; indicado para listas longas.
+     *
+     * @param ids IDs a buscar; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @POST
+    @Path("/ids")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findByIdsPost(List<Long> ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    private Response buscarPorIds(Set<Long> ids) {
+        try {
+            return BuscaPorIds.resposta(ids, this.garagemService.findByIds(ids));
+        } catch (SQLException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar garagens"))
                     .build();
         }
     }
 
     /**
-     * Endpoint para listar todas as garagens.
+     * Endpoint de sincronização incremental: as inserções, atualizações e exclusões de garagens posteriores ao
+     * token {@code since}, agregadas por registro e na ordem de commit. Sem {@code since}, devolve apenas o token
+     * atual, a partir do qual a sincronização deve começar; com {@code limit}, a resposta é paginada e traz o
+     * próximo token; com {@code stream=true} ou NDJSON, todas as alterações são escritas em streaming, cada
+     * uma com o seu token.
      *
-     * @return Resposta HTTP com a lista de todas as garagens.
+     * @param since Token da última alteração já recebida (opcional).
+     * @param limit Quantidade de alterações por página (opcional); a página se estende para não dividir uma transação.
+     * @param stream Se verdadeiro, escreve as alterações à medida que são lidas.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com as alterações e o próximo token.
      */
     @GET
-    @Path("/all")
+    @Path("/changes")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAlteracoes(@QueryParam("since") String since, @QueryParam("limit") Integer limit,
+                               @QueryParam("stream") boolean stream, @Context HttpHeaders headers,
+                               @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                if (since == null) {
+                    return Sincronizacao.inicio(this.garagemService.findUltimaAlteracao());
+                }
+                long desde = Sincronizacao.token(since);
+                if (StreamingJson.solicitado(headers, stream, limit != null)) {
+                    return StreamingJson.<Alteracao<Garagem>>resposta(headers, action -> this.garagemService.streamAlteracoes(desde, action));
+                }
+                Sincronizacao sincronizacao = Sincronizacao.of(desde, limit);
+                return sincronizacao.resposta(this.garagemService.findAlteracoes(desde, sincronizacao.getLimiteConsulta()));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar alterações de garagens"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar uma garagem com o endereço e os ônibus, carros, motos, operadores e estações de
+     * recarga alocados nela, montados em uma única consulta ao banco.
+     *
+     * @param id ID da garagem a ser buscada.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a visão completa ou 404 se não existir.
+     */
+    @GET
+    @Path("/{id}/completa")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response findAll() throws SQLException {
-        return Response.status(Response.Status.OK)
-                .entity(this.garagemService.findAll())
-                .build();
+    public void findCompleta(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                return Response.status(Response.Status.OK)
+                        .entity(this.garagemService.findCompleta(id))
+                        .build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar a garagem completa"))
+                        .build();
+            }
+        });
     }
 
     /**
@@ -82,50 +281,74 @@ public class GaragemController {
      *
      * @param id    ID da garagem a ser atualizada.
      * @param input DTO de entrada para atualização da garagem.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response update(@PathParam("id") Long id, GaragemDto input) {
-        try {
-            // Atualização do objeto Garagem com base no DTO e ID recebidos
-            Garagem updated = this.garagemService.update(
-                    new Garagem(
-                            id,
-                            input.getNome(),
-                            input.getCapacidadeOnibus()
-                    )
-            );
-            return Response.status(Response.Status.OK).entity(updated).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        } catch (SQLException s) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar garagem"))
-                    .build();
-        }
+    public void update(@PathParam("id") Long id, GaragemDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                // Atualização do objeto Garagem com base no DTO e ID recebidos
+                Garagem updated = this.garagemService.update(input.toModel(id));
+                return Response.status(Response.Status.OK).entity(updated).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar garagem"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para atualizar apenas alguns campos de uma garagem (JSON Merge Patch): os campos enviados são gravados,
+     * {@code null} limpa o campo e os campos ausentes permanecem como estão.
+     *
+     * @param id ID da garagem a ser atualizada.
+     * @param patch Campos JSON e os novos valores.
+     * @param response Resposta assíncrona, concluída com 204 se a garagem foi atualizada ou 404 se não existir.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON})
+    public void patch(@PathParam("id") Long id, Map<String, Object> patch, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                this.garagemService.patch(id, MergePatch.campos(patch));
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar garagem"))
+                        .build();
+            }
+        });
     }
 
     /**
      * Endpoint para excluir uma garagem existente.
      *
      * @param id ID da garagem a ser excluída.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @DELETE
     @Path("/{id}")
-    public Response delete(@PathParam("id") Long id) {
-        try {
-            this.garagemService.deleteById(id);
-            return Response.status(Response.Status.NO_CONTENT).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        } catch (SQLException s) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar garagem"))
-                    .build();
-        }
+    public void delete(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                this.garagemService.deleteById(id);
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar garagem"))
+                        .build();
+            }
+        });
     }
 }
@@ -1,18 +1,29 @@
 package org.example.controller;
 
+import org.example.config.DatabaseExecutor;
+import org.example.daos.Consulta;
 import org.example.dtos.LinhaDeOnibusDto;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.LinhaDeOnibus;
 import org.example.services.LinhaDeOnibusServiceFactory;
 import org.example.services.interfaces.LinhaDeOnibusService;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para a entidade LinhaDeOnibus.
@@ -30,113 +41,362 @@ public class LinhaDeOnibusController {
      * Endpoint para criar uma nova linha de ônibus.
      *
      * @param input DTO de entrada para criação de uma linha de ônibus.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @POST
     @Path("/cadastre")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response add(LinhaDeOnibusDto input) throws UnsupportedServiceOperationException {
-        if (input.getIdLinha() == null) {
+    public void add(LinhaDeOnibusDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            if (input.getIdLinha() == null) {
+                try {
+                    // Criação do objeto LinhaDeOnibus com base no DTO recebido
+                    LinhaDeOnibus linha = linhaService.create(input.toModel(null));
+                    return Response.status(Response.Status.CREATED)
+                            .entity(linha)
+                            .build();
+                } catch (SQLException | NotSavedException e) {
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir linha de ônibus"))
+                            .build();
+                } catch (UnsupportedServiceOperationException e) {
+                    throw new RuntimeException(e);
+                }
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("mensagem", "Esse método só permite a criação de novas linhas de ônibus"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para criar várias linhas de ônibus de uma vez.
+     * Os itens são inseridos em blocos, na mesma transação; itens recusados não impedem o cadastro dos demais.
+     *
+     * @param input DTOs de entrada, um por registro a ser criado.
+     * @param response Resposta assíncrona, concluída com o resultado de cada item: o ID gerado ou o motivo da recusa.
+     */
+    @POST
+    @Path("/cadastre/lote")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void addLote(List<LinhaDeOnibusDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<LinhaDeOnibus> linhas = new ArrayList<>(input.size());
+            for (LinhaDeOnibusDto item : input) {
+                linhas.add(item.toModel(item.getIdLinha()));
+            }
+            try {
+                return CadastroLote.resposta(linhaService.createAll(linhas));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir linha de ônibus em lote"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para criar ou atualizar uma linha de ônibus pelo código da linha, sem precisar conhecer o seu ID.
+     *
+     * @param input DTO de entrada com os dados da linha de ônibus; o código da linha é obrigatório.
+     * @param response Resposta assíncrona, concluída com a linha de ônibus gravada e o seu ID.
+     */
+    @PUT
+    @Path("/upsert")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void upsert(LinhaDeOnibusDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            if (input.getCodigoLinha() == null || input.getCodigoLinha().isBlank()) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("mensagem", "O campo codigoLinha é obrigatório"))
+                        .build();
+            }
             try {
-                // Criação do objeto LinhaDeOnibus com base no DTO recebido
-                LinhaDeOnibus linha = linhaService.create(
-                        new LinhaDeOnibus(
-                                null,
-                                input.getCodigoLinha(),
-                                input.getNome()
-                        )
-                );
-                return Response.status(Response.Status.CREATED)
+                LinhaDeOnibus linha = linhaService.upsert(input.toModel(null));
+                return Response.status(Response.Status.OK)
                         .entity(linha)
                         .build();
-            } catch (SQLException | NotSavedException e) {
+            } catch (SQLException e) {
                 return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir linha de ônibus"))
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar sincronizar linha de ônibus"))
                         .build();
-            } catch (UnsupportedServiceOperationException e) {
-                throw new RuntimeException(e);
             }
-        } else {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(Map.of("mensagem", "Esse método só permite a criação de novas linhas de ônibus"))
-                    .build();
-        }
+        });
+    }
+
+    /**
+     * Endpoint para criar ou atualizar várias linhas de ônibus de uma vez pelo código da linha.
+     * Os itens são gravados em blocos, com um MERGE por bloco, na mesma transação; itens recusados não
+     * impedem a gravação dos demais.
+     *
+     * @param input DTOs de entrada, um por registro a ser gravado.
+     * @param response Resposta assíncrona, concluída com o resultado de cada item: o ID gravado ou o motivo da recusa.
+     */
+    @PUT
+    @Path("/upsert/lote")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void upsertLote(List<LinhaDeOnibusDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<LinhaDeOnibus> linhas = new ArrayList<>(input.size());
+            for (LinhaDeOnibusDto item : input) {
+                linhas.add(item.toModel(null));
+            }
+            try {
+                return Response.status(Response.Status.OK)
+                        .entity(linhaService.upsertAll(linhas))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar sincronizar linha de ônibus em lote"))
+                        .build();
+            }
+        });
     }
 
     /**
      * Endpoint para listar todas as linhas de ônibus.
+     * Com {@code limit} ou {@code cursor}, a listagem é paginada em ordem crescente de ID; com
+     * {@code stream=true} ou NDJSON, é escrita em streaming sem ser montada em memória. Termos
+     * {@code campo=valor} (ou {@code !=}, {@code >=}, {@code <=}, {@code >}, {@code <}) sobre os campos filtráveis
+     * restringem a listagem, e {@code sort} a ordena; a ordenação não se combina com a paginação.
      *
-     * @return Resposta HTTP com a lista de todas as linhas de ônibus.
+     * @param limit Quantidade máxima de itens por página (opcional).
+     * @param cursor Cursor devolvido pela página anterior (opcional).
+     * @param stream Se verdadeiro, escreve o array JSON à medida que as linhas são lidas.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param sort Campos de ordenação, separados por vírgula; {@code -} antes do campo inverte a ordem (opcional).
+     * @param uriInfo URI da requisição, de onde são lidos os filtros.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a lista de todas as linhas de ônibus.
      */
     @GET
     @Path("/all")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAll(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor,
+                        @QueryParam("stream") boolean stream, @QueryParam("fields") String fields,
+                        @QueryParam("sort") String sort, @Context UriInfo uriInfo,
+                        @Context HttpHeaders headers, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                Consulta consulta = FiltrosConsulta.of(uriInfo, sort);
+                if (StreamingJson.solicitado(headers, stream, Paginacao.solicitada(limit, cursor))) {
+                    return campos == null
+                            ? StreamingJson.<LinhaDeOnibus>resposta(headers, action -> linhaService.streamAll(consulta, action))
+                            : StreamingJson.<Map<String, Object>>resposta(headers, action -> linhaService.streamAll(consulta, campos, action));
+                }
+                if (Paginacao.solicitada(limit, cursor)) {
+                    Paginacao paginacao = Paginacao.of(limit, cursor);
+                    Consulta pagina = paginacao.consulta(consulta);
+                    return Response.status(Response.Status.OK)
+                            .entity(campos == null
+                                    ? paginacao.pagina(
+                                            linhaService.find(pagina),
+                                            LinhaDeOnibus::getIdLinha)
+                                    : paginacao.pagina(
+                                            linhaService.find(pagina, campos),
+                                            item -> (Long) item.get("idLinha")))
+                            .build();
+                }
+                return Response.status(Response.Status.OK)
+                        .entity(campos != null
+                                ? linhaService.find(consulta, campos)
+                                : consulta.isVazia() ? linhaService.findAll() : linhaService.find(consulta))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro ao buscar as linhas de ônibus"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar uma linha de ônibus pelo ID.
+     *
+     * @param id ID da linha de ônibus a ser buscada.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a linha de ônibus ou 404 se não existir.
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findById(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                         @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null ? linhaService.findById(id) : linhaService.findById(id, campos))
+                        .build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar linha de ônibus"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar várias linhas de ônibus pelos IDs, informados em {@code ids} separados por vírgula.
+     *
+     * @param ids IDs separados por vírgula; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response findAll() {
+    public void findByIds(@QueryParam("ids") String ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    /**
+     * Endpoint para buscar várias linhas de ônibus pelos IDs, informados no corpo da requisição; indicado para listas longas.
+     *
+     * @param ids IDs a buscar; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @POST
+    @Path("/ids")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findByIdsPost(List<Long> ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    private Response buscarPorIds(Set<Long> ids) {
         try {
-            return Response.status(Response.Status.OK)
-                    .entity(linhaService.findAll())
-                    .build();
+            return BuscaPorIds.resposta(ids, this.linhaService.findByIds(ids));
         } catch (SQLException e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro ao buscar as linhas de ônibus"))
+                    .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar linhas de ônibus"))
                     .build();
         }
     }
 
+    /**
+     * Endpoint de sincronização incremental: as inserções, atualizações e exclusões de linhas de ônibus posteriores ao
+     * token {@code since}, agregadas por registro e na ordem de commit. Sem {@code since}, devolve apenas o token
+     * atual, a partir do qual a sincronização deve começar; com {@code limit}, a resposta é paginada e traz o
+     * próximo token; com {@code stream=true} ou NDJSON, todas as alterações são escritas em streaming, cada
+     * uma com o seu token.
+     *
+     * @param since Token da última alteração já recebida (opcional).
+     * @param limit Quantidade de alterações por página (opcional); a página se estende para não dividir uma transação.
+     * @param stream Se verdadeiro, escreve as alterações à medida que são lidas.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com as alterações e o próximo token.
+     */
+    @GET
+    @Path("/changes")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAlteracoes(@QueryParam("since") String since, @QueryParam("limit") Integer limit,
+                               @QueryParam("stream") boolean stream, @Context HttpHeaders headers,
+                               @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                if (since == null) {
+                    return Sincronizacao.inicio(this.linhaService.findUltimaAlteracao());
+                }
+                long desde = Sincronizacao.token(since);
+                if (StreamingJson.solicitado(headers, stream, limit != null)) {
+                    return StreamingJson.<Alteracao<LinhaDeOnibus>>resposta(headers, action -> this.linhaService.streamAlteracoes(desde, action));
+                }
+                Sincronizacao sincronizacao = Sincronizacao.of(desde, limit);
+                return sincronizacao.resposta(this.linhaService.findAlteracoes(desde, sincronizacao.getLimiteConsulta()));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar alterações de linhas de ônibus"))
+                        .build();
+            }
+        });
+    }
+
     /**
      * Endpoint para atualizar uma linha de ônibus existente.
      *
      * @param id    ID da linha de ônibus a ser atualizada.
      * @param input DTO de entrada para atualização da linha de ônibus.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response update(@PathParam("id") Long id, LinhaDeOnibusDto input) {
-        try {
-            // Atualização do objeto LinhaDeOnibus com base no DTO e ID recebidos
-            LinhaDeOnibus updated = linhaService.update(
-                    new LinhaDeOnibus(
-                            id,
-                            input.getCodigoLinha(),
-                            input.getNome()
-                    )
-            );
-            return Response.status(Response.Status.OK).entity(updated).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(Map.of("mensagem", "Linha de ônibus não encontrada"))
-                    .build();
-        } catch (SQLException e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar linha de ônibus"))
-                    .build();
-        }
+    public void update(@PathParam("id") Long id, LinhaDeOnibusDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                // Atualização do objeto LinhaDeOnibus com base no DTO e ID recebidos
+                LinhaDeOnibus updated = linhaService.update(input.toModel(id));
+                return Response.status(Response.Status.OK).entity(updated).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(Map.of("mensagem", "Linha de ônibus não encontrada"))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar linha de ônibus"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para atualizar apenas alguns campos de uma linha de ônibus (JSON Merge Patch): os campos enviados são gravados,
+     * {@code null} limpa o campo e os campos ausentes permanecem como estão.
+     *
+     * @param id ID da linha de ônibus a ser atualizada.
+     * @param patch Campos JSON e os novos valores.
+     * @param response Resposta assíncrona, concluída com 204 se a linha de ônibus foi atualizada ou 404 se não existir.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON})
+    public void patch(@PathParam("id") Long id, Map<String, Object> patch, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                linhaService.patch(id, MergePatch.campos(patch));
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar linha de ônibus"))
+                        .build();
+            }
+        });
     }
 
     /**
      * Endpoint para excluir uma linha de ônibus existente.
      *
      * @param id ID da linha de ônibus a ser excluída.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @DELETE
     @Path("/{id}")
-    public Response delete(@PathParam("id") Long id) {
-        try {
-            linhaService.deleteById(id);
-            return Response.status(Response.Status.NO_CONTENT).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity(Map.of("mensagem", "Linha de ônibus não encontrada"))
-                    .build();
-        } catch (SQLException e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar linha de ônibus"))
-                    .build();
-        }
+    public void delete(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                linhaService.deleteById(id);
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(Map.of("mensagem", "Linha de ônibus não encontrada"))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar linha de ônibus"))
+                        .build();
+            }
+        });
     }
 }
@@ -0,0 +1,38 @@
+package org.example.controller;
+
+import org.example.exceptions.InvalidQueryException;
+
+import java.util.Map;
+
+/**
+ * Corpo dos endpoints {@code PATCH}, no formato JSON Merge Patch (RFC 7396).
+ *
+ * <p>Os modelos da aplicação são planos, então o patch é um objeto com os campos JSON a alterar: cada
+ * campo presente é gravado, {@code null} limpa o campo e os ausentes não são tocados. Os campos e os
+ * tipos dos valores são validados pelo DAO contra as colunas da tabela.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class MergePatch {
+
+    static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private MergePatch() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Valida o corpo recebido.
+     *
+     * @param patch O objeto JSON recebido.
+     * @return Os campos a alterar.
+     * @throws InvalidQueryException Se o corpo estiver ausente.
+     */
+    static Map<String, Object> campos(Map<String, Object> patch) {
+        if (patch == null) {
+            throw new InvalidQueryException("O corpo do PATCH deve ser um objeto JSON");
+        }
+        return patch;
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.controller;
+
+import org.example.config.DatabaseConnectionFactory;
+import org.example.config.DatabaseExecutor;
+import org.example.config.EntityCache;
+import org.example.config.NaturalKeyIndex;
+import org.example.config.OffHeapCache;
+import org.example.config.SingleFlight;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.Map;
+
+/**
+ * Controlador REST para métricas operacionais da aplicação.
+ * Expõe indicadores de uso e saturação da infraestrutura de acesso a dados.
+ *
+ * @since 1.1
+ */
+@Path("/rest/metricas")
+public class MetricasController {
+
+    /**
+     * Endpoint para consultar as métricas dos pools de conexões (base principal e réplicas).
+     *
+     * @return Resposta HTTP com as métricas atuais de cada pool.
+     */
+    @GET
+    @Path("/pool")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response pool() {
+        return Response.status(Response.Status.OK)
+                .entity(DatabaseConnectionFactory.metrics())
+                .build();
+    }
+
+    /**
+     * Endpoint para consultar a ocupação da execução assíncrona dos recursos REST.
+     *
+     * @return Resposta HTTP com as tarefas em execução e as requisições recusadas por saturação.
+     */
+    @GET
+    @Path("/execucao")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response execucao() {
+        return Response.status(Response.Status.OK)
+                .entity(Map.of(
+                        "emExecucao", DatabaseExecutor.active(),
+                        "recusadas", DatabaseExecutor.rejected()
+                ))
+                .build();
+    }
+
+    /**
+     * Endpoint para consultar as métricas dos caches de leitura dos dados de referência.
+     *
+     * @return Resposta HTTP com as entradas, acertos, falhas, remoções e invalidações de cada cache.
+     */
+    @GET
+    @Path("/cache")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response cache() {
+        return Response.status(Response.Status.OK)
+                .entity(EntityCache.metrics())
+                .build();
+    }
+
+    /**
+     * Endpoint para consultar as métricas dos caches fora do heap (endereços).
+     *
+     * @return Resposta HTTP com os registros, a memória alocada e em uso, os acertos, as falhas e as compactações
+     * de cada cache.
+     */
+    @GET
+    @Path("/cache/offheap")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response cacheOffHeap() {
+        return Response.status(Response.Status.OK)
+                .entity(OffHeapCache.metrics())
+                .build();
+    }
+
+    /**
+     * Endpoint para consultar a coalescência de leituras idênticas e simultâneas nos serviços.
+     *
+     * @return Resposta HTTP com as leituras executadas no banco e as chamadas atendidas por outra leitura, por tabela.
+     */
+    @GET
+    @Path("/leituras")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response leituras() {
+        return Response.status(Response.Status.OK)
+                .entity(SingleFlight.metrics())
+                .build();
+    }
+
+    /**
+     * Endpoint para consultar os índices em memória das chaves naturais (placa, CPF e código da linha).
+     *
+     * @return Resposta HTTP com as chaves, buscas, descartes pelo filtro de Bloom e acertos de cada índice.
+     */
+    @GET
+    @Path("/chaves")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response chaves() {
+        return Response.status(Response.Status.OK)
+                .entity(NaturalKeyIndex.metrics())
+                .build();
+    }
+}
@@ -1,18 +1,28 @@
 package org.example.controller;
 
+import org.example.config.DatabaseExecutor;
+import org.example.daos.Consulta;
 import org.example.dtos.MotoDto;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
-import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Moto;
 import org.example.services.interfaces.MotoService;
 import org.example.services.MotoServiceFactory;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controlador REST para a entidade Moto.
@@ -30,57 +40,275 @@ public class MotoController {
      * Endpoint para criar uma nova moto.
      *
      * @param input DTO de entrada para criação de uma moto.
-     * @return Resposta HTTP indicando sucesso ou erro.
-     * @throws UnsupportedServiceOperationException Se ocorrer um erro na operação.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @POST
     @Path("/cadastre")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response add(MotoDto input) throws UnsupportedServiceOperationException {
-        if (input.getIdMoto() == null) {
+    public void add(MotoDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            if (input.getIdMoto() == null) {
+                try {
+                    // Criação do objeto Moto com base no DTO recebido
+                    Moto moto = this.motoService.create(input.toModel(null));
+                    return Response.status(Response.Status.CREATED)
+                            .entity(moto)
+                            .build();
+                } catch (SQLException | NotSavedException e) {
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir moto"))
+                            .build();
+                }
+            } else {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("mensagem", "Esse método só permite a criação de novas motos"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para criar várias motos de uma vez.
+     * Os itens são inseridos em blocos, na mesma transação; itens recusados não impedem o cadastro dos demais.
+     *
+     * @param input DTOs de entrada, um por registro a ser criado.
+     * @param response Resposta assíncrona, concluída com o resultado de cada item: o ID gerado ou o motivo da recusa.
+     */
+    @POST
+    @Path("/cadastre/lote")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void addLote(List<MotoDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<Moto> motos = new ArrayList<>(input.size());
+            for (MotoDto item : input) {
+                motos.add(item.toModel(item.getIdMoto()));
+            }
             try {
-                // Criação do objeto Moto com base no DTO recebido
-                Moto moto = this.motoService.create(
-                        new Moto(
-                                null,
-                                input.getPrefixo(),
-                                input.getPlaca(),
-                                input.getModelo(),
-                                input.getFabricante(),
-                                input.getAnoFabricacao(),
-                                input.getCapacidadeBateria(),
-                                input.getTipoLicenca(),
-                                input.getIdGaragem()
-                        )
-                );
-                return Response.status(Response.Status.CREATED)
+                return CadastroLote.resposta(this.motoService.createAll(motos));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir moto em lote"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para criar ou atualizar uma moto pela placa, sem precisar conhecer o seu ID.
+     *
+     * @param input DTO de entrada com os dados da moto; a placa é obrigatória.
+     * @param response Resposta assíncrona, concluída com a moto gravada e o seu ID.
+     */
+    @PUT
+    @Path("/upsert")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void upsert(MotoDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            if (input.getPlaca() == null || input.getPlaca().isBlank()) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(Map.of("mensagem", "O campo placa é obrigatório"))
+                        .build();
+            }
+            try {
+                Moto moto = this.motoService.upsert(input.toModel(null));
+                return Response.status(Response.Status.OK)
                         .entity(moto)
                         .build();
-            } catch (SQLException | NotSavedException e) {
+            } catch (SQLException e) {
                 return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                        .entity(Map.of("mensagem", "Erro inesperado ao tentar inserir moto"))
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar sincronizar moto"))
                         .build();
             }
-        } else {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(Map.of("mensagem", "Esse método só permite a criação de novas motos"))
-                    .build();
-        }
+        });
+    }
+
+    /**
+     * Endpoint para criar ou atualizar várias motos de uma vez pela placa.
+     * Os itens são gravados em blocos, com um MERGE por bloco, na mesma transação; itens recusados não
+     * impedem a gravação dos demais.
+     *
+     * @param input DTOs de entrada, um por registro a ser gravado.
+     * @param response Resposta assíncrona, concluída com o resultado de cada item: o ID gravado ou o motivo da recusa.
+     */
+    @PUT
+    @Path("/upsert/lote")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void upsertLote(List<MotoDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<Moto> motos = new ArrayList<>(input.size());
+            for (MotoDto item : input) {
+                motos.add(item.toModel(null));
+            }
+            try {
+                return Response.status(Response.Status.OK)
+                        .entity(this.motoService.upsertAll(motos))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar sincronizar moto em lote"))
+                        .build();
+            }
+        });
     }
 
     /**
      * Endpoint para listar todas as motos.
+     * Com {@code limit} ou {@code cursor}, a listagem é paginada em ordem crescente de ID; com
+     * {@code stream=true} ou NDJSON, é escrita em streaming sem ser montada em memória. Termos
+     * {@code campo=valor} (ou {@code !=}, {@code >=}, {@code <=}, {@code >}, {@code <}) sobre os campos filtráveis
+     * restringem a listagem, e {@code sort} a ordena; a ordenação não se combina com a paginação.
      *
-     * @return Resposta HTTP com a lista de todas as motos.
+     * @param limit Quantidade máxima de itens por página (opcional).
+     * @param cursor Cursor devolvido pela página anterior (opcional).
+     * @param stream Se verdadeiro, escreve o array JSON à medida que as linhas são lidas.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param sort Campos de ordenação, separados por vírgula; {@code -} antes do campo inverte a ordem (opcional).
+     * @param uriInfo URI da requisição, de onde são lidos os filtros.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a lista de todas as motos.
      */
     @GET
     @Path("/all")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAll(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor,
+                        @QueryParam("stream") boolean stream, @QueryParam("fields") String fields,
+                        @QueryParam("sort") String sort, @Context UriInfo uriInfo,
+                        @Context HttpHeaders headers, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            Set<String> campos = CamposParciais.of(fields);
+            Consulta consulta = FiltrosConsulta.of(uriInfo, sort);
+            if (StreamingJson.solicitado(headers, stream, Paginacao.solicitada(limit, cursor))) {
+                return campos == null
+                        ? StreamingJson.<Moto>resposta(headers, action -> this.motoService.streamAll(consulta, action))
+                        : StreamingJson.<Map<String, Object>>resposta(headers, action -> this.motoService.streamAll(consulta, campos, action));
+            }
+            if (Paginacao.solicitada(limit, cursor)) {
+                Paginacao paginacao = Paginacao.of(limit, cursor);
+                Consulta pagina = paginacao.consulta(consulta);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null
+                                ? paginacao.pagina(
+                                        this.motoService.find(pagina),
+                                        Moto::getIdMoto)
+                                : paginacao.pagina(
+                                        this.motoService.find(pagina, campos),
+                                        item -> (Long) item.get("idMoto")))
+                        .build();
+            }
+            return Response.status(Response.Status.OK)
+                    .entity(campos != null
+                            ? this.motoService.find(consulta, campos)
+                            : consulta.isVazia() ? this.motoService.findAll() : this.motoService.find(consulta))
+                    .build();
+        });
+    }
+
+    /**
+     * Endpoint para buscar uma moto pelo ID.
+     *
+     * @param id ID da moto a ser buscada.
+     * @param fields Campos JSON desejados, separados por vírgula (opcional); o ID é sempre incluído.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a moto ou 404 se não existir.
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findById(@PathParam("id") Long id, @QueryParam("fields") String fields,
+                         @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                Set<String> campos = CamposParciais.of(fields);
+                return Response.status(Response.Status.OK)
+                        .entity(campos == null ? this.motoService.findById(id) : this.motoService.findById(id, campos))
+                        .build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar moto"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar várias motos pelos IDs, informados em {@code ids} separados por vírgula.
+     *
+     * @param ids IDs separados por vírgula; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response findAll() throws SQLException {
-        return Response.status(Response.Status.OK)
-                .entity(this.motoService.findAll())
-                .build();
+    public void findByIds(@QueryParam("ids") String ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    /**
+     * Endpoint para buscar várias motos pelos IDs, informados no corpo da requisição; indicado para listas longas.
+     *
+     * @param ids IDs a buscar; IDs repetidos são considerados uma única vez.
+     * @param response Resposta assíncrona, concluída com os registros encontrados, na ordem pedida, e os IDs não encontrados.
+     */
+    @POST
+    @Path("/ids")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findByIdsPost(List<Long> ids, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> buscarPorIds(BuscaPorIds.of(ids)));
+    }
+
+    private Response buscarPorIds(Set<Long> ids) {
+        try {
+            return BuscaPorIds.resposta(ids, this.motoService.findByIds(ids));
+        } catch (SQLException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar motos"))
+                    .build();
+        }
+    }
+
+    /**
+     * Endpoint de sincronização incremental: as inserções, atualizações e exclusões de motos posteriores ao
+     * token {@code since}, agregadas por registro e na ordem de commit. Sem {@code since}, devolve apenas o token
+     * atual, a partir do qual a sincronização deve começar; com {@code limit}, a resposta é paginada e traz o
+     * próximo token; com {@code stream=true} ou NDJSON, todas as alterações são escritas em streaming, cada
+     * uma com o seu token.
+     *
+     * @param since Token da última alteração já recebida (opcional).
+     * @param limit Quantidade de alterações por página (opcional); a página se estende para não dividir uma transação.
+     * @param stream Se verdadeiro, escreve as alterações à medida que são lidas.
+     * @param headers Cabeçalhos da requisição; {@code Accept: application/x-ndjson} pede um objeto por linha.
+     * @param response Resposta assíncrona, concluída com as alterações e o próximo token.
+     */
+    @GET
+    @Path("/changes")
+    @Produces({MediaType.APPLICATION_JSON, StreamingJson.NDJSON})
+    public void findAlteracoes(@QueryParam("since") String since, @QueryParam("limit") Integer limit,
+                               @QueryParam("stream") boolean stream, @Context HttpHeaders headers,
+                               @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                if (since == null) {
+                    return Sincronizacao.inicio(this.motoService.findUltimaAlteracao());
+                }
+                long desde = Sincronizacao.token(since);
+                if (StreamingJson.solicitado(headers, stream, limit != null)) {
+                    return StreamingJson.<Alteracao<Moto>>resposta(headers, action -> this.motoService.streamAlteracoes(desde, action));
+                }
+                Sincronizacao sincronizacao = Sincronizacao.of(desde, limit);
+                return sincronizacao.resposta(this.motoService.findAlteracoes(desde, sincronizacao.getLimiteConsulta()));
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar alterações de motos"))
+                        .build();
+            }
+        });
     }
 
     /**
@@ -88,56 +316,74 @@ public class MotoController {
      *
      * @param id    ID da moto a ser atualizada.
      * @param input DTO de entrada para atualização da moto.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @PUT
     @Path("/{id}")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response update(@PathParam("id") Long id, MotoDto input) {
-        try {
-            // Atualização do objeto Moto com base no DTO e ID recebidos
-            Moto updated = this.motoService.update(
-                    new Moto(
-                            id,
-                            input.getPrefixo(),
-                            input.getPlaca(),
-                            input.getModelo(),
-                            input.getFabricante(),
-                            input.getAnoFabricacao(),
-                            input.getCapacidadeBateria(),
-                            input.getTipoLicenca(),
-                            input.getIdGaragem()
-                    )
-            );
-            return Response.status(Response.Status.OK).entity(updated).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        } catch (SQLException s) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar moto"))
-                    .build();
-        }
+    public void update(@PathParam("id") Long id, MotoDto input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                // Atualização do objeto Moto com base no DTO e ID recebidos
+                Moto updated = this.motoService.update(input.toModel(id));
+                return Response.status(Response.Status.OK).entity(updated).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar moto"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para atualizar apenas alguns campos de uma moto (JSON Merge Patch): os campos enviados são gravados,
+     * {@code null} limpa o campo e os campos ausentes permanecem como estão.
+     *
+     * @param id ID da moto a ser atualizada.
+     * @param patch Campos JSON e os novos valores.
+     * @param response Resposta assíncrona, concluída com 204 se a moto foi atualizada ou 404 se não existir.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON})
+    public void patch(@PathParam("id") Long id, Map<String, Object> patch, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                this.motoService.patch(id, MergePatch.campos(patch));
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar atualizar moto"))
+                        .build();
+            }
+        });
     }
 
     /**
      * Endpoint para excluir uma moto existente.
      *
      * @param id ID da moto a ser excluída.
-     * @return Resposta HTTP indicando sucesso ou erro.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP indicando sucesso ou erro.
      */
     @DELETE
     @Path("/{id}")
-    public Response delete(@PathParam("id") Long id) {
-        try {
-            this.motoService.deleteById(id);
-            return Response.status(Response.Status.NO_CONTENT).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        } catch (SQLException s) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar moto"))
-                    .build();
-        }
+    public void delete(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                this.motoService.deleteById(id);
+                return Response.status(Response.Status.NO_CONTENT).build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException s) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar deletar moto"))
+                        .build();
+            }
+        });
     }
 }
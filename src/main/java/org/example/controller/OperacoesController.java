@@ -0,0 +1,78 @@
+package org.example.controller;
+
+import org.example.config.DatabaseExecutor;
+import org.example.dtos.OperacaoDto;
+import org.example.exceptions.DuplicateKeyException;
+import org.example.exceptions.InvalidQueryException;
+import org.example.exceptions.NotFoundException;
+import org.example.exceptions.NotSavedException;
+import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.ResultadoLote;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para operações em lote sobre várias entidades.
+ * Permite criar, atualizar e excluir registros relacionados (por exemplo, uma garagem, o seu endereço, as
+ * suas estações e os carregadores de cada estação) em uma única requisição e uma única transação.
+ *
+ * @since 1.1
+ */
+@Path("/rest/batch")
+public class OperacoesController {
+
+    /**
+     * Endpoint para executar uma lista ordenada de operações na mesma transação.
+     * As operações são executadas na ordem recebida; {@code "$n"} em {@code id} ou em {@code dados} é
+     * substituído pelo ID da operação de índice {@code n}. Se alguma operação falhar, nenhuma é gravada: a
+     * resposta de erro desfaz a transação da requisição.
+     *
+     * @param input As operações, na ordem em que devem ser executadas.
+     * @param response Resposta assíncrona, concluída com o ID de cada operação, ou com o índice e o motivo da
+     *                 primeira operação que falhou.
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public void executar(List<OperacaoDto> input, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            CadastroLote.validar(input);
+            List<ResultadoLote> resultados = new ArrayList<>(input.size());
+            for (int i = 0; i < input.size(); i++) {
+                try {
+                    resultados.add(ResultadoLote.sucesso(i, RecursosLote.executar(input.get(i), resultados)));
+                } catch (InvalidQueryException e) {
+                    return falha(Response.Status.BAD_REQUEST, i, e.getMessage());
+                } catch (DuplicateKeyException e) {
+                    return falha(Response.Status.CONFLICT, i, e.getMessage());
+                } catch (UnsupportedServiceOperationException e) {
+                    return falha(Response.Status.BAD_REQUEST, i, "Operação não permitida para o registro");
+                } catch (NotFoundException e) {
+                    return falha(Response.Status.NOT_FOUND, i, "Registro não encontrado");
+                } catch (SQLException | NotSavedException e) {
+                    return falha(Response.Status.INTERNAL_SERVER_ERROR, i, "Erro inesperado ao tentar executar a operação");
+                }
+            }
+            return Response.status(Response.Status.OK)
+                    .entity(resultados)
+                    .build();
+        });
+    }
+
+    private static Response falha(Response.Status status, int indice, String mensagem) {
+        return Response.status(status)
+                .entity(Map.of("indice", indice, "mensagem", "Operação " + indice + ": " + mensagem))
+                .build();
+    }
+}
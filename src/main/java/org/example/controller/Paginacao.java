@@ -0,0 +1,127 @@
+package org.example.controller;
+
+import org.example.daos.Consulta;
+import org.example.dtos.PaginaDto;
+import org.example.exceptions.InvalidQueryException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Parâmetros de paginação por chave ({@code limit} e {@code cursor}) dos endpoints de listagem.
+ *
+ * <p>O cursor é opaco para o cliente: codifica o ID do último item entregue, e a página seguinte começa
+ * no primeiro ID maior que ele. Cada página consulta um item a mais que o limite para saber se existe
+ * próxima página sem precisar contar a tabela.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class Paginacao {
+
+    static final int LIMITE_PADRAO = 100;
+    static final int LIMITE_MAXIMO = 1000;
+
+    private static final String PREFIXO_CURSOR = "id:";
+
+    private final Long afterId;
+    private final int limite;
+
+    private Paginacao(Long afterId, int limite) {
+        this.afterId = afterId;
+        this.limite = limite;
+    }
+
+    /**
+     * Indica se a requisição pediu paginação; sem {@code limit} nem {@code cursor}, a listagem é completa.
+     *
+     * @param limit  O parâmetro {@code limit} recebido.
+     * @param cursor O parâmetro {@code cursor} recebido.
+     * @return {@code true} se algum dos parâmetros foi informado.
+     */
+    static boolean solicitada(Integer limit, String cursor) {
+        return limit != null || cursor != null;
+    }
+
+    /**
+     * Valida os parâmetros de paginação recebidos.
+     *
+     * @param limit  Quantidade de itens por página (padrão {@value #LIMITE_PADRAO}, máximo {@value #LIMITE_MAXIMO}).
+     * @param cursor Cursor devolvido pela página anterior, ou {@code null} para a primeira página.
+     * @return Os parâmetros validados.
+     * @throws InvalidQueryException Se o limite estiver fora do intervalo ou o cursor for inválido.
+     */
+    static Paginacao of(Integer limit, String cursor) {
+        int limite = limit == null ? LIMITE_PADRAO : limit;
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new InvalidQueryException("O parâmetro limit deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        return new Paginacao(cursor == null || cursor.isEmpty() ? null : decode(cursor), limite);
+    }
+
+    Long getAfterId() {
+        return afterId;
+    }
+
+    int getLimite() {
+        return limite;
+    }
+
+    /**
+     * Quantidade de itens a consultar: um a mais que o limite, para detectar a existência da próxima página.
+     *
+     * @return O limite da consulta.
+     */
+    int getLimiteConsulta() {
+        return limite + 1;
+    }
+
+    /**
+     * Restringe a consulta da requisição à página pedida.
+     *
+     * @param filtros Filtros da requisição.
+     * @return A consulta com o cursor e {@link #getLimiteConsulta()} itens.
+     * @throws InvalidQueryException Se a requisição também pediu ordenação, já que o cursor segue a ordem de ID.
+     */
+    Consulta consulta(Consulta filtros) {
+        if (!filtros.getOrdem().isEmpty()) {
+            throw new InvalidQueryException("O parâmetro sort não pode ser combinado com limit ou cursor");
+        }
+        return filtros.pagina(afterId, getLimiteConsulta());
+    }
+
+    /**
+     * Monta a página a partir dos itens consultados com {@link #getLimiteConsulta()}.
+     *
+     * @param itens Itens consultados, em ordem crescente de ID.
+     * @param id    Função que extrai o ID de um item.
+     * @param <T>   Tipo dos itens.
+     * @return A página com, no máximo, {@link #getLimite()} itens e o cursor da página seguinte.
+     */
+    <T> PaginaDto<T> pagina(List<T> itens, Function<T, Long> id) {
+        if (itens.size() <= limite) {
+            return new PaginaDto<>(itens, null, limite);
+        }
+        List<T> pagina = itens.subList(0, limite);
+        return new PaginaDto<>(pagina, encode(id.apply(pagina.get(limite - 1))), limite);
+    }
+
+    private static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXO_CURSOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decode(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (valor.startsWith(PREFIXO_CURSOR)) {
+                return Long.parseLong(valor.substring(PREFIXO_CURSOR.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 ou número inválido: tratado abaixo como cursor inválido.
+        }
+        throw new InvalidQueryException("Cursor de paginação inválido");
+    }
+}
@@ -0,0 +1,270 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dtos.CarregadorDto;
+import org.example.dtos.CarroDto;
+import org.example.dtos.ConsumoDto;
+import org.example.dtos.EnderecoDto;
+import org.example.dtos.EstacaoRecargaSolarDto;
+import org.example.dtos.GaragemDto;
+import org.example.dtos.LinhaDeOnibusDto;
+import org.example.dtos.MotoDto;
+import org.example.dtos.OnibusDto;
+import org.example.dtos.OperadorDto;
+import org.example.dtos.PontoRecargaDto;
+import org.example.services.CarregadorServiceFactory;
+import org.example.services.CarroServiceFactory;
+import org.example.services.ConsumoServiceFactory;
+import org.example.services.EnderecoGaragemServiceFactory;
+import org.example.services.EnderecoLinhaServiceFactory;
+import org.example.services.EstacaoRecargaSolarServiceFactory;
+import org.example.services.GaragemServiceFactory;
+import org.example.services.LinhaDeOnibusServiceFactory;
+import org.example.services.MotoServiceFactory;
+import org.example.services.OnibusServiceFactory;
+import org.example.services.OperadorServiceFactory;
+import org.example.services.PontoRecargaServiceFactory;
+import org.example.services.interfaces.CarregadorService;
+import org.example.services.interfaces.CarroService;
+import org.example.services.interfaces.ConsumoService;
+import org.example.services.interfaces.EnderecoService;
+import org.example.services.interfaces.EstacaoRecargaSolarService;
+import org.example.services.interfaces.GaragemService;
+import org.example.services.interfaces.LinhaDeOnibusService;
+import org.example.services.interfaces.MotoService;
+import org.example.services.interfaces.OnibusService;
+import org.example.services.interfaces.OperadorService;
+import org.example.services.interfaces.PontoRecargaService;
+import org.example.dtos.OperacaoDto;
+import org.example.exceptions.InvalidQueryException;
+import org.example.exceptions.NotFoundException;
+import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.ResultadoLote;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Entidades disponíveis no endpoint de operações em lote ({@code POST /rest/batch}) e a execução de cada
+ * operação sobre os serviços.
+ *
+ * <p>Cada entidade é registrada com o nome do caminho do seu recurso REST. A criação converte {@code dados}
+ * no DTO da entidade e o mapeia para o modelo pelo mesmo {@code toModel} do endpoint {@code /cadastre}, que
+ * também recusa dados com ID; a atualização aplica
+ * {@code dados} como JSON Merge Patch, como o endpoint {@code PATCH}; a exclusão remove pelo ID.</p>
+ *
+ * <p>Os serviços obtêm a conexão de {@link org.example.config.DatabaseConnectionFactory}, que durante a
+ * requisição devolve a conexão da unidade de trabalho: todas as operações do lote compartilham a mesma
+ * transação, confirmada uma única vez ao final.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class RecursosLote {
+
+    // Referência ao ID gerado (ou afetado) por uma operação anterior do lote: "$0", "$1", ...
+    private static final Pattern REFERENCIA = Pattern.compile("\\$(\\d{1,9})");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, Recurso<?>> RECURSOS = new HashMap<>();
+
+    static {
+        CarregadorService carregador = CarregadorServiceFactory.create();
+        registrar("carregador", CarregadorDto.class, CarregadorDto::getIdCarregador,
+                input -> carregador.create(input.toModel(null)).getIdCarregador(),
+                carregador::patch, carregador::deleteById);
+
+        CarroService carro = CarroServiceFactory.create();
+        registrar("carro", CarroDto.class, CarroDto::getIdCarro,
+                input -> carro.create(input.toModel(null)).getIdCarro(),
+                carro::patch, carro::deleteById);
+
+        ConsumoService consumo = ConsumoServiceFactory.create();
+        registrar("consumo", ConsumoDto.class, ConsumoDto::getIdConsumo,
+                input -> consumo.create(input.toModel(null)).getIdConsumo(),
+                consumo::patch, consumo::deleteById);
+
+        EnderecoService enderecoGaragem = EnderecoGaragemServiceFactory.create();
+        registrar("endereco-garagem", EnderecoDto.class, EnderecoDto::getIdEndereco,
+                input -> enderecoGaragem.create(input.toModel(null)).getIdEndereco(),
+                enderecoGaragem::patch, enderecoGaragem::deleteById);
+
+        EnderecoService enderecoLinha = EnderecoLinhaServiceFactory.create();
+        registrar("endereco-linha", EnderecoDto.class, EnderecoDto::getIdEndereco,
+                input -> enderecoLinha.create(input.toModel(null)).getIdEndereco(),
+                enderecoLinha::patch, enderecoLinha::deleteById);
+
+        EstacaoRecargaSolarService estacao = EstacaoRecargaSolarServiceFactory.create();
+        registrar("estacao-recarga-solar", EstacaoRecargaSolarDto.class, EstacaoRecargaSolarDto::getIdEstacao,
+                input -> estacao.create(input.toModel(null)).getIdEstacao(),
+                estacao::patch, estacao::deleteById);
+
+        GaragemService garagem = GaragemServiceFactory.create();
+        registrar("garagem", GaragemDto.class, GaragemDto::getIdGaragem,
+                input -> garagem.create(input.toModel(null)).getIdGaragem(),
+                garagem::patch, garagem::deleteById);
+
+        LinhaDeOnibusService linha = LinhaDeOnibusServiceFactory.create();
+        registrar("linha-onibus", LinhaDeOnibusDto.class, LinhaDeOnibusDto::getIdLinha,
+                input -> linha.create(input.toModel(null)).getIdLinha(),
+                linha::patch, linha::deleteById);
+
+        MotoService moto = MotoServiceFactory.create();
+        registrar("moto", MotoDto.class, MotoDto::getIdMoto,
+                input -> moto.create(input.toModel(null)).getIdMoto(),
+                moto::patch, moto::deleteById);
+
+        OnibusService onibus = OnibusServiceFactory.create();
+        registrar("onibus", OnibusDto.class, OnibusDto::getIdOnibus,
+                input -> onibus.create(input.toModel(null)).getIdOnibus(),
+                onibus::patch, onibus::deleteById);
+
+        OperadorService operador = OperadorServiceFactory.create();
+        registrar("operador", OperadorDto.class, OperadorDto::getIdOperador,
+                input -> operador.create(input.toModel(null)).getIdOperador(),
+                operador::patch, operador::deleteById);
+
+        PontoRecargaService pontoRecarga = PontoRecargaServiceFactory.create();
+        registrar("ponto-recarga", PontoRecargaDto.class, PontoRecargaDto::getIdPonto,
+                input -> pontoRecarga.create(input.toModel(null)).getIdPonto(),
+                pontoRecarga::patch, pontoRecarga::deleteById);
+    }
+
+    @FunctionalInterface
+    private interface Criacao<D> {
+
+        Long criar(D input) throws UnsupportedServiceOperationException, SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Atualizacao {
+
+        void atualizar(Long id, Map<String, Object> campos) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Exclusao {
+
+        void excluir(Long id) throws SQLException;
+    }
+
+    private static final class Recurso<D> {
+
+        private final Class<D> tipo;
+        private final Function<D, Long> id;
+        private final Criacao<D> criacao;
+        private final Atualizacao atualizacao;
+        private final Exclusao exclusao;
+
+        private Recurso(Class<D> tipo, Function<D, Long> id, Criacao<D> criacao, Atualizacao atualizacao,
+                        Exclusao exclusao) {
+            this.tipo = tipo;
+            this.id = id;
+            this.criacao = criacao;
+            this.atualizacao = atualizacao;
+            this.exclusao = exclusao;
+        }
+
+        private Long criar(String entidade, Map<String, Object> dados)
+                throws UnsupportedServiceOperationException, SQLException {
+            D input;
+            try {
+                input = MAPPER.convertValue(dados, tipo);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidQueryException("Dados inválidos para " + entidade);
+            }
+            // Como no endpoint /cadastre, a criação não aceita um ID nos dados.
+            if (id.apply(input) != null) {
+                throw new InvalidQueryException("A operação create só permite a criação de novos registros de "
+                        + entidade + "; o ID não deve ser informado");
+            }
+            return criacao.criar(input);
+        }
+    }
+
+    private RecursosLote() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static <D> void registrar(String entidade, Class<D> tipo, Function<D, Long> id, Criacao<D> criacao,
+                                      Atualizacao atualizacao, Exclusao exclusao) {
+        RECURSOS.put(entidade, new Recurso<>(tipo, id, criacao, atualizacao, exclusao));
+    }
+
+    /**
+     * Executa uma operação do lote.
+     *
+     * @param operacao   A operação recebida.
+     * @param anteriores Os resultados das operações anteriores do lote, usados para resolver as referências.
+     * @return O ID do registro criado, atualizado ou excluído.
+     * @throws InvalidQueryException Se a operação, a entidade, o ID, os dados ou alguma referência forem inválidos.
+     * @throws NotFoundException Se o registro a atualizar ou excluir não existir.
+     * @throws UnsupportedServiceOperationException Se o serviço recusar a operação.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    static Long executar(OperacaoDto operacao, List<ResultadoLote> anteriores)
+            throws UnsupportedServiceOperationException, SQLException {
+        Recurso<?> recurso = RECURSOS.get(operacao.getEntidade());
+        if (recurso == null) {
+            throw new InvalidQueryException("Entidade desconhecida: " + operacao.getEntidade());
+        }
+        String tipo = operacao.getOperacao() == null ? "" : operacao.getOperacao();
+        switch (tipo) {
+            case "create":
+                return recurso.criar(operacao.getEntidade(), dados(operacao, anteriores));
+            case "update":
+                Long atualizado = id(operacao, anteriores);
+                recurso.atualizacao.atualizar(atualizado, dados(operacao, anteriores));
+                return atualizado;
+            case "delete":
+                Long excluido = id(operacao, anteriores);
+                recurso.exclusao.excluir(excluido);
+                return excluido;
+            default:
+                throw new InvalidQueryException("Operação desconhecida: " + operacao.getOperacao()
+                        + " (use create, update ou delete)");
+        }
+    }
+
+    private static Long id(OperacaoDto operacao, List<ResultadoLote> anteriores) {
+        Object id = resolver(operacao.getId(), anteriores);
+        if (!(id instanceof Number)) {
+            throw new InvalidQueryException("O campo id é obrigatório em " + operacao.getOperacao()
+                    + " e deve ser um número ou uma referência $n");
+        }
+        return ((Number) id).longValue();
+    }
+
+    private static Map<String, Object> dados(OperacaoDto operacao, List<ResultadoLote> anteriores) {
+        if (operacao.getDados() == null) {
+            throw new InvalidQueryException("O campo dados é obrigatório em " + operacao.getOperacao());
+        }
+        Map<String, Object> dados = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> campo : operacao.getDados().entrySet()) {
+            dados.put(campo.getKey(), resolver(campo.getValue(), anteriores));
+        }
+        return dados;
+    }
+
+    private static Object resolver(Object valor, List<ResultadoLote> anteriores) {
+        if (!(valor instanceof String)) {
+            return valor;
+        }
+        Matcher matcher = REFERENCIA.matcher((String) valor);
+        if (!matcher.matches()) {
+            return valor;
+        }
+        int indice = Integer.parseInt(matcher.group(1));
+        if (indice >= anteriores.size()) {
+            throw new InvalidQueryException("A referência " + valor + " deve apontar para uma operação anterior");
+        }
+        return anteriores.get(indice).getId();
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.controller;
+
+import org.example.dtos.AlteracoesDto;
+import org.example.exceptions.InvalidQueryException;
+import org.example.models.Alteracao;
+
+import javax.ws.rs.core.Response;
+import java.util.List;
+
+/**
+ * Parâmetros e resposta dos endpoints de sincronização incremental ({@code GET .../changes}).
+ *
+ * <p>Sem {@code since}, a resposta traz apenas o token atual: o cliente o guarda, baixa a listagem completa e
+ * passa a pedir as alterações a partir dele (alterações entre as duas chamadas são entregues de novo, o que
+ * é inofensivo para quem aplica por ID). Com {@code since}, as alterações são paginadas por {@code limit}, nos
+ * mesmos limites das listagens, ou percorridas em streaming. Alterações da mesma transação têm o mesmo token,
+ * por isso uma página nunca as divide: ela se estende até a última alteração com o token em que {@code limit}
+ * foi atingido. Um token anterior ao último expurgo do log é recusado com 400: o cliente baixa a listagem
+ * completa e recomeça.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class Sincronizacao {
+
+    private final long desde;
+    private final int limite;
+
+    private Sincronizacao(long desde, int limite) {
+        this.desde = desde;
+        this.limite = limite;
+    }
+
+    /**
+     * Resposta para o início de uma sincronização: nenhuma alteração e o token atual.
+     *
+     * @param token O token da alteração mais recente.
+     * @return A resposta 200.
+     */
+    static Response inicio(long token) {
+        return Response.ok(new AlteracoesDto<>(List.of(), token, false)).build();
+    }
+
+    /**
+     * @param since Token recebido.
+     * @return O token como posição no log.
+     * @throws InvalidQueryException Se o token for inválido.
+     */
+    static long token(String since) {
+        try {
+            long desde = Long.parseLong(since.trim());
+            if (desde >= 0) {
+                return desde;
+            }
+        } catch (NumberFormatException e) {
+            // Tratado abaixo como token inválido.
+        }
+        throw new InvalidQueryException("Token de sincronização inválido: " + since);
+    }
+
+    static Sincronizacao of(long desde, Integer limit) {
+        int limite = limit == null ? Paginacao.LIMITE_PADRAO : limit;
+        if (limite < 1 || limite > Paginacao.LIMITE_MAXIMO) {
+            throw new InvalidQueryException("O parâmetro limit deve estar entre 1 e " + Paginacao.LIMITE_MAXIMO);
+        }
+        return new Sincronizacao(desde, limite);
+    }
+
+    /**
+     * Quantidade de alterações a ler: uma a mais que a página, para saber se há mais. A leitura completa a
+     * transação da última, então pode trazer mais.
+     */
+    int getLimiteConsulta() {
+        return limite + 1;
+    }
+
+    <T> Response resposta(List<Alteracao<T>> alteracoes) {
+        boolean temMais = alteracoes.size() > limite;
+        List<Alteracao<T>> itens = alteracoes;
+        if (temMais) {
+            long corte = alteracoes.get(limite - 1).getToken();
+            int fim = limite;
+            while (fim < alteracoes.size() && alteracoes.get(fim).getToken() == corte) {
+                fim++;
+            }
+            itens = alteracoes.subList(0, fim);
+        }
+        long proximo = itens.isEmpty() ? desde : itens.get(itens.size() - 1).getToken();
+        return Response.ok(new AlteracoesDto<>(itens, proximo, temMais)).build();
+    }
+}
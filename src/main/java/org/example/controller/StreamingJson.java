@@ -0,0 +1,124 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.exceptions.InvalidQueryException;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Listagens completas escritas na resposta à medida que as linhas são lidas do banco.
+ *
+ * <p>Com {@code Accept: application/x-ndjson} cada registro é escrito como um objeto JSON por linha; com
+ * {@code stream=true} o resultado é o mesmo array JSON da listagem comum. Em ambos os casos nenhuma lista é
+ * montada em memória: cada linha do {@code ResultSet} é serializada e descartada.</p>
+ *
+ * <p>O status 200 é enviado antes da consulta; um erro no meio da leitura interrompe a resposta, que chega
+ * truncada ao cliente.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class StreamingJson {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private static final MediaType NDJSON_TYPE = MediaType.valueOf(NDJSON);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private static final Logger LOGGER = Logger.getLogger(StreamingJson.class.getName());
+
+    private StreamingJson() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Origem dos registros percorridos, normalmente o {@code streamAll} de um serviço.
+     *
+     * @param <T> Tipo dos registros.
+     */
+    @FunctionalInterface
+    interface Fonte<T> {
+
+        void streamAll(Consumer<T> action) throws SQLException;
+    }
+
+    /**
+     * Indica se a requisição pediu a listagem em streaming.
+     *
+     * @param headers  Cabeçalhos da requisição.
+     * @param stream   O parâmetro {@code stream} recebido.
+     * @param paginada Se a requisição também pediu paginação.
+     * @return {@code true} para NDJSON ou {@code stream=true}.
+     * @throws InvalidQueryException Se streaming e paginação forem pedidos juntos.
+     */
+    static boolean solicitado(HttpHeaders headers, boolean stream, boolean paginada) {
+        boolean solicitado = stream || ndjson(headers);
+        if (solicitado && paginada) {
+            throw new InvalidQueryException("A listagem em streaming não pode ser combinada com limit ou cursor");
+        }
+        return solicitado;
+    }
+
+    /**
+     * Monta a resposta que percorre a fonte durante a escrita do corpo.
+     *
+     * @param headers Cabeçalhos da requisição, usados para escolher entre NDJSON e array JSON.
+     * @param fonte   Origem dos registros.
+     * @param <T>     Tipo dos registros.
+     * @return A resposta 200 com o corpo em streaming.
+     */
+    static <T> Response resposta(HttpHeaders headers, Fonte<T> fonte) {
+        boolean ndjson = ndjson(headers);
+        StreamingOutput output = out -> {
+            try (JsonGenerator generator = MAPPER.createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+                fonte.streamAll(item -> escrever(generator, item, ndjson));
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            } catch (UncheckedIOException e) {
+                // Cliente desconectou ou a escrita falhou: a leitura já foi interrompida.
+                throw e.getCause();
+            } catch (SQLException e) {
+                LOGGER.warning("Erro ao ler registros durante o streaming: " + e.getMessage());
+                throw new IOException("Listagem interrompida por erro no banco de dados", e);
+            }
+        };
+        return Response.ok(output, ndjson ? NDJSON_TYPE : MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
+    private static void escrever(JsonGenerator generator, Object item, boolean ndjson) {
+        try {
+            generator.writeObject(item);
+            if (ndjson) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean ndjson(HttpHeaders headers) {
+        for (MediaType aceito : headers.getAcceptableMediaTypes()) {
+            if (NDJSON_TYPE.getType().equalsIgnoreCase(aceito.getType())
+                    && NDJSON_TYPE.getSubtype().equalsIgnoreCase(aceito.getSubtype())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.controller;
+
+import org.example.config.DatabaseExecutor;
+import org.example.exceptions.NotFoundException;
+import org.example.services.VeiculoServiceFactory;
+import org.example.services.interfaces.VeiculoService;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Controlador REST para consultas sobre todos os tipos de veículo (ônibus, carros e motos) de uma só vez.
+ *
+ * @since 1.1
+ */
+@Path("/rest/veiculo")
+public class VeiculoController {
+
+    // Instância de VeiculoService obtida da factory
+    private final VeiculoService veiculoService = VeiculoServiceFactory.create();
+
+    /**
+     * Endpoint para listar os veículos de todos os tipos em uma única consulta.
+     * Termos {@code campo=valor} (ou {@code !=}, {@code >=}, {@code <=}, {@code >}, {@code <}) sobre
+     * {@code placa}, {@code idGaragem} e {@code anoFabricacao} restringem a listagem (por exemplo,
+     * {@code ?placa=ABC1D23} ou {@code ?idGaragem=3}), e {@code sort} a ordena pelos mesmos campos. Cada item
+     * traz o tipo do veículo ({@code onibus}, {@code carro} ou {@code moto}) e o veículo com todos os seus campos.
+     *
+     * @param sort Campos de ordenação, separados por vírgula; {@code -} antes do campo inverte a ordem (opcional).
+     * @param uriInfo URI da requisição, de onde são lidos os filtros.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com a lista de veículos.
+     */
+    @GET
+    @Path("/all")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findAll(@QueryParam("sort") String sort, @Context UriInfo uriInfo,
+                        @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                return Response.status(Response.Status.OK)
+                        .entity(this.veiculoService.findAll(FiltrosConsulta.of(uriInfo, sort)))
+                        .build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar veículos"))
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Endpoint para buscar um veículo de qualquer tipo pela placa, sem percorrer as três tabelas.
+     *
+     * @param placa A placa do veículo.
+     * @param response Resposta assíncrona, concluída com a resposta HTTP com o veículo e o seu tipo, ou 404 se
+     *                 nenhum veículo usar a placa.
+     */
+    @GET
+    @Path("/placa/{placa}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public void findByPlaca(@PathParam("placa") String placa, @Suspended AsyncResponse response) {
+        DatabaseExecutor.submit(response, () -> {
+            try {
+                return Response.status(Response.Status.OK)
+                        .entity(this.veiculoService.findByPlaca(placa))
+                        .build();
+            } catch (NotFoundException e) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            } catch (SQLException e) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(Map.of("mensagem", "Erro inesperado ao tentar buscar o veículo"))
+                        .build();
+            }
+        });
+    }
+}
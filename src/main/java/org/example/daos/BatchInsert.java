@@ -0,0 +1,145 @@
+package org.example.daos;
+
+import oracle.jdbc.OracleConnection;
+
+import java.sql.Array;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inserção de vários registros de uma tabela com um único comando.
+ *
+ * <p>Cada coluna vai como um único parâmetro, uma coleção nativa do Oracle ({@code SYS.ODCINUMBERLIST} ou
+ * {@code SYS.ODCIVARCHAR2LIST}, como em {@link Queries#findByIds}), e um bloco PL/SQL insere todas as linhas
+ * com {@code FORALL ... RETURNING ... BULK COLLECT INTO}, devolvendo os IDs gerados em outra coleção, em uma
+ * única ida ao banco. O texto do bloco é o mesmo para qualquer quantidade de registros: há um só comando por
+ * tabela no cache da conexão e no shared pool.</p>
+ *
+ * @param <T> Tipo do modelo inserido.
+ * @version 1.0
+ * @since 1.1
+ */
+final class BatchInsert<T> {
+
+    // Coleção dos IDs gerados; como as colunas, limitada a 32767 elementos, bem acima do tamanho dos blocos.
+    private static final String ID_LIST_TYPE = "SYS.ODCINUMBERLIST";
+
+    private final TableMetadata table;
+    private final List<Column> columns;
+    private final Function<T, Object[]> values;
+    private final BiConsumer<T, Long> idSetter;
+    private final String insert;
+
+    /**
+     * @param table    A tabela; todas as colunas, exceto o ID, são inseridas.
+     * @param values   Valores de um registro, na ordem das colunas de {@code table} sem o ID.
+     * @param idSetter Atribui ao modelo o ID gerado.
+     */
+    BatchInsert(TableMetadata table, Function<T, Object[]> values, BiConsumer<T, Long> idSetter) {
+        this.table = table;
+        this.columns = table.getColumns().stream()
+                .filter(column -> column != table.getId())
+                .collect(Collectors.toList());
+        this.values = values;
+        this.idSetter = idSetter;
+        StringBuilder sql = new StringBuilder("DECLARE\n");
+        for (int c = 0; c < columns.size(); c++) {
+            sql.append("  c").append(c).append(' ').append(columns.get(c).arrayType()).append(" := ?;\n");
+        }
+        sql.append("  ids ").append(ID_LIST_TYPE).append(";\nBEGIN\n  FORALL i IN 1 .. c0.COUNT\n    INSERT INTO ")
+                .append(table.getTable()).append(" (")
+                .append(columns.stream().map(Column::getName).collect(Collectors.joining(", ")))
+                .append(")\n    VALUES (");
+        for (int c = 0; c < columns.size(); c++) {
+            sql.append(c == 0 ? "" : ", ").append('c').append(c).append("(i)");
+        }
+        sql.append(")\n    RETURNING ").append(table.getId().getName()).append(" BULK COLLECT INTO ids;\n")
+                .append("  ? := ids;\nEND;");
+        this.insert = sql.toString();
+    }
+
+    TableMetadata getTable() {
+        return table;
+    }
+
+    /**
+     * Colunas gravadas (todas, exceto o ID), na ordem de {@link #values(Object)}.
+     */
+    List<Column> getColumns() {
+        return columns;
+    }
+
+    Object[] values(T item) {
+        return values.apply(item);
+    }
+
+    void setId(T item, long id) {
+        idSetter.accept(item, id);
+    }
+
+    /**
+     * Insere os registros e atribui a cada um o ID gerado. Os IDs só são atribuídos se todo o bloco for
+     * executado com sucesso.
+     *
+     * @param itens      Os registros a inserir.
+     * @param connection Conexão com o banco de dados; a transação fica a cargo de quem chama.
+     * @throws SQLException Se algum registro não puder ser inserido.
+     */
+    void insertAll(List<T> itens, Connection connection) throws SQLException {
+        if (itens.isEmpty()) {
+            return;
+        }
+        OracleConnection oracle = connection.unwrap(OracleConnection.class);
+        List<Array> colecoes = new ArrayList<>(columns.size());
+        final long[] ids = new long[itens.size()];
+        try (CallableStatement call = connection.prepareCall(insert)) {
+            List<Object[]> linhas = new ArrayList<>(itens.size());
+            for (T item : itens) {
+                linhas.add(values.apply(item));
+            }
+            for (int c = 0; c < columns.size(); c++) {
+                Object[] coluna = new Object[linhas.size()];
+                for (int i = 0; i < coluna.length; i++) {
+                    coluna[i] = columns.get(c).arrayValue(linhas.get(i)[c]);
+                }
+                Array colecao = oracle.createOracleArray(columns.get(c).arrayType(), coluna);
+                colecoes.add(colecao);
+                call.setArray(c + 1, colecao);
+            }
+            int saida = columns.size() + 1;
+            call.registerOutParameter(saida, Types.ARRAY, ID_LIST_TYPE);
+
+            call.execute();
+            Array gerados = call.getArray(saida);
+            try {
+                Object[] valores = (Object[]) gerados.getArray();
+                if (valores.length != ids.length) {
+                    throw new SQLException("O lote inseriu " + valores.length + " de " + ids.length
+                            + " registros em " + table.getTable());
+                }
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = valores[i] == null ? 0 : ((Number) valores[i]).longValue();
+                    if (ids[i] == 0) {
+                        throw new SQLException("Registro " + i + " do lote não foi inserido em " + table.getTable());
+                    }
+                }
+            } finally {
+                gerados.free();
+            }
+        } finally {
+            for (Array colecao : colecoes) {
+                colecao.free();
+            }
+        }
+        for (int i = 0; i < ids.length; i++) {
+            idSetter.accept(itens.get(i), ids[i]);
+        }
+    }
+}
@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.CarregadorDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.Carregador;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -19,6 +24,35 @@ import java.util.logging.Logger;
  */
 class CarregadorDaoImpl implements CarregadorDao {
 
+    // Colunas de G_CARREGADOR e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    private static final TableMetadata TABELA = new TableMetadata("G_CARREGADOR",
+            Column.of("idCarregador", "id_carregador", Column.Type.LONG),
+            Column.of("potencia", "qt_potencia", Column.Type.DOUBLE),
+            Column.of("status", "st_status", Column.Type.STRING).filterable(),
+            Column.of("idEstacaoRecargaSolar", "id_estacao", Column.Type.LONG).filterable()
+    );
+
+    // Monta Carregador a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    private static final RowMapper<Carregador> MAPPER = new RowMapper<>(TABELA, row -> new Carregador(
+            row.getLong(0),
+            row.getDouble(1),
+            row.getString(2),
+            row.getLong(3)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<Carregador> INSERCAO = new BatchInsert<>(TABELA, carregador -> new Object[]{
+            carregador.getPotencia(),
+            carregador.getStatus(),
+            carregador.getIdEstacaoRecargaSolar()
+    }, Carregador::setIdCarregador);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<Carregador> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -32,19 +66,14 @@ class CarregadorDaoImpl implements CarregadorDao {
     public List<Carregador> findAll() throws SQLException {
         final List<Carregador> carregadores = new ArrayList<>();
         final String sql = "SELECT * FROM G_CARREGADOR";
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de Carregador.
+            RowMapper.Reader<Carregador> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                Carregador carregador = new Carregador(
-                        rs.getLong("id_carregador"),
-                        rs.getDouble("qt_potencia"),
-                        rs.getString("st_status"),
-                        rs.getLong("id_estacao")
-                );
-                carregadores.add(carregador);
+                carregadores.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar carregadores: " + e.getMessage());
@@ -53,6 +82,150 @@ class CarregadorDaoImpl implements CarregadorDao {
         return carregadores;
     }
 
+    /**
+     * Busca as instâncias de Carregador que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link Carregador} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Carregador> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de Carregador que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de Carregador que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Carregador> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de Carregador que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca um Carregador pelo ID no banco de dados.
+     *
+     * @param id O ID do Carregador a ser buscado.
+     * @return A instância de {@link Carregador} encontrada.
+     * @throws NotFoundException Se o Carregador com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Carregador findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_CARREGADOR WHERE id_carregador = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar carregadores por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Carregador não encontrado para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca um Carregador pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID do Carregador a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Carregador encontrado.
+     * @throws NotFoundException Se o Carregador com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> carregador = Queries.findById(TABELA, id, fields);
+        if (carregador == null) {
+            throw new NotFoundException("Carregador não encontrado para o ID fornecido: " + id);
+        }
+        return carregador;
+    }
+
+    /**
+     * Busca várias instâncias de Carregador pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, Carregador> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de Carregador.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de Carregador posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<Carregador>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Carregador já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove um Carregador pelo ID no banco de dados.
      *
@@ -90,22 +263,35 @@ class CarregadorDaoImpl implements CarregadorDao {
                 BEGIN INSERT INTO G_CARREGADOR (st_status, qt_potencia, id_estacao) 
                 VALUES (?, ?, ?) RETURNING id_carregador INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setString(1, carregador.getStatus());
-        call.setDouble(2, carregador.getPotencia());
-        call.setLong(3, carregador.getIdEstacaoRecargaSolar());
-        call.registerOutParameter(4, Types.NUMERIC);
-
-        int linhasAfetadas = call.executeUpdate();
-        long id = call.getLong(4);
-
-        // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar o carregador: verifique os dados.");
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setString(1, carregador.getStatus());
+            call.setDouble(2, carregador.getPotencia());
+            call.setLong(3, carregador.getIdEstacaoRecargaSolar());
+            call.registerOutParameter(4, Types.NUMERIC);
+
+            int linhasAfetadas = call.executeUpdate();
+            long id = call.getLong(4);
+
+            // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar o carregador: verifique os dados.");
+            }
+
+            carregador.setIdCarregador(id);
+            return carregador;
         }
+    }
 
-        carregador.setIdCarregador(id);
-        return carregador;
+    /**
+     * Salva várias instâncias novas de Carregador com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param carregadores As instâncias de Carregador a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<Carregador> carregadores, Connection connection) throws SQLException {
+        INSERCAO.insertAll(carregadores, connection);
     }
 
     /**
@@ -124,18 +310,35 @@ class CarregadorDaoImpl implements CarregadorDao {
                 SET st_status = ?, qt_potencia = ?, id_estacao = ? 
                 WHERE id_carregador = ?
                 """;
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setString(1, carregador.getStatus());
-        stmt.setDouble(2, carregador.getPotencia());
-        stmt.setLong(3, carregador.getIdEstacaoRecargaSolar());
-        stmt.setLong(4, carregador.getIdCarregador());
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, carregador.getStatus());
+            stmt.setDouble(2, carregador.getPotencia());
+            stmt.setLong(3, carregador.getIdEstacaoRecargaSolar());
+            stmt.setLong(4, carregador.getIdCarregador());
+
+            int linhasAfetadas = stmt.executeUpdate();
 
-        int linhasAfetadas = stmt.executeUpdate();
+            // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0) {
+                throw new NotFoundException("Carregador não encontrado para o ID fornecido: " + carregador.getIdCarregador());
+            }
+            return carregador;
+        }
+    }
 
-        // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0) {
-            throw new NotFoundException("Carregador não encontrado para o ID fornecido: " + carregador.getIdCarregador());
+    /**
+     * Atualiza apenas os campos informados de um Carregador (JSON Merge Patch).
+     *
+     * @param id O ID do Carregador a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se o Carregador com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Carregador não encontrado para o ID fornecido: " + id);
         }
-        return carregador;
     }
 }
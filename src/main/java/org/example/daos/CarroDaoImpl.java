@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.CarroDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.Carro;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -19,6 +24,53 @@ import java.util.logging.Logger;
  */
 class CarroDaoImpl implements CarroDao {
 
+    // Colunas de G_CARRO e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    static final TableMetadata TABELA = new TableMetadata("G_CARRO",
+            Column.of("idCarro", "id_carro", Column.Type.LONG),
+            Column.of("prefixo", "nr_prefixo", Column.Type.INTEGER).filterable(),
+            Column.of("numeroPortas", "qt_portas", Column.Type.INTEGER),
+            Column.of("placa", "ds_placa", Column.Type.STRING).filterable(),
+            Column.of("modelo", "ds_modelo", Column.Type.STRING),
+            Column.of("fabricante", "nm_fabricante", Column.Type.STRING),
+            Column.of("anoFabricacao", "nr_ano_fabricacao", Column.Type.INTEGER).filterable(),
+            Column.of("capacidadeBateria", "qt_capacidade_bateria", Column.Type.DOUBLE),
+            Column.of("idGaragem", "id_garagem", Column.Type.LONG).filterable()
+    );
+
+    // Monta Carro a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    static final RowMapper<Carro> MAPPER = new RowMapper<>(TABELA, row -> new Carro(
+            row.getLong(0),
+            row.getInt(1),
+            row.getInt(2),
+            row.getString(3),
+            row.getString(4),
+            row.getString(5),
+            row.getInt(6),
+            row.getDouble(7),
+            row.getLong(8)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<Carro> INSERCAO = new BatchInsert<>(TABELA, carro -> new Object[]{
+            carro.getPrefixo(),
+            carro.getNumeroPortas(),
+            carro.getPlaca(),
+            carro.getModelo(),
+            carro.getFabricante(),
+            carro.getAnoFabricacao(),
+            carro.getCapacidadeBateria(),
+            carro.getIdGaragem()
+    }, Carro::setIdCarro);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Sincronização pela chave natural (placa), com um MERGE por bloco; ver db/indices.sql.
+    private static final Upsert<Carro> SINCRONIZACAO = new Upsert<>(INSERCAO, "placa");
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<Carro> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -32,24 +84,14 @@ class CarroDaoImpl implements CarroDao {
     public List<Carro> findAll() throws SQLException {
         final List<Carro> carros = new ArrayList<>();
         final String sql = "SELECT * FROM G_CARRO";
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de Carro.
+            RowMapper.Reader<Carro> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                Carro carro = new Carro(
-                        rs.getLong("id_carro"),
-                        rs.getInt("nr_prefixo"),
-                        rs.getInt("qt_portas"),
-                        rs.getString("ds_placa"),
-                        rs.getString("ds_modelo"),
-                        rs.getString("nm_fabricante"),
-                        rs.getInt("nr_ano_fabricacao"),
-                        rs.getDouble("qt_capacidade_bateria"),
-                        rs.getLong("id_garagem")
-                );
-                carros.add(carro);
+                carros.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar carros: " + e.getMessage());
@@ -58,6 +100,161 @@ class CarroDaoImpl implements CarroDao {
         return carros;
     }
 
+    /**
+     * Busca as instâncias de Carro que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link Carro} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Carro> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de Carro que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de Carro que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Carro> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de Carro que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca um Carro pelo ID no banco de dados.
+     *
+     * @param id O ID do Carro a ser buscado.
+     * @return A instância de {@link Carro} encontrada.
+     * @throws NotFoundException Se o Carro com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Carro findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_CARRO WHERE id_carro = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar carros por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Carro não encontrado para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca um Carro pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID do Carro a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Carro encontrado.
+     * @throws NotFoundException Se o Carro com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> carro = Queries.findById(TABELA, id, fields);
+        if (carro == null) {
+            throw new NotFoundException("Carro não encontrado para o ID fornecido: " + id);
+        }
+        return carro;
+    }
+
+    /**
+     * Busca várias instâncias de Carro pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, Carro> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Busca a placa de todas as instâncias de Carro que a possuem.
+     *
+     * @return As placas, indexadas pelo ID.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, String> findChavesNaturais() throws SQLException {
+        return Queries.findValues(TABELA, "placa");
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de Carro.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de Carro posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<Carro>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Carro já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove um Carro pelo ID no banco de dados.
      *
@@ -99,27 +296,53 @@ class CarroDaoImpl implements CarroDao {
                                            qt_capacidade_bateria, id_garagem) 
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING id_carro INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setInt(1, carro.getPrefixo());
-        call.setInt(2, carro.getNumeroPortas());
-        call.setString(3, carro.getPlaca());
-        call.setString(4, carro.getModelo());
-        call.setString(5, carro.getFabricante());
-        call.setInt(6, carro.getAnoFabricacao());
-        call.setDouble(7, carro.getCapacidadeBateria());
-        call.setLong(8, carro.getIdGaragem());
-        call.registerOutParameter(9, Types.NUMERIC);
-
-        int rowsAffected = call.executeUpdate();
-        long id = call.getLong(9);
-
-        // Verifica se a inserção foi bem-sucedida.
-        if (rowsAffected == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar o carro: Nenhuma linha foi afetada.");
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setInt(1, carro.getPrefixo());
+            call.setInt(2, carro.getNumeroPortas());
+            call.setString(3, carro.getPlaca());
+            call.setString(4, carro.getModelo());
+            call.setString(5, carro.getFabricante());
+            call.setInt(6, carro.getAnoFabricacao());
+            call.setDouble(7, carro.getCapacidadeBateria());
+            call.setLong(8, carro.getIdGaragem());
+            call.registerOutParameter(9, Types.NUMERIC);
+
+            int rowsAffected = call.executeUpdate();
+            long id = call.getLong(9);
+
+            // Verifica se a inserção foi bem-sucedida.
+            if (rowsAffected == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar o carro: Nenhuma linha foi afetada.");
+            }
+
+            carro.setIdCarro(id);
+            return carro;
         }
+    }
 
-        carro.setIdCarro(id);
-        return carro;
+    /**
+     * Salva várias instâncias novas de Carro com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param carros As instâncias de Carro a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<Carro> carros, Connection connection) throws SQLException {
+        INSERCAO.insertAll(carros, connection);
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de Carro pela chave natural ({@code placa}) com um único MERGE,
+     * atribuindo a cada uma o seu ID.
+     *
+     * @param carros As instâncias de Carro a serem gravadas; as chaves devem ser distintas e não nulas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void upsertAll(List<Carro> carros, Connection connection) throws SQLException {
+        SINCRONIZACAO.upsertAll(carros, connection);
     }
 
     /**
@@ -139,23 +362,40 @@ class CarroDaoImpl implements CarroDao {
                     nr_ano_fabricacao = ?, qt_capacidade_bateria = ?, id_garagem = ? 
                 WHERE id_carro = ?
                 """;
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setInt(1, carro.getPrefixo());
-        stmt.setInt(2, carro.getNumeroPortas());
-        stmt.setString(3, carro.getPlaca());
-        stmt.setString(4, carro.getModelo());
-        stmt.setString(5, carro.getFabricante());
-        stmt.setInt(6, carro.getAnoFabricacao());
-        stmt.setDouble(7, carro.getCapacidadeBateria());
-        stmt.setLong(8, carro.getIdGaragem());
-        stmt.setLong(9, carro.getIdCarro());
-
-        int rowsAffected = stmt.executeUpdate();
-
-        // Verifica se a atualização foi bem-sucedida.
-        if (rowsAffected == 0) {
-            throw new NotFoundException("Carro não encontrado para o ID fornecido: " + carro.getIdCarro());
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, carro.getPrefixo());
+            stmt.setInt(2, carro.getNumeroPortas());
+            stmt.setString(3, carro.getPlaca());
+            stmt.setString(4, carro.getModelo());
+            stmt.setString(5, carro.getFabricante());
+            stmt.setInt(6, carro.getAnoFabricacao());
+            stmt.setDouble(7, carro.getCapacidadeBateria());
+            stmt.setLong(8, carro.getIdGaragem());
+            stmt.setLong(9, carro.getIdCarro());
+
+            int rowsAffected = stmt.executeUpdate();
+
+            // Verifica se a atualização foi bem-sucedida.
+            if (rowsAffected == 0) {
+                throw new NotFoundException("Carro não encontrado para o ID fornecido: " + carro.getIdCarro());
+            }
+            return carro;
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Carro (JSON Merge Patch).
+     *
+     * @param id O ID do Carro a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se o Carro com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Carro não encontrado para o ID fornecido: " + id);
         }
-        return carro;
     }
 }
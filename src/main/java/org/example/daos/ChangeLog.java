@@ -0,0 +1,181 @@
+package org.example.daos;
+
+import org.example.config.DatabaseConnectionFactory;
+import org.example.exceptions.InvalidQueryException;
+import org.example.models.Alteracao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Log de alterações de uma tabela (G_ALTERACAO, db/alteracoes.sql), base da sincronização incremental.
+ *
+ * <p>Os serviços registram cada inserção, atualização e exclusão na mesma transação da escrita, de modo que
+ * o log e a tabela nunca divergem. O token devolvido aos clientes é o SCN de commit da alteração, que segue a
+ * ordem de confirmação e não a de inserção. Como o {@code ORA_ROWSCN} não é indexável, ele é copiado para a
+ * coluna indexada {@code nr_scn} antes de cada leitura: um {@code UPDATE} em conexão própria da base
+ * principal, confirmado na hora, carimba as alterações já confirmadas e ainda sem SCN. Esse comando enxerga
+ * todas as transações confirmadas até o seu SCN, e as que ainda estão abertas, por mais longas que sejam,
+ * receberão um SCN maior que qualquer token já entregue; a leitura seguinte percorre só o índice a partir do
+ * token.</p>
+ *
+ * <p>A leitura agrega as alterações de cada registro posteriores ao token (a última define a posição; a
+ * primeira diz se o registro foi inserido no intervalo) e junta o registro atual com {@code LEFT JOIN}: se ele
+ * não existe mais, a alteração é uma exclusão. Como todas as alterações de uma transação têm o mesmo SCN, a
+ * página é cortada com {@code WITH TIES}, sem dividir uma transação entre duas páginas. Um token anterior ao
+ * último expurgo do log (G_ALTERACAO_EXPURGO) é recusado, porque as exclusões expurgadas não seriam
+ * entregues.</p>
+ *
+ * @param <T> Tipo do modelo da tabela.
+ * @version 1.0
+ * @since 1.1
+ */
+final class ChangeLog<T> {
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeLog.class.getName());
+
+    private static final String INSERT =
+            "INSERT INTO G_ALTERACAO (nm_tabela, id_registro, tp_operacao) VALUES (?, ?, ?)";
+
+    private static final String CARIMBO =
+            "UPDATE G_ALTERACAO SET nr_scn = ORA_ROWSCN WHERE nm_tabela = ? AND nr_scn IS NULL";
+
+    private static final String EXPURGO = "SELECT nr_scn FROM G_ALTERACAO_EXPURGO WHERE nm_tabela = ?";
+
+    private final TableMetadata table;
+    private final RowMapper<T> mapper;
+    private final String select;
+    private final String last;
+
+    ChangeLog(TableMetadata table, RowMapper<T> mapper) {
+        this.table = table;
+        this.mapper = mapper;
+        this.select = "SELECT a.nr_scn, a.tp_operacao, a.id_registro, "
+                + table.getColumns().stream().map(column -> "t." + column.getName()).collect(Collectors.joining(", "))
+                + " FROM (SELECT id_registro, MAX(nr_scn) AS nr_scn,"
+                + " MIN(tp_operacao) KEEP (DENSE_RANK FIRST ORDER BY nr_scn, id_alteracao) AS tp_operacao"
+                + " FROM G_ALTERACAO WHERE nm_tabela = ? AND nr_scn > ?"
+                + " GROUP BY id_registro ORDER BY nr_scn%s) a"
+                + " LEFT JOIN " + table.getTable() + " t ON t." + table.getId().getName() + " = a.id_registro"
+                + " ORDER BY a.nr_scn, a.id_registro";
+        this.last = "SELECT MAX(nr_scn) FROM G_ALTERACAO WHERE nm_tabela = ?";
+    }
+
+    /**
+     * Registra a mesma alteração para vários registros.
+     *
+     * @param operacao   O tipo da alteração.
+     * @param ids        Os IDs dos registros alterados.
+     * @param connection Conexão da escrita; a transação fica a cargo de quem chama.
+     * @throws SQLException Se o log não puder ser gravado.
+     */
+    void record(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT)) {
+            for (Long id : ids) {
+                stmt.setString(1, table.getTable());
+                stmt.setLong(2, id);
+                stmt.setString(3, operacao.getCodigo());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Percorre as alterações posteriores ao token, na ordem de commit.
+     *
+     * @param desde  O token da última alteração já recebida (0 para todas).
+     * @param limite Quantidade mínima de registros a partir da qual a leitura para, completando a transação
+     *               do último, ou nulo para todos.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     * @throws InvalidQueryException Se o token for anterior ao último expurgo do log.
+     */
+    void stream(long desde, Integer limite, Consumer<Alteracao<T>> action) throws SQLException {
+        carimbar();
+        String sql = String.format(select, limite == null ? "" : " FETCH FIRST ? ROWS WITH TIES");
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            verificarExpurgo(conn, desde);
+            stmt.setString(1, table.getTable());
+            stmt.setLong(2, desde);
+            if (limite != null) {
+                stmt.setInt(3, limite);
+            }
+            stmt.setFetchSize(DatabaseConnectionFactory.streamFetchSize());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper.Reader<T> reader = mapper.reader(rs);
+                while (rs.next()) {
+                    long token = rs.getLong(1);
+                    Long id = rs.getLong(3);
+                    if (rs.getObject(4) == null) {
+                        action.accept(new Alteracao<>(token, Alteracao.Operacao.EXCLUSAO, id, null));
+                    } else {
+                        Alteracao.Operacao primeira = Alteracao.Operacao.of(rs.getString(2));
+                        action.accept(new Alteracao<>(token, primeira == Alteracao.Operacao.INSERCAO
+                                ? Alteracao.Operacao.INSERCAO : Alteracao.Operacao.ATUALIZACAO, id, reader.read()));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.warning("Erro ao ler alterações de " + table.getTable() + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Token da alteração confirmada mais recente, ponto de partida de uma sincronização nova.
+     *
+     * @return O token, ou 0 se a tabela ainda não tem alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    long last() throws SQLException {
+        carimbar();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(last)) {
+            stmt.setString(1, table.getTable());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            LOGGER.warning("Erro ao ler o token de alterações de " + table.getTable() + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    // Copia o SCN de commit das alterações já confirmadas para nr_scn. Usa uma conexão própria da base
+    // principal, fora da unidade de trabalho, para que o carimbo seja confirmado antes da leitura.
+    private void carimbar() throws SQLException {
+        try (Connection conn = DatabaseConnectionFactory.primary();
+             PreparedStatement stmt = conn.prepareStatement(CARIMBO)) {
+            stmt.setString(1, table.getTable());
+            stmt.executeUpdate();
+            conn.commit();
+        } catch (SQLException e) {
+            LOGGER.warning("Erro ao registrar o SCN das alterações de " + table.getTable() + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private void verificarExpurgo(Connection conn, long desde) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(EXPURGO)) {
+            stmt.setString(1, table.getTable());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && desde < rs.getLong(1)) {
+                    throw new InvalidQueryException("Token de sincronização anterior ao expurgo do log de alterações;"
+                            + " baixe a listagem completa e reinicie a sincronização sem since");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.example.daos;
+
+import org.example.exceptions.InvalidQueryException;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Coluna de uma tabela e o campo JSON do modelo que ela preenche.
+ *
+ * <p>A leitura usa o mesmo getter JDBC do mapeamento completo do DAO (por exemplo, {@code getLong} devolve
+ * {@code 0} para {@code NULL}), de modo que um objeto parcial traz exatamente os valores do objeto completo.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class Column {
+
+    /**
+     * Tipos de coluna usados pelas tabelas da aplicação.
+     */
+    enum Type {
+        LONG,
+        INTEGER,
+        DOUBLE,
+        STRING,
+        // Indicador 'S'/'N' exposto como booleano.
+        FLAG
+    }
+
+    private final String field;
+    private final String name;
+    private final Type type;
+    private final boolean filterable;
+
+    private Column(String field, String name, Type type, boolean filterable) {
+        this.field = field;
+        this.name = name;
+        this.type = type;
+        this.filterable = filterable;
+    }
+
+    static Column of(String field, String name, Type type) {
+        return new Column(field, name, type, false);
+    }
+
+    /**
+     * Retorna uma cópia desta coluna liberada para filtros e ordenação nas listagens. Apenas colunas
+     * indexadas (chaves estrangeiras, situação, chaves naturais) devem ser liberadas.
+     *
+     * @return A coluna filtrável.
+     */
+    Column filterable() {
+        return new Column(field, name, type, true);
+    }
+
+    /**
+     * Nome do campo no JSON do modelo.
+     */
+    String getField() {
+        return field;
+    }
+
+    /**
+     * Nome da coluna no banco de dados.
+     */
+    String getName() {
+        return name;
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    boolean isFilterable() {
+        return filterable;
+    }
+
+    /**
+     * Converte o texto recebido em um filtro para o tipo desta coluna.
+     *
+     * @param value O valor em texto.
+     * @return O valor convertido, pronto para {@link #bind(PreparedStatement, int, Object)}.
+     * @throws InvalidQueryException Se o texto não for um valor válido para a coluna.
+     */
+    Object parse(String value) {
+        try {
+            switch (type) {
+                case LONG:
+                    return Long.parseLong(value.trim());
+                case INTEGER:
+                    return Integer.parseInt(value.trim());
+                case DOUBLE:
+                    return Double.parseDouble(value.trim());
+                case FLAG:
+                    if ("true".equalsIgnoreCase(value) || "S".equalsIgnoreCase(value)) {
+                        return true;
+                    }
+                    if ("false".equalsIgnoreCase(value) || "N".equalsIgnoreCase(value)) {
+                        return false;
+                    }
+                    throw new NumberFormatException(value);
+                default:
+                    return value;
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidQueryException("Valor inválido para o campo " + field + ": " + value);
+        }
+    }
+
+    /**
+     * Converte um valor recebido em JSON (por exemplo, em um merge patch) para o tipo do campo do modelo.
+     *
+     * @param value O valor desserializado: número, texto, booleano ou {@code null}.
+     * @return O valor convertido, ou {@code null}.
+     * @throws InvalidQueryException Se o valor não for compatível com o tipo da coluna.
+     */
+    Object convert(Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (type) {
+            case LONG:
+            case INTEGER:
+                if (value instanceof Integer || value instanceof Long) {
+                    return value;
+                }
+                break;
+            case DOUBLE:
+                if (value instanceof Number) {
+                    return value;
+                }
+                break;
+            case FLAG:
+                if (value instanceof Boolean) {
+                    return value;
+                }
+                if (value instanceof String) {
+                    return parse((String) value);
+                }
+                break;
+            default:
+                if (value instanceof String) {
+                    return value;
+                }
+                break;
+        }
+        throw new InvalidQueryException("Valor inválido para o campo " + field + ": " + value);
+    }
+
+    /**
+     * Associa um valor do tipo desta coluna a um parâmetro do comando.
+     *
+     * @param stmt  O comando.
+     * @param index Posição (a partir de 1) do parâmetro.
+     * @param value O valor, do tipo do campo do modelo; {@code null} grava {@code NULL} (ou {@code 'N'} em indicadores).
+     * @throws SQLException Se ocorrer um erro ao associar o parâmetro.
+     */
+    void bind(PreparedStatement stmt, int index, Object value) throws SQLException {
+        if (value == null && type != Type.FLAG) {
+            stmt.setNull(index, sqlType());
+            return;
+        }
+        switch (type) {
+            case LONG:
+                stmt.setLong(index, ((Number) value).longValue());
+                break;
+            case INTEGER:
+                stmt.setInt(index, ((Number) value).intValue());
+                break;
+            case DOUBLE:
+                stmt.setDouble(index, ((Number) value).doubleValue());
+                break;
+            case FLAG:
+                stmt.setString(index, Boolean.TRUE.equals(value) ? "S" : "N");
+                break;
+            default:
+                stmt.setString(index, (String) value);
+                break;
+        }
+    }
+
+    /**
+     * Coleção nativa do Oracle que leva os valores desta coluna de vários registros em um único parâmetro.
+     *
+     * @return {@code SYS.ODCINUMBERLIST} para colunas numéricas ou {@code SYS.ODCIVARCHAR2LIST} para as demais.
+     */
+    String arrayType() {
+        return sqlType() == Types.NUMERIC ? "SYS.ODCINUMBERLIST" : "SYS.ODCIVARCHAR2LIST";
+    }
+
+    /**
+     * Converte um valor do tipo do campo do modelo em um elemento de {@link #arrayType()}, com as mesmas regras
+     * de {@link #bind(PreparedStatement, int, Object)}.
+     *
+     * @param value O valor, do tipo do campo do modelo.
+     * @return O elemento da coleção; {@code null} grava {@code NULL} (ou {@code 'N'} em indicadores).
+     */
+    Object arrayValue(Object value) {
+        if (value == null && type != Type.FLAG) {
+            return null;
+        }
+        switch (type) {
+            case LONG:
+            case INTEGER:
+                return BigDecimal.valueOf(((Number) value).longValue());
+            case DOUBLE:
+                return BigDecimal.valueOf(((Number) value).doubleValue());
+            case FLAG:
+                return Boolean.TRUE.equals(value) ? "S" : "N";
+            default:
+                return value;
+        }
+    }
+
+    private int sqlType() {
+        switch (type) {
+            case LONG:
+            case INTEGER:
+            case DOUBLE:
+                return Types.NUMERIC;
+            default:
+                return Types.VARCHAR;
+        }
+    }
+
+    /**
+     * Lê o valor desta coluna na posição informada da linha corrente.
+     *
+     * @param rs    Resultado posicionado na linha a ser lida.
+     * @param index Posição (a partir de 1) da coluna no resultado.
+     * @return O valor convertido para o tipo do campo do modelo.
+     * @throws SQLException Se ocorrer um erro ao ler a coluna.
+     */
+    Object read(ResultSet rs, int index) throws SQLException {
+        switch (type) {
+            case LONG:
+                return rs.getLong(index);
+            case INTEGER:
+                return rs.getInt(index);
+            case DOUBLE:
+                return rs.getDouble(index);
+            case FLAG:
+                return "S".equals(rs.getString(index));
+            default:
+                return rs.getString(index);
+        }
+    }
+}
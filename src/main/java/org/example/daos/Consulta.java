@@ -0,0 +1,212 @@
+package org.example.daos;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Critérios de uma listagem: filtros, ordenação e paginação por chave.
+ *
+ * <p>Os campos são os nomes JSON dos modelos (por exemplo, {@code idGaragem}); o DAO os valida contra as
+ * colunas permitidas da sua tabela e compila a consulta para SQL com parâmetros, de modo que o texto do
+ * comando depende apenas dos campos e operadores usados, nunca dos valores.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class Consulta {
+
+    /**
+     * Consulta sem filtros, ordenação ou paginação.
+     */
+    public static final Consulta TODOS = new Consulta(List.of(), List.of(), null, null);
+
+    private final List<Filtro> filtros;
+    private final List<Ordem> ordem;
+    private final Long afterId;
+    private final Integer limite;
+
+    /**
+     * @param filtros Filtros combinados com {@code AND}.
+     * @param ordem   Ordenação; o ID é sempre usado como último critério.
+     * @param afterId Traz apenas IDs maiores que este (paginação por chave), ou {@code null}.
+     * @param limite  Quantidade máxima de registros, ou {@code null} para todos.
+     */
+    public Consulta(List<Filtro> filtros, List<Ordem> ordem, Long afterId, Integer limite) {
+        this.filtros = Collections.unmodifiableList(filtros);
+        this.ordem = Collections.unmodifiableList(ordem);
+        this.afterId = afterId;
+        this.limite = limite;
+    }
+
+    /**
+     * Retorna uma cópia desta consulta restrita a uma página.
+     *
+     * @param afterId ID do último registro da página anterior, ou {@code null} para a primeira página.
+     * @param limite  Quantidade máxima de registros.
+     * @return A consulta paginada.
+     */
+    public Consulta pagina(Long afterId, int limite) {
+        return new Consulta(filtros, ordem, afterId, limite);
+    }
+
+    public List<Filtro> getFiltros() {
+        return filtros;
+    }
+
+    public List<Ordem> getOrdem() {
+        return ordem;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public Integer getLimite() {
+        return limite;
+    }
+
+    /**
+     * Indica se a consulta equivale a listar a tabela inteira.
+     *
+     * @return {@code true} se não houver filtros, ordenação nem paginação.
+     */
+    public boolean isVazia() {
+        return filtros.isEmpty() && ordem.isEmpty() && afterId == null && limite == null;
+    }
+
+    // Igualdade por valor: consultas iguais podem compartilhar a mesma leitura (SingleFlight).
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Consulta)) {
+            return false;
+        }
+        Consulta outra = (Consulta) o;
+        return filtros.equals(outra.filtros) && ordem.equals(outra.ordem)
+                && Objects.equals(afterId, outra.afterId) && Objects.equals(limite, outra.limite);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filtros, ordem, afterId, limite);
+    }
+
+    /**
+     * Operadores de comparação aceitos nos filtros.
+     */
+    public enum Operador {
+        IGUAL("=", "="),
+        DIFERENTE("!=", "<>"),
+        MAIOR_OU_IGUAL(">=", ">="),
+        MENOR_OU_IGUAL("<=", "<="),
+        MAIOR(">", ">"),
+        MENOR("<", "<");
+
+        private final String simbolo;
+        private final String sql;
+
+        Operador(String simbolo, String sql) {
+            this.simbolo = simbolo;
+            this.sql = sql;
+        }
+
+        /**
+         * Símbolo usado na query string (por exemplo, {@code >=}).
+         */
+        public String getSimbolo() {
+            return simbolo;
+        }
+
+        String getSql() {
+            return sql;
+        }
+    }
+
+    /**
+     * Comparação de um campo com um valor, ainda em texto; o DAO converte o valor para o tipo da coluna.
+     */
+    public static final class Filtro {
+
+        private final String campo;
+        private final Operador operador;
+        private final String valor;
+
+        public Filtro(String campo, Operador operador, String valor) {
+            this.campo = campo;
+            this.operador = operador;
+            this.valor = valor;
+        }
+
+        public String getCampo() {
+            return campo;
+        }
+
+        public Operador getOperador() {
+            return operador;
+        }
+
+        public String getValor() {
+            return valor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Filtro)) {
+                return false;
+            }
+            Filtro outro = (Filtro) o;
+            return campo.equals(outro.campo) && operador == outro.operador && Objects.equals(valor, outro.valor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(campo, operador, valor);
+        }
+    }
+
+    /**
+     * Critério de ordenação por um campo.
+     */
+    public static final class Ordem {
+
+        private final String campo;
+        private final boolean decrescente;
+
+        public Ordem(String campo, boolean decrescente) {
+            this.campo = campo;
+            this.decrescente = decrescente;
+        }
+
+        public String getCampo() {
+            return campo;
+        }
+
+        public boolean isDecrescente() {
+            return decrescente;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Ordem)) {
+                return false;
+            }
+            Ordem outra = (Ordem) o;
+            return campo.equals(outra.campo) && decrescente == outra.decrescente;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(campo, decrescente);
+        }
+    }
+}
@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.ConsumoDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.Consumo;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -19,6 +24,38 @@ import java.util.logging.Logger;
  */
 class ConsumoDaoImpl implements ConsumoDao {
 
+    // Colunas de G_CONSUMO e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    private static final TableMetadata TABELA = new TableMetadata("G_CONSUMO",
+            Column.of("idConsumo", "id_consumo", Column.Type.LONG),
+            Column.of("consumoPorKm", "qt_consumo_por_km", Column.Type.DOUBLE),
+            Column.of("distanciaPercorrida", "qt_distancia_percorrida", Column.Type.DOUBLE),
+            Column.of("energiaTotalConsumida", "qt_energia_total_consumida", Column.Type.DOUBLE),
+            Column.of("idOnibus", "id_onibus", Column.Type.LONG).filterable()
+    );
+
+    // Monta Consumo a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    private static final RowMapper<Consumo> MAPPER = new RowMapper<>(TABELA, row -> new Consumo(
+            row.getLong(0),
+            row.getDouble(1),
+            row.getDouble(2),
+            row.getDouble(3),
+            row.getLong(4)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<Consumo> INSERCAO = new BatchInsert<>(TABELA, consumo -> new Object[]{
+            consumo.getConsumoPorKm(),
+            consumo.getDistanciaPercorrida(),
+            consumo.getEnergiaTotalConsumida(),
+            consumo.getIdOnibus()
+    }, Consumo::setIdConsumo);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<Consumo> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -32,20 +69,14 @@ class ConsumoDaoImpl implements ConsumoDao {
     public List<Consumo> findAll() throws SQLException {
         List<Consumo> consumos = new ArrayList<>();
         final String sql = "SELECT * FROM G_CONSUMO";
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de Consumo.
+            RowMapper.Reader<Consumo> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                Consumo consumo = new Consumo(
-                        rs.getLong("id_consumo"),
-                        rs.getDouble("qt_consumo_por_km"),
-                        rs.getDouble("qt_distancia_percorrida"),
-                        rs.getDouble("qt_energia_total_consumida"),
-                        rs.getLong("id_onibus")
-                );
-                consumos.add(consumo);
+                consumos.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar consumos: " + e.getMessage());
@@ -54,6 +85,150 @@ class ConsumoDaoImpl implements ConsumoDao {
         return consumos;
     }
 
+    /**
+     * Busca as instâncias de Consumo que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link Consumo} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Consumo> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de Consumo que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de Consumo que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Consumo> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de Consumo que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca um Consumo pelo ID no banco de dados.
+     *
+     * @param id O ID do Consumo a ser buscado.
+     * @return A instância de {@link Consumo} encontrada.
+     * @throws NotFoundException Se o Consumo com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Consumo findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_CONSUMO WHERE id_consumo = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar consumos por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Consumo não encontrado para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca um Consumo pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID do Consumo a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Consumo encontrado.
+     * @throws NotFoundException Se o Consumo com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> consumo = Queries.findById(TABELA, id, fields);
+        if (consumo == null) {
+            throw new NotFoundException("Consumo não encontrado para o ID fornecido: " + id);
+        }
+        return consumo;
+    }
+
+    /**
+     * Busca várias instâncias de Consumo pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, Consumo> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de Consumo.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de Consumo posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<Consumo>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Consumo já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove um Consumo pelo ID no banco de dados.
      *
@@ -91,23 +266,36 @@ class ConsumoDaoImpl implements ConsumoDao {
                 BEGIN INSERT INTO G_CONSUMO (qt_consumo_por_km, qt_distancia_percorrida, qt_energia_total_consumida, id_onibus) 
                 VALUES (?, ?, ?, ?) RETURNING id_consumo INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setDouble(1, consumo.getConsumoPorKm());
-        call.setDouble(2, consumo.getDistanciaPercorrida());
-        call.setDouble(3, consumo.getEnergiaTotalConsumida());
-        call.setLong(4, consumo.getIdOnibus());
-        call.registerOutParameter(5, Types.NUMERIC);
-
-        int linhasAlteradas = call.executeUpdate();
-        long id = call.getLong(5);
-
-        // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
-        if (linhasAlteradas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar o consumo: verifique os dados.");
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setDouble(1, consumo.getConsumoPorKm());
+            call.setDouble(2, consumo.getDistanciaPercorrida());
+            call.setDouble(3, consumo.getEnergiaTotalConsumida());
+            call.setLong(4, consumo.getIdOnibus());
+            call.registerOutParameter(5, Types.NUMERIC);
+
+            int linhasAlteradas = call.executeUpdate();
+            long id = call.getLong(5);
+
+            // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
+            if (linhasAlteradas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar o consumo: verifique os dados.");
+            }
+
+            consumo.setIdConsumo(id);
+            return consumo;
         }
+    }
 
-        consumo.setIdConsumo(id);
-        return consumo;
+    /**
+     * Salva várias instâncias novas de Consumo com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param consumos As instâncias de Consumo a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<Consumo> consumos, Connection connection) throws SQLException {
+        INSERCAO.insertAll(consumos, connection);
     }
 
     /**
@@ -142,4 +330,20 @@ class ConsumoDaoImpl implements ConsumoDao {
         }
         return consumo;
     }
+
+    /**
+     * Atualiza apenas os campos informados de um Consumo (JSON Merge Patch).
+     *
+     * @param id O ID do Consumo a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se o Consumo com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Consumo não encontrado para o ID fornecido: " + id);
+        }
+    }
 }
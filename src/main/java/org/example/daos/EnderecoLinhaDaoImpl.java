@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.EnderecoDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.Endereco;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -17,7 +22,48 @@ import java.util.logging.Logger;
  * @version 1.0
  * @since 1.0
  */
-class EnderecoLinhaDaoImpl implements EnderecoDao {
+class EnderecoLinhaDaoImpl implements EnderecoDao<Endereco, Long> {
+
+    // Colunas de G_ENDERECO_LINHA e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    private static final TableMetadata TABELA = new TableMetadata("G_ENDERECO_LINHA",
+            Column.of("idEndereco", "id_endereco_linha", Column.Type.LONG),
+            Column.of("logradouro", "ds_logradouro", Column.Type.STRING),
+            Column.of("numero", "nr_numero", Column.Type.INTEGER),
+            Column.of("cep", "nr_cep", Column.Type.STRING).filterable(),
+            Column.of("bairro", "nm_bairro", Column.Type.STRING),
+            Column.of("cidade", "nm_cidade", Column.Type.STRING).filterable(),
+            Column.of("uf", "sg_uf", Column.Type.STRING).filterable(),
+            Column.of("idReferencia", "id_linha", Column.Type.INTEGER).filterable()
+    );
+
+    // Monta Endereco a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    private static final RowMapper<Endereco> MAPPER = new RowMapper<>(TABELA, row -> new Endereco(
+            row.getLong(0),
+            row.getString(1),
+            row.getInt(2),
+            row.getString(3),
+            row.getString(4),
+            row.getString(5),
+            row.getString(6),
+            row.getInt(7)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<Endereco> INSERCAO = new BatchInsert<>(TABELA, endereco -> new Object[]{
+            endereco.getLogradouro(),
+            endereco.getNumero(),
+            endereco.getCep(),
+            endereco.getBairro(),
+            endereco.getCidade(),
+            endereco.getUf(),
+            endereco.getIdReferencia()
+    }, Endereco::setIdEndereco);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<Endereco> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
 
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
@@ -33,23 +79,14 @@ class EnderecoLinhaDaoImpl implements EnderecoDao {
         final List<Endereco> enderecosLinha = new ArrayList<>();
         final String sql = "SELECT * FROM G_ENDERECO_LINHA";
 
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de Endereco.
+            RowMapper.Reader<Endereco> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                Endereco endereco = new Endereco(
-                        rs.getLong("id_endereco_linha"),
-                        rs.getString("ds_logradouro"),
-                        rs.getInt("nr_numero"),
-                        rs.getString("nr_cep"),
-                        rs.getString("nm_bairro"),
-                        rs.getString("nm_cidade"),
-                        rs.getString("sg_uf"),
-                        rs.getInt("id_linha")
-                );
-                enderecosLinha.add(endereco);
+                enderecosLinha.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar endereços de linha: " + e.getMessage());
@@ -58,6 +95,150 @@ class EnderecoLinhaDaoImpl implements EnderecoDao {
         return enderecosLinha;
     }
 
+    /**
+     * Busca as instâncias de Endereco que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link Endereco} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Endereco> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de Endereco que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de Endereco que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Endereco> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de Endereco que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca um Endereco pelo ID no banco de dados.
+     *
+     * @param id O ID do Endereco a ser buscado.
+     * @return A instância de {@link Endereco} encontrada.
+     * @throws NotFoundException Se o Endereco com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Endereco findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_ENDERECO_LINHA WHERE id_endereco_linha = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar endereços de linha por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Endereço de Linha não encontrado para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca um Endereco pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID do Endereco a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Endereco encontrado.
+     * @throws NotFoundException Se o Endereco com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> endereco = Queries.findById(TABELA, id, fields);
+        if (endereco == null) {
+            throw new NotFoundException("Endereço de Linha não encontrado para o ID fornecido: " + id);
+        }
+        return endereco;
+    }
+
+    /**
+     * Busca várias instâncias de Endereco pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, Endereco> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de Endereco.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de Endereco posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<Endereco>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Endereco já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove um Endereco associado a Linha pelo ID no banco de dados.
      *
@@ -98,26 +279,39 @@ class EnderecoLinhaDaoImpl implements EnderecoDao {
                 BEGIN INSERT INTO G_ENDERECO_LINHA (ds_logradouro, nr_numero, nr_cep, nm_bairro, nm_cidade, sg_uf, id_linha) 
                 VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id_endereco_linha INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setString(1, endereco.getLogradouro());
-        call.setInt(2, endereco.getNumero());
-        call.setString(3, endereco.getCep());
-        call.setString(4, endereco.getBairro());
-        call.setString(5, endereco.getCidade());
-        call.setString(6, endereco.getUf());
-        call.setLong(7, endereco.getIdReferencia());
-        call.registerOutParameter(8, Types.NUMERIC);
-
-        int linhasAfetadas = call.executeUpdate();
-        long id = call.getLong(8);
-
-        // Verifica se a inserção foi bem-sucedida.
-        if (linhasAfetadas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar o endereço de linha: verifique os dados.");
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setString(1, endereco.getLogradouro());
+            call.setInt(2, endereco.getNumero());
+            call.setString(3, endereco.getCep());
+            call.setString(4, endereco.getBairro());
+            call.setString(5, endereco.getCidade());
+            call.setString(6, endereco.getUf());
+            call.setLong(7, endereco.getIdReferencia());
+            call.registerOutParameter(8, Types.NUMERIC);
+
+            int linhasAfetadas = call.executeUpdate();
+            long id = call.getLong(8);
+
+            // Verifica se a inserção foi bem-sucedida.
+            if (linhasAfetadas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar o endereço de linha: verifique os dados.");
+            }
+
+            endereco.setIdEndereco(id);
+            return endereco;
         }
+    }
 
-        endereco.setIdEndereco(id);
-        return endereco;
+    /**
+     * Salva várias instâncias novas de Endereco com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param enderecos As instâncias de Endereco a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<Endereco> enderecos, Connection connection) throws SQLException {
+        INSERCAO.insertAll(enderecos, connection);
     }
 
     /**
@@ -136,22 +330,39 @@ class EnderecoLinhaDaoImpl implements EnderecoDao {
                 SET ds_logradouro = ?, nr_numero = ?, nr_cep = ?, nm_bairro = ?, nm_cidade = ?, sg_uf = ?, id_linha = ? 
                 WHERE id_endereco_linha = ?
                 """;
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setString(1, endereco.getLogradouro());
-        stmt.setInt(2, endereco.getNumero());
-        stmt.setString(3, endereco.getCep());
-        stmt.setString(4, endereco.getBairro());
-        stmt.setString(5, endereco.getCidade());
-        stmt.setString(6, endereco.getUf());
-        stmt.setLong(7, endereco.getIdReferencia());
-        stmt.setLong(8, endereco.getIdEndereco());
-
-        int linhasAfetadas = stmt.executeUpdate();
-
-        // Verifica se alguma linha foi alterada.
-        if (linhasAfetadas == 0) {
-            throw new NotFoundException("Endereço de Linha não encontrado para o ID fornecido: " + endereco.getIdEndereco());
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, endereco.getLogradouro());
+            stmt.setInt(2, endereco.getNumero());
+            stmt.setString(3, endereco.getCep());
+            stmt.setString(4, endereco.getBairro());
+            stmt.setString(5, endereco.getCidade());
+            stmt.setString(6, endereco.getUf());
+            stmt.setLong(7, endereco.getIdReferencia());
+            stmt.setLong(8, endereco.getIdEndereco());
+
+            int linhasAfetadas = stmt.executeUpdate();
+
+            // Verifica se alguma linha foi alterada.
+            if (linhasAfetadas == 0) {
+                throw new NotFoundException("Endereço de Linha não encontrado para o ID fornecido: " + endereco.getIdEndereco());
+            }
+            return endereco;
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Endereco (JSON Merge Patch).
+     *
+     * @param id O ID do Endereco a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se o Endereco com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Endereço de Linha não encontrado para o ID fornecido: " + id);
         }
-        return endereco;
     }
 }
@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.EstacaoRecargaSolarDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.EstacaoRecargaSolar;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -22,6 +27,41 @@ import java.util.logging.Logger;
  */
 public class EstacaoRecargaSolarDaoImpl implements EstacaoRecargaSolarDao {
 
+    // Colunas de G_ESTACAO_RECARGA_SOLAR e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    static final TableMetadata TABELA = new TableMetadata("G_ESTACAO_RECARGA_SOLAR",
+            Column.of("idEstacao", "id_estacao", Column.Type.LONG),
+            Column.of("potenciaMaxima", "qt_potencia_maxima", Column.Type.DOUBLE),
+            Column.of("numeroPaineis", "qt_paineis", Column.Type.INTEGER),
+            Column.of("energiaGerada", "qt_energia_gerada", Column.Type.DOUBLE),
+            Column.of("ocupada", "st_ocupada", Column.Type.FLAG).filterable(),
+            Column.of("idGaragem", "id_garagem", Column.Type.LONG).filterable()
+    );
+
+    // Monta EstacaoRecargaSolar a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    static final RowMapper<EstacaoRecargaSolar> MAPPER = new RowMapper<>(TABELA, row -> new EstacaoRecargaSolar(
+            row.getLong(0),
+            row.getDouble(1),
+            row.getInt(2),
+            row.getDouble(3),
+            row.getFlag(4),
+            row.getLong(5)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<EstacaoRecargaSolar> INSERCAO = new BatchInsert<>(TABELA, estacao -> new Object[]{
+            estacao.getPotenciaMaxima(),
+            estacao.getNumeroPaineis(),
+            estacao.getEnergiaGerada(),
+            estacao.isOcupada(),
+            estacao.getIdGaragem()
+    }, EstacaoRecargaSolar::setIdEstacao);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<EstacaoRecargaSolar> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -35,21 +75,14 @@ public class EstacaoRecargaSolarDaoImpl implements EstacaoRecargaSolarDao {
     public List<EstacaoRecargaSolar> findAll() throws SQLException {
         final List<EstacaoRecargaSolar> estacoes = new ArrayList<>();
         final String sql = "SELECT * FROM G_ESTACAO_RECARGA_SOLAR";
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de EstacaoRecargaSolar.
+            RowMapper.Reader<EstacaoRecargaSolar> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                EstacaoRecargaSolar estacao = new EstacaoRecargaSolar(
-                        rs.getLong("id_estacao"),
-                        rs.getDouble("qt_potencia_maxima"),
-                        rs.getInt("qt_paineis"),
-                        rs.getDouble("qt_energia_gerada"),
-                        rs.getString("st_ocupada").equals("S"),
-                        rs.getLong("id_garagem")
-                );
-                estacoes.add(estacao);
+                estacoes.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar estações de recarga solar: " + e.getMessage());
@@ -58,6 +91,150 @@ public class EstacaoRecargaSolarDaoImpl implements EstacaoRecargaSolarDao {
         return estacoes;
     }
 
+    /**
+     * Busca as instâncias de EstacaoRecargaSolar que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link EstacaoRecargaSolar} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<EstacaoRecargaSolar> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de EstacaoRecargaSolar que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de EstacaoRecargaSolar que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<EstacaoRecargaSolar> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de EstacaoRecargaSolar que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca uma EstacaoRecargaSolar pelo ID no banco de dados.
+     *
+     * @param id O ID da EstacaoRecargaSolar a ser buscada.
+     * @return A instância de {@link EstacaoRecargaSolar} encontrada.
+     * @throws NotFoundException Se a EstacaoRecargaSolar com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public EstacaoRecargaSolar findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_ESTACAO_RECARGA_SOLAR WHERE id_estacao = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar estações de recarga solar por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Estação de Recarga Solar não encontrada para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca uma EstacaoRecargaSolar pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID da EstacaoRecargaSolar a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da EstacaoRecargaSolar encontrada.
+     * @throws NotFoundException Se a EstacaoRecargaSolar com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> estacaoRecargaSolar = Queries.findById(TABELA, id, fields);
+        if (estacaoRecargaSolar == null) {
+            throw new NotFoundException("Estação de Recarga Solar não encontrada para o ID fornecido: " + id);
+        }
+        return estacaoRecargaSolar;
+    }
+
+    /**
+     * Busca várias instâncias de EstacaoRecargaSolar pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, EstacaoRecargaSolar> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de EstacaoRecargaSolar.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de EstacaoRecargaSolar posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<EstacaoRecargaSolar>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de EstacaoRecargaSolar já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove uma EstacaoRecargaSolar pelo ID no banco de dados.
      *
@@ -95,24 +272,37 @@ public class EstacaoRecargaSolarDaoImpl implements EstacaoRecargaSolarDao {
                 BEGIN INSERT INTO G_ESTACAO_RECARGA_SOLAR (qt_potencia_maxima, qt_paineis, qt_energia_gerada, st_ocupada, id_garagem) 
                 VALUES (?, ?, ?, ?, ?) RETURNING id_estacao INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setDouble(1, estacao.getPotenciaMaxima());
-        call.setInt(2, estacao.getNumeroPaineis());
-        call.setDouble(3, estacao.getEnergiaGerada());
-        call.setString(4, estacao.isOcupada() ? "S" : "N");
-        call.setLong(5, estacao.getIdGaragem());
-        call.registerOutParameter(6, Types.NUMERIC);
-
-        int linhasAfetadas = call.executeUpdate();
-        long id = call.getLong(6);
-
-        // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar a EstacaoRecargaSolar: verifique os dados.");
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setDouble(1, estacao.getPotenciaMaxima());
+            call.setInt(2, estacao.getNumeroPaineis());
+            call.setDouble(3, estacao.getEnergiaGerada());
+            call.setString(4, estacao.isOcupada() ? "S" : "N");
+            call.setLong(5, estacao.getIdGaragem());
+            call.registerOutParameter(6, Types.NUMERIC);
+
+            int linhasAfetadas = call.executeUpdate();
+            long id = call.getLong(6);
+
+            // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar a EstacaoRecargaSolar: verifique os dados.");
+            }
+
+            estacao.setIdEstacao(id);
+            return estacao;
         }
+    }
 
-        estacao.setIdEstacao(id);
-        return estacao;
+    /**
+     * Salva várias instâncias novas de EstacaoRecargaSolar com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param estacoes As instâncias de EstacaoRecargaSolar a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<EstacaoRecargaSolar> estacoes, Connection connection) throws SQLException {
+        INSERCAO.insertAll(estacoes, connection);
     }
 
     /**
@@ -131,20 +321,37 @@ public class EstacaoRecargaSolarDaoImpl implements EstacaoRecargaSolarDao {
                 SET qt_potencia_maxima = ?, qt_paineis = ?, qt_energia_gerada = ?, st_ocupada = ?, id_garagem = ? 
                 WHERE id_estacao = ?
                 """;
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setDouble(1, estacao.getPotenciaMaxima());
-        stmt.setInt(2, estacao.getNumeroPaineis());
-        stmt.setDouble(3, estacao.getEnergiaGerada());
-        stmt.setString(4, estacao.isOcupada() ? "S" : "N");
-        stmt.setLong(5, estacao.getIdGaragem());
-        stmt.setLong(6, estacao.getIdEstacao());
-
-        int linhasAfetadas = stmt.executeUpdate();
-
-        // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0) {
-            throw new NotFoundException("EstacaoRecargaSolar não encontrada para o ID fornecido: " + estacao.getIdEstacao());
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setDouble(1, estacao.getPotenciaMaxima());
+            stmt.setInt(2, estacao.getNumeroPaineis());
+            stmt.setDouble(3, estacao.getEnergiaGerada());
+            stmt.setString(4, estacao.isOcupada() ? "S" : "N");
+            stmt.setLong(5, estacao.getIdGaragem());
+            stmt.setLong(6, estacao.getIdEstacao());
+
+            int linhasAfetadas = stmt.executeUpdate();
+
+            // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0) {
+                throw new NotFoundException("EstacaoRecargaSolar não encontrada para o ID fornecido: " + estacao.getIdEstacao());
+            }
+            return estacao;
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de uma EstacaoRecargaSolar (JSON Merge Patch).
+     *
+     * @param id O ID da EstacaoRecargaSolar a ser atualizada.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se a EstacaoRecargaSolar com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("EstacaoRecargaSolar não encontrada para o ID fornecido: " + id);
         }
-        return estacao;
     }
 }
@@ -4,11 +4,18 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.GaragemDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
+import org.example.models.Endereco;
 import org.example.models.Garagem;
+import org.example.models.GaragemCompleta;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -19,6 +26,43 @@ import java.util.logging.Logger;
  */
 class GaragemDaoImpl implements GaragemDao {
 
+    // Colunas de G_GARAGEM e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    private static final TableMetadata TABELA = new TableMetadata("G_GARAGEM",
+            Column.of("idGaragem", "id_garagem", Column.Type.LONG),
+            Column.of("nome", "nm_garagem", Column.Type.STRING).filterable(),
+            Column.of("capacidadeOnibus", "qt_capacidade", Column.Type.INTEGER)
+    );
+
+    // Monta Garagem a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    private static final RowMapper<Garagem> MAPPER = new RowMapper<>(TABELA, row -> new Garagem(
+            row.getLong(0),
+            row.getString(1),
+            row.getInt(2)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<Garagem> INSERCAO = new BatchInsert<>(TABELA, garagem -> new Object[]{
+            garagem.getNome(),
+            garagem.getCapacidadeOnibus()
+    }, Garagem::setIdGaragem);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<Garagem> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
+    // Garagem com o endereço e os registros alocados nela: cada coleção vem em uma expressão CURSOR, de modo
+    // que a visão completa é lida com uma única execução, em vez de uma consulta por tabela.
+    private static final String SQL_COMPLETA = "SELECT g.id_garagem, g.nm_garagem, g.qt_capacidade, "
+            + cursor(EnderecoGaragemDaoImpl.TABELA) + " AS enderecos, "
+            + cursor(OnibusDaoImpl.TABELA) + " AS onibus, "
+            + cursor(CarroDaoImpl.TABELA) + " AS carros, "
+            + cursor(MotoDaoImpl.TABELA) + " AS motos, "
+            + cursor(OperadorDaoImpl.TABELA) + " AS operadores, "
+            + cursor(EstacaoRecargaSolarDaoImpl.TABELA) + " AS estacoes "
+            + "FROM G_GARAGEM g WHERE g.id_garagem = ?";
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -32,18 +76,14 @@ class GaragemDaoImpl implements GaragemDao {
     public List<Garagem> findAll() throws SQLException {
         final List<Garagem> garagens = new ArrayList<>();
         final String sql = "SELECT * FROM G_GARAGEM";
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de Garagem.
+            RowMapper.Reader<Garagem> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                Garagem garagem = new Garagem(
-                        rs.getLong("id_garagem"),
-                        rs.getString("nm_garagem"),
-                        rs.getInt("qt_capacidade")
-                );
-                garagens.add(garagem);
+                garagens.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar garagens: " + e.getMessage());
@@ -52,6 +92,207 @@ class GaragemDaoImpl implements GaragemDao {
         return garagens;
     }
 
+    /**
+     * Busca as instâncias de Garagem que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link Garagem} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Garagem> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de Garagem que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de Garagem que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Garagem> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de Garagem que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca uma Garagem pelo ID no banco de dados.
+     *
+     * @param id O ID da Garagem a ser buscada.
+     * @return A instância de {@link Garagem} encontrada.
+     * @throws NotFoundException Se a Garagem com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Garagem findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_GARAGEM WHERE id_garagem = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar garagens por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Garagem não encontrada para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca uma Garagem pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID da Garagem a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da Garagem encontrada.
+     * @throws NotFoundException Se a Garagem com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> garagem = Queries.findById(TABELA, id, fields);
+        if (garagem == null) {
+            throw new NotFoundException("Garagem não encontrada para o ID fornecido: " + id);
+        }
+        return garagem;
+    }
+
+    /**
+     * Busca várias instâncias de Garagem pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, Garagem> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de Garagem.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de Garagem posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<Garagem>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Garagem já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
+    /**
+     * Busca uma Garagem pelo ID junto com o endereço, os ônibus, carros, motos, operadores e estações de
+     * recarga alocados nela, em uma única consulta.
+     *
+     * @param id O ID da Garagem a ser buscada.
+     * @return A visão agregada da Garagem encontrada.
+     * @throws NotFoundException Se a Garagem com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public GaragemCompleta findCompleta(Long id) throws NotFoundException, SQLException {
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(SQL_COMPLETA)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Garagem garagem = MAPPER.reader(rs).read();
+                    List<Endereco> enderecos = readCursor(rs, "enderecos", EnderecoGaragemDaoImpl.MAPPER);
+                    if (!enderecos.isEmpty()) {
+                        garagem.setEndereco(enderecos.get(0));
+                    }
+                    return new GaragemCompleta(
+                            garagem,
+                            readCursor(rs, "onibus", OnibusDaoImpl.MAPPER),
+                            readCursor(rs, "carros", CarroDaoImpl.MAPPER),
+                            readCursor(rs, "motos", MotoDaoImpl.MAPPER),
+                            readCursor(rs, "operadores", OperadorDaoImpl.MAPPER),
+                            readCursor(rs, "estacoes", EstacaoRecargaSolarDaoImpl.MAPPER)
+                    );
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar garagem completa: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Garagem não encontrada para o ID fornecido: " + id);
+    }
+
+    // Subconsulta CURSOR com as linhas de uma tabela filha ligadas à garagem por id_garagem, em ordem de ID.
+    private static String cursor(TableMetadata filha) {
+        return "CURSOR(" + filha.select(filha.getColumns())
+                + " WHERE id_garagem = g.id_garagem ORDER BY " + filha.getId().getName() + ")";
+    }
+
+    // Lê o resultado aninhado de uma coluna CURSOR; o driver o fecha junto com o resultado principal.
+    private static <T> List<T> readCursor(ResultSet rs, String coluna, RowMapper<T> mapper) throws SQLException {
+        List<T> itens = new ArrayList<>();
+        try (ResultSet filhos = (ResultSet) rs.getObject(coluna)) {
+            RowMapper.Reader<T> reader = mapper.reader(filhos);
+            while (filhos.next()) {
+                itens.add(reader.read());
+            }
+        }
+        return itens;
+    }
+
     /**
      * Remove uma Garagem pelo ID no banco de dados.
      *
@@ -89,21 +330,34 @@ class GaragemDaoImpl implements GaragemDao {
                 BEGIN INSERT INTO G_GARAGEM (nm_garagem, qt_capacidade) 
                 VALUES (?, ?) RETURNING id_garagem INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setString(1, garagem.getNome());
-        call.setInt(2, garagem.getCapacidadeOnibus());
-        call.registerOutParameter(3, Types.NUMERIC);
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setString(1, garagem.getNome());
+            call.setInt(2, garagem.getCapacidadeOnibus());
+            call.registerOutParameter(3, Types.NUMERIC);
+
+            int linhasAfetadas = call.executeUpdate();
+            long id = call.getLong(3);
 
-        int linhasAfetadas = call.executeUpdate();
-        long id = call.getLong(3);
+            // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar a garagem: verifique os dados.");
+            }
 
-        // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar a garagem: verifique os dados.");
+            garagem.setIdGaragem(id);
+            return garagem;
         }
+    }
 
-        garagem.setIdGaragem(id);
-        return garagem;
+    /**
+     * Salva várias instâncias novas de Garagem com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param garagens As instâncias de Garagem a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<Garagem> garagens, Connection connection) throws SQLException {
+        INSERCAO.insertAll(garagens, connection);
     }
 
     /**
@@ -122,17 +376,34 @@ class GaragemDaoImpl implements GaragemDao {
                 SET nm_garagem = ?, qt_capacidade = ? 
                 WHERE id_garagem = ?
                 """;
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setString(1, garagem.getNome());
-        stmt.setInt(2, garagem.getCapacidadeOnibus());
-        stmt.setLong(3, garagem.getIdGaragem());
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, garagem.getNome());
+            stmt.setInt(2, garagem.getCapacidadeOnibus());
+            stmt.setLong(3, garagem.getIdGaragem());
 
-        int linhasAfetadas = stmt.executeUpdate();
+            int linhasAfetadas = stmt.executeUpdate();
 
-        // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0) {
-            throw new NotFoundException("Garagem não encontrada para o ID fornecido: " + garagem.getIdGaragem());
+            // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0) {
+                throw new NotFoundException("Garagem não encontrada para o ID fornecido: " + garagem.getIdGaragem());
+            }
+            return garagem;
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de uma Garagem (JSON Merge Patch).
+     *
+     * @param id O ID da Garagem a ser atualizada.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se a Garagem com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Garagem não encontrada para o ID fornecido: " + id);
         }
-        return garagem;
     }
 }
@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.LinhaDeOnibusDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.LinhaDeOnibus;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -19,6 +24,35 @@ import java.util.logging.Logger;
  */
 class LinhaDeOnibusDaoImpl implements LinhaDeOnibusDao {
 
+    // Colunas de G_LINHA_DE_ONIBUS e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    private static final TableMetadata TABELA = new TableMetadata("G_LINHA_DE_ONIBUS",
+            Column.of("idLinha", "id_linha", Column.Type.LONG),
+            Column.of("codigoLinha", "nr_linha", Column.Type.STRING).filterable(),
+            Column.of("nome", "nm_linha", Column.Type.STRING).filterable()
+    );
+
+    // Monta LinhaDeOnibus a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    private static final RowMapper<LinhaDeOnibus> MAPPER = new RowMapper<>(TABELA, row -> new LinhaDeOnibus(
+            row.getLong(0),
+            row.getString(1),
+            row.getString(2)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<LinhaDeOnibus> INSERCAO = new BatchInsert<>(TABELA, linha -> new Object[]{
+            linha.getCodigoLinha(),
+            linha.getNome()
+    }, LinhaDeOnibus::setIdLinha);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Sincronização pela chave natural (codigoLinha), com um MERGE por bloco; ver db/indices.sql.
+    private static final Upsert<LinhaDeOnibus> SINCRONIZACAO = new Upsert<>(INSERCAO, "codigoLinha");
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<LinhaDeOnibus> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -32,18 +66,14 @@ class LinhaDeOnibusDaoImpl implements LinhaDeOnibusDao {
     public List<LinhaDeOnibus> findAll() throws SQLException {
         final List<LinhaDeOnibus> linhas = new ArrayList<>();
         final String sql = "SELECT * FROM G_LINHA_DE_ONIBUS";
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de LinhaDeOnibus.
+            RowMapper.Reader<LinhaDeOnibus> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                LinhaDeOnibus linha = new LinhaDeOnibus(
-                        rs.getLong("id_linha"),
-                        rs.getString("nr_linha"),
-                        rs.getString("nm_linha")
-                );
-                linhas.add(linha);
+                linhas.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar linhas de ônibus: " + e.getMessage());
@@ -52,6 +82,161 @@ class LinhaDeOnibusDaoImpl implements LinhaDeOnibusDao {
         return linhas;
     }
 
+    /**
+     * Busca as instâncias de LinhaDeOnibus que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link LinhaDeOnibus} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<LinhaDeOnibus> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de LinhaDeOnibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de LinhaDeOnibus que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<LinhaDeOnibus> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de LinhaDeOnibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca uma LinhaDeOnibus pelo ID no banco de dados.
+     *
+     * @param id O ID da LinhaDeOnibus a ser buscada.
+     * @return A instância de {@link LinhaDeOnibus} encontrada.
+     * @throws NotFoundException Se a LinhaDeOnibus com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public LinhaDeOnibus findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_LINHA_DE_ONIBUS WHERE id_linha = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar linhas de ônibus por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Linha de Ônibus não encontrada para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca uma LinhaDeOnibus pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID da LinhaDeOnibus a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da LinhaDeOnibus encontrada.
+     * @throws NotFoundException Se a LinhaDeOnibus com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> linhaDeOnibus = Queries.findById(TABELA, id, fields);
+        if (linhaDeOnibus == null) {
+            throw new NotFoundException("Linha de Ônibus não encontrada para o ID fornecido: " + id);
+        }
+        return linhaDeOnibus;
+    }
+
+    /**
+     * Busca várias instâncias de LinhaDeOnibus pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, LinhaDeOnibus> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Busca o código de todas as instâncias de LinhaDeOnibus que o possuem.
+     *
+     * @return Os códigos, indexados pelo ID.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, String> findChavesNaturais() throws SQLException {
+        return Queries.findValues(TABELA, "codigoLinha");
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de LinhaDeOnibus.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de LinhaDeOnibus posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<LinhaDeOnibus>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de LinhaDeOnibus já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove uma LinhaDeOnibus pelo ID no banco de dados.
      *
@@ -89,21 +274,47 @@ class LinhaDeOnibusDaoImpl implements LinhaDeOnibusDao {
                 BEGIN INSERT INTO G_LINHA_DE_ONIBUS (nr_linha, nm_linha) 
                 VALUES (?, ?) RETURNING id_linha INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setString(1, linha.getCodigoLinha());
-        call.setString(2, linha.getNome());
-        call.registerOutParameter(3, Types.NUMERIC);
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setString(1, linha.getCodigoLinha());
+            call.setString(2, linha.getNome());
+            call.registerOutParameter(3, Types.NUMERIC);
 
-        int linhasAfetadas = call.executeUpdate();
-        long id = call.getLong(3);
+            int linhasAfetadas = call.executeUpdate();
+            long id = call.getLong(3);
 
-        // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar a linha de ônibus: verifique os dados.");
+            // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar a linha de ônibus: verifique os dados.");
+            }
+
+            linha.setIdLinha(id);
+            return linha;
         }
+    }
 
-        linha.setIdLinha(id);
-        return linha;
+    /**
+     * Salva várias instâncias novas de LinhaDeOnibus com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param linhas As instâncias de LinhaDeOnibus a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<LinhaDeOnibus> linhas, Connection connection) throws SQLException {
+        INSERCAO.insertAll(linhas, connection);
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de LinhaDeOnibus pela chave natural ({@code codigoLinha}) com um único MERGE,
+     * atribuindo a cada uma o seu ID.
+     *
+     * @param linhas As instâncias de LinhaDeOnibus a serem gravadas; as chaves devem ser distintas e não nulas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void upsertAll(List<LinhaDeOnibus> linhas, Connection connection) throws SQLException {
+        SINCRONIZACAO.upsertAll(linhas, connection);
     }
 
     /**
@@ -122,17 +333,34 @@ class LinhaDeOnibusDaoImpl implements LinhaDeOnibusDao {
                 SET nr_linha = ?, nm_linha = ? 
                 WHERE id_linha = ?
                 """;
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setString(1, linha.getCodigoLinha());
-        stmt.setString(2, linha.getNome());
-        stmt.setLong(3, linha.getIdLinha());
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, linha.getCodigoLinha());
+            stmt.setString(2, linha.getNome());
+            stmt.setLong(3, linha.getIdLinha());
+
+            int linhasAfetadas = stmt.executeUpdate();
 
-        int linhasAfetadas = stmt.executeUpdate();
+            // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0) {
+                throw new NotFoundException("Linha de Ônibus não encontrada para o ID fornecido: " + linha.getIdLinha());
+            }
+            return linha;
+        }
+    }
 
-        // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0) {
-            throw new NotFoundException("Linha de Ônibus não encontrada para o ID fornecido: " + linha.getIdLinha());
+    /**
+     * Atualiza apenas os campos informados de uma LinhaDeOnibus (JSON Merge Patch).
+     *
+     * @param id O ID da LinhaDeOnibus a ser atualizada.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se a LinhaDeOnibus com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Linha de Ônibus não encontrada para o ID fornecido: " + id);
         }
-        return linha;
     }
 }
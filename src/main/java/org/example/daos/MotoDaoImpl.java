@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.MotoDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.Moto;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -19,6 +24,53 @@ import java.util.logging.Logger;
  */
 class MotoDaoImpl implements MotoDao {
 
+    // Colunas de G_MOTO e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    static final TableMetadata TABELA = new TableMetadata("G_MOTO",
+            Column.of("idMoto", "id_moto", Column.Type.LONG),
+            Column.of("prefixo", "nr_prefixo", Column.Type.INTEGER).filterable(),
+            Column.of("tipoLicenca", "ds_tipo_licenca", Column.Type.STRING),
+            Column.of("placa", "ds_placa", Column.Type.STRING).filterable(),
+            Column.of("modelo", "ds_modelo", Column.Type.STRING),
+            Column.of("fabricante", "nm_fabricante", Column.Type.STRING),
+            Column.of("anoFabricacao", "nr_ano_fabricacao", Column.Type.INTEGER).filterable(),
+            Column.of("capacidadeBateria", "qt_capacidade_bateria", Column.Type.DOUBLE),
+            Column.of("idGaragem", "id_garagem", Column.Type.LONG).filterable()
+    );
+
+    // Monta Moto a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    static final RowMapper<Moto> MAPPER = new RowMapper<>(TABELA, row -> new Moto(
+            row.getLong(0),
+            row.getInt(1),
+            row.getString(2),
+            row.getString(3),
+            row.getString(4),
+            row.getString(5),
+            row.getInt(6),
+            row.getDouble(7),
+            row.getLong(8)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<Moto> INSERCAO = new BatchInsert<>(TABELA, moto -> new Object[]{
+            moto.getPrefixo(),
+            moto.getTipoLicenca(),
+            moto.getPlaca(),
+            moto.getModelo(),
+            moto.getFabricante(),
+            moto.getAnoFabricacao(),
+            moto.getCapacidadeBateria(),
+            moto.getIdGaragem()
+    }, Moto::setIdMoto);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Sincronização pela chave natural (placa), com um MERGE por bloco; ver db/indices.sql.
+    private static final Upsert<Moto> SINCRONIZACAO = new Upsert<>(INSERCAO, "placa");
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<Moto> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -32,24 +84,14 @@ class MotoDaoImpl implements MotoDao {
     public List<Moto> findAll() throws SQLException {
         List<Moto> motos = new ArrayList<>();
         final String sql = "SELECT * FROM G_MOTO";
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de Moto.
+            RowMapper.Reader<Moto> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                Moto moto = new Moto(
-                        rs.getLong("id_moto"),
-                        rs.getInt("nr_prefixo"),
-                        rs.getString("ds_tipo_licenca"),
-                        rs.getString("ds_placa"),
-                        rs.getString("ds_modelo"),
-                        rs.getString("nm_fabricante"),
-                        rs.getInt("nr_ano_fabricacao"),
-                        rs.getDouble("qt_capacidade_bateria"),
-                        rs.getLong("id_garagem")
-                );
-                motos.add(moto);
+                motos.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar motos: " + e.getMessage());
@@ -58,6 +100,161 @@ class MotoDaoImpl implements MotoDao {
         return motos;
     }
 
+    /**
+     * Busca as instâncias de Moto que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link Moto} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Moto> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de Moto que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de Moto que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Moto> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de Moto que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca uma Moto pelo ID no banco de dados.
+     *
+     * @param id O ID da Moto a ser buscada.
+     * @return A instância de {@link Moto} encontrada.
+     * @throws NotFoundException Se a Moto com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Moto findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_MOTO WHERE id_moto = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar motos por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Moto não encontrada para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca uma Moto pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID da Moto a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da Moto encontrada.
+     * @throws NotFoundException Se a Moto com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> moto = Queries.findById(TABELA, id, fields);
+        if (moto == null) {
+            throw new NotFoundException("Moto não encontrada para o ID fornecido: " + id);
+        }
+        return moto;
+    }
+
+    /**
+     * Busca várias instâncias de Moto pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, Moto> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Busca a placa de todas as instâncias de Moto que a possuem.
+     *
+     * @return As placas, indexadas pelo ID.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, String> findChavesNaturais() throws SQLException {
+        return Queries.findValues(TABELA, "placa");
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de Moto.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de Moto posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<Moto>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Moto já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove uma Moto pelo ID no banco de dados.
      *
@@ -95,27 +292,53 @@ class MotoDaoImpl implements MotoDao {
                 BEGIN INSERT INTO G_MOTO (nr_prefixo, ds_tipo_licenca, ds_placa, ds_modelo, nm_fabricante, nr_ano_fabricacao, qt_capacidade_bateria, id_garagem) 
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING id_moto INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setInt(1, moto.getPrefixo());
-        call.setString(2, moto.getTipoLicenca());
-        call.setString(3, moto.getPlaca());
-        call.setString(4, moto.getModelo());
-        call.setString(5, moto.getFabricante());
-        call.setInt(6, moto.getAnoFabricacao());
-        call.setDouble(7, moto.getCapacidadeBateria());
-        call.setLong(8, moto.getIdGaragem());
-        call.registerOutParameter(9, Types.NUMERIC);
-
-        int linhasAlteradas = call.executeUpdate();
-        long id = call.getLong(9);
-
-        // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
-        if (linhasAlteradas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar a moto: verifique os dados.");
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setInt(1, moto.getPrefixo());
+            call.setString(2, moto.getTipoLicenca());
+            call.setString(3, moto.getPlaca());
+            call.setString(4, moto.getModelo());
+            call.setString(5, moto.getFabricante());
+            call.setInt(6, moto.getAnoFabricacao());
+            call.setDouble(7, moto.getCapacidadeBateria());
+            call.setLong(8, moto.getIdGaragem());
+            call.registerOutParameter(9, Types.NUMERIC);
+
+            int linhasAlteradas = call.executeUpdate();
+            long id = call.getLong(9);
+
+            // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
+            if (linhasAlteradas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar a moto: verifique os dados.");
+            }
+
+            moto.setIdMoto(id);
+            return moto;
         }
+    }
 
-        moto.setIdMoto(id);
-        return moto;
+    /**
+     * Salva várias instâncias novas de Moto com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param motos As instâncias de Moto a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<Moto> motos, Connection connection) throws SQLException {
+        INSERCAO.insertAll(motos, connection);
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de Moto pela chave natural ({@code placa}) com um único MERGE,
+     * atribuindo a cada uma o seu ID.
+     *
+     * @param motos As instâncias de Moto a serem gravadas; as chaves devem ser distintas e não nulas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void upsertAll(List<Moto> motos, Connection connection) throws SQLException {
+        SINCRONIZACAO.upsertAll(motos, connection);
     }
 
     /**
@@ -134,23 +357,40 @@ class MotoDaoImpl implements MotoDao {
                 SET nr_prefixo = ?, ds_tipo_licenca = ?, ds_placa = ?, ds_modelo = ?, nm_fabricante = ?, nr_ano_fabricacao = ?, qt_capacidade_bateria = ?, id_garagem = ? 
                 WHERE id_moto = ?
                 """;
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setInt(1, moto.getPrefixo());
-        stmt.setString(2, moto.getTipoLicenca());
-        stmt.setString(3, moto.getPlaca());
-        stmt.setString(4, moto.getModelo());
-        stmt.setString(5, moto.getFabricante());
-        stmt.setInt(6, moto.getAnoFabricacao());
-        stmt.setDouble(7, moto.getCapacidadeBateria());
-        stmt.setLong(8, moto.getIdGaragem());
-        stmt.setLong(9, moto.getIdMoto());
-
-        int linhasAfetadas = stmt.executeUpdate();
-
-        // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0) {
-            throw new NotFoundException("Moto não encontrada para o ID fornecido: " + moto.getIdMoto());
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, moto.getPrefixo());
+            stmt.setString(2, moto.getTipoLicenca());
+            stmt.setString(3, moto.getPlaca());
+            stmt.setString(4, moto.getModelo());
+            stmt.setString(5, moto.getFabricante());
+            stmt.setInt(6, moto.getAnoFabricacao());
+            stmt.setDouble(7, moto.getCapacidadeBateria());
+            stmt.setLong(8, moto.getIdGaragem());
+            stmt.setLong(9, moto.getIdMoto());
+
+            int linhasAfetadas = stmt.executeUpdate();
+
+            // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0) {
+                throw new NotFoundException("Moto não encontrada para o ID fornecido: " + moto.getIdMoto());
+            }
+            return moto;
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de uma Moto (JSON Merge Patch).
+     *
+     * @param id O ID da Moto a ser atualizada.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se a Moto com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Moto não encontrada para o ID fornecido: " + id);
         }
-        return moto;
     }
 }
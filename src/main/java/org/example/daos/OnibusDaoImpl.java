@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.OnibusDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.Onibus;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -19,6 +24,62 @@ import java.util.logging.Logger;
  */
 class OnibusDaoImpl implements OnibusDao {
 
+    // Colunas de G_ONIBUS e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    static final TableMetadata TABELA = new TableMetadata("G_ONIBUS",
+            Column.of("idOnibus", "id_onibus", Column.Type.LONG),
+            Column.of("prefixo", "nr_prefixo", Column.Type.INTEGER).filterable(),
+            Column.of("capacidadePassageiros", "qt_capacidade_passageiros", Column.Type.INTEGER),
+            Column.of("painelSolar", "qt_painel_solar", Column.Type.DOUBLE),
+            Column.of("peliculaSolar", "qt_pelicula_solar", Column.Type.DOUBLE),
+            Column.of("placa", "ds_placa", Column.Type.STRING).filterable(),
+            Column.of("modelo", "ds_modelo", Column.Type.STRING),
+            Column.of("fabricante", "nm_fabricante", Column.Type.STRING),
+            Column.of("anoFabricacao", "nr_ano_fabricacao", Column.Type.INTEGER).filterable(),
+            Column.of("capacidadeBateria", "qt_capacidade_bateria", Column.Type.DOUBLE),
+            Column.of("idGaragem", "id_garagem", Column.Type.LONG).filterable(),
+            Column.of("idLinha", "id_linha", Column.Type.LONG).filterable()
+    );
+
+    // Monta Onibus a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    static final RowMapper<Onibus> MAPPER = new RowMapper<>(TABELA, row -> new Onibus(
+            row.getLong(0),
+            row.getInt(1),
+            row.getInt(2),
+            row.getDouble(3),
+            row.getDouble(4),
+            row.getString(5),
+            row.getString(6),
+            row.getString(7),
+            row.getInt(8),
+            row.getDouble(9),
+            row.getLong(10),
+            row.getLong(11)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<Onibus> INSERCAO = new BatchInsert<>(TABELA, onibus -> new Object[]{
+            onibus.getPrefixo(),
+            onibus.getCapacidadePassageiros(),
+            onibus.getPainelSolar(),
+            onibus.getPeliculaSolar(),
+            onibus.getPlaca(),
+            onibus.getModelo(),
+            onibus.getFabricante(),
+            onibus.getAnoFabricacao(),
+            onibus.getCapacidadeBateria(),
+            onibus.getIdGaragem(),
+            onibus.getIdLinha()
+    }, Onibus::setIdOnibus);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Sincronização pela chave natural (placa), com um MERGE por bloco; ver db/indices.sql.
+    private static final Upsert<Onibus> SINCRONIZACAO = new Upsert<>(INSERCAO, "placa");
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<Onibus> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -33,27 +94,14 @@ class OnibusDaoImpl implements OnibusDao {
         final List<Onibus> onibusList = new ArrayList<>();
         final String sql = "SELECT * FROM G_ONIBUS";
 
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de Onibus.
+            RowMapper.Reader<Onibus> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                Onibus onibus = new Onibus(
-                        rs.getLong("id_onibus"),
-                        rs.getInt("nr_prefixo"),
-                        rs.getInt("qt_capacidade_passageiros"),
-                        rs.getDouble("qt_painel_solar"),
-                        rs.getDouble("qt_pelicula_solar"),
-                        rs.getString("ds_placa"),
-                        rs.getString("ds_modelo"),
-                        rs.getString("nm_fabricante"),
-                        rs.getInt("nr_ano_fabricacao"),
-                        rs.getDouble("qt_capacidade_bateria"),
-                        rs.getLong("id_garagem"),
-                        rs.getLong("id_linha")
-                );
-                onibusList.add(onibus);
+                onibusList.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar ônibus: " + e.getMessage());
@@ -62,6 +110,161 @@ class OnibusDaoImpl implements OnibusDao {
         return onibusList;
     }
 
+    /**
+     * Busca as instâncias de Onibus que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link Onibus} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Onibus> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de Onibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de Onibus que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Onibus> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de Onibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca um Onibus pelo ID no banco de dados.
+     *
+     * @param id O ID do Onibus a ser buscado.
+     * @return A instância de {@link Onibus} encontrada.
+     * @throws NotFoundException Se o Onibus com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Onibus findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_ONIBUS WHERE id_onibus = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar ônibus por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Ônibus não encontrado para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca um Onibus pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID do Onibus a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Onibus encontrado.
+     * @throws NotFoundException Se o Onibus com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> onibus = Queries.findById(TABELA, id, fields);
+        if (onibus == null) {
+            throw new NotFoundException("Ônibus não encontrado para o ID fornecido: " + id);
+        }
+        return onibus;
+    }
+
+    /**
+     * Busca várias instâncias de Onibus pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, Onibus> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Busca a placa de todas as instâncias de Onibus que a possuem.
+     *
+     * @return As placas, indexadas pelo ID.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, String> findChavesNaturais() throws SQLException {
+        return Queries.findValues(TABELA, "placa");
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de Onibus.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de Onibus posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<Onibus>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Onibus já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove um Onibus pelo ID no banco de dados.
      *
@@ -103,30 +306,56 @@ class OnibusDaoImpl implements OnibusDao {
                                             ds_modelo, nm_fabricante, nr_ano_fabricacao, qt_capacidade_bateria, id_garagem, id_linha) 
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id_onibus INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setInt(1, onibus.getPrefixo());
-        call.setInt(2, onibus.getCapacidadePassageiros());
-        call.setDouble(3, onibus.getPainelSolar());
-        call.setDouble(4, onibus.getPeliculaSolar());
-        call.setString(5, onibus.getPlaca());
-        call.setString(6, onibus.getModelo());
-        call.setString(7, onibus.getFabricante());
-        call.setInt(8, onibus.getAnoFabricacao());
-        call.setDouble(9, onibus.getCapacidadeBateria());
-        call.setLong(10, onibus.getIdGaragem());
-        call.setLong(11, onibus.getIdLinha());
-        call.registerOutParameter(12, Types.NUMERIC);
-
-        int linhasAfetadas = call.executeUpdate();
-        long id = call.getLong(12);
-
-        // Verifica se a inserção foi bem-sucedida.
-        if (linhasAfetadas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar o ônibus: verifique os dados.");
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setInt(1, onibus.getPrefixo());
+            call.setInt(2, onibus.getCapacidadePassageiros());
+            call.setDouble(3, onibus.getPainelSolar());
+            call.setDouble(4, onibus.getPeliculaSolar());
+            call.setString(5, onibus.getPlaca());
+            call.setString(6, onibus.getModelo());
+            call.setString(7, onibus.getFabricante());
+            call.setInt(8, onibus.getAnoFabricacao());
+            call.setDouble(9, onibus.getCapacidadeBateria());
+            call.setLong(10, onibus.getIdGaragem());
+            call.setLong(11, onibus.getIdLinha());
+            call.registerOutParameter(12, Types.NUMERIC);
+
+            int linhasAfetadas = call.executeUpdate();
+            long id = call.getLong(12);
+
+            // Verifica se a inserção foi bem-sucedida.
+            if (linhasAfetadas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar o ônibus: verifique os dados.");
+            }
+
+            onibus.setIdOnibus(id);
+            return onibus;
         }
+    }
 
-        onibus.setIdOnibus(id);
-        return onibus;
+    /**
+     * Salva várias instâncias novas de Onibus com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param onibus As instâncias de Onibus a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<Onibus> onibus, Connection connection) throws SQLException {
+        INSERCAO.insertAll(onibus, connection);
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de Onibus pela chave natural ({@code placa}) com um único MERGE,
+     * atribuindo a cada uma o seu ID.
+     *
+     * @param onibus As instâncias de Onibus a serem gravadas; as chaves devem ser distintas e não nulas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void upsertAll(List<Onibus> onibus, Connection connection) throws SQLException {
+        SINCRONIZACAO.upsertAll(onibus, connection);
     }
 
     /**
@@ -146,26 +375,43 @@ class OnibusDaoImpl implements OnibusDao {
                     ds_modelo = ?, nm_fabricante = ?, nr_ano_fabricacao = ?, qt_capacidade_bateria = ?, id_garagem = ?, id_linha = ? 
                 WHERE id_onibus = ?
                 """;
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setInt(1, onibus.getPrefixo());
-        stmt.setInt(2, onibus.getCapacidadePassageiros());
-        stmt.setDouble(3, onibus.getPainelSolar());
-        stmt.setDouble(4, onibus.getPeliculaSolar());
-        stmt.setString(5, onibus.getPlaca());
-        stmt.setString(6, onibus.getModelo());
-        stmt.setString(7, onibus.getFabricante());
-        stmt.setInt(8, onibus.getAnoFabricacao());
-        stmt.setDouble(9, onibus.getCapacidadeBateria());
-        stmt.setLong(10, onibus.getIdGaragem());
-        stmt.setLong(11, onibus.getIdLinha());
-        stmt.setLong(12, onibus.getIdOnibus());
-
-        int linhasAfetadas = stmt.executeUpdate();
-
-        // Verifica se alguma linha foi alterada.
-        if (linhasAfetadas == 0) {
-            throw new NotFoundException("Ônibus não encontrado para o ID fornecido: " + onibus.getIdOnibus());
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, onibus.getPrefixo());
+            stmt.setInt(2, onibus.getCapacidadePassageiros());
+            stmt.setDouble(3, onibus.getPainelSolar());
+            stmt.setDouble(4, onibus.getPeliculaSolar());
+            stmt.setString(5, onibus.getPlaca());
+            stmt.setString(6, onibus.getModelo());
+            stmt.setString(7, onibus.getFabricante());
+            stmt.setInt(8, onibus.getAnoFabricacao());
+            stmt.setDouble(9, onibus.getCapacidadeBateria());
+            stmt.setLong(10, onibus.getIdGaragem());
+            stmt.setLong(11, onibus.getIdLinha());
+            stmt.setLong(12, onibus.getIdOnibus());
+
+            int linhasAfetadas = stmt.executeUpdate();
+
+            // Verifica se alguma linha foi alterada.
+            if (linhasAfetadas == 0) {
+                throw new NotFoundException("Ônibus não encontrado para o ID fornecido: " + onibus.getIdOnibus());
+            }
+            return onibus;
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Onibus (JSON Merge Patch).
+     *
+     * @param id O ID do Onibus a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se o Onibus com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Ônibus não encontrado para o ID fornecido: " + id);
         }
-        return onibus;
     }
 }
@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.OperadorDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.Operador;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -22,6 +27,38 @@ import java.util.logging.Logger;
  */
 class OperadorDaoImpl implements OperadorDao {
 
+    // Colunas de G_OPERADOR e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    static final TableMetadata TABELA = new TableMetadata("G_OPERADOR",
+            Column.of("idOperador", "id_operador", Column.Type.LONG),
+            Column.of("nome", "nm_operador", Column.Type.STRING),
+            Column.of("cpf", "nr_cpf", Column.Type.STRING).filterable(),
+            Column.of("idGaragem", "id_garagem", Column.Type.LONG).filterable()
+    );
+
+    // Monta Operador a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    static final RowMapper<Operador> MAPPER = new RowMapper<>(TABELA, row -> new Operador(
+            row.getLong(0),
+            row.getString(1),
+            row.getString(2),
+            row.getLong(3)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<Operador> INSERCAO = new BatchInsert<>(TABELA, operador -> new Object[]{
+            operador.getNome(),
+            operador.getCpf(),
+            operador.getIdGaragem()
+    }, Operador::setIdOperador);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Sincronização pela chave natural (cpf), com um MERGE por bloco; ver db/indices.sql.
+    private static final Upsert<Operador> SINCRONIZACAO = new Upsert<>(INSERCAO, "cpf");
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<Operador> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -35,19 +72,14 @@ class OperadorDaoImpl implements OperadorDao {
     public List<Operador> findAll() throws SQLException {
         final List<Operador> operadores = new ArrayList<>();
         final String sql = "SELECT * FROM G_OPERADOR";
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de Operador.
+            RowMapper.Reader<Operador> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                Operador operador = new Operador(
-                        rs.getLong("id_operador"),
-                        rs.getString("nm_operador"),
-                        rs.getString("nr_cpf"),
-                        rs.getLong("id_garagem")
-                );
-                operadores.add(operador);
+                operadores.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao buscar operadores: " + e.getMessage());
@@ -56,6 +88,161 @@ class OperadorDaoImpl implements OperadorDao {
         return operadores;
     }
 
+    /**
+     * Busca as instâncias de Operador que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link Operador} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Operador> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de Operador que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de Operador que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Operador> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de Operador que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca um Operador pelo ID no banco de dados.
+     *
+     * @param id O ID do Operador a ser buscado.
+     * @return A instância de {@link Operador} encontrada.
+     * @throws NotFoundException Se o Operador com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Operador findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT * FROM G_OPERADOR WHERE id_operador = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar operadores por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Operador não encontrado para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca um Operador pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID do Operador a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Operador encontrado.
+     * @throws NotFoundException Se o Operador com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> operador = Queries.findById(TABELA, id, fields);
+        if (operador == null) {
+            throw new NotFoundException("Operador não encontrado para o ID fornecido: " + id);
+        }
+        return operador;
+    }
+
+    /**
+     * Busca várias instâncias de Operador pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, Operador> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Busca o CPF de todas as instâncias de Operador que o possuem.
+     *
+     * @return Os CPFs, indexados pelo ID.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, String> findChavesNaturais() throws SQLException {
+        return Queries.findValues(TABELA, "cpf");
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de Operador.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de Operador posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<Operador>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Operador já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove um Operador pelo ID no banco de dados.
      *
@@ -93,22 +280,48 @@ class OperadorDaoImpl implements OperadorDao {
                 BEGIN INSERT INTO G_OPERADOR (nm_operador, nr_cpf, id_garagem) 
                 VALUES (?, ?, ?) RETURNING id_operador INTO ?; END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setString(1, operador.getNome());
-        call.setString(2, operador.getCpf());
-        call.setLong(3, operador.getIdGaragem());
-        call.registerOutParameter(4, Types.NUMERIC);
-
-        int linhasAfetadas = call.executeUpdate();
-        long id = call.getLong(4);
-
-        // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar o operador: verifique os dados.");
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setString(1, operador.getNome());
+            call.setString(2, operador.getCpf());
+            call.setLong(3, operador.getIdGaragem());
+            call.registerOutParameter(4, Types.NUMERIC);
+
+            int linhasAfetadas = call.executeUpdate();
+            long id = call.getLong(4);
+
+            // Verifica se a inserção foi bem-sucedida. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar o operador: verifique os dados.");
+            }
+
+            operador.setIdOperador(id);
+            return operador;
         }
+    }
 
-        operador.setIdOperador(id);
-        return operador;
+    /**
+     * Salva várias instâncias novas de Operador com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param operadores As instâncias de Operador a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<Operador> operadores, Connection connection) throws SQLException {
+        INSERCAO.insertAll(operadores, connection);
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de Operador pela chave natural ({@code cpf}) com um único MERGE,
+     * atribuindo a cada uma o seu ID.
+     *
+     * @param operadores As instâncias de Operador a serem gravadas; as chaves devem ser distintas e não nulas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void upsertAll(List<Operador> operadores, Connection connection) throws SQLException {
+        SINCRONIZACAO.upsertAll(operadores, connection);
     }
 
     /**
@@ -127,18 +340,35 @@ class OperadorDaoImpl implements OperadorDao {
                 SET nm_operador = ?, nr_cpf = ?, id_garagem = ? 
                 WHERE id_operador = ?
                 """;
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setString(1, operador.getNome());
-        stmt.setString(2, operador.getCpf());
-        stmt.setLong(3, operador.getIdGaragem());
-        stmt.setLong(4, operador.getIdOperador());
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, operador.getNome());
+            stmt.setString(2, operador.getCpf());
+            stmt.setLong(3, operador.getIdGaragem());
+            stmt.setLong(4, operador.getIdOperador());
 
-        int linhasAfetadas = stmt.executeUpdate();
+            int linhasAfetadas = stmt.executeUpdate();
 
-        // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
-        if (linhasAfetadas == 0) {
-            throw new NotFoundException("Operador não encontrado para o ID fornecido: " + operador.getIdOperador());
+            // Verifica se alguma linha foi alterada. Caso contrário, lança uma exceção.
+            if (linhasAfetadas == 0) {
+                throw new NotFoundException("Operador não encontrado para o ID fornecido: " + operador.getIdOperador());
+            }
+            return operador;
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Operador (JSON Merge Patch).
+     *
+     * @param id O ID do Operador a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se o Operador com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Operador não encontrado para o ID fornecido: " + id);
         }
-        return operador;
     }
 }
@@ -0,0 +1,90 @@
+package org.example.daos;
+
+import org.example.exceptions.InvalidQueryException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Atualização parcial de um registro com a semântica de JSON Merge Patch (RFC 7396): cada campo presente
+ * no patch é gravado (e {@code null} limpa a coluna); os campos ausentes não são tocados.
+ *
+ * <p>O {@code UPDATE} lista apenas as colunas recebidas, sempre na ordem de {@link TableMetadata}, de modo
+ * que o texto do comando depende só do conjunto de colunas, e não da ordem das chaves no JSON. O texto de
+ * cada conjunto é montado uma vez e reaproveitado, assim como o comando preparado no cache da conexão.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class PartialUpdate {
+
+    private final TableMetadata table;
+    private final List<Column> columns;
+    private final Map<Long, String> shapes = new ConcurrentHashMap<>();
+
+    /**
+     * @param table A tabela; todas as colunas, exceto o ID, podem ser atualizadas.
+     */
+    PartialUpdate(TableMetadata table) {
+        this.table = table;
+        this.columns = table.getColumns();
+        if (columns.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Colunas demais para atualização parcial em " + table.getTable());
+        }
+    }
+
+    /**
+     * Aplica o patch ao registro.
+     *
+     * @param id         O ID do registro.
+     * @param patch      Campos JSON e os novos valores; não pode estar vazio.
+     * @param connection Conexão com o banco de dados; a transação fica a cargo de quem chama.
+     * @return A quantidade de linhas alteradas (0 se o registro não existir).
+     * @throws InvalidQueryException Se algum campo não existir, for o ID ou tiver valor de tipo incompatível.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    int update(Long id, Map<String, Object> patch, Connection connection) throws SQLException {
+        long mask = 0;
+        Object[] values = new Object[columns.size()];
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            Column column = table.column(entry.getKey());
+            if (column == table.getId()) {
+                throw new InvalidQueryException("O campo " + column.getField() + " não pode ser alterado");
+            }
+            int index = columns.indexOf(column);
+            mask |= 1L << index;
+            values[index] = column.convert(entry.getValue());
+        }
+        if (mask == 0) {
+            throw new IllegalArgumentException("Patch vazio");
+        }
+
+        final String sql = shapes.computeIfAbsent(mask, this::sql);
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int parameter = 1;
+            for (int i = 0; i < columns.size(); i++) {
+                if ((mask & (1L << i)) != 0) {
+                    columns.get(i).bind(stmt, parameter++, values[i]);
+                }
+            }
+            stmt.setLong(parameter, id);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private String sql(long mask) {
+        List<String> sets = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            if ((mask & (1L << i)) != 0) {
+                sets.add(columns.get(i).getName() + " = ?");
+            }
+        }
+        return "UPDATE " + table.getTable() + " SET " + String.join(", ", sets)
+                + " WHERE " + table.getId().getName() + " = ?";
+    }
+}
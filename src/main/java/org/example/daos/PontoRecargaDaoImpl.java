@@ -4,11 +4,16 @@ import org.example.config.DatabaseConnectionFactory;
 import org.example.daos.interfaces.PontoRecargaDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.PontoRecarga;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -19,6 +24,35 @@ import java.util.logging.Logger;
  */
 class PontoRecargaDaoImpl implements PontoRecargaDao {
 
+    // Colunas de G_PONTO_RECARGA e os campos JSON correspondentes; as filtráveis têm índice (db/indices.sql).
+    private static final TableMetadata TABELA = new TableMetadata("G_PONTO_RECARGA",
+            Column.of("idPonto", "id_ponto", Column.Type.LONG),
+            Column.of("potencia", "qt_potencia", Column.Type.DOUBLE),
+            Column.of("ocupado", "st_ocupado", Column.Type.FLAG).filterable(),
+            Column.of("idLinha", "id_linha", Column.Type.LONG).filterable()
+    );
+
+    // Monta PontoRecarga a partir das colunas de TABELA, lidas pela posição em que foram declaradas.
+    private static final RowMapper<PontoRecarga> MAPPER = new RowMapper<>(TABELA, row -> new PontoRecarga(
+            row.getLong(0),
+            row.getDouble(1),
+            row.getFlag(2),
+            row.getLong(3)
+    ));
+
+    // Inserção em bloco dos cadastros em lote: valores na ordem das colunas de TABELA, sem o ID.
+    private static final BatchInsert<PontoRecarga> INSERCAO = new BatchInsert<>(TABELA, pontoRecarga -> new Object[]{
+            pontoRecarga.getPotencia(),
+            pontoRecarga.isOcupado(),
+            pontoRecarga.getIdLinha()
+    }, PontoRecarga::setIdPonto);
+
+    // Atualizações parciais (PATCH), com um comando por conjunto de colunas alteradas.
+    private static final PartialUpdate ATUALIZACAO_PARCIAL = new PartialUpdate(TABELA);
+
+    // Log de alterações da tabela, gravado pelos serviços e lido pela sincronização incremental (/changes).
+    private static final ChangeLog<PontoRecarga> ALTERACOES = new ChangeLog<>(TABELA, MAPPER);
+
     // Logger para registrar mensagens e eventos, utilizado para fins de depuração e monitoramento.
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -33,19 +67,14 @@ class PontoRecargaDaoImpl implements PontoRecargaDao {
         List<PontoRecarga> pontosRecarga = new ArrayList<>();
         final String sql = "SELECT id_ponto, qt_potencia, st_ocupado, id_linha FROM G_PONTO_RECARGA";
 
-        try (Connection conn = DatabaseConnectionFactory.create().get();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             // Itera pelos resultados e cria instâncias de PontoRecarga.
+            RowMapper.Reader<PontoRecarga> reader = MAPPER.reader(rs);
             while (rs.next()) {
-                PontoRecarga pontoRecarga = new PontoRecarga(
-                        rs.getLong("id_ponto"),
-                        rs.getDouble("qt_potencia"),
-                        rs.getString("st_ocupado").equals("S"),
-                        rs.getLong("id_linha")
-                );
-                pontosRecarga.add(pontoRecarga);
+                pontosRecarga.add(reader.read());
             }
         } catch (SQLException e) {
             logger.warning("Erro ao recuperar pontos de recarga: " + e.getMessage());
@@ -54,6 +83,150 @@ class PontoRecargaDaoImpl implements PontoRecargaDao {
         return pontosRecarga;
     }
 
+    /**
+     * Busca as instâncias de PontoRecarga que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link PontoRecarga} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<PontoRecarga> find(Consulta consulta) throws SQLException {
+        return Queries.find(TABELA, MAPPER, consulta);
+    }
+
+    /**
+     * Busca as instâncias de PontoRecarga que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return Queries.find(TABELA, consulta, fields);
+    }
+
+    /**
+     * Percorre as instâncias de PontoRecarga que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<PontoRecarga> action) throws SQLException {
+        Queries.stream(TABELA, MAPPER, consulta, action);
+    }
+
+    /**
+     * Percorre as instâncias de PontoRecarga que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        Queries.stream(TABELA, consulta, fields, action);
+    }
+
+    /**
+     * Busca um PontoRecarga pelo ID no banco de dados.
+     *
+     * @param id O ID do PontoRecarga a ser buscado.
+     * @return A instância de {@link PontoRecarga} encontrada.
+     * @throws NotFoundException Se o PontoRecarga com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public PontoRecarga findById(Long id) throws NotFoundException, SQLException {
+        final String sql = "SELECT id_ponto, qt_potencia, st_ocupado, id_linha FROM G_PONTO_RECARGA WHERE id_ponto = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return MAPPER.reader(rs).read();
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar pontos de recarga por ID: " + e.getMessage());
+            throw e;
+        }
+        throw new NotFoundException("Ponto de Recarga não encontrado para o ID fornecido: " + id);
+    }
+
+    /**
+     * Busca um PontoRecarga pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID do PontoRecarga a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do PontoRecarga encontrado.
+     * @throws NotFoundException Se o PontoRecarga com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        Map<String, Object> pontoRecarga = Queries.findById(TABELA, id, fields);
+        if (pontoRecarga == null) {
+            throw new NotFoundException("Ponto de Recarga não encontrado para o ID fornecido: " + id);
+        }
+        return pontoRecarga;
+    }
+
+    /**
+     * Busca várias instâncias de PontoRecarga pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public Map<Long, PontoRecarga> findByIds(Collection<Long> ids) throws SQLException {
+        return Queries.findByIds(TABELA, MAPPER, ids);
+    }
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de PontoRecarga.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException {
+        ALTERACOES.record(operacao, ids, connection);
+    }
+
+    /**
+     * Percorre as alterações de PontoRecarga posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<PontoRecarga>> action) throws SQLException {
+        ALTERACOES.stream(desde, limite, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de PontoRecarga já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return ALTERACOES.last();
+    }
+
     /**
      * Remove um PontoRecarga pelo ID no banco de dados.
      *
@@ -94,22 +267,35 @@ class PontoRecargaDaoImpl implements PontoRecargaDao {
                 RETURNING id_ponto INTO ?; 
                 END;
                 """;
-        CallableStatement call = connection.prepareCall(sql);
-        call.setDouble(1, pontoRecarga.getPotencia());
-        call.setString(2, pontoRecarga.isOcupado() ? "S" : "N");
-        call.setLong(3, pontoRecarga.getIdLinha());
-        call.registerOutParameter(4, Types.NUMERIC);
-
-        int linhasAlteradas = call.executeUpdate();
-        long id = call.getLong(4);
-
-        // Verifica se a inserção foi bem-sucedida. Caso contrário, lança exceção.
-        if (linhasAlteradas == 0 || id == 0) {
-            throw new NotSavedException("Erro ao salvar o ponto de recarga: verifique os dados.");
+        try (CallableStatement call = connection.prepareCall(sql)) {
+            call.setDouble(1, pontoRecarga.getPotencia());
+            call.setString(2, pontoRecarga.isOcupado() ? "S" : "N");
+            call.setLong(3, pontoRecarga.getIdLinha());
+            call.registerOutParameter(4, Types.NUMERIC);
+
+            int linhasAlteradas = call.executeUpdate();
+            long id = call.getLong(4);
+
+            // Verifica se a inserção foi bem-sucedida. Caso contrário, lança exceção.
+            if (linhasAlteradas == 0 || id == 0) {
+                throw new NotSavedException("Erro ao salvar o ponto de recarga: verifique os dados.");
+            }
+
+            pontoRecarga.setIdPonto(id);
+            return pontoRecarga;
         }
+    }
 
-        pontoRecarga.setIdPonto(id);
-        return pontoRecarga;
+    /**
+     * Salva várias instâncias novas de PontoRecarga com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param pontos As instâncias de PontoRecarga a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    @Override
+    public void saveAll(List<PontoRecarga> pontos, Connection connection) throws SQLException {
+        INSERCAO.insertAll(pontos, connection);
     }
 
     /**
@@ -143,4 +329,20 @@ class PontoRecargaDaoImpl implements PontoRecargaDao {
         }
         return pontoRecarga;
     }
+
+    /**
+     * Atualiza apenas os campos informados de um PontoRecarga (JSON Merge Patch).
+     *
+     * @param id O ID do PontoRecarga a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se o PontoRecarga com o ID fornecido não for encontrado.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException {
+        if (ATUALIZACAO_PARCIAL.update(id, campos, connection) == 0) {
+            throw new NotFoundException("Ponto de Recarga não encontrado para o ID fornecido: " + id);
+        }
+    }
 }
@@ -0,0 +1,247 @@
+package org.example.daos;
+
+import oracle.jdbc.OracleConnection;
+import org.example.config.DatabaseConnectionFactory;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Compila uma {@link Consulta} para SQL com parâmetros sobre a tabela de um DAO e executa a leitura.
+ *
+ * <p>Os filtros viram {@code coluna <op> ?}, a paginação por chave vira {@code id > ?} com
+ * {@code FETCH FIRST ? ROWS ONLY} e a ordenação sempre termina pelo ID. Apenas colunas liberadas em
+ * {@link TableMetadata} podem ser filtradas ou ordenadas, e os valores nunca entram no texto do comando.</p>
+ *
+ * <p>As linhas podem ser lidas como modelos completos (pelo {@link RowMapper} do DAO) ou como objetos
+ * parciais com os campos pedidos ({@code fields=}), caso em que o SQL lista apenas as colunas desses
+ * campos. As leituras usam conexões de leitura, como as consultas completas dos DAOs.</p>
+ *
+ * <p>A busca por uma lista de IDs envia a lista inteira como um único parâmetro ({@code TABLE(?)} sobre uma
+ * coleção do Oracle), de modo que o texto do comando é o mesmo para qualquer quantidade de IDs.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class Queries {
+
+    private static final Logger LOGGER = Logger.getLogger(Queries.class.getName());
+
+    // Coleção de números nativa do Oracle (VARRAY(32767) OF NUMBER), usada para enviar listas de IDs.
+    private static final String ID_LIST_TYPE = "SYS.ODCINUMBERLIST";
+
+    private Queries() {
+        throw new UnsupportedOperationException();
+    }
+
+    static <T> List<T> find(TableMetadata table, RowMapper<T> mapper, Consulta consulta) throws SQLException {
+        List<T> itens = new ArrayList<>();
+        stream(table, mapper, consulta, itens::add);
+        return itens;
+    }
+
+    static List<Map<String, Object>> find(TableMetadata table, Consulta consulta, Set<String> fields)
+            throws SQLException {
+        List<Map<String, Object>> itens = new ArrayList<>();
+        stream(table, consulta, fields, itens::add);
+        return itens;
+    }
+
+    static <T> void stream(TableMetadata table, RowMapper<T> mapper, Consulta consulta, Consumer<T> action)
+            throws SQLException {
+        execute(table, table.getColumns(), consulta, rs -> {
+            RowMapper.Reader<T> reader = mapper.reader(rs);
+            while (rs.next()) {
+                action.accept(reader.read());
+            }
+        });
+    }
+
+    static void stream(TableMetadata table, Consulta consulta, Set<String> fields,
+                       Consumer<Map<String, Object>> action) throws SQLException {
+        List<Column> columns = table.project(fields);
+        execute(table, columns, consulta, rs -> {
+            while (rs.next()) {
+                action.accept(read(rs, columns));
+            }
+        });
+    }
+
+    /**
+     * @return O objeto parcial, ou {@code null} se não houver linha com o ID informado.
+     */
+    static Map<String, Object> findById(TableMetadata table, Long id, Set<String> fields) throws SQLException {
+        final List<Column> columns = table.project(fields);
+        final String sql = table.select(columns) + " WHERE " + table.getId().getName() + " = ?";
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? read(rs, columns) : null;
+            }
+        } catch (SQLException e) {
+            LOGGER.warning("Erro ao buscar registro parcial de " + table.getTable() + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Lê o valor de uma coluna em todos os registros que a preenchem (por exemplo, uma chave natural).
+     *
+     * @return Os valores, indexados pelo ID do registro.
+     */
+    static Map<Long, String> findValues(TableMetadata table, String field) throws SQLException {
+        Column column = table.column(field);
+        final String sql = "SELECT " + table.getId().getName() + ", " + column.getName() + " FROM "
+                + table.getTable() + " WHERE " + column.getName() + " IS NOT NULL";
+        Map<Long, String> valores = new HashMap<>();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setFetchSize(DatabaseConnectionFactory.streamFetchSize());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    valores.put(rs.getLong(1), rs.getString(2));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.warning("Erro ao ler " + field + " de " + table.getTable() + ": " + e.getMessage());
+            throw e;
+        }
+        return valores;
+    }
+
+    /**
+     * Busca os registros com os IDs informados em um único comando.
+     *
+     * @return Os registros encontrados, indexados pelo ID na ordem em que os IDs foram informados; os IDs
+     * sem registro ficam de fora.
+     */
+    static <T> Map<Long, T> findByIds(TableMetadata table, RowMapper<T> mapper, Collection<Long> ids)
+            throws SQLException {
+        Map<Long, T> encontrados = new HashMap<>();
+        if (!ids.isEmpty()) {
+            final String sql = table.select(table.getColumns()) + " WHERE " + table.getId().getName()
+                    + " IN (SELECT COLUMN_VALUE FROM TABLE(?))";
+            final int posicaoId = table.getColumns().indexOf(table.getId()) + 1;
+            try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Array lista = conn.unwrap(OracleConnection.class).createOracleArray(ID_LIST_TYPE, ids.toArray(new Long[0]));
+                try {
+                    stmt.setArray(1, lista);
+                    stmt.setFetchSize(Math.min(ids.size(), DatabaseConnectionFactory.streamFetchSize()));
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        RowMapper.Reader<T> reader = mapper.reader(rs);
+                        while (rs.next()) {
+                            encontrados.put(rs.getLong(posicaoId), reader.read());
+                        }
+                    }
+                } finally {
+                    lista.free();
+                }
+            } catch (SQLException e) {
+                LOGGER.warning("Erro ao buscar registros de " + table.getTable() + " por ID: " + e.getMessage());
+                throw e;
+            }
+        }
+
+        Map<Long, T> ordenados = new LinkedHashMap<>();
+        for (Long id : ids) {
+            T item = encontrados.get(id);
+            if (item != null) {
+                ordenados.put(id, item);
+            }
+        }
+        return ordenados;
+    }
+
+    private static void execute(TableMetadata table, List<Column> columns, Consulta consulta, ResultHandler handler)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder(table.select(columns));
+        List<Column> paramColumns = new ArrayList<>();
+        List<Object> paramValues = new ArrayList<>();
+        Column id = table.getId();
+
+        String conector = " WHERE ";
+        for (Consulta.Filtro filtro : consulta.getFiltros()) {
+            Column column = table.filterColumn(filtro.getCampo());
+            sql.append(conector).append(column.getName()).append(' ').append(filtro.getOperador().getSql()).append(" ?");
+            paramColumns.add(column);
+            paramValues.add(column.parse(filtro.getValor()));
+            conector = " AND ";
+        }
+        if (consulta.getAfterId() != null) {
+            sql.append(conector).append(id.getName()).append(" > ?");
+            paramColumns.add(id);
+            paramValues.add(consulta.getAfterId());
+        }
+        if (!consulta.getOrdem().isEmpty() || consulta.getLimite() != null) {
+            sql.append(" ORDER BY ");
+            boolean idDecrescente = false;
+            for (Consulta.Ordem ordem : consulta.getOrdem()) {
+                Column column = table.filterColumn(ordem.getCampo());
+                if (column == id) {
+                    // O ID é único: critérios depois dele não alteram a ordem.
+                    idDecrescente = ordem.isDecrescente();
+                    break;
+                }
+                sql.append(column.getName()).append(ordem.isDecrescente() ? " DESC, " : ", ");
+            }
+            sql.append(id.getName()).append(idDecrescente ? " DESC" : "");
+        }
+        if (consulta.getLimite() != null) {
+            sql.append(" FETCH FIRST ? ROWS ONLY");
+        }
+
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (int i = 0; i < paramColumns.size(); i++) {
+                paramColumns.get(i).bind(stmt, index++, paramValues.get(i));
+            }
+            if (consulta.getLimite() != null) {
+                stmt.setInt(index, consulta.getLimite());
+                // Traz a página inteira em uma única ida ao banco.
+                stmt.setFetchSize(Math.max(1, consulta.getLimite()));
+            } else {
+                stmt.setFetchSize(DatabaseConnectionFactory.streamFetchSize());
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                handler.handle(rs);
+            }
+        } catch (SQLException e) {
+            LOGGER.warning("Erro ao consultar " + table.getTable() + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static Map<String, Object> read(ResultSet rs, List<Column> columns) throws SQLException {
+        Map<String, Object> linha = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            linha.put(column.getField(), column.read(rs, i + 1));
+        }
+        return linha;
+    }
+
+    @FunctionalInterface
+    private interface ResultHandler {
+
+        void handle(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.daos;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mapeador de linhas de uma tabela para o seu modelo, sem busca de colunas por nome a cada linha.
+ *
+ * <p>As posições das colunas de {@link TableMetadata} são resolvidas uma vez por formato de resultado
+ * ({@link ResultSetMetaData}) e guardadas; cada linha é lida por posição e entregue ao construtor do
+ * modelo, informado como uma função na declaração do DAO.</p>
+ *
+ * @param <T> Tipo do modelo.
+ * @version 1.0
+ * @since 1.1
+ */
+final class RowMapper<T> {
+
+    // Formatos distintos por tabela são poucos (SELECT * e projeções); o limite só protege contra abuso.
+    private static final int MAX_SHAPES = 64;
+
+    /**
+     * Construtor do modelo a partir de uma linha; as posições seguem a ordem das colunas da tabela.
+     *
+     * @param <T> Tipo do modelo.
+     */
+    @FunctionalInterface
+    interface Constructor<T> {
+
+        T create(Row row) throws SQLException;
+    }
+
+    /**
+     * Leitor do modelo na linha corrente de um resultado.
+     *
+     * @param <T> Tipo do modelo.
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+
+        T read() throws SQLException;
+    }
+
+    private final TableMetadata table;
+    private final Constructor<T> constructor;
+    private final Map<String, int[]> shapes = new ConcurrentHashMap<>();
+
+    RowMapper(TableMetadata table, Constructor<T> constructor) {
+        this.table = table;
+        this.constructor = constructor;
+    }
+
+    /**
+     * Prepara a leitura das linhas de um resultado, resolvendo (ou reaproveitando) as posições das colunas.
+     *
+     * @param rs O resultado a ser lido.
+     * @return O leitor do modelo na linha corrente de {@code rs}.
+     * @throws SQLException Se alguma coluna da tabela não estiver no resultado.
+     */
+    Reader<T> reader(ResultSet rs) throws SQLException {
+        Row row = new Row(rs, indexes(rs.getMetaData()));
+        return () -> constructor.create(row);
+    }
+
+    private int[] indexes(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        StringBuilder shape = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            shape.append(metaData.getColumnLabel(i)).append(',');
+        }
+        String key = shape.toString();
+        int[] indexes = shapes.get(key);
+        if (indexes == null) {
+            indexes = resolve(metaData, count);
+            if (shapes.size() >= MAX_SHAPES) {
+                shapes.clear();
+            }
+            shapes.put(key, indexes);
+        }
+        return indexes;
+    }
+
+    private int[] resolve(ResultSetMetaData metaData, int count) throws SQLException {
+        List<Column> columns = table.getColumns();
+        int[] indexes = new int[columns.size()];
+        for (int c = 0; c < columns.size(); c++) {
+            String name = columns.get(c).getName();
+            for (int i = 1; i <= count && indexes[c] == 0; i++) {
+                if (name.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                    indexes[c] = i;
+                }
+            }
+            if (indexes[c] == 0) {
+                throw new SQLException("Coluna " + name + " ausente no resultado de " + table.getTable());
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Linha corrente de um resultado, lida pela posição da coluna em {@link TableMetadata#getColumns()}.
+     */
+    static final class Row {
+
+        private final ResultSet rs;
+        private final int[] indexes;
+
+        private Row(ResultSet rs, int[] indexes) {
+            this.rs = rs;
+            this.indexes = indexes;
+        }
+
+        long getLong(int column) throws SQLException {
+            return rs.getLong(indexes[column]);
+        }
+
+        int getInt(int column) throws SQLException {
+            return rs.getInt(indexes[column]);
+        }
+
+        double getDouble(int column) throws SQLException {
+            return rs.getDouble(indexes[column]);
+        }
+
+        String getString(int column) throws SQLException {
+            return rs.getString(indexes[column]);
+        }
+
+        /**
+         * Lê um indicador 'S'/'N' como booleano.
+         */
+        boolean getFlag(int column) throws SQLException {
+            return "S".equals(rs.getString(indexes[column]));
+        }
+    }
+}
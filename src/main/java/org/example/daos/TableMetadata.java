@@ -0,0 +1,125 @@
+package org.example.daos;
+
+import org.example.exceptions.InvalidQueryException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Descrição de uma tabela: nome, chave primária e colunas, com os campos JSON correspondentes.
+ *
+ * <p>Cada DAO declara a sua tabela uma única vez; consultas que dependem dos campos pedidos pelo cliente
+ * (projeção de colunas, por exemplo) montam o SQL a partir desta descrição, validando os campos contra ela.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class TableMetadata {
+
+    private final String table;
+    private final Column id;
+    private final List<Column> columns;
+    private final Map<String, Column> byField = new LinkedHashMap<>();
+
+    /**
+     * @param table   Nome da tabela.
+     * @param id      Coluna da chave primária.
+     * @param columns Demais colunas, na ordem em que devem ser lidas.
+     */
+    TableMetadata(String table, Column id, Column... columns) {
+        this.table = table;
+        this.id = id;
+        List<Column> todas = new ArrayList<>();
+        todas.add(id);
+        todas.addAll(Arrays.asList(columns));
+        this.columns = Collections.unmodifiableList(todas);
+        for (Column column : this.columns) {
+            byField.put(column.getField(), column);
+        }
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    Column getId() {
+        return id;
+    }
+
+    /**
+     * Todas as colunas da tabela, começando pela chave primária.
+     */
+    List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Retorna a coluna de um campo JSON.
+     *
+     * @param field O nome do campo.
+     * @return A coluna correspondente.
+     * @throws InvalidQueryException Se o campo não existir nesta tabela.
+     */
+    Column column(String field) {
+        Column column = byField.get(field);
+        if (column == null) {
+            throw new InvalidQueryException("Campo desconhecido: " + field + ". Campos disponíveis: "
+                    + String.join(", ", byField.keySet()));
+        }
+        return column;
+    }
+
+    /**
+     * Retorna a coluna de um campo usado em filtro ou ordenação.
+     *
+     * @param field O nome do campo.
+     * @return A coluna correspondente.
+     * @throws InvalidQueryException Se o campo não existir ou não for liberado para filtros nesta tabela.
+     */
+    Column filterColumn(String field) {
+        Column column = column(field);
+        if (column != id && !column.isFilterable()) {
+            throw new InvalidQueryException("Campo não permitido em filtros ou ordenação: " + field
+                    + ". Campos permitidos: " + columns.stream()
+                    .filter(c -> c == id || c.isFilterable())
+                    .map(Column::getField)
+                    .collect(Collectors.joining(", ")));
+        }
+        return column;
+    }
+
+    /**
+     * Colunas a ler para os campos pedidos: a chave primária sempre, seguida dos demais campos na ordem
+     * da tabela.
+     *
+     * @param fields Campos JSON pedidos.
+     * @return As colunas projetadas.
+     * @throws InvalidQueryException Se algum campo não existir nesta tabela.
+     */
+    List<Column> project(Set<String> fields) {
+        for (String field : fields) {
+            column(field);
+        }
+        return columns.stream()
+                .filter(column -> column == id || fields.contains(column.getField()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Monta {@code SELECT <colunas> FROM <tabela>} para as colunas informadas.
+     *
+     * @param projected As colunas a ler, na ordem do resultado.
+     * @return O início da consulta, sem cláusula {@code WHERE}.
+     */
+    String select(List<Column> projected) {
+        return projected.stream()
+                .map(Column::getName)
+                .collect(Collectors.joining(", ", "SELECT ", " FROM " + table));
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.daos;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Criação ou atualização de vários registros de uma tabela pela chave natural, com um único {@code MERGE}.
+ *
+ * <p>As linhas recebidas entram no {@code MERGE} como uma origem {@code SELECT ... FROM DUAL UNION ALL ...}:
+ * as que já existem (mesma chave natural) são atualizadas e as demais são inseridas. Como o Oracle não
+ * devolve IDs de um {@code MERGE}, eles são lidos em seguida por uma consulta pela chave. Usa as mesmas
+ * colunas e valores da {@link BatchInsert} do DAO; a chave natural precisa ter índice único.</p>
+ *
+ * @param <T> Tipo do modelo gravado.
+ * @version 1.0
+ * @since 1.1
+ */
+final class Upsert<T> {
+
+    // Limite do Oracle para a quantidade de valores em uma lista IN.
+    private static final int MAX_IN = 1000;
+
+    private final BatchInsert<T> insert;
+    private final TableMetadata table;
+    private final List<Column> columns;
+    private final Column key;
+    private final int keyIndex;
+    private final String matched;
+
+    /**
+     * @param insert   A inserção em lote do DAO, de onde vêm as colunas, os valores e a atribuição do ID.
+     * @param keyField Campo JSON da chave natural.
+     */
+    Upsert(BatchInsert<T> insert, String keyField) {
+        this.insert = insert;
+        this.table = insert.getTable();
+        this.columns = insert.getColumns();
+        this.key = table.column(keyField);
+        this.keyIndex = columns.indexOf(key);
+        if (keyIndex < 0) {
+            throw new IllegalArgumentException("Chave natural inválida para " + table.getTable() + ": " + keyField);
+        }
+        String colunas = columns.stream().map(Column::getName).collect(Collectors.joining(", "));
+        this.matched = " ON (t." + key.getName() + " = s." + key.getName() + ")"
+                + " WHEN MATCHED THEN UPDATE SET "
+                + columns.stream()
+                        .filter(column -> column != key)
+                        .map(column -> "t." + column.getName() + " = s." + column.getName())
+                        .collect(Collectors.joining(", "))
+                + " WHEN NOT MATCHED THEN INSERT (" + colunas + ") VALUES ("
+                + columns.stream().map(column -> "s." + column.getName()).collect(Collectors.joining(", "))
+                + ")";
+    }
+
+    /**
+     * Cria ou atualiza os registros e atribui a cada um o seu ID. As chaves naturais do lote devem ser
+     * distintas e não nulas.
+     *
+     * @param itens      Os registros a gravar.
+     * @param connection Conexão com o banco de dados; a transação fica a cargo de quem chama.
+     * @throws SQLException Se algum registro não puder ser gravado.
+     */
+    void upsertAll(List<T> itens, Connection connection) throws SQLException {
+        if (itens.isEmpty()) {
+            return;
+        }
+        List<Object[]> linhas = new ArrayList<>(itens.size());
+        for (T item : itens) {
+            linhas.add(insert.values(item));
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement(merge(linhas.size()))) {
+            int index = 1;
+            for (Object[] linha : linhas) {
+                for (int c = 0; c < columns.size(); c++) {
+                    columns.get(c).bind(stmt, index++, linha[c]);
+                }
+            }
+            stmt.executeUpdate();
+        }
+
+        Map<Object, Long> ids = new HashMap<>();
+        for (int inicio = 0; inicio < linhas.size(); inicio += MAX_IN) {
+            List<Object[]> fatia = linhas.subList(inicio, Math.min(inicio + MAX_IN, linhas.size()));
+            try (PreparedStatement stmt = connection.prepareStatement(selectIds(fatia.size()))) {
+                for (int i = 0; i < fatia.size(); i++) {
+                    key.bind(stmt, i + 1, fatia.get(i)[keyIndex]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.put(key.read(rs, 1), rs.getLong(2));
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < itens.size(); i++) {
+            Long id = ids.get(linhas.get(i)[keyIndex]);
+            if (id == null) {
+                throw new SQLException("Registro " + i + " do lote não foi gravado em " + table.getTable());
+            }
+            insert.setId(itens.get(i), id);
+        }
+    }
+
+    private String merge(int linhas) {
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(table.getTable()).append(" t USING (SELECT ");
+        sql.append(columns.stream().map(column -> "? AS " + column.getName()).collect(Collectors.joining(", ")));
+        sql.append(" FROM DUAL");
+        String linha = " UNION ALL SELECT " + columns.stream().map(column -> "?").collect(Collectors.joining(", "))
+                + " FROM DUAL";
+        sql.append(linha.repeat(linhas - 1));
+        return sql.append(") s").append(matched).toString();
+    }
+
+    private String selectIds(int chaves) {
+        return "SELECT " + key.getName() + ", " + table.getId().getName() + " FROM " + table.getTable()
+                + " WHERE " + key.getName() + " IN ("
+                + String.join(", ", Collections.nCopies(chaves, "?")) + ")";
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.daos;
+
+import org.example.daos.interfaces.VeiculoDao;
+
+/**
+ * Factory para criar instâncias de VeiculoDao.
+ *
+ * <p>Essa factory cria instâncias da implementação {@link VeiculoDaoImpl}
+ * e retorna a interface {@link VeiculoDao} para as consultas unificadas de veículos.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class VeiculoDaoFactory {
+
+    /**
+     * Construtor privado para evitar a criação de instâncias da classe {@link VeiculoDaoFactory}.
+     *
+     * <p>Este construtor é privado para garantir que a factory seja utilizada apenas
+     * através de seus métodos estáticos, seguindo o padrão Singleton implícito.</p>
+     */
+    private VeiculoDaoFactory() {
+        // Construtor privado para impedir a criação de instâncias.
+    }
+
+    /**
+     * Cria e retorna uma nova instância de {@link VeiculoDaoImpl}.
+     *
+     * @return Uma implementação de {@link VeiculoDao} para veículos.
+     * @since 1.1
+     */
+    public static VeiculoDao create() {
+        return new VeiculoDaoImpl();
+    }
+}
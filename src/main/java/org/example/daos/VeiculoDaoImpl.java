@@ -0,0 +1,160 @@
+package org.example.daos;
+
+import org.example.config.DatabaseConnectionFactory;
+import org.example.daos.interfaces.VeiculoDao;
+import org.example.exceptions.InvalidQueryException;
+import org.example.models.Veiculo;
+import org.example.models.VeiculoComTipo;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Implementação de DAO para as consultas unificadas de veículos sobre G_ONIBUS, G_CARRO e G_MOTO.
+ *
+ * <p>As três tabelas são lidas por um único {@code UNION ALL}. Cada ramo lista a união das colunas das três
+ * tabelas ({@code NULL} nas que a tabela não tem) e uma coluna {@code tp_veiculo} com o tipo, de modo que cada
+ * linha é montada pelo {@link RowMapper} do DAO do seu tipo. Os filtros são repetidos em cada ramo, sobre
+ * colunas indexadas nas três tabelas (db/indices.sql).</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+class VeiculoDaoImpl implements VeiculoDao {
+
+    // Campos aceitos em filtros e ordenação: colunas de mesmo nome e com índice nas três tabelas.
+    private static final List<String> CAMPOS = List.of("placa", "idGaragem", "anoFabricacao");
+
+    private static final String TIPO = "tp_veiculo";
+
+    private static final List<Ramo<?>> RAMOS = List.of(
+            new Ramo<>("onibus", OnibusDaoImpl.TABELA, OnibusDaoImpl.MAPPER),
+            new Ramo<>("carro", CarroDaoImpl.TABELA, CarroDaoImpl.MAPPER),
+            new Ramo<>("moto", MotoDaoImpl.TABELA, MotoDaoImpl.MAPPER)
+    );
+
+    // União das colunas das três tabelas, na ordem em que aparecem no SELECT de todos os ramos.
+    private static final List<Column> COLUNAS = RAMOS.stream()
+            .flatMap(ramo -> ramo.table.getColumns().stream())
+            .collect(Collectors.toMap(Column::getName, column -> column, (a, b) -> a, LinkedHashMap::new))
+            .values().stream()
+            .collect(Collectors.toList());
+
+    private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+    /**
+     * Ramo do {@code UNION ALL}: uma tabela de veículos e o mapeador do seu modelo.
+     */
+    private static final class Ramo<T extends Veiculo> {
+
+        private final String tipo;
+        private final TableMetadata table;
+        private final RowMapper<T> mapper;
+
+        private Ramo(String tipo, TableMetadata table, RowMapper<T> mapper) {
+            this.tipo = tipo;
+            this.table = table;
+            this.mapper = mapper;
+        }
+
+        private String select(String where) {
+            Set<String> proprias = table.getColumns().stream().map(Column::getName).collect(Collectors.toSet());
+            return COLUNAS.stream()
+                    .map(column -> (proprias.contains(column.getName()) ? column.getName() : nulo(column))
+                            + " AS " + column.getName())
+                    .collect(Collectors.joining(", ", "SELECT '" + tipo + "' AS " + TIPO + ", ",
+                            " FROM " + table.getTable() + where));
+        }
+    }
+
+    /**
+     * Busca os veículos dos três tipos que atendem à consulta, em um único comando.
+     *
+     * @param consulta Filtros e ordenação sobre {@code placa}, {@code idGaragem} e {@code anoFabricacao}.
+     * @return Lista de veículos encontrados, cada um com o seu tipo.
+     * @throws InvalidQueryException Se a consulta usar outros campos ou pedir paginação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<VeiculoComTipo> find(Consulta consulta) throws SQLException {
+        if (consulta.getLimite() != null || consulta.getAfterId() != null) {
+            throw new InvalidQueryException("A listagem de veículos não é paginada");
+        }
+        StringBuilder where = new StringBuilder();
+        List<Column> paramColumns = new ArrayList<>();
+        List<Object> paramValues = new ArrayList<>();
+        String conector = " WHERE ";
+        for (Consulta.Filtro filtro : consulta.getFiltros()) {
+            Column column = coluna(filtro.getCampo());
+            where.append(conector).append(column.getName()).append(' ').append(filtro.getOperador().getSql()).append(" ?");
+            paramColumns.add(column);
+            paramValues.add(column.parse(filtro.getValor()));
+            conector = " AND ";
+        }
+
+        String union = RAMOS.stream()
+                .map(ramo -> ramo.select(where.toString()))
+                .collect(Collectors.joining(" UNION ALL "));
+        String sql = consulta.getOrdem().isEmpty() ? union : "SELECT * FROM (" + union + ") ORDER BY "
+                + consulta.getOrdem().stream()
+                .map(ordem -> coluna(ordem.getCampo()).getName() + (ordem.isDecrescente() ? " DESC" : ""))
+                .collect(Collectors.joining(", "))
+                + ", " + TIPO;
+
+        List<VeiculoComTipo> veiculos = new ArrayList<>();
+        try (Connection conn = DatabaseConnectionFactory.create().getReadOnly();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int r = 0; r < RAMOS.size(); r++) {
+                for (int i = 0; i < paramColumns.size(); i++) {
+                    paramColumns.get(i).bind(stmt, index++, paramValues.get(i));
+                }
+            }
+            stmt.setFetchSize(DatabaseConnectionFactory.streamFetchSize());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                Map<String, RowMapper.Reader<? extends Veiculo>> leitores = new HashMap<>();
+                for (Ramo<?> ramo : RAMOS) {
+                    leitores.put(ramo.tipo, ramo.mapper.reader(rs));
+                }
+                while (rs.next()) {
+                    String tipo = rs.getString(1);
+                    veiculos.add(new VeiculoComTipo(tipo, leitores.get(tipo).read()));
+                }
+            }
+        } catch (SQLException e) {
+            logger.warning("Erro ao buscar veículos: " + e.getMessage());
+            throw e;
+        }
+        return veiculos;
+    }
+
+    private static Column coluna(String campo) {
+        if (!CAMPOS.contains(campo)) {
+            throw new InvalidQueryException("Campo não permitido em filtros ou ordenação: " + campo
+                    + ". Campos permitidos: " + String.join(", ", CAMPOS));
+        }
+        return OnibusDaoImpl.TABELA.column(campo);
+    }
+
+    private static String nulo(Column column) {
+        switch (column.getType()) {
+            case LONG:
+            case INTEGER:
+            case DOUBLE:
+                return "CAST(NULL AS NUMBER)";
+            default:
+                return "CAST(NULL AS VARCHAR2(4000))";
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package org.example.daos.interfaces;
 
+import org.example.daos.Consulta;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
+import org.example.models.Alteracao;
 import org.example.models.EstacaoRecargaSolar;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Interface que define as operações CRUD para a entidade EstacaoRecargaSolar.
@@ -24,6 +30,102 @@ public interface EstacaoRecargaSolarDao {
      */
     List<EstacaoRecargaSolar> findAll() throws SQLException;
 
+    /**
+     * Busca as instâncias de EstacaoRecargaSolar que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista de instâncias de {@link EstacaoRecargaSolar} encontradas.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    List<EstacaoRecargaSolar> find(Consulta consulta) throws SQLException;
+
+    /**
+     * Busca as instâncias de EstacaoRecargaSolar que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException;
+
+    /**
+     * Percorre as instâncias de EstacaoRecargaSolar que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    void streamAll(Consulta consulta, Consumer<EstacaoRecargaSolar> action) throws SQLException;
+
+    /**
+     * Percorre as instâncias de EstacaoRecargaSolar que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException;
+
+    /**
+     * Busca uma EstacaoRecargaSolar pelo ID no banco de dados.
+     *
+     * @param id O ID da EstacaoRecargaSolar a ser buscada.
+     * @return A instância de {@link EstacaoRecargaSolar} encontrada.
+     * @throws NotFoundException Se a EstacaoRecargaSolar com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    EstacaoRecargaSolar findById(Long id) throws NotFoundException, SQLException;
+
+    /**
+     * Busca uma EstacaoRecargaSolar pelo ID lendo apenas as colunas dos campos informados.
+     *
+     * @param id O ID da EstacaoRecargaSolar a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da EstacaoRecargaSolar encontrada.
+     * @throws NotFoundException Se a EstacaoRecargaSolar com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException;
+
+    /**
+     * Busca várias instâncias de EstacaoRecargaSolar pelos IDs, em um único comando.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    Map<Long, EstacaoRecargaSolar> findByIds(Collection<Long> ids) throws SQLException;
+
+    /**
+     * Registra no log de alterações a mesma alteração para várias instâncias de EstacaoRecargaSolar.
+     *
+     * @param operacao O tipo da alteração.
+     * @param ids Os IDs das instâncias alteradas.
+     * @param connection Conexão da escrita; o registro faz parte da mesma transação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    void registrarAlteracoes(Alteracao.Operacao operacao, Collection<Long> ids, Connection connection) throws SQLException;
+
+    /**
+     * Percorre as alterações de EstacaoRecargaSolar posteriores ao token, na ordem de commit, com o registro atual de cada uma.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última, ou nulo para todas.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    void streamAlteracoes(long desde, Integer limite, Consumer<Alteracao<EstacaoRecargaSolar>> action) throws SQLException;
+
+    /**
+     * Busca o token da alteração mais recente de EstacaoRecargaSolar já confirmada.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    long findUltimaAlteracao() throws SQLException;
+
 
     /**
      * Remove uma EstacaoRecargaSolar pelo ID no banco de dados.
@@ -46,6 +148,15 @@ public interface EstacaoRecargaSolarDao {
      */
     EstacaoRecargaSolar save(EstacaoRecargaSolar estacaoRecargaSolar, Connection connection) throws SQLException, NotSavedException;
 
+    /**
+     * Salva várias instâncias novas de EstacaoRecargaSolar com um único comando, atribuindo a cada uma o ID gerado.
+     *
+     * @param estacoes As instâncias de EstacaoRecargaSolar a serem salvas.
+     * @param connection Conexão com o banco de dados.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados; nesse caso, nenhum ID é atribuído.
+     */
+    void saveAll(List<EstacaoRecargaSolar> estacoes, Connection connection) throws SQLException;
+
     /**
      * Atualiza uma EstacaoRecargaSolar existente no banco de dados.
      *
@@ -56,4 +167,15 @@ public interface EstacaoRecargaSolarDao {
      * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
      */
     EstacaoRecargaSolar update(EstacaoRecargaSolar estacaoRecargaSolar, Connection connection) throws NotFoundException, SQLException;
+
+    /**
+     * Atualiza apenas os campos informados de uma EstacaoRecargaSolar (JSON Merge Patch).
+     *
+     * @param id O ID da EstacaoRecargaSolar a ser atualizada.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @param connection Conexão com o banco de dados.
+     * @throws NotFoundException Se a EstacaoRecargaSolar com o ID fornecido não for encontrada.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    void patch(Long id, Map<String, Object> campos, Connection connection) throws NotFoundException, SQLException;
 }
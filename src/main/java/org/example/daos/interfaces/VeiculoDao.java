@@ -0,0 +1,27 @@
+package org.example.daos.interfaces;
+
+import org.example.daos.Consulta;
+import org.example.exceptions.InvalidQueryException;
+import org.example.models.VeiculoComTipo;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Interface que define as consultas unificadas sobre os veículos (Onibus, Carro e Moto).
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public interface VeiculoDao {
+
+    /**
+     * Busca os veículos dos três tipos que atendem aos filtros e à ordenação da consulta, em um único comando.
+     *
+     * @param consulta Filtros e ordenação sobre {@code placa}, {@code idGaragem} e {@code anoFabricacao}.
+     * @return Lista de veículos encontrados, cada um com o seu tipo.
+     * @throws InvalidQueryException Se a consulta usar outros campos ou pedir paginação.
+     * @throws SQLException Se ocorrer um erro ao acessar o banco de dados.
+     */
+    List<VeiculoComTipo> find(Consulta consulta) throws SQLException;
+}
@@ -0,0 +1,43 @@
+package org.example.dtos;
+
+import java.util.List;
+
+/**
+ * DTO para transferência de uma página da sincronização incremental ({@code /changes}).
+ *
+ * <p>A classe `AlteracoesDto` traz as alterações posteriores ao token pedido, na ordem de commit, e o token a
+ * ser enviado em {@code since} na próxima chamada, haja ou não mais alterações.</p>
+ *
+ * @param <T> Tipo das alterações.
+ * @version 1.0
+ * @since 1.1
+ */
+public class AlteracoesDto<T> {
+
+    // Alterações da página, na ordem de commit.
+    private final List<T> itens;
+
+    // Token da última alteração entregue; enviado em since= para continuar a sincronização.
+    private final long proximoToken;
+
+    // Indica se já há alterações depois desta página.
+    private final boolean temMais;
+
+    public AlteracoesDto(List<T> itens, long proximoToken, boolean temMais) {
+        this.itens = itens;
+        this.proximoToken = proximoToken;
+        this.temMais = temMais;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public long getProximoToken() {
+        return proximoToken;
+    }
+
+    public boolean isTemMais() {
+        return temMais;
+    }
+}
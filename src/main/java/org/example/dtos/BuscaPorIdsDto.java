@@ -0,0 +1,47 @@
+package org.example.dtos;
+
+import java.util.List;
+
+/**
+ * DTO para transferência do resultado de uma busca por uma lista de IDs.
+ *
+ * <p>A classe `BuscaPorIdsDto` traz os registros encontrados na ordem em que os IDs foram pedidos e, à
+ * parte, os IDs que não correspondem a nenhum registro.</p>
+ *
+ * @param <T> Tipo dos itens encontrados.
+ * @version 1.0
+ * @since 1.1
+ */
+public class BuscaPorIdsDto<T> {
+
+    // Registros encontrados, na ordem dos IDs pedidos.
+    private final List<T> itens;
+
+    // IDs pedidos sem registro correspondente, na ordem em que foram pedidos.
+    private final List<Long> naoEncontrados;
+
+    public BuscaPorIdsDto(List<T> itens, List<Long> naoEncontrados) {
+        this.itens = itens;
+        this.naoEncontrados = naoEncontrados;
+    }
+
+    /**
+     * Obtém os registros encontrados.
+     *
+     * @return Os registros, na ordem dos IDs pedidos.
+     * @since 1.1
+     */
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * Obtém os IDs pedidos que não foram encontrados.
+     *
+     * @return Os IDs sem registro correspondente.
+     * @since 1.1
+     */
+    public List<Long> getNaoEncontrados() {
+        return naoEncontrados;
+    }
+}
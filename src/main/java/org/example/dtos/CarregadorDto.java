@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.Carregador;
+
 /**
  * DTO para transferência de dados da entidade Carregador.
  *
@@ -145,4 +147,20 @@ public class CarregadorDto {
                 ", idEstacaoRecargaSolar=" + idEstacaoRecargaSolar +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo Carregador.
+     *
+     * @param id O ID do carregador: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public Carregador toModel(Long id) {
+        return new Carregador(
+                id,
+                getPotencia(),
+                getStatus(),
+                getIdEstacaoRecargaSolar()
+        );
+    }
 }
@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.Carro;
+
 /**
  * DTO para transferência de dados da entidade Carro.
  *
@@ -242,4 +244,25 @@ public class CarroDto {
                 ", idGaragem=" + idGaragem +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo Carro.
+     *
+     * @param id O ID do carro: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public Carro toModel(Long id) {
+        return new Carro(
+                id,
+                getPrefixo(),
+                getPlaca(),
+                getModelo(),
+                getFabricante(),
+                getAnoFabricacao(),
+                getCapacidadeBateria(),
+                getNumeroPortas(),
+                getIdGaragem()
+        );
+    }
 }
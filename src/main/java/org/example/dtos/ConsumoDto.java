@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.Consumo;
+
 /**
  * DTO para transferência de dados da entidade Consumo.
  *
@@ -146,4 +148,21 @@ public class ConsumoDto {
                 ", idOnibus=" + idOnibus +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo Consumo.
+     *
+     * @param id O ID do consumo: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public Consumo toModel(Long id) {
+        return new Consumo(
+                id,
+                getConsumoPorKm(),
+                getDistanciaPercorrida(),
+                getEnergiaTotalConsumida(),
+                getIdOnibus()
+        );
+    }
 }
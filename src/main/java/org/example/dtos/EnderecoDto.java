@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.Endereco;
+
 /**
  * DTO para transferência de dados da entidade Endereco.
  *
@@ -217,4 +219,23 @@ public class EnderecoDto {
                 ", idReferencia=" + idReferencia +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo Endereco.
+     *
+     * @param id O ID do endereço: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public Endereco toModel(Long id) {
+        return new Endereco(
+                id,
+                getLogradouro(),
+                getNumero(),
+                getBairro(),
+                getCidade(),
+                getUf(),
+                getIdReferencia()
+        );
+    }
 }
@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.EstacaoRecargaSolar;
+
 /**
  * DTO para transferência de dados da entidade EstacaoRecargaSolar.
  *
@@ -194,4 +196,22 @@ public class EstacaoRecargaSolarDto {
                 ", idGaragem=" + idGaragem +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo EstacaoRecargaSolar.
+     *
+     * @param id O ID da estação de recarga solar: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public EstacaoRecargaSolar toModel(Long id) {
+        return new EstacaoRecargaSolar(
+                id,
+                getPotenciaMaxima(),
+                getNumeroPaineis(),
+                getEnergiaGerada(),
+                getOcupada(),
+                getIdGaragem()
+        );
+    }
 }
@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.Garagem;
+
 /**
  * DTO para transferência de dados da entidade Garagem.
  *
@@ -121,4 +123,19 @@ public class GaragemDto {
                 ", capacidadeOnibus=" + capacidadeOnibus +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo Garagem.
+     *
+     * @param id O ID da garagem: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public Garagem toModel(Long id) {
+        return new Garagem(
+                id,
+                getNome(),
+                getCapacidadeOnibus()
+        );
+    }
 }
@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.LinhaDeOnibus;
+
 /**
  * DTO para transferência de dados da entidade LinhaDeOnibus.
  *
@@ -121,4 +123,19 @@ public class LinhaDeOnibusDto {
                 ", endereco=" + (endereco != null ? endereco.toString() : "Não informado") +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo LinhaDeOnibus.
+     *
+     * @param id O ID da linha de ônibus: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public LinhaDeOnibus toModel(Long id) {
+        return new LinhaDeOnibus(
+                id,
+                getCodigoLinha(),
+                getNome()
+        );
+    }
 }
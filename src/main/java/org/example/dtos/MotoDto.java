@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.Moto;
+
 /**
  * DTO para transferência de dados da entidade Moto.
  *
@@ -241,4 +243,25 @@ public class MotoDto {
                 ", capacidadeBateria=" + capacidadeBateria +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo Moto.
+     *
+     * @param id O ID da moto: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public Moto toModel(Long id) {
+        return new Moto(
+                id,
+                getPrefixo(),
+                getPlaca(),
+                getModelo(),
+                getFabricante(),
+                getAnoFabricacao(),
+                getCapacidadeBateria(),
+                getTipoLicenca(),
+                getIdGaragem()
+        );
+    }
 }
@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.Onibus;
+
 /**
  * DTO para transferência de dados da entidade Ônibus.
  *
@@ -314,4 +316,28 @@ public class OnibusDto {
                 ", idGaragem=" + (idGaragem != null ? idGaragem : "Nenhuma") +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo Onibus.
+     *
+     * @param id O ID do ônibus: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public Onibus toModel(Long id) {
+        return new Onibus(
+                id,
+                getPrefixo(),
+                getPlaca(),
+                getModelo(),
+                getFabricante(),
+                getAnoFabricacao(),
+                getCapacidadeBateria(),
+                getCapacidadePassageiros(),
+                getPainelSolar(),
+                getPeliculaSolar(),
+                getIdLinha(),
+                getIdGaragem()
+        );
+    }
 }
@@ -0,0 +1,102 @@
+package org.example.dtos;
+
+import java.util.Map;
+
+/**
+ * DTO de uma operação do endpoint de operações em lote ({@code POST /rest/batch}).
+ *
+ * <p>Cada operação cria, atualiza ou exclui um registro de uma entidade. Os valores {@code "$n"}, em
+ * {@code id} ou em {@code dados}, são referências ao ID da operação de índice {@code n} do mesmo lote,
+ * que precisa ser anterior a esta.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public class OperacaoDto {
+
+    // Tipo da operação: "create", "update" ou "delete".
+    private String operacao;
+
+    // Entidade alvo, com o mesmo nome do caminho do seu recurso REST (ex.: "garagem", "endereco-garagem").
+    private String entidade;
+
+    // ID do registro alvo de "update" e "delete": um número ou uma referência "$n".
+    private Object id;
+
+    // Campos JSON do registro: todos os dados em "create"; apenas os campos alterados em "update".
+    private Map<String, Object> dados;
+
+    // Getters e Setters
+
+    /**
+     * Obtém o tipo da operação.
+     *
+     * @return "create", "update" ou "delete".
+     */
+    public String getOperacao() {
+        return operacao;
+    }
+
+    /**
+     * Define o tipo da operação.
+     *
+     * @param operacao "create", "update" ou "delete".
+     */
+    public void setOperacao(String operacao) {
+        this.operacao = operacao;
+    }
+
+    /**
+     * Obtém a entidade alvo da operação.
+     *
+     * @return O nome da entidade.
+     */
+    public String getEntidade() {
+        return entidade;
+    }
+
+    /**
+     * Define a entidade alvo da operação.
+     *
+     * @param entidade O nome da entidade.
+     */
+    public void setEntidade(String entidade) {
+        this.entidade = entidade;
+    }
+
+    /**
+     * Obtém o ID do registro alvo.
+     *
+     * @return Um número, uma referência {@code "$n"} ou nulo.
+     */
+    public Object getId() {
+        return id;
+    }
+
+    /**
+     * Define o ID do registro alvo.
+     *
+     * @param id Um número ou uma referência {@code "$n"}.
+     */
+    public void setId(Object id) {
+        this.id = id;
+    }
+
+    /**
+     * Obtém os campos do registro.
+     *
+     * @return Os campos JSON e os seus valores.
+     */
+    public Map<String, Object> getDados() {
+        return dados;
+    }
+
+    /**
+     * Define os campos do registro.
+     *
+     * @param dados Os campos JSON e os seus valores.
+     */
+    public void setDados(Map<String, Object> dados) {
+        this.dados = dados;
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.Operador;
+
 /**
  * DTO para transferência de dados da entidade Operador.
  *
@@ -121,4 +123,20 @@ public class OperadorDto {
                 ", idGaragem=" + (idGaragem != null ? idGaragem : "Nenhuma") +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo Operador.
+     *
+     * @param id O ID do operador: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public Operador toModel(Long id) {
+        return new Operador(
+                id,
+                getNome(),
+                getCpf(),
+                getIdGaragem()
+        );
+    }
 }
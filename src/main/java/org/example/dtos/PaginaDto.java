@@ -0,0 +1,61 @@
+package org.example.dtos;
+
+import java.util.List;
+
+/**
+ * DTO para transferência de uma página de resultados de uma listagem.
+ *
+ * <p>A classe `PaginaDto` acompanha os itens da página com o cursor opaco da página seguinte. Quando
+ * `proximoCursor` é nulo, não há mais registros a listar.</p>
+ *
+ * @param <T> Tipo dos itens da página.
+ * @version 1.0
+ * @since 1.1
+ */
+public class PaginaDto<T> {
+
+    // Itens da página, em ordem crescente de ID.
+    private final List<T> itens;
+
+    // Cursor a ser enviado para obter a página seguinte, ou nulo na última página.
+    private final String proximoCursor;
+
+    // Quantidade máxima de itens solicitada por página.
+    private final int limite;
+
+    public PaginaDto(List<T> itens, String proximoCursor, int limite) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+        this.limite = limite;
+    }
+
+    /**
+     * Obtém os itens da página.
+     *
+     * @return Os itens da página.
+     * @since 1.1
+     */
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * Obtém o cursor da página seguinte.
+     *
+     * @return O cursor da página seguinte, ou {@code null} se esta for a última página.
+     * @since 1.1
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    /**
+     * Obtém o limite de itens por página.
+     *
+     * @return O limite de itens por página.
+     * @since 1.1
+     */
+    public int getLimite() {
+        return limite;
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.dtos;
 
+import org.example.models.PontoRecarga;
+
 /**
  * DTO para transferência de dados da entidade PontoRecarga.
  *
@@ -136,4 +138,20 @@ public class PontoRecargaDto {
                 ", idLinha=" + idLinha +
                 '}';
     }
+
+    /**
+     * Converte os dados deste DTO no modelo PontoRecarga.
+     *
+     * @param id O ID do ponto de recarga: nulo em um cadastro, ou o ID do registro a gravar.
+     * @return O modelo com os dados deste DTO.
+     * @since 1.1
+     */
+    public PontoRecarga toModel(Long id) {
+        return new PontoRecarga(
+                id,
+                getPotencia(),
+                isOcupado(),
+                getIdLinha()
+        );
+    }
 }
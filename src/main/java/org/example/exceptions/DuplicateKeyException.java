@@ -0,0 +1,7 @@
+package org.example.exceptions;
+
+public class DuplicateKeyException extends RuntimeException {
+  public DuplicateKeyException(String s) {
+    super(s);
+  }
+}
@@ -0,0 +1,7 @@
+package org.example.exceptions;
+
+public class InvalidQueryException extends RuntimeException {
+  public InvalidQueryException(String s) {
+    super(s);
+  }
+}
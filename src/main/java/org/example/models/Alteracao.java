@@ -0,0 +1,75 @@
+package org.example.models;
+
+/**
+ * Alteração de um registro, lida do log de alterações para a sincronização incremental ({@code /changes}).
+ *
+ * <p>As alterações de um mesmo registro depois do token pedido são agregadas em uma só: a exclusão, se o
+ * registro não existe mais (com {@code registro} nulo), ou a inserção ou atualização, com o registro atual.</p>
+ *
+ * @param <T> Tipo do registro.
+ * @version 1.0
+ * @since 1.1
+ */
+public class Alteracao<T> {
+
+    /**
+     * Tipo da alteração, gravado no log pelo seu código.
+     */
+    public enum Operacao {
+        INSERCAO("I"),
+        ATUALIZACAO("U"),
+        EXCLUSAO("D");
+
+        private final String codigo;
+
+        Operacao(String codigo) {
+            this.codigo = codigo;
+        }
+
+        public String getCodigo() {
+            return codigo;
+        }
+
+        /**
+         * @param codigo O código gravado no log.
+         * @return A operação do código.
+         * @throws IllegalArgumentException Se o código não corresponder a nenhuma operação.
+         */
+        public static Operacao of(String codigo) {
+            for (Operacao operacao : values()) {
+                if (operacao.codigo.equals(codigo)) {
+                    return operacao;
+                }
+            }
+            throw new IllegalArgumentException("Operação de alteração desconhecida: " + codigo);
+        }
+    }
+
+    private final long token; // SCN de commit da alteração; enviado em since= para obter as seguintes
+    private final Operacao operacao; // Inserção, atualização ou exclusão
+    private final Long id; // ID do registro alterado
+    private final T registro; // Registro atual, ou nulo se foi excluído
+
+    public Alteracao(long token, Operacao operacao, Long id, T registro) {
+        this.token = token;
+        this.operacao = operacao;
+        this.id = id;
+        this.registro = registro;
+    }
+
+    public long getToken() {
+        return token;
+    }
+
+    public Operacao getOperacao() {
+        return operacao;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public T getRegistro() {
+        return registro;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.models;
+
+/**
+ * Mudança de situação de um carregador ({@code status}), de uma estação de recarga solar ({@code ocupada}) ou
+ * de um ponto de recarga ({@code ocupado}), enviada aos clientes de {@code /rest/eventos/recarga}.
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public class EventoRecarga {
+
+    private final String tipo; // Recurso do registro: "carregador", "estacao-recarga-solar" ou "ponto-recarga"
+    private final Long id; // ID do registro
+    private final String campo; // Campo alterado: "status", "ocupada" ou "ocupado"
+    private final Object valor; // Novo valor do campo
+    private final Long idEstacaoRecargaSolar; // Estação do carregador, ou nulo
+    private final Long idGaragem; // Garagem da estação (ou da estação do carregador), ou nulo
+    private final Long idLinha; // Linha do ponto de recarga, ou nulo
+    private final String instante; // Momento da confirmação da alteração (ISO-8601, UTC)
+
+    public EventoRecarga(String tipo, Long id, String campo, Object valor, Long idEstacaoRecargaSolar,
+                         Long idGaragem, Long idLinha, String instante) {
+        this.tipo = tipo;
+        this.id = id;
+        this.campo = campo;
+        this.valor = valor;
+        this.idEstacaoRecargaSolar = idEstacaoRecargaSolar;
+        this.idGaragem = idGaragem;
+        this.idLinha = idLinha;
+        this.instante = instante;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCampo() {
+        return campo;
+    }
+
+    public Object getValor() {
+        return valor;
+    }
+
+    public Long getIdEstacaoRecargaSolar() {
+        return idEstacaoRecargaSolar;
+    }
+
+    public Long getIdGaragem() {
+        return idGaragem;
+    }
+
+    public Long getIdLinha() {
+        return idLinha;
+    }
+
+    public String getInstante() {
+        return instante;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.models;
+
+import java.util.List;
+
+/**
+ * Visão agregada de uma garagem: a garagem com o seu endereço e tudo o que está alocado nela
+ * (ônibus, carros, motos, operadores e estações de recarga solar).
+ *
+ * <p>É montada pelo DAO de garagens em uma única consulta, para que telas de visão geral não precisem
+ * buscar cada listagem separadamente.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public class GaragemCompleta {
+
+    private final Garagem garagem; // Garagem, com o endereço preenchido quando houver
+    private final List<Onibus> onibus; // Ônibus alocados na garagem
+    private final List<Carro> carros; // Carros alocados na garagem
+    private final List<Moto> motos; // Motos alocadas na garagem
+    private final List<Operador> operadores; // Operadores alocados na garagem
+    private final List<EstacaoRecargaSolar> estacoes; // Estações de recarga solar da garagem
+
+    /**
+     * Construtor completo da visão agregada.
+     *
+     * @param garagem    Garagem, com o endereço preenchido quando houver.
+     * @param onibus     Ônibus alocados na garagem.
+     * @param carros     Carros alocados na garagem.
+     * @param motos      Motos alocadas na garagem.
+     * @param operadores Operadores alocados na garagem.
+     * @param estacoes   Estações de recarga solar da garagem.
+     */
+    public GaragemCompleta(Garagem garagem, List<Onibus> onibus, List<Carro> carros, List<Moto> motos,
+                           List<Operador> operadores, List<EstacaoRecargaSolar> estacoes) {
+        this.garagem = garagem;
+        this.onibus = onibus;
+        this.carros = carros;
+        this.motos = motos;
+        this.operadores = operadores;
+        this.estacoes = estacoes;
+    }
+
+    public Garagem getGaragem() {
+        return garagem;
+    }
+
+    public List<Onibus> getOnibus() {
+        return onibus;
+    }
+
+    public List<Carro> getCarros() {
+        return carros;
+    }
+
+    public List<Moto> getMotos() {
+        return motos;
+    }
+
+    public List<Operador> getOperadores() {
+        return operadores;
+    }
+
+    public List<EstacaoRecargaSolar> getEstacoes() {
+        return estacoes;
+    }
+}
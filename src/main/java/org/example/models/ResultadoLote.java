@@ -0,0 +1,63 @@
+package org.example.models;
+
+/**
+ * Resultado de um item de uma operação em lote: o ID gerado, se o item foi salvo, ou a mensagem de erro.
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public class ResultadoLote {
+
+    private final int indice; // Posição do item na requisição, a partir de 0
+    private final Long id; // ID gerado, ou nulo se o item não foi salvo
+    private final String mensagem; // Motivo da falha, ou nulo se o item foi salvo
+
+    private ResultadoLote(int indice, Long id, String mensagem) {
+        this.indice = indice;
+        this.id = id;
+        this.mensagem = mensagem;
+    }
+
+    /**
+     * Resultado de um item salvo.
+     *
+     * @param indice Posição do item na requisição.
+     * @param id     ID gerado para o item.
+     * @return O resultado de sucesso.
+     */
+    public static ResultadoLote sucesso(int indice, Long id) {
+        return new ResultadoLote(indice, id, null);
+    }
+
+    /**
+     * Resultado de um item que não pôde ser salvo.
+     *
+     * @param indice   Posição do item na requisição.
+     * @param mensagem Motivo da falha.
+     * @return O resultado de falha.
+     */
+    public static ResultadoLote falha(int indice, String mensagem) {
+        return new ResultadoLote(indice, null, mensagem);
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    /**
+     * Indica se o item foi salvo.
+     *
+     * @return {@code true} se o item recebeu um ID.
+     */
+    public boolean isSucesso() {
+        return id != null;
+    }
+}
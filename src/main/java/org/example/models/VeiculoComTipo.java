@@ -0,0 +1,31 @@
+package org.example.models;
+
+/**
+ * Veículo de qualquer tipo (ônibus, carro ou moto) acompanhado do seu tipo, usado nas consultas que
+ * percorrem as três tabelas de veículos de uma só vez.
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public class VeiculoComTipo {
+
+    private final String tipo; // Tipo do veículo, igual ao caminho do seu recurso REST: "onibus", "carro" ou "moto"
+    private final Veiculo veiculo; // O veículo, com todos os campos do seu tipo
+
+    /**
+     * @param tipo    Tipo do veículo: "onibus", "carro" ou "moto".
+     * @param veiculo O veículo.
+     */
+    public VeiculoComTipo(String tipo, Veiculo veiculo) {
+        this.tipo = tipo;
+        this.veiculo = veiculo;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Veiculo getVeiculo() {
+        return veiculo;
+    }
+}
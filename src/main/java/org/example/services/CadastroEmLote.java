@@ -0,0 +1,221 @@
+package org.example.services;
+
+import org.example.config.DatabaseConnectionFactory;
+import org.example.models.ResultadoLote;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Gravação em lote compartilhada pelos serviços (cadastro e sincronização por chave natural): grava os itens
+ * em blocos de {@link DatabaseConnectionFactory#batchChunkSize()} registros, todos na mesma transação.
+ *
+ * <p>Cada bloco é protegido por um savepoint. Se o bloco falhar, ele é desfeito e os seus itens são
+ * reinseridos um a um, para que apenas os itens com problema sejam recusados; o restante do lote segue
+ * normalmente. O resultado informa, item a item, o ID gerado ou o motivo da recusa.</p>
+ *
+ * <p>Os IDs gravados por cada bloco (ou item) são registrados no log de alterações dentro do mesmo savepoint,
+ * de modo que um item recusado não deixa alteração registrada.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class CadastroEmLote {
+
+    private static final Logger LOGGER = Logger.getLogger(CadastroEmLote.class.getName());
+
+    /**
+     * Gravação de vários registros na conexão informada, atribuindo a cada um o seu ID.
+     *
+     * @param <T> Tipo do modelo.
+     */
+    @FunctionalInterface
+    interface Gravacao<T> {
+
+        void gravar(List<T> itens, Connection connection) throws SQLException;
+    }
+
+    /**
+     * Registro, no log de alterações, dos IDs gravados na conexão informada.
+     */
+    @FunctionalInterface
+    interface Registro {
+
+        void registrar(List<Long> ids, Connection connection) throws SQLException;
+    }
+
+    private CadastroEmLote() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Cadastra os itens informados; itens que já possuem ID são recusados.
+     *
+     * @param itens         Os itens a cadastrar.
+     * @param id            Função que lê o ID de um item.
+     * @param mensagemComId Mensagem para os itens que já possuem ID (e não podem ser criados).
+     * @param mensagemErro  Mensagem para os itens recusados pelo banco.
+     * @param insercao      Inserção em bloco do DAO.
+     * @param registro      Registro das inserções no log de alterações.
+     * @param <T>           Tipo do modelo.
+     * @return O resultado de cada item, na ordem recebida.
+     * @throws SQLException Se a transação não puder ser concluída.
+     */
+    static <T> List<ResultadoLote> cadastrar(List<T> itens, Function<T, Long> id, String mensagemComId,
+                                             String mensagemErro, Gravacao<T> insercao, Registro registro)
+            throws SQLException {
+        return cadastrar(itens, id, mensagemComId, item -> null, mensagemErro, insercao, registro);
+    }
+
+    /**
+     * Cadastra os itens informados; itens que já possuem ID, ou cuja chave natural já está cadastrada, são
+     * recusados.
+     *
+     * @param itens         Os itens a cadastrar.
+     * @param id            Função que lê o ID de um item.
+     * @param mensagemComId Mensagem para os itens que já possuem ID (e não podem ser criados).
+     * @param conflito      Função que retorna o motivo da recusa de um item por chave duplicada, ou nulo.
+     * @param mensagemErro  Mensagem para os itens recusados pelo banco.
+     * @param insercao      Inserção em bloco do DAO.
+     * @param registro      Registro das inserções no log de alterações.
+     * @param <T>           Tipo do modelo.
+     * @return O resultado de cada item, na ordem recebida.
+     * @throws SQLException Se a transação não puder ser concluída.
+     */
+    static <T> List<ResultadoLote> cadastrar(List<T> itens, Function<T, Long> id, String mensagemComId,
+                                             Function<T, String> conflito, String mensagemErro,
+                                             Gravacao<T> insercao, Registro registro) throws SQLException {
+        return gravar(itens, item -> id.apply(item) == null ? conflito.apply(item) : mensagemComId, id,
+                mensagemErro, insercao, registro);
+    }
+
+    /**
+     * Cria ou atualiza os itens informados pela chave natural; itens sem chave, ou com chave repetida no
+     * lote, são recusados.
+     *
+     * @param itens        Os itens a sincronizar.
+     * @param chave        Função que lê a chave natural de um item.
+     * @param campoChave   Nome do campo JSON da chave natural, usado nas mensagens.
+     * @param id           Função que lê o ID de um item, atribuído pela gravação.
+     * @param mensagemErro Mensagem para os itens recusados pelo banco.
+     * @param upsert       Gravação em bloco ({@code MERGE}) do DAO.
+     * @param registro     Registro das gravações no log de alterações.
+     * @param <T>          Tipo do modelo.
+     * @return O resultado de cada item, na ordem recebida.
+     * @throws SQLException Se a transação não puder ser concluída.
+     */
+    static <T> List<ResultadoLote> sincronizar(List<T> itens, Function<T, String> chave, String campoChave,
+                                               Function<T, Long> id, String mensagemErro, Gravacao<T> upsert,
+                                               Registro registro) throws SQLException {
+        return sincronizar(itens, chave, campoChave, valor -> null, id, mensagemErro, upsert, registro);
+    }
+
+    /**
+     * Cria ou atualiza os itens informados pela chave natural; itens sem chave, com chave repetida no lote ou
+     * com chave em uso por outra tabela são recusados.
+     *
+     * @param itens        Os itens a sincronizar.
+     * @param chave        Função que lê a chave natural de um item.
+     * @param campoChave   Nome do campo JSON da chave natural, usado nas mensagens.
+     * @param conflito     Função que retorna o motivo da recusa de uma chave em uso fora da tabela, ou nulo.
+     * @param id           Função que lê o ID de um item, atribuído pela gravação.
+     * @param mensagemErro Mensagem para os itens recusados pelo banco.
+     * @param upsert       Gravação em bloco ({@code MERGE}) do DAO.
+     * @param registro     Registro das gravações no log de alterações.
+     * @param <T>          Tipo do modelo.
+     * @return O resultado de cada item, na ordem recebida.
+     * @throws SQLException Se a transação não puder ser concluída.
+     */
+    static <T> List<ResultadoLote> sincronizar(List<T> itens, Function<T, String> chave, String campoChave,
+                                               Function<String, String> conflito, Function<T, Long> id,
+                                               String mensagemErro, Gravacao<T> upsert, Registro registro)
+            throws SQLException {
+        Set<String> chaves = new HashSet<>();
+        return gravar(itens, item -> {
+            String valor = chave.apply(item);
+            if (valor == null || valor.isBlank()) {
+                return "O campo " + campoChave + " é obrigatório.";
+            }
+            // Um MERGE não aceita duas linhas de origem para a mesma linha de destino.
+            return chaves.add(valor) ? conflito.apply(valor) : "O campo " + campoChave + " está repetido no lote.";
+        }, id, mensagemErro, upsert, registro);
+    }
+
+    private static <T> List<ResultadoLote> gravar(List<T> itens, Function<T, String> recusa, Function<T, Long> id,
+                                                  String mensagemErro, Gravacao<T> gravacao, Registro registro)
+            throws SQLException {
+        ResultadoLote[] resultados = new ResultadoLote[itens.size()];
+        List<Integer> pendentes = new ArrayList<>();
+        for (int i = 0; i < itens.size(); i++) {
+            String motivo = recusa.apply(itens.get(i));
+            if (motivo == null) {
+                pendentes.add(i);
+            } else {
+                resultados[i] = ResultadoLote.falha(i, motivo);
+            }
+        }
+
+        int bloco = DatabaseConnectionFactory.batchChunkSize();
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            for (int inicio = 0; inicio < pendentes.size(); inicio += bloco) {
+                List<Integer> indices = pendentes.subList(inicio, Math.min(inicio + bloco, pendentes.size()));
+                List<T> lote = new ArrayList<>(indices.size());
+                for (int indice : indices) {
+                    lote.add(itens.get(indice));
+                }
+
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    gravacao.gravar(lote, connection);
+                    List<Long> ids = new ArrayList<>(lote.size());
+                    for (T item : lote) {
+                        ids.add(id.apply(item));
+                    }
+                    registro.registrar(ids, connection);
+                    for (int indice : indices) {
+                        resultados[indice] = ResultadoLote.sucesso(indice, id.apply(itens.get(indice)));
+                    }
+                } catch (SQLException e) {
+                    connection.rollback(savepoint);
+                    LOGGER.fine("Bloco do lote recusado, gravando os itens um a um: " + e.getMessage());
+                    for (int indice : indices) {
+                        resultados[indice] = gravarItem(itens.get(indice), indice, id, mensagemErro, gravacao,
+                                registro, connection);
+                    }
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            LOGGER.warning("Erro ao gravar lote: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private static <T> ResultadoLote gravarItem(T item, int indice, Function<T, Long> id, String mensagemErro,
+                                                Gravacao<T> gravacao, Registro registro, Connection connection)
+            throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            gravacao.gravar(List.of(item), connection);
+            registro.registrar(List.of(id.apply(item)), connection);
+            return ResultadoLote.sucesso(indice, id.apply(item));
+        } catch (SQLException e) {
+            connection.rollback(savepoint);
+            LOGGER.warning("Item " + indice + " do lote recusado: " + e.getMessage());
+            return ResultadoLote.falha(indice, mensagemErro);
+        }
+    }
+}
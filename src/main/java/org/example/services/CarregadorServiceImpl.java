@@ -1,17 +1,27 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
 import org.example.daos.CarregadorDaoFactory;
+import org.example.daos.Consulta;
 import org.example.daos.interfaces.CarregadorDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Carregador;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.CarregadorService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +34,12 @@ import java.util.logging.Logger;
  */
 public final class CarregadorServiceImpl implements CarregadorService {
 
+    // Versão da tabela, base das ETags dos GETs do recurso; avança a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("carregador");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("carregador");
+
     private final CarregadorDao dao = CarregadorDaoFactory.create();
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -41,18 +57,46 @@ public final class CarregadorServiceImpl implements CarregadorService {
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 carregador = this.dao.save(carregador, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(carregador.getIdCarregador()), connection);
                 connection.commit();
+                VERSAO.bump();
+                EventosRecarga.publicar(carregador);
                 return carregador;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar o carregador: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Carregador já possui um ID e não pode ser criado.");
         }
     }
 
+    /**
+     * Cria várias instâncias de Carregador em blocos, na mesma transação.
+     *
+     * @param carregadores As instâncias de Carregador a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<Carregador> carregadores) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(carregadores, Carregador::getIdCarregador,
+                "Carregador já possui um ID e não pode ser criado.",
+                "Erro ao salvar o carregador: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        VERSAO.bump();
+        for (int i = 0; i < carregadores.size(); i++) {
+            if (resultados.get(i).isSucesso()) {
+                EventosRecarga.publicar(carregadores.get(i));
+            }
+        }
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todos os carregadores.
      *
@@ -60,7 +104,134 @@ public final class CarregadorServiceImpl implements CarregadorService {
      */
     @Override
     public List<Carregador> findAll() throws SQLException {
-        return this.dao.findAll();
+        return LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll()));
+    }
+
+    /**
+     * Busca carregadores que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com os carregadores encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Carregador> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca carregadores que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre carregadores que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Carregador> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre carregadores que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca um Carregador pelo ID.
+     *
+     * @param id O ID do Carregador a ser buscado.
+     * @return O Carregador encontrado.
+     * @throws NotFoundException Se o Carregador não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Carregador findById(Long id) throws NotFoundException, SQLException {
+        return this.dao.findById(id);
+    }
+
+    /**
+     * Busca um Carregador pelo ID com apenas os campos informados.
+     *
+     * @param id O ID do Carregador a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Carregador encontrado.
+     * @throws NotFoundException Se o Carregador não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de Carregador pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, Carregador> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de Carregador posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<Carregador>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<Carregador>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de Carregador posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<Carregador>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Carregador.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -76,12 +247,50 @@ public final class CarregadorServiceImpl implements CarregadorService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             carregador = this.dao.update(carregador, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(carregador.getIdCarregador()), connection);
             connection.commit();
+            VERSAO.bump();
+            EventosRecarga.publicar(carregador);
             return carregador;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar o carregador: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Carregador.
+     *
+     * @param id O ID do Carregador a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se o Carregador não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            VERSAO.bump();
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente o carregador: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
+        }
+        if (campos.containsKey("status")) {
+            EventosRecarga.reler(() -> this.dao.findById(id), EventosRecarga::publicar);
         }
     }
 
@@ -97,11 +306,16 @@ public final class CarregadorServiceImpl implements CarregadorService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            VERSAO.bump();
+            EventosRecarga.esquecer(EventosRecarga.CARREGADOR, id);
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir o carregador: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
\ No newline at end of file
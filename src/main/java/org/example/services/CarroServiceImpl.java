@@ -1,17 +1,27 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
 import org.example.daos.CarroDaoFactory;
+import org.example.daos.Consulta;
 import org.example.daos.interfaces.CarroDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Carro;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.CarroService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +34,12 @@ import java.util.logging.Logger;
  */
 public final class CarroServiceImpl implements CarroService {
 
+    // Versão da tabela, avançada a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("carro");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("carro");
+
     private final CarroDao dao = CarroDaoFactory.create();
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -38,21 +54,94 @@ public final class CarroServiceImpl implements CarroService {
     @Override
     public Carro create(Carro carro) throws UnsupportedServiceOperationException, SQLException, NotSavedException {
         if (carro.getIdCarro() == null) {
+            ChavesNaturais.verificar(ChavesNaturais.PLACAS, "placa", carro.getPlaca(), ChavesNaturais.CARRO, null);
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 carro = this.dao.save(carro, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(carro.getIdCarro()), connection);
                 connection.commit();
+                VERSAO.bump();
+                ChavesNaturais.PLACAS.put(ChavesNaturais.CARRO, carro.getIdCarro(), carro.getPlaca());
                 return carro;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar o carro: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Carro já possui um ID e não pode ser criado.");
         }
     }
 
+    /**
+     * Cria várias instâncias de Carro em blocos, na mesma transação.
+     *
+     * @param carros As instâncias de Carro a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<Carro> carros) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(carros, Carro::getIdCarro,
+                "Carro já possui um ID e não pode ser criado.",
+                item -> ChavesNaturais.conflito(ChavesNaturais.PLACAS, "placa", item.getPlaca(), ChavesNaturais.CARRO, null),
+                "Erro ao salvar o carro: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.PLACAS, ChavesNaturais.CARRO, carros, resultados, Carro::getPlaca);
+        return resultados;
+    }
+
+    /**
+     * Cria ou atualiza um Carro pela placa.
+     *
+     * @param carro O objeto Carro a ser gravado.
+     * @return O objeto Carro gravado, com o ID atribuído.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Carro upsert(Carro carro) throws SQLException {
+        ChavesNaturais.verificarSincronizacao(ChavesNaturais.PLACAS, "placa", carro.getPlaca(), ChavesNaturais.CARRO);
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.upsertAll(List.of(carro), connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(carro.getIdCarro()), connection);
+            connection.commit();
+            VERSAO.bump();
+            ChavesNaturais.PLACAS.put(ChavesNaturais.CARRO, carro.getIdCarro(), carro.getPlaca());
+            return carro;
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao sincronizar o carro: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de Carro pela placa, em blocos e na mesma transação.
+     *
+     * @param carros As instâncias de Carro a serem gravadas.
+     * @return O resultado de cada item: o ID gravado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> upsertAll(List<Carro> carros) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.sincronizar(carros, Carro::getPlaca, "placa",
+                chave -> ChavesNaturais.conflitoEntreTabelas(ChavesNaturais.PLACAS, "placa", chave, ChavesNaturais.CARRO),
+                Carro::getIdCarro,
+                "Erro ao salvar o carro: verifique os dados.",
+                this.dao::upsertAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, ids, connection));
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.PLACAS, ChavesNaturais.CARRO, carros, resultados, Carro::getPlaca);
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todos os carros.
      *
@@ -60,7 +149,134 @@ public final class CarroServiceImpl implements CarroService {
      */
     @Override
     public List<Carro> findAll() throws SQLException {
-        return this.dao.findAll();
+        return LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll()));
+    }
+
+    /**
+     * Busca carros que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com os carros encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Carro> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca carros que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre carros que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Carro> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre carros que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca um Carro pelo ID.
+     *
+     * @param id O ID do Carro a ser buscado.
+     * @return O Carro encontrado.
+     * @throws NotFoundException Se o Carro não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Carro findById(Long id) throws NotFoundException, SQLException {
+        return this.dao.findById(id);
+    }
+
+    /**
+     * Busca um Carro pelo ID com apenas os campos informados.
+     *
+     * @param id O ID do Carro a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Carro encontrado.
+     * @throws NotFoundException Se o Carro não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de Carro pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, Carro> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de Carro posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<Carro>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<Carro>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de Carro posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<Carro>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Carro.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -73,15 +289,57 @@ public final class CarroServiceImpl implements CarroService {
      */
     @Override
     public Carro update(Carro carro) throws NotFoundException, SQLException {
+        ChavesNaturais.verificar(ChavesNaturais.PLACAS, "placa", carro.getPlaca(), ChavesNaturais.CARRO, carro.getIdCarro());
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             carro = this.dao.update(carro, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(carro.getIdCarro()), connection);
             connection.commit();
+            VERSAO.bump();
+            ChavesNaturais.PLACAS.put(ChavesNaturais.CARRO, carro.getIdCarro(), carro.getPlaca());
             return carro;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar o carro: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Carro.
+     *
+     * @param id O ID do Carro a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se o Carro não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        if (campos.containsKey("placa")) {
+            ChavesNaturais.verificar(ChavesNaturais.PLACAS, "placa", ChavesNaturais.valor(campos, "placa"), ChavesNaturais.CARRO, id);
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            VERSAO.bump();
+            if (campos.containsKey("placa")) {
+                ChavesNaturais.PLACAS.put(ChavesNaturais.CARRO, id, ChavesNaturais.valor(campos, "placa"));
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente o carro: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
         }
     }
 
@@ -97,11 +355,16 @@ public final class CarroServiceImpl implements CarroService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            VERSAO.bump();
+            ChavesNaturais.PLACAS.remove(ChavesNaturais.CARRO, id);
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir o carro: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
@@ -0,0 +1,197 @@
+package org.example.services;
+
+import org.example.config.NaturalKeyIndex;
+import org.example.daos.CarroDaoFactory;
+import org.example.daos.LinhaDeOnibusDaoFactory;
+import org.example.daos.MotoDaoFactory;
+import org.example.daos.OnibusDaoFactory;
+import org.example.daos.OperadorDaoFactory;
+import org.example.daos.interfaces.CarroDao;
+import org.example.daos.interfaces.LinhaDeOnibusDao;
+import org.example.daos.interfaces.MotoDao;
+import org.example.daos.interfaces.OnibusDao;
+import org.example.daos.interfaces.OperadorDao;
+import org.example.exceptions.DuplicateKeyException;
+import org.example.exceptions.NotFoundException;
+import org.example.models.ResultadoLote;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Índices em memória das chaves naturais, usados pelos serviços para recusar duplicidades antes de ir ao banco:
+ * a placa (única entre ônibus, carros e motos), o CPF do operador e o código da linha.
+ *
+ * <p>Os índices são carregados dos DAOs no primeiro uso e mantidos pelos serviços depois de cada escrita
+ * confirmada. A verificação é apenas uma antecipação: o que escapar dela, como cadastros simultâneos da mesma
+ * chave, é recusado pelo banco, com os índices únicos de cada tabela (db/indices.sql) e, para a placa entre
+ * tabelas diferentes, pela chave primária da G_PLACA, mantida por gatilhos (db/placas.sql).</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class ChavesNaturais {
+
+    static final String ONIBUS = "onibus";
+    static final String CARRO = "carro";
+    static final String MOTO = "moto";
+    static final String OPERADOR = "operador";
+    static final String LINHA = "linha-onibus";
+
+    /**
+     * Placas dos veículos dos três tipos.
+     */
+    static final NaturalKeyIndex PLACAS = NaturalKeyIndex.of("placa");
+
+    /**
+     * CPFs dos operadores.
+     */
+    static final NaturalKeyIndex CPFS = NaturalKeyIndex.of("cpf");
+
+    /**
+     * Códigos das linhas de ônibus.
+     */
+    static final NaturalKeyIndex CODIGOS_LINHA = NaturalKeyIndex.of("codigoLinha");
+
+    static {
+        OnibusDao onibus = OnibusDaoFactory.create();
+        PLACAS.register(ONIBUS, source(onibus::findChavesNaturais, id -> onibus.findById(id).getPlaca()));
+        CarroDao carro = CarroDaoFactory.create();
+        PLACAS.register(CARRO, source(carro::findChavesNaturais, id -> carro.findById(id).getPlaca()));
+        MotoDao moto = MotoDaoFactory.create();
+        PLACAS.register(MOTO, source(moto::findChavesNaturais, id -> moto.findById(id).getPlaca()));
+        OperadorDao operador = OperadorDaoFactory.create();
+        CPFS.register(OPERADOR, source(operador::findChavesNaturais, id -> operador.findById(id).getCpf()));
+        LinhaDeOnibusDao linha = LinhaDeOnibusDaoFactory.create();
+        CODIGOS_LINHA.register(LINHA, source(linha::findChavesNaturais, id -> linha.findById(id).getCodigoLinha()));
+    }
+
+    @FunctionalInterface
+    private interface Carga {
+
+        Map<Long, String> carregar() throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Leitura {
+
+        String ler(Long id) throws SQLException;
+    }
+
+    private ChavesNaturais() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Verifica se a chave pode ser gravada no registro informado.
+     *
+     * @param index O índice da chave.
+     * @param campo Nome do campo JSON da chave, usado na mensagem.
+     * @param chave O valor da chave.
+     * @param tipo  Nome da tabela do registro no índice.
+     * @param id    ID do registro, ou nulo em um cadastro.
+     * @throws DuplicateKeyException Se a chave já pertencer a outro registro.
+     */
+    static void verificar(NaturalKeyIndex index, String campo, String chave, String tipo, Long id) {
+        String motivo = conflito(index, campo, chave, tipo, id);
+        if (motivo != null) {
+            throw new DuplicateKeyException(motivo);
+        }
+    }
+
+    /**
+     * Verifica se a chave pode ser gravada no registro informado.
+     *
+     * @return O motivo da recusa, ou nulo se a chave estiver livre ou já pertencer ao registro.
+     */
+    static String conflito(NaturalKeyIndex index, String campo, String chave, String tipo, Long id) {
+        if (chave == null) {
+            return null;
+        }
+        return index.find(chave)
+                .filter(owner -> !owner.is(tipo, id))
+                .map(owner -> mensagem(campo, chave))
+                .orElse(null);
+    }
+
+    /**
+     * Verifica se a chave pode ser sincronizada na tabela informada.
+     *
+     * @throws DuplicateKeyException Se a chave já pertencer a um registro de outra tabela.
+     */
+    static void verificarSincronizacao(NaturalKeyIndex index, String campo, String chave, String tipo) {
+        String motivo = conflitoEntreTabelas(index, campo, chave, tipo);
+        if (motivo != null) {
+            throw new DuplicateKeyException(motivo);
+        }
+    }
+
+    /**
+     * Verifica se a chave pode ser sincronizada na tabela informada: uma chave da mesma tabela apenas
+     * identifica o registro a atualizar.
+     *
+     * @return O motivo da recusa, ou nulo se a chave estiver livre ou pertencer à mesma tabela.
+     */
+    static String conflitoEntreTabelas(NaturalKeyIndex index, String campo, String chave, String tipo) {
+        if (chave == null) {
+            return null;
+        }
+        return index.find(chave)
+                .filter(owner -> !owner.getType().equals(tipo))
+                .map(owner -> mensagem(campo, chave))
+                .orElse(null);
+    }
+
+    /**
+     * Lê o novo valor de uma chave em uma atualização parcial.
+     *
+     * @return O valor como texto, ou nulo se o campo for limpo.
+     */
+    static String valor(Map<String, Object> campos, String campo) {
+        return Objects.toString(campos.get(campo), null);
+    }
+
+    /**
+     * Associa no índice as chaves dos itens gravados com sucesso em um lote.
+     *
+     * @param index      O índice da chave.
+     * @param tipo       Nome da tabela dos itens no índice.
+     * @param itens      Os itens do lote, na ordem recebida.
+     * @param resultados O resultado de cada item.
+     * @param chave      Função que lê a chave de um item.
+     * @param <T>        Tipo do modelo.
+     */
+    static <T> void registrar(NaturalKeyIndex index, String tipo, List<T> itens, List<ResultadoLote> resultados,
+                              Function<T, String> chave) {
+        for (ResultadoLote resultado : resultados) {
+            if (resultado.isSucesso()) {
+                index.put(tipo, resultado.getId(), chave.apply(itens.get(resultado.getIndice())));
+            }
+        }
+    }
+
+    private static String mensagem(String campo, String chave) {
+        return "O valor " + chave + " do campo " + campo + " já está cadastrado.";
+    }
+
+    private static NaturalKeyIndex.Source source(Carga carga, Leitura leitura) {
+        return new NaturalKeyIndex.Source() {
+            @Override
+            public Map<Long, String> loadAll() throws SQLException {
+                return carga.carregar();
+            }
+
+            @Override
+            public String keyOf(Long id) throws SQLException {
+                try {
+                    return leitura.ler(id);
+                } catch (NotFoundException e) {
+                    return null;
+                }
+            }
+        };
+    }
+}
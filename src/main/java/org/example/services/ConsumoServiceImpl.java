@@ -1,17 +1,27 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
+import org.example.daos.Consulta;
 import org.example.daos.ConsumoDaoFactory;
 import org.example.daos.interfaces.ConsumoDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Consumo;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.ConsumoService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +34,12 @@ import java.util.logging.Logger;
  */
 public final class ConsumoServiceImpl implements ConsumoService {
 
+    // Versão da tabela, avançada a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("consumo");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("consumo");
+
     private final ConsumoDao dao = ConsumoDaoFactory.create(); // Instância de DAO para Consumo
     private final Logger logger = Logger.getLogger(this.getClass().getName()); // Logger para registrar mensagens e eventos
 
@@ -41,18 +57,40 @@ public final class ConsumoServiceImpl implements ConsumoService {
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 consumo = this.dao.save(consumo, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(consumo.getIdConsumo()), connection);
                 connection.commit();
+                VERSAO.bump();
                 return consumo;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar o consumo: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Consumo já possui um ID e não pode ser criado.");
         }
     }
 
+    /**
+     * Cria várias instâncias de Consumo em blocos, na mesma transação.
+     *
+     * @param consumos As instâncias de Consumo a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<Consumo> consumos) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(consumos, Consumo::getIdConsumo,
+                "Consumo já possui um ID e não pode ser criado.",
+                "Erro ao salvar o consumo: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        VERSAO.bump();
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todos os registros de consumo.
      *
@@ -60,7 +98,134 @@ public final class ConsumoServiceImpl implements ConsumoService {
      */
     @Override
     public List<Consumo> findAll() throws SQLException {
-        return this.dao.findAll();
+        return LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll()));
+    }
+
+    /**
+     * Busca registros de consumo que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com os registros de consumo encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Consumo> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca registros de consumo que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre registros de consumo que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Consumo> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre registros de consumo que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca um registro de consumo pelo ID.
+     *
+     * @param id O ID do registro de consumo a ser buscado.
+     * @return O registro de consumo encontrado.
+     * @throws NotFoundException Se o registro de consumo não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Consumo findById(Long id) throws NotFoundException, SQLException {
+        return this.dao.findById(id);
+    }
+
+    /**
+     * Busca um registro de consumo pelo ID com apenas os campos informados.
+     *
+     * @param id O ID do registro de consumo a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do registro de consumo encontrado.
+     * @throws NotFoundException Se o registro de consumo não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de Consumo pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, Consumo> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de Consumo posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<Consumo>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<Consumo>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de Consumo posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<Consumo>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Consumo.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -76,12 +241,46 @@ public final class ConsumoServiceImpl implements ConsumoService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             consumo = this.dao.update(consumo, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(consumo.getIdConsumo()), connection);
             connection.commit();
+            VERSAO.bump();
             return consumo;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar o consumo: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Consumo.
+     *
+     * @param id O ID do Consumo a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se o Consumo não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            VERSAO.bump();
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente o consumo: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
         }
     }
 
@@ -97,11 +296,15 @@ public final class ConsumoServiceImpl implements ConsumoService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            VERSAO.bump();
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir o consumo: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
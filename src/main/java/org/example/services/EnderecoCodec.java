@@ -0,0 +1,62 @@
+package org.example.services;
+
+import org.example.config.OffHeapCache;
+import org.example.models.Endereco;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Serialização de {@link Endereco} para o cache fora do heap dos serviços de endereço.
+ *
+ * <p>Os campos são gravados em ordem fixa; os textos são precedidos de um indicador de nulo e gravados em UTF-8
+ * modificado ({@link DataOutput#writeUTF}).</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+final class EnderecoCodec implements OffHeapCache.Codec<Endereco> {
+
+    static final EnderecoCodec INSTANCE = new EnderecoCodec();
+
+    private EnderecoCodec() {
+    }
+
+    @Override
+    public void write(Endereco endereco, DataOutput out) throws IOException {
+        out.writeLong(endereco.getIdEndereco());
+        writeString(out, endereco.getLogradouro());
+        out.writeInt(endereco.getNumero());
+        writeString(out, endereco.getCep());
+        writeString(out, endereco.getBairro());
+        writeString(out, endereco.getCidade());
+        writeString(out, endereco.getUf());
+        out.writeInt(endereco.getIdReferencia());
+    }
+
+    @Override
+    public Endereco read(DataInput in) throws IOException {
+        return new Endereco(
+                in.readLong(),
+                readString(in),
+                in.readInt(),
+                readString(in),
+                readString(in),
+                readString(in),
+                readString(in),
+                in.readInt()
+        );
+    }
+
+    private static void writeString(DataOutput out, String valor) throws IOException {
+        out.writeBoolean(valor != null);
+        if (valor != null) {
+            out.writeUTF(valor);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -1,17 +1,28 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.OffHeapCache;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
+import org.example.daos.Consulta;
 import org.example.daos.EnderecoLinhaDaoFactory;
 import org.example.daos.interfaces.EnderecoDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Endereco;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.EnderecoService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +35,15 @@ import java.util.logging.Logger;
  */
 public final class EnderecoLinhaServiceImpl implements EnderecoService {
 
+    // Cache de leitura fora do heap (findAll e findById); cada escrita deste serviço invalida os endereços gravados.
+    private static final OffHeapCache<Endereco> CACHE = OffHeapCache.of("endereco-linha", EnderecoCodec.INSTANCE);
+
+    // Versão da tabela, avançada a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("endereco-linha");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("endereco-linha");
+
     private final EnderecoDao<Endereco, Long> dao = EnderecoLinhaDaoFactory.create(); // Instância de DAO para Endereco
     private final Logger logger = Logger.getLogger(this.getClass().getName()); // Logger para registrar mensagens e eventos
 
@@ -41,18 +61,46 @@ public final class EnderecoLinhaServiceImpl implements EnderecoService {
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 endereco = this.dao.save(endereco, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(endereco.getIdEndereco()), connection);
                 connection.commit();
+                CACHE.invalidate(endereco.getIdEndereco());
+                VERSAO.bump();
                 return endereco;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar o endereço: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Endereço já possui um ID e não pode ser criado.");
         }
     }
 
+    /**
+     * Cria várias instâncias de Endereco em blocos, na mesma transação.
+     *
+     * @param enderecos As instâncias de Endereco a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<Endereco> enderecos) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(enderecos, Endereco::getIdEndereco,
+                "Endereço já possui um ID e não pode ser criado.",
+                "Erro ao salvar o endereço de linha: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        for (ResultadoLote resultado : resultados) {
+            if (resultado.isSucesso()) {
+                CACHE.invalidate(resultado.getId());
+            }
+        }
+        VERSAO.bump();
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todos os endereços.
      *
@@ -60,7 +108,135 @@ public final class EnderecoLinhaServiceImpl implements EnderecoService {
      */
     @Override
     public List<Endereco> findAll() throws SQLException {
-        return this.dao.findAll();
+        return CACHE.getAll(() -> LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll())),
+                Endereco::getIdEndereco);
+    }
+
+    /**
+     * Busca endereços que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com os endereços encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Endereco> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca endereços que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre endereços que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Endereco> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre endereços que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca um Endereco pelo ID.
+     *
+     * @param id O ID do Endereco a ser buscado.
+     * @return O Endereco encontrado.
+     * @throws NotFoundException Se o Endereco não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Endereco findById(Long id) throws NotFoundException, SQLException {
+        return CACHE.get(id, () -> this.dao.findById(id));
+    }
+
+    /**
+     * Busca um Endereco pelo ID com apenas os campos informados.
+     *
+     * @param id O ID do Endereco a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Endereco encontrado.
+     * @throws NotFoundException Se o Endereco não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de Endereco pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, Endereco> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de Endereco posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<Endereco>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<Endereco>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de Endereco posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<Endereco>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Endereco.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -76,12 +252,48 @@ public final class EnderecoLinhaServiceImpl implements EnderecoService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             endereco = this.dao.update(endereco, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(endereco.getIdEndereco()), connection);
             connection.commit();
+            CACHE.invalidate(endereco.getIdEndereco());
+            VERSAO.bump();
             return endereco;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar o endereço: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Endereco.
+     *
+     * @param id O ID do Endereco a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se o Endereco não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            CACHE.invalidate(id);
+            VERSAO.bump();
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente o endereço: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
         }
     }
 
@@ -97,11 +309,16 @@ public final class EnderecoLinhaServiceImpl implements EnderecoService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            CACHE.invalidate(id);
+            VERSAO.bump();
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir o endereço: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
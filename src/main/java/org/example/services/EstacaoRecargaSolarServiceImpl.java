@@ -2,17 +2,28 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.EntityCache;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
+import org.example.daos.Consulta;
 import org.example.daos.EstacaoRecargaSolarDaoFactory;
 import org.example.daos.interfaces.EstacaoRecargaSolarDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.EstacaoRecargaSolar;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.EstacaoRecargaSolarService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -25,6 +36,15 @@ import java.util.logging.Logger;
  */
 public final class EstacaoRecargaSolarServiceImpl implements EstacaoRecargaSolarService {
 
+    // Cache de leitura compartilhado (findAll e findById), invalidado por toda escrita deste serviço.
+    private static final EntityCache CACHE = EntityCache.of("estacao-recarga-solar");
+
+    // Versão da tabela, base das ETags dos GETs do recurso; avança a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("estacao-recarga-solar");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("estacao-recarga-solar");
+
     private final EstacaoRecargaSolarDao dao = EstacaoRecargaSolarDaoFactory.create();
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -42,18 +62,48 @@ public final class EstacaoRecargaSolarServiceImpl implements EstacaoRecargaSolar
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 estacao = this.dao.save(estacao, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(estacao.getIdEstacao()), connection);
                 connection.commit();
+                CACHE.invalidate();
+                VERSAO.bump();
+                EventosRecarga.publicar(estacao);
                 return estacao;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar a estação de recarga solar: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Estação de recarga solar já possui um ID e não pode ser criada.");
         }
     }
 
+    /**
+     * Cria várias instâncias de EstacaoRecargaSolar em blocos, na mesma transação.
+     *
+     * @param estacoes As instâncias de EstacaoRecargaSolar a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<EstacaoRecargaSolar> estacoes) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(estacoes, EstacaoRecargaSolar::getIdEstacao,
+                "Estação de recarga solar já possui um ID e não pode ser criada.",
+                "Erro ao salvar a estação de recarga solar: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        CACHE.invalidate();
+        VERSAO.bump();
+        for (int i = 0; i < estacoes.size(); i++) {
+            if (resultados.get(i).isSucesso()) {
+                EventosRecarga.publicar(estacoes.get(i));
+            }
+        }
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todas as estações de recarga solar.
      *
@@ -61,7 +111,134 @@ public final class EstacaoRecargaSolarServiceImpl implements EstacaoRecargaSolar
      */
     @Override
     public List<EstacaoRecargaSolar> findAll() throws SQLException {
-        return this.dao.findAll();
+        return CACHE.get("all", () -> LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll())));
+    }
+
+    /**
+     * Busca estações de recarga solar que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com as estações de recarga solar encontradas.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<EstacaoRecargaSolar> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca estações de recarga solar que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre estações de recarga solar que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<EstacaoRecargaSolar> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre estações de recarga solar que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca uma EstacaoRecargaSolar pelo ID.
+     *
+     * @param id O ID da EstacaoRecargaSolar a ser buscada.
+     * @return A EstacaoRecargaSolar encontrada.
+     * @throws NotFoundException Se a EstacaoRecargaSolar não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public EstacaoRecargaSolar findById(Long id) throws NotFoundException, SQLException {
+        return CACHE.get(id, () -> this.dao.findById(id));
+    }
+
+    /**
+     * Busca uma EstacaoRecargaSolar pelo ID com apenas os campos informados.
+     *
+     * @param id O ID da EstacaoRecargaSolar a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da EstacaoRecargaSolar encontrada.
+     * @throws NotFoundException Se a EstacaoRecargaSolar não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de EstacaoRecargaSolar pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, EstacaoRecargaSolar> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de EstacaoRecargaSolar posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<EstacaoRecargaSolar>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<EstacaoRecargaSolar>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de EstacaoRecargaSolar posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<EstacaoRecargaSolar>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de EstacaoRecargaSolar.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -77,12 +254,52 @@ public final class EstacaoRecargaSolarServiceImpl implements EstacaoRecargaSolar
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             estacao = this.dao.update(estacao, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(estacao.getIdEstacao()), connection);
             connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            EventosRecarga.publicar(estacao);
             return estacao;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar a estação de recarga solar: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de uma EstacaoRecargaSolar.
+     *
+     * @param id O ID da EstacaoRecargaSolar a ser atualizada.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se a EstacaoRecargaSolar não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente a estação de recarga solar: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
+        }
+        if (campos.containsKey("ocupada")) {
+            EventosRecarga.reler(() -> this.dao.findById(id), EventosRecarga::publicar);
         }
     }
 
@@ -98,11 +315,17 @@ public final class EstacaoRecargaSolarServiceImpl implements EstacaoRecargaSolar
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            EventosRecarga.esquecer(EventosRecarga.ESTACAO, id);
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir a estação de recarga solar: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
@@ -0,0 +1,162 @@
+package org.example.services;
+
+import org.example.config.EventBroadcaster;
+import org.example.config.UnitOfWork;
+import org.example.exceptions.NotFoundException;
+import org.example.models.Carregador;
+import org.example.models.EstacaoRecargaSolar;
+import org.example.models.EventoRecarga;
+import org.example.models.PontoRecarga;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Fluxo de eventos de ocupação da recarga: {@code status} dos carregadores, {@code ocupada} das estações de
+ * recarga solar e {@code ocupado} dos pontos de recarga.
+ *
+ * <p>Os serviços dessas entidades publicam cada registro gravado; o evento só é emitido depois que a
+ * transação é confirmada (ao final da {@link UnitOfWork} da requisição, se houver) e apenas quando o valor
+ * difere do último valor confirmado conhecido, de modo que os clientes recebem transições e não cada
+ * gravação. A garagem de um carregador vem da sua estação, lida pelo serviço (e cache) das estações.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class EventosRecarga {
+
+    static final String CARREGADOR = "carregador";
+    static final String ESTACAO = "estacao-recarga-solar";
+    static final String PONTO = "ponto-recarga";
+
+    private static final Logger LOGGER = Logger.getLogger(EventosRecarga.class.getName());
+
+    private static final EventBroadcaster<EventoRecarga> EVENTOS = new EventBroadcaster<>("eventos de recarga");
+
+    // Último valor confirmado de cada registro, por "tipo:id"; SEM_VALOR representa um valor nulo.
+    private static final Map<String, Object> SITUACOES = new ConcurrentHashMap<>();
+
+    private static final Object SEM_VALOR = new Object();
+
+    /**
+     * Leitura de um registro recém-gravado, para publicar o seu estado completo.
+     *
+     * @param <T> Tipo do registro.
+     */
+    @FunctionalInterface
+    interface Leitura<T> {
+
+        T ler() throws SQLException;
+    }
+
+    private EventosRecarga() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Registra um cliente do fluxo. Sem filtros, o cliente recebe todos os eventos; com filtros, recebe os
+     * eventos das garagens informadas (estações e seus carregadores) e das linhas informadas (pontos de
+     * recarga).
+     *
+     * @param garagens    IDs das garagens de interesse (pode ser vazio).
+     * @param linhas      IDs das linhas de interesse (pode ser vazio).
+     * @param lastEventId Último ID de evento recebido pelo cliente, para retomar o fluxo, ou nulo.
+     * @param sink        Conexão do cliente.
+     * @return A assinatura do cliente.
+     */
+    public static EventBroadcaster<EventoRecarga>.Subscription assinar(Set<Long> garagens, Set<Long> linhas,
+                                                                       String lastEventId,
+                                                                       EventBroadcaster.Sink<EventoRecarga> sink) {
+        Predicate<EventoRecarga> filtro = garagens.isEmpty() && linhas.isEmpty()
+                ? evento -> true
+                : evento -> garagens.contains(evento.getIdGaragem()) || linhas.contains(evento.getIdLinha());
+        return EVENTOS.subscribe(filtro, lastEventId, sink);
+    }
+
+    static void publicar(Carregador carregador) {
+        Long idEstacao = carregador.getIdEstacaoRecargaSolar();
+        publicar(CARREGADOR, carregador.getIdCarregador(), "status", carregador.getStatus(), idEstacao,
+                () -> garagem(idEstacao), null);
+    }
+
+    static void publicar(EstacaoRecargaSolar estacao) {
+        publicar(ESTACAO, estacao.getIdEstacao(), "ocupada", estacao.isOcupada(), null, estacao::getIdGaragem, null);
+    }
+
+    static void publicar(PontoRecarga ponto) {
+        publicar(PONTO, ponto.getIdPonto(), "ocupado", ponto.isOcupado(), null, () -> null, ponto.getIdLinha());
+    }
+
+    /**
+     * Publica um registro alterado parcialmente, relendo-o para obter o estado completo. Falhas na releitura
+     * não afetam a escrita, já concluída: são apenas registradas no log.
+     *
+     * @param leitura    Leitura do registro, na mesma transação da escrita (ou depois do commit).
+     * @param publicacao Publicação do registro lido.
+     * @param <T>        Tipo do registro.
+     */
+    static <T> void reler(Leitura<T> leitura, Consumer<T> publicacao) {
+        try {
+            publicacao.accept(leitura.ler());
+        } catch (SQLException | NotFoundException e) {
+            LOGGER.warning("Não foi possível reler o registro para o evento de recarga: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Descarta o último valor conhecido de um registro excluído.
+     *
+     * @param tipo O tipo do registro.
+     * @param id   O ID do registro.
+     */
+    static void esquecer(String tipo, Long id) {
+        UnitOfWork.runAfterCommit(() -> {
+            synchronized (SITUACOES) {
+                SITUACOES.remove(tipo + ":" + id);
+            }
+        });
+    }
+
+    private static void publicar(String tipo, Long id, String campo, Object valor, Long idEstacao,
+                                 Supplier<Long> garagem, Long idLinha) {
+        if (id == null) {
+            return;
+        }
+        UnitOfWork.runAfterCommit(() -> {
+            String chave = tipo + ":" + id;
+            Object atual = Objects.requireNonNullElse(valor, SEM_VALOR);
+            if (atual.equals(SITUACOES.get(chave))) {
+                return;
+            }
+            // A garagem é lida fora do bloqueio; a comparação com o último valor e a publicação ficam sob ele,
+            // para que duas gravações concorrentes não publiquem fora da ordem em que atualizaram o valor.
+            Long idGaragem = garagem.get();
+            synchronized (SITUACOES) {
+                if (!atual.equals(SITUACOES.put(chave, atual))) {
+                    EVENTOS.publish(new EventoRecarga(tipo, id, campo, valor, idEstacao, idGaragem, idLinha,
+                            Instant.now().toString()));
+                }
+            }
+        });
+    }
+
+    private static Long garagem(Long idEstacao) {
+        if (idEstacao == null) {
+            return null;
+        }
+        try {
+            return EstacaoRecargaSolarServiceFactory.create().findById(idEstacao).getIdGaragem();
+        } catch (SQLException | NotFoundException e) {
+            LOGGER.warning("Não foi possível obter a garagem da estação " + idEstacao + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
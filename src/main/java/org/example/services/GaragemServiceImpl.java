@@ -1,17 +1,29 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.EntityCache;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
+import org.example.daos.Consulta;
 import org.example.daos.GaragemDaoFactory;
 import org.example.daos.interfaces.GaragemDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Garagem;
+import org.example.models.GaragemCompleta;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.GaragemService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +36,15 @@ import java.util.logging.Logger;
  */
 public final class GaragemServiceImpl implements GaragemService {
 
+    // Cache de leitura compartilhado (findAll e findById), invalidado por toda escrita deste serviço.
+    private static final EntityCache CACHE = EntityCache.of("garagem");
+
+    // Versão da tabela, avançada a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("garagem");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("garagem");
+
     private final GaragemDao dao = GaragemDaoFactory.create();
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -41,18 +62,42 @@ public final class GaragemServiceImpl implements GaragemService {
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 garagem = this.dao.save(garagem, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(garagem.getIdGaragem()), connection);
                 connection.commit();
+                CACHE.invalidate();
+                VERSAO.bump();
                 return garagem;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar a garagem: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Garagem já possui um ID e não pode ser criada.");
         }
     }
 
+    /**
+     * Cria várias instâncias de Garagem em blocos, na mesma transação.
+     *
+     * @param garagens As instâncias de Garagem a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<Garagem> garagens) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(garagens, Garagem::getIdGaragem,
+                "Garagem já possui um ID e não pode ser criada.",
+                "Erro ao salvar a garagem: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        CACHE.invalidate();
+        VERSAO.bump();
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todas as garagens.
      *
@@ -60,7 +105,147 @@ public final class GaragemServiceImpl implements GaragemService {
      */
     @Override
     public List<Garagem> findAll() throws SQLException {
-        return this.dao.findAll();
+        return CACHE.get("all", () -> LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll())));
+    }
+
+    /**
+     * Busca garagens que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com as garagens encontradas.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Garagem> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca garagens que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre garagens que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Garagem> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre garagens que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca uma Garagem pelo ID.
+     *
+     * @param id O ID da Garagem a ser buscada.
+     * @return A Garagem encontrada.
+     * @throws NotFoundException Se a Garagem não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Garagem findById(Long id) throws NotFoundException, SQLException {
+        return CACHE.get(id, () -> this.dao.findById(id));
+    }
+
+    /**
+     * Busca uma Garagem pelo ID com apenas os campos informados.
+     *
+     * @param id O ID da Garagem a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da Garagem encontrada.
+     * @throws NotFoundException Se a Garagem não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de Garagem pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, Garagem> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de Garagem posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<Garagem>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<Garagem>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de Garagem posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<Garagem>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Garagem.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
+    }
+
+    /**
+     * Busca uma Garagem pelo ID junto com o endereço e os registros alocados nela.
+     *
+     * @param id O ID da Garagem a ser buscada.
+     * @return A visão agregada da Garagem encontrada.
+     * @throws NotFoundException Se a Garagem não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public GaragemCompleta findCompleta(Long id) throws NotFoundException, SQLException {
+        return this.dao.findCompleta(id);
     }
 
     /**
@@ -76,12 +261,48 @@ public final class GaragemServiceImpl implements GaragemService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             garagem = this.dao.update(garagem, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(garagem.getIdGaragem()), connection);
             connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
             return garagem;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar a garagem: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de uma Garagem.
+     *
+     * @param id O ID da Garagem a ser atualizada.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se a Garagem não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente a garagem: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
         }
     }
 
@@ -97,11 +318,16 @@ public final class GaragemServiceImpl implements GaragemService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir a garagem: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
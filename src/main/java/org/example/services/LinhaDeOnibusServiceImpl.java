@@ -1,17 +1,28 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.EntityCache;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
+import org.example.daos.Consulta;
 import org.example.daos.LinhaDeOnibusDaoFactory;
 import org.example.daos.interfaces.LinhaDeOnibusDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.LinhaDeOnibus;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.LinhaDeOnibusService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +35,15 @@ import java.util.logging.Logger;
  */
 public final class LinhaDeOnibusServiceImpl implements LinhaDeOnibusService {
 
+    // Cache de leitura compartilhado (findAll e findById), invalidado por toda escrita deste serviço.
+    private static final EntityCache CACHE = EntityCache.of("linha-onibus");
+
+    // Versão da tabela, avançada a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("linha-onibus");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("linha-onibus");
+
     private final LinhaDeOnibusDao dao = LinhaDeOnibusDaoFactory.create(); // Instância de DAO para LinhaDeOnibus
     private final Logger logger = Logger.getLogger(this.getClass().getName()); // Logger para registrar mensagens e eventos
 
@@ -38,21 +58,98 @@ public final class LinhaDeOnibusServiceImpl implements LinhaDeOnibusService {
     @Override
     public LinhaDeOnibus create(LinhaDeOnibus linhaDeOnibus) throws UnsupportedServiceOperationException, SQLException, NotSavedException {
         if (linhaDeOnibus.getIdLinha() == null) {
+            ChavesNaturais.verificar(ChavesNaturais.CODIGOS_LINHA, "codigoLinha", linhaDeOnibus.getCodigoLinha(), ChavesNaturais.LINHA, null);
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 linhaDeOnibus = this.dao.save(linhaDeOnibus, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(linhaDeOnibus.getIdLinha()), connection);
                 connection.commit();
+                CACHE.invalidate();
+                VERSAO.bump();
+                ChavesNaturais.CODIGOS_LINHA.put(ChavesNaturais.LINHA, linhaDeOnibus.getIdLinha(), linhaDeOnibus.getCodigoLinha());
                 return linhaDeOnibus;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar a linha de ônibus: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Linha de ônibus já possui um ID e não pode ser criada.");
         }
     }
 
+    /**
+     * Cria várias instâncias de LinhaDeOnibus em blocos, na mesma transação.
+     *
+     * @param linhas As instâncias de LinhaDeOnibus a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<LinhaDeOnibus> linhas) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(linhas, LinhaDeOnibus::getIdLinha,
+                "Linha de ônibus já possui um ID e não pode ser criada.",
+                item -> ChavesNaturais.conflito(ChavesNaturais.CODIGOS_LINHA, "codigoLinha", item.getCodigoLinha(), ChavesNaturais.LINHA, null),
+                "Erro ao salvar a linha de ônibus: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        CACHE.invalidate();
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.CODIGOS_LINHA, ChavesNaturais.LINHA, linhas, resultados, LinhaDeOnibus::getCodigoLinha);
+        return resultados;
+    }
+
+    /**
+     * Cria ou atualiza uma LinhaDeOnibus pelo código da linha.
+     *
+     * @param linhaDeOnibus O objeto LinhaDeOnibus a ser gravado.
+     * @return O objeto LinhaDeOnibus gravado, com o ID atribuído.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public LinhaDeOnibus upsert(LinhaDeOnibus linhaDeOnibus) throws SQLException {
+        ChavesNaturais.verificarSincronizacao(ChavesNaturais.CODIGOS_LINHA, "codigoLinha", linhaDeOnibus.getCodigoLinha(), ChavesNaturais.LINHA);
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.upsertAll(List.of(linhaDeOnibus), connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(linhaDeOnibus.getIdLinha()), connection);
+            connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            ChavesNaturais.CODIGOS_LINHA.put(ChavesNaturais.LINHA, linhaDeOnibus.getIdLinha(), linhaDeOnibus.getCodigoLinha());
+            return linhaDeOnibus;
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao sincronizar a linha de ônibus: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de LinhaDeOnibus pelo código da linha, em blocos e na mesma transação.
+     *
+     * @param linhas As instâncias de LinhaDeOnibus a serem gravadas.
+     * @return O resultado de cada item: o ID gravado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> upsertAll(List<LinhaDeOnibus> linhas) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.sincronizar(linhas, LinhaDeOnibus::getCodigoLinha, "codigoLinha",
+                chave -> ChavesNaturais.conflitoEntreTabelas(ChavesNaturais.CODIGOS_LINHA, "codigoLinha", chave, ChavesNaturais.LINHA),
+                LinhaDeOnibus::getIdLinha,
+                "Erro ao salvar a linha de ônibus: verifique os dados.",
+                this.dao::upsertAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, ids, connection));
+        CACHE.invalidate();
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.CODIGOS_LINHA, ChavesNaturais.LINHA, linhas, resultados, LinhaDeOnibus::getCodigoLinha);
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todas as linhas de ônibus.
      *
@@ -60,7 +157,134 @@ public final class LinhaDeOnibusServiceImpl implements LinhaDeOnibusService {
      */
     @Override
     public List<LinhaDeOnibus> findAll() throws SQLException {
-        return this.dao.findAll();
+        return CACHE.get("all", () -> LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll())));
+    }
+
+    /**
+     * Busca linhas de ônibus que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com as linhas de ônibus encontradas.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<LinhaDeOnibus> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca linhas de ônibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre linhas de ônibus que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<LinhaDeOnibus> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre linhas de ônibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca uma LinhaDeOnibus pelo ID.
+     *
+     * @param id O ID da LinhaDeOnibus a ser buscada.
+     * @return A LinhaDeOnibus encontrada.
+     * @throws NotFoundException Se a LinhaDeOnibus não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public LinhaDeOnibus findById(Long id) throws NotFoundException, SQLException {
+        return CACHE.get(id, () -> this.dao.findById(id));
+    }
+
+    /**
+     * Busca uma LinhaDeOnibus pelo ID com apenas os campos informados.
+     *
+     * @param id O ID da LinhaDeOnibus a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da LinhaDeOnibus encontrada.
+     * @throws NotFoundException Se a LinhaDeOnibus não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de LinhaDeOnibus pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, LinhaDeOnibus> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de LinhaDeOnibus posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<LinhaDeOnibus>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<LinhaDeOnibus>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de LinhaDeOnibus posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<LinhaDeOnibus>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de LinhaDeOnibus.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -73,15 +297,59 @@ public final class LinhaDeOnibusServiceImpl implements LinhaDeOnibusService {
      */
     @Override
     public LinhaDeOnibus update(LinhaDeOnibus linhaDeOnibus) throws NotFoundException, SQLException {
+        ChavesNaturais.verificar(ChavesNaturais.CODIGOS_LINHA, "codigoLinha", linhaDeOnibus.getCodigoLinha(), ChavesNaturais.LINHA, linhaDeOnibus.getIdLinha());
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             linhaDeOnibus = this.dao.update(linhaDeOnibus, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(linhaDeOnibus.getIdLinha()), connection);
             connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            ChavesNaturais.CODIGOS_LINHA.put(ChavesNaturais.LINHA, linhaDeOnibus.getIdLinha(), linhaDeOnibus.getCodigoLinha());
             return linhaDeOnibus;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar a linha de ônibus: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de uma LinhaDeOnibus.
+     *
+     * @param id O ID da LinhaDeOnibus a ser atualizada.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se a LinhaDeOnibus não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        if (campos.containsKey("codigoLinha")) {
+            ChavesNaturais.verificar(ChavesNaturais.CODIGOS_LINHA, "codigoLinha", ChavesNaturais.valor(campos, "codigoLinha"), ChavesNaturais.LINHA, id);
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            if (campos.containsKey("codigoLinha")) {
+                ChavesNaturais.CODIGOS_LINHA.put(ChavesNaturais.LINHA, id, ChavesNaturais.valor(campos, "codigoLinha"));
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente a linha de ônibus: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
         }
     }
 
@@ -97,11 +365,17 @@ public final class LinhaDeOnibusServiceImpl implements LinhaDeOnibusService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            ChavesNaturais.CODIGOS_LINHA.remove(ChavesNaturais.LINHA, id);
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir a linha de ônibus: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
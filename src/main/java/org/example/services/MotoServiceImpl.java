@@ -1,17 +1,27 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
+import org.example.daos.Consulta;
 import org.example.daos.MotoDaoFactory;
 import org.example.daos.interfaces.MotoDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Moto;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.MotoService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +34,12 @@ import java.util.logging.Logger;
  */
 public final class MotoServiceImpl implements MotoService {
 
+    // Versão da tabela, avançada a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("moto");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("moto");
+
     private final MotoDao dao = MotoDaoFactory.create();
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -38,21 +54,94 @@ public final class MotoServiceImpl implements MotoService {
     @Override
     public Moto create(Moto moto) throws UnsupportedServiceOperationException, SQLException, NotSavedException {
         if (moto.getIdMoto() == null) {
+            ChavesNaturais.verificar(ChavesNaturais.PLACAS, "placa", moto.getPlaca(), ChavesNaturais.MOTO, null);
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 moto = this.dao.save(moto, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(moto.getIdMoto()), connection);
                 connection.commit();
+                VERSAO.bump();
+                ChavesNaturais.PLACAS.put(ChavesNaturais.MOTO, moto.getIdMoto(), moto.getPlaca());
                 return moto;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar a moto: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Moto já possui um ID e não pode ser criada.");
         }
     }
 
+    /**
+     * Cria várias instâncias de Moto em blocos, na mesma transação.
+     *
+     * @param motos As instâncias de Moto a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<Moto> motos) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(motos, Moto::getIdMoto,
+                "Moto já possui um ID e não pode ser criada.",
+                item -> ChavesNaturais.conflito(ChavesNaturais.PLACAS, "placa", item.getPlaca(), ChavesNaturais.MOTO, null),
+                "Erro ao salvar a moto: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.PLACAS, ChavesNaturais.MOTO, motos, resultados, Moto::getPlaca);
+        return resultados;
+    }
+
+    /**
+     * Cria ou atualiza uma Moto pela placa.
+     *
+     * @param moto O objeto Moto a ser gravado.
+     * @return O objeto Moto gravado, com o ID atribuído.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Moto upsert(Moto moto) throws SQLException {
+        ChavesNaturais.verificarSincronizacao(ChavesNaturais.PLACAS, "placa", moto.getPlaca(), ChavesNaturais.MOTO);
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.upsertAll(List.of(moto), connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(moto.getIdMoto()), connection);
+            connection.commit();
+            VERSAO.bump();
+            ChavesNaturais.PLACAS.put(ChavesNaturais.MOTO, moto.getIdMoto(), moto.getPlaca());
+            return moto;
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao sincronizar a moto: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de Moto pela placa, em blocos e na mesma transação.
+     *
+     * @param motos As instâncias de Moto a serem gravadas.
+     * @return O resultado de cada item: o ID gravado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> upsertAll(List<Moto> motos) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.sincronizar(motos, Moto::getPlaca, "placa",
+                chave -> ChavesNaturais.conflitoEntreTabelas(ChavesNaturais.PLACAS, "placa", chave, ChavesNaturais.MOTO),
+                Moto::getIdMoto,
+                "Erro ao salvar a moto: verifique os dados.",
+                this.dao::upsertAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, ids, connection));
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.PLACAS, ChavesNaturais.MOTO, motos, resultados, Moto::getPlaca);
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todas as motos.
      *
@@ -60,7 +149,134 @@ public final class MotoServiceImpl implements MotoService {
      */
     @Override
     public List<Moto> findAll() throws SQLException {
-        return this.dao.findAll();
+        return LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll()));
+    }
+
+    /**
+     * Busca motos que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com as motos encontradas.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Moto> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca motos que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre motos que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Moto> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre motos que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca uma Moto pelo ID.
+     *
+     * @param id O ID da Moto a ser buscada.
+     * @return A Moto encontrada.
+     * @throws NotFoundException Se a Moto não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Moto findById(Long id) throws NotFoundException, SQLException {
+        return this.dao.findById(id);
+    }
+
+    /**
+     * Busca uma Moto pelo ID com apenas os campos informados.
+     *
+     * @param id O ID da Moto a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da Moto encontrada.
+     * @throws NotFoundException Se a Moto não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de Moto pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, Moto> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de Moto posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<Moto>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<Moto>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de Moto posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<Moto>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Moto.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -73,15 +289,57 @@ public final class MotoServiceImpl implements MotoService {
      */
     @Override
     public Moto update(Moto moto) throws NotFoundException, SQLException {
+        ChavesNaturais.verificar(ChavesNaturais.PLACAS, "placa", moto.getPlaca(), ChavesNaturais.MOTO, moto.getIdMoto());
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             moto = this.dao.update(moto, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(moto.getIdMoto()), connection);
             connection.commit();
+            VERSAO.bump();
+            ChavesNaturais.PLACAS.put(ChavesNaturais.MOTO, moto.getIdMoto(), moto.getPlaca());
             return moto;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar a moto: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de uma Moto.
+     *
+     * @param id O ID da Moto a ser atualizada.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se a Moto não for encontrada.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        if (campos.containsKey("placa")) {
+            ChavesNaturais.verificar(ChavesNaturais.PLACAS, "placa", ChavesNaturais.valor(campos, "placa"), ChavesNaturais.MOTO, id);
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            VERSAO.bump();
+            if (campos.containsKey("placa")) {
+                ChavesNaturais.PLACAS.put(ChavesNaturais.MOTO, id, ChavesNaturais.valor(campos, "placa"));
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente a moto: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
         }
     }
 
@@ -97,11 +355,16 @@ public final class MotoServiceImpl implements MotoService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            VERSAO.bump();
+            ChavesNaturais.PLACAS.remove(ChavesNaturais.MOTO, id);
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir a moto: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
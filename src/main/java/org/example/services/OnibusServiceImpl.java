@@ -1,17 +1,27 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
+import org.example.daos.Consulta;
 import org.example.daos.OnibusDaoFactory;
 import org.example.daos.interfaces.OnibusDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Onibus;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.OnibusService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +34,12 @@ import java.util.logging.Logger;
  */
 public final class OnibusServiceImpl implements OnibusService {
 
+    // Versão da tabela, avançada a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("onibus");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("onibus");
+
     private final OnibusDao dao = OnibusDaoFactory.create();
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -38,21 +54,94 @@ public final class OnibusServiceImpl implements OnibusService {
     @Override
     public Onibus create(Onibus onibus) throws UnsupportedServiceOperationException, SQLException, NotSavedException {
         if (onibus.getIdOnibus() == null) {
+            ChavesNaturais.verificar(ChavesNaturais.PLACAS, "placa", onibus.getPlaca(), ChavesNaturais.ONIBUS, null);
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 onibus = this.dao.save(onibus, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(onibus.getIdOnibus()), connection);
                 connection.commit();
+                VERSAO.bump();
+                ChavesNaturais.PLACAS.put(ChavesNaturais.ONIBUS, onibus.getIdOnibus(), onibus.getPlaca());
                 return onibus;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar o ônibus: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Ônibus já possui um ID e não pode ser criado.");
         }
     }
 
+    /**
+     * Cria várias instâncias de Onibus em blocos, na mesma transação.
+     *
+     * @param onibus As instâncias de Onibus a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<Onibus> onibus) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(onibus, Onibus::getIdOnibus,
+                "Ônibus já possui um ID e não pode ser criado.",
+                item -> ChavesNaturais.conflito(ChavesNaturais.PLACAS, "placa", item.getPlaca(), ChavesNaturais.ONIBUS, null),
+                "Erro ao salvar o ônibus: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.PLACAS, ChavesNaturais.ONIBUS, onibus, resultados, Onibus::getPlaca);
+        return resultados;
+    }
+
+    /**
+     * Cria ou atualiza um Onibus pela placa.
+     *
+     * @param onibus O objeto Onibus a ser gravado.
+     * @return O objeto Onibus gravado, com o ID atribuído.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Onibus upsert(Onibus onibus) throws SQLException {
+        ChavesNaturais.verificarSincronizacao(ChavesNaturais.PLACAS, "placa", onibus.getPlaca(), ChavesNaturais.ONIBUS);
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.upsertAll(List.of(onibus), connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(onibus.getIdOnibus()), connection);
+            connection.commit();
+            VERSAO.bump();
+            ChavesNaturais.PLACAS.put(ChavesNaturais.ONIBUS, onibus.getIdOnibus(), onibus.getPlaca());
+            return onibus;
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao sincronizar o ônibus: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de Onibus pela placa, em blocos e na mesma transação.
+     *
+     * @param onibus As instâncias de Onibus a serem gravadas.
+     * @return O resultado de cada item: o ID gravado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> upsertAll(List<Onibus> onibus) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.sincronizar(onibus, Onibus::getPlaca, "placa",
+                chave -> ChavesNaturais.conflitoEntreTabelas(ChavesNaturais.PLACAS, "placa", chave, ChavesNaturais.ONIBUS),
+                Onibus::getIdOnibus,
+                "Erro ao salvar o ônibus: verifique os dados.",
+                this.dao::upsertAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, ids, connection));
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.PLACAS, ChavesNaturais.ONIBUS, onibus, resultados, Onibus::getPlaca);
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todos os ônibus.
      *
@@ -60,7 +149,134 @@ public final class OnibusServiceImpl implements OnibusService {
      */
     @Override
     public List<Onibus> findAll() throws SQLException {
-        return this.dao.findAll();
+        return LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll()));
+    }
+
+    /**
+     * Busca ônibus que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com os ônibus encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Onibus> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca ônibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre ônibus que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Onibus> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre ônibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca um Ônibus pelo ID.
+     *
+     * @param id O ID do Ônibus a ser buscado.
+     * @return O Ônibus encontrado.
+     * @throws NotFoundException Se o Ônibus não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Onibus findById(Long id) throws NotFoundException, SQLException {
+        return this.dao.findById(id);
+    }
+
+    /**
+     * Busca um Ônibus pelo ID com apenas os campos informados.
+     *
+     * @param id O ID do Ônibus a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Ônibus encontrado.
+     * @throws NotFoundException Se o Ônibus não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de Onibus pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, Onibus> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de Onibus posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<Onibus>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<Onibus>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de Onibus posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<Onibus>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Onibus.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -73,15 +289,57 @@ public final class OnibusServiceImpl implements OnibusService {
      */
     @Override
     public Onibus update(Onibus onibus) throws NotFoundException, SQLException {
+        ChavesNaturais.verificar(ChavesNaturais.PLACAS, "placa", onibus.getPlaca(), ChavesNaturais.ONIBUS, onibus.getIdOnibus());
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             onibus = this.dao.update(onibus, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(onibus.getIdOnibus()), connection);
             connection.commit();
+            VERSAO.bump();
+            ChavesNaturais.PLACAS.put(ChavesNaturais.ONIBUS, onibus.getIdOnibus(), onibus.getPlaca());
             return onibus;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar o ônibus: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Onibus.
+     *
+     * @param id O ID do Onibus a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se o Onibus não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        if (campos.containsKey("placa")) {
+            ChavesNaturais.verificar(ChavesNaturais.PLACAS, "placa", ChavesNaturais.valor(campos, "placa"), ChavesNaturais.ONIBUS, id);
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            VERSAO.bump();
+            if (campos.containsKey("placa")) {
+                ChavesNaturais.PLACAS.put(ChavesNaturais.ONIBUS, id, ChavesNaturais.valor(campos, "placa"));
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente o ônibus: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
         }
     }
 
@@ -97,11 +355,16 @@ public final class OnibusServiceImpl implements OnibusService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            VERSAO.bump();
+            ChavesNaturais.PLACAS.remove(ChavesNaturais.ONIBUS, id);
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir o ônibus: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
@@ -1,17 +1,28 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.EntityCache;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
+import org.example.daos.Consulta;
 import org.example.daos.OperadorDaoFactory;
 import org.example.daos.interfaces.OperadorDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Operador;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.OperadorService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +35,15 @@ import java.util.logging.Logger;
  */
 public final class OperadorServiceImpl implements OperadorService {
 
+    // Cache de leitura compartilhado (findAll e findById), invalidado por toda escrita deste serviço.
+    private static final EntityCache CACHE = EntityCache.of("operador");
+
+    // Versão da tabela, avançada a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("operador");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("operador");
+
     private final OperadorDao dao = OperadorDaoFactory.create(); // Instância de DAO para Operador
     private final Logger logger = Logger.getLogger(this.getClass().getName()); // Logger para registrar mensagens e eventos
 
@@ -38,21 +58,98 @@ public final class OperadorServiceImpl implements OperadorService {
     @Override
     public Operador create(Operador operador) throws UnsupportedServiceOperationException, SQLException, NotSavedException {
         if (operador.getIdOperador() == null) {
+            ChavesNaturais.verificar(ChavesNaturais.CPFS, "cpf", operador.getCpf(), ChavesNaturais.OPERADOR, null);
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 operador = this.dao.save(operador, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(operador.getIdOperador()), connection);
                 connection.commit();
+                CACHE.invalidate();
+                VERSAO.bump();
+                ChavesNaturais.CPFS.put(ChavesNaturais.OPERADOR, operador.getIdOperador(), operador.getCpf());
                 return operador;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar o operador: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Operador já possui um ID e não pode ser criado.");
         }
     }
 
+    /**
+     * Cria várias instâncias de Operador em blocos, na mesma transação.
+     *
+     * @param operadores As instâncias de Operador a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<Operador> operadores) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(operadores, Operador::getIdOperador,
+                "Operador já possui um ID e não pode ser criado.",
+                item -> ChavesNaturais.conflito(ChavesNaturais.CPFS, "cpf", item.getCpf(), ChavesNaturais.OPERADOR, null),
+                "Erro ao salvar o operador: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        CACHE.invalidate();
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.CPFS, ChavesNaturais.OPERADOR, operadores, resultados, Operador::getCpf);
+        return resultados;
+    }
+
+    /**
+     * Cria ou atualiza um Operador pelo CPF.
+     *
+     * @param operador O objeto Operador a ser gravado.
+     * @return O objeto Operador gravado, com o ID atribuído.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Operador upsert(Operador operador) throws SQLException {
+        ChavesNaturais.verificarSincronizacao(ChavesNaturais.CPFS, "cpf", operador.getCpf(), ChavesNaturais.OPERADOR);
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.upsertAll(List.of(operador), connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(operador.getIdOperador()), connection);
+            connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            ChavesNaturais.CPFS.put(ChavesNaturais.OPERADOR, operador.getIdOperador(), operador.getCpf());
+            return operador;
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao sincronizar o operador: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Cria ou atualiza várias instâncias de Operador pelo CPF, em blocos e na mesma transação.
+     *
+     * @param operadores As instâncias de Operador a serem gravadas.
+     * @return O resultado de cada item: o ID gravado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> upsertAll(List<Operador> operadores) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.sincronizar(operadores, Operador::getCpf, "cpf",
+                chave -> ChavesNaturais.conflitoEntreTabelas(ChavesNaturais.CPFS, "cpf", chave, ChavesNaturais.OPERADOR),
+                Operador::getIdOperador,
+                "Erro ao salvar o operador: verifique os dados.",
+                this.dao::upsertAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, ids, connection));
+        CACHE.invalidate();
+        VERSAO.bump();
+        ChavesNaturais.registrar(ChavesNaturais.CPFS, ChavesNaturais.OPERADOR, operadores, resultados, Operador::getCpf);
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todos os operadores.
      *
@@ -60,7 +157,134 @@ public final class OperadorServiceImpl implements OperadorService {
      */
     @Override
     public List<Operador> findAll() throws SQLException {
-        return this.dao.findAll();
+        return CACHE.get("all", () -> LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll())));
+    }
+
+    /**
+     * Busca operadores que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com os operadores encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Operador> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca operadores que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre operadores que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<Operador> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre operadores que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca um Operador pelo ID.
+     *
+     * @param id O ID do Operador a ser buscado.
+     * @return O Operador encontrado.
+     * @throws NotFoundException Se o Operador não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Operador findById(Long id) throws NotFoundException, SQLException {
+        return CACHE.get(id, () -> this.dao.findById(id));
+    }
+
+    /**
+     * Busca um Operador pelo ID com apenas os campos informados.
+     *
+     * @param id O ID do Operador a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Operador encontrado.
+     * @throws NotFoundException Se o Operador não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de Operador pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, Operador> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de Operador posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<Operador>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<Operador>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de Operador posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<Operador>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de Operador.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -73,15 +297,59 @@ public final class OperadorServiceImpl implements OperadorService {
      */
     @Override
     public Operador update(Operador operador) throws NotFoundException, SQLException {
+        ChavesNaturais.verificar(ChavesNaturais.CPFS, "cpf", operador.getCpf(), ChavesNaturais.OPERADOR, operador.getIdOperador());
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             operador = this.dao.update(operador, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(operador.getIdOperador()), connection);
             connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            ChavesNaturais.CPFS.put(ChavesNaturais.OPERADOR, operador.getIdOperador(), operador.getCpf());
             return operador;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar o operador: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um Operador.
+     *
+     * @param id O ID do Operador a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se o Operador não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        if (campos.containsKey("cpf")) {
+            ChavesNaturais.verificar(ChavesNaturais.CPFS, "cpf", ChavesNaturais.valor(campos, "cpf"), ChavesNaturais.OPERADOR, id);
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            if (campos.containsKey("cpf")) {
+                ChavesNaturais.CPFS.put(ChavesNaturais.OPERADOR, id, ChavesNaturais.valor(campos, "cpf"));
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente o operador: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
         }
     }
 
@@ -97,11 +365,17 @@ public final class OperadorServiceImpl implements OperadorService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            CACHE.invalidate();
+            VERSAO.bump();
+            ChavesNaturais.CPFS.remove(ChavesNaturais.OPERADOR, id);
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir o operador: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
@@ -1,17 +1,27 @@
 package org.example.services;
 
 import org.example.config.DatabaseConnectionFactory;
+import org.example.config.SingleFlight;
+import org.example.config.TableVersion;
+import org.example.daos.Consulta;
 import org.example.daos.PontoRecargaDaoFactory;
 import org.example.daos.interfaces.PontoRecargaDao;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.PontoRecarga;
+import org.example.models.ResultadoLote;
 import org.example.services.interfaces.PontoRecargaService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,6 +34,12 @@ import java.util.logging.Logger;
  */
 public final class PontoRecargaServiceImpl implements PontoRecargaService {
 
+    // Versão da tabela, base das ETags dos GETs do recurso; avança a cada escrita deste serviço.
+    private static final TableVersion VERSAO = TableVersion.of("ponto-recarga");
+
+    // Leituras idênticas e simultâneas compartilham uma única execução no DAO.
+    private static final SingleFlight LEITURAS = SingleFlight.of("ponto-recarga");
+
     private final PontoRecargaDao dao = PontoRecargaDaoFactory.create();
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
@@ -41,18 +57,46 @@ public final class PontoRecargaServiceImpl implements PontoRecargaService {
             Connection connection = DatabaseConnectionFactory.create().get();
             try {
                 pontoRecarga = this.dao.save(pontoRecarga, connection);
+                this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, List.of(pontoRecarga.getIdPonto()), connection);
                 connection.commit();
+                VERSAO.bump();
+                EventosRecarga.publicar(pontoRecarga);
                 return pontoRecarga;
             } catch (SQLException | NotSavedException e) {
                 connection.rollback();
                 logger.warning("Erro ao salvar o ponto de recarga: " + e.getMessage());
                 throw e;
+            } finally {
+                connection.close();
             }
         } else {
             throw new UnsupportedServiceOperationException("Ponto de Recarga já possui um ID e não pode ser criado.");
         }
     }
 
+    /**
+     * Cria várias instâncias de PontoRecarga em blocos, na mesma transação.
+     *
+     * @param pontos As instâncias de PontoRecarga a serem criadas.
+     * @return O resultado de cada item: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Em caso de erro de SQL que impeça concluir o lote.
+     */
+    @Override
+    public List<ResultadoLote> createAll(List<PontoRecarga> pontos) throws SQLException {
+        List<ResultadoLote> resultados = CadastroEmLote.cadastrar(pontos, PontoRecarga::getIdPonto,
+                "Ponto de Recarga já possui um ID e não pode ser criado.",
+                "Erro ao salvar o ponto de recarga: verifique os dados.",
+                this.dao::saveAll,
+                (ids, connection) -> this.dao.registrarAlteracoes(Alteracao.Operacao.INSERCAO, ids, connection));
+        VERSAO.bump();
+        for (int i = 0; i < pontos.size(); i++) {
+            if (resultados.get(i).isSucesso()) {
+                EventosRecarga.publicar(pontos.get(i));
+            }
+        }
+        return resultados;
+    }
+
     /**
      * Retorna uma lista de todos os pontos de recarga.
      *
@@ -60,7 +104,134 @@ public final class PontoRecargaServiceImpl implements PontoRecargaService {
      */
     @Override
     public List<PontoRecarga> findAll() throws SQLException {
-        return this.dao.findAll();
+        return LEITURAS.execute("findAll", () -> List.copyOf(this.dao.findAll()));
+    }
+
+    /**
+     * Busca pontos de recarga que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com os pontos de recarga encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<PontoRecarga> find(Consulta consulta) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta), () -> List.copyOf(this.dao.find(consulta)));
+    }
+
+    /**
+     * Busca pontos de recarga que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException {
+        return LEITURAS.execute(List.of("find", consulta, fields), () -> List.copyOf(this.dao.find(consulta, fields)));
+    }
+
+    /**
+     * Percorre pontos de recarga que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Consumer<PontoRecarga> action) throws SQLException {
+        this.dao.streamAll(consulta, action);
+    }
+
+    /**
+     * Percorre pontos de recarga que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException {
+        this.dao.streamAll(consulta, fields, action);
+    }
+
+    /**
+     * Busca um Ponto de Recarga pelo ID.
+     *
+     * @param id O ID do Ponto de Recarga a ser buscado.
+     * @return O Ponto de Recarga encontrado.
+     * @throws NotFoundException Se o Ponto de Recarga não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public PontoRecarga findById(Long id) throws NotFoundException, SQLException {
+        return this.dao.findById(id);
+    }
+
+    /**
+     * Busca um Ponto de Recarga pelo ID com apenas os campos informados.
+     *
+     * @param id O ID do Ponto de Recarga a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do Ponto de Recarga encontrado.
+     * @throws NotFoundException Se o Ponto de Recarga não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException {
+        return this.dao.findById(id, fields);
+    }
+
+    /**
+     * Busca várias instâncias de PontoRecarga pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return As instâncias encontradas, indexadas pelo ID na ordem dos IDs informados.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public Map<Long, PontoRecarga> findByIds(Collection<Long> ids) throws SQLException {
+        return this.dao.findByIds(ids);
+    }
+
+    /**
+     * Busca as alterações de PontoRecarga posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<Alteracao<PontoRecarga>> findAlteracoes(long desde, int limite) throws SQLException {
+        List<Alteracao<PontoRecarga>> alteracoes = new ArrayList<>();
+        this.dao.streamAlteracoes(desde, limite, alteracoes::add);
+        return alteracoes;
+    }
+
+    /**
+     * Percorre todas as alterações de PontoRecarga posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void streamAlteracoes(long desde, Consumer<Alteracao<PontoRecarga>> action) throws SQLException {
+        this.dao.streamAlteracoes(desde, null, action);
+    }
+
+    /**
+     * Busca o token da alteração mais recente de PontoRecarga.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public long findUltimaAlteracao() throws SQLException {
+        return this.dao.findUltimaAlteracao();
     }
 
     /**
@@ -76,12 +247,50 @@ public final class PontoRecargaServiceImpl implements PontoRecargaService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             pontoRecarga = this.dao.update(pontoRecarga, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(pontoRecarga.getIdPonto()), connection);
             connection.commit();
+            VERSAO.bump();
+            EventosRecarga.publicar(pontoRecarga);
             return pontoRecarga;
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao atualizar o ponto de recarga: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Atualiza apenas os campos informados de um PontoRecarga.
+     *
+     * @param id O ID do PontoRecarga a ser atualizado.
+     * @param campos Campos JSON e os novos valores; {@code null} limpa o campo.
+     * @throws NotFoundException Se o PontoRecarga não for encontrado.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException {
+        if (campos.isEmpty()) {
+            // Um patch vazio não altera nada, mas o registro precisa existir.
+            this.dao.findById(id);
+            return;
+        }
+        Connection connection = DatabaseConnectionFactory.create().get();
+        try {
+            this.dao.patch(id, campos, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.ATUALIZACAO, List.of(id), connection);
+            connection.commit();
+            VERSAO.bump();
+        } catch (SQLException e) {
+            connection.rollback();
+            logger.warning("Erro ao atualizar parcialmente o ponto de recarga: " + e.getMessage());
+            throw e;
+        } finally {
+            connection.close();
+        }
+        if (campos.containsKey("ocupado")) {
+            EventosRecarga.reler(() -> this.dao.findById(id), EventosRecarga::publicar);
         }
     }
 
@@ -97,11 +306,16 @@ public final class PontoRecargaServiceImpl implements PontoRecargaService {
         Connection connection = DatabaseConnectionFactory.create().get();
         try {
             this.dao.deleteById(id, connection);
+            this.dao.registrarAlteracoes(Alteracao.Operacao.EXCLUSAO, List.of(id), connection);
             connection.commit();
+            VERSAO.bump();
+            EventosRecarga.esquecer(EventosRecarga.PONTO, id);
         } catch (SQLException e) {
             connection.rollback();
             logger.warning("Erro ao excluir o ponto de recarga: " + e.getMessage());
             throw e;
+        } finally {
+            connection.close();
         }
     }
 }
@@ -0,0 +1,35 @@
+package org.example.services;
+
+import org.example.services.interfaces.VeiculoService;
+
+/**
+ * Factory para criar instâncias de VeiculoService.
+ *
+ * <p>Essa factory cria instâncias da implementação {@link VeiculoServiceImpl}
+ * e retorna a interface {@link VeiculoService} para as consultas unificadas de veículos.</p>
+ *
+ * @since 1.1
+ * @version 1.0
+ */
+public final class VeiculoServiceFactory {
+
+    /**
+     * Construtor privado para evitar a criação de instâncias da classe {@link VeiculoServiceFactory}.
+     *
+     * <p>Este construtor é privado para garantir que a factory seja utilizada apenas
+     * através de seu método estático, seguindo o padrão Singleton implícito.</p>
+     */
+    private VeiculoServiceFactory() {
+        // Construtor privado para impedir a criação de instâncias.
+    }
+
+    /**
+     * Cria e retorna uma nova instância de {@link VeiculoServiceImpl}.
+     *
+     * @return Uma implementação de {@link VeiculoService} para veículos.
+     * @since 1.1
+     */
+    public static VeiculoService create() {
+        return new VeiculoServiceImpl();
+    }
+}
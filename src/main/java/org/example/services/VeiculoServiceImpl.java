@@ -0,0 +1,81 @@
+package org.example.services;
+
+import org.example.config.NaturalKeyIndex;
+import org.example.daos.CarroDaoFactory;
+import org.example.daos.Consulta;
+import org.example.daos.MotoDaoFactory;
+import org.example.daos.OnibusDaoFactory;
+import org.example.daos.VeiculoDaoFactory;
+import org.example.daos.interfaces.VeiculoDao;
+import org.example.exceptions.NotFoundException;
+import org.example.models.Veiculo;
+import org.example.models.VeiculoComTipo;
+import org.example.services.interfaces.VeiculoService;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementação do serviço de consultas unificadas de veículos, utilizando VeiculoDaoFactory.
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public final class VeiculoServiceImpl implements VeiculoService {
+
+    /**
+     * Leitura de um veículo pelo ID, no DAO do seu tipo.
+     */
+    @FunctionalInterface
+    private interface Leitura {
+
+        Veiculo ler(Long id) throws SQLException;
+    }
+
+    private final VeiculoDao dao = VeiculoDaoFactory.create();
+
+    // DAO de cada tipo de veículo, pelo nome do tipo no índice de placas.
+    private final Map<String, Leitura> leituras = Map.of(
+            ChavesNaturais.ONIBUS, OnibusDaoFactory.create()::findById,
+            ChavesNaturais.CARRO, CarroDaoFactory.create()::findById,
+            ChavesNaturais.MOTO, MotoDaoFactory.create()::findById
+    );
+
+    /**
+     * Retorna os veículos de todos os tipos que atendem à consulta.
+     *
+     * @param consulta Filtros e ordenação da listagem.
+     * @return Lista de veículos encontrados, cada um com o seu tipo.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public List<VeiculoComTipo> findAll(Consulta consulta) throws SQLException {
+        return this.dao.find(consulta);
+    }
+
+    /**
+     * Busca o veículo que usa a placa pelo índice de placas em memória e o lê pelo ID, no DAO do seu tipo.
+     * Placas que o filtro de Bloom descarta não chegam ao banco.
+     *
+     * @param placa A placa do veículo.
+     * @return O veículo encontrado, com o seu tipo.
+     * @throws NotFoundException Se nenhum veículo usar a placa.
+     * @throws SQLException Em caso de erro de SQL.
+     */
+    @Override
+    public VeiculoComTipo findByPlaca(String placa) throws NotFoundException, SQLException {
+        NaturalKeyIndex.Owner dono = ChavesNaturais.PLACAS.lookup(placa)
+                .orElseThrow(() -> new NotFoundException("Veículo não encontrado."));
+        try {
+            Veiculo veiculo = this.leituras.get(dono.getType()).ler(dono.getId());
+            if (placa.equals(veiculo.getPlaca())) {
+                return new VeiculoComTipo(dono.getType(), veiculo);
+            }
+        } catch (NotFoundException e) {
+            // O veículo foi excluído fora deste processo; a associação é descartada abaixo.
+        }
+        ChavesNaturais.PLACAS.discard(dono);
+        throw new NotFoundException("Veículo não encontrado.");
+    }
+}
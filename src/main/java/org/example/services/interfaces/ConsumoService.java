@@ -1,12 +1,19 @@
 package org.example.services.interfaces;
 
+import org.example.daos.Consulta;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Consumo;
+import org.example.models.ResultadoLote;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Interface para operações de serviço relacionadas à entidade Consumo.
@@ -26,6 +33,16 @@ public interface ConsumoService {
      */
     Consumo create(Consumo consumo) throws UnsupportedServiceOperationException, SQLException, NotSavedException;
 
+    /**
+     * Cria vários registros de uma vez, em blocos e na mesma transação. Itens recusados (por já possuírem ID
+     * ou por erro do banco) não impedem o cadastro dos demais.
+     *
+     * @param consumos Os registros a serem criados.
+     * @return O resultado de cada item, na ordem recebida: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Se ocorrer um erro de SQL que impeça concluir o lote.
+     */
+    List<ResultadoLote> createAll(List<Consumo> consumos) throws SQLException;
+
     /**
      * Retorna uma lista de todos os registros de consumo.
      *
@@ -34,6 +51,101 @@ public interface ConsumoService {
      */
     List<Consumo> findAll() throws SQLException;
 
+    /**
+     * Busca registros de consumo que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com os registros de consumo encontrados.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<Consumo> find(Consulta consulta) throws SQLException;
+
+    /**
+     * Busca registros de consumo que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException;
+
+    /**
+     * Percorre registros de consumo que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void streamAll(Consulta consulta, Consumer<Consumo> action) throws SQLException;
+
+    /**
+     * Percorre registros de consumo que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException;
+
+    /**
+     * Busca um registro de consumo pelo seu ID.
+     *
+     * @param id O ID do registro de consumo a ser buscado.
+     * @return O registro de consumo encontrado.
+     * @throws NotFoundException Se o registro de consumo não for encontrado.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    Consumo findById(Long id) throws NotFoundException, SQLException;
+
+    /**
+     * Busca um registro de consumo pelo ID com apenas os campos informados.
+     *
+     * @param id O ID do registro de consumo a ser buscado.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial do registro de consumo encontrado.
+     * @throws NotFoundException Se o registro de consumo não for encontrado.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException;
+
+    /**
+     * Busca vários registros pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return Os registros encontrados, indexados pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    Map<Long, Consumo> findByIds(Collection<Long> ids) throws SQLException;
+
+    /**
+     * Busca as alterações posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<Alteracao<Consumo>> findAlteracoes(long desde, int limite) throws SQLException;
+
+    /**
+     * Percorre todas as alterações posteriores ao token, na ordem de commit, sem montá-las em memória.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void streamAlteracoes(long desde, Consumer<Alteracao<Consumo>> action) throws SQLException;
+
+    /**
+     * Busca o token da alteração mais recente, ponto de partida de uma sincronização.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    long findUltimaAlteracao() throws SQLException;
+
     /**
      * Atualiza os dados de um registro de consumo existente no sistema.
      *
@@ -44,6 +156,17 @@ public interface ConsumoService {
      */
     Consumo update(Consumo consumo) throws NotFoundException, SQLException;
 
+    /**
+     * Atualiza apenas os campos informados de um consumo: os campos presentes são gravados, {@code null} limpa o
+     * campo e os campos ausentes permanecem como estão.
+     *
+     * @param id O ID do consumo a ser atualizado.
+     * @param campos Campos JSON e os novos valores.
+     * @throws NotFoundException Se o consumo não for encontrado.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException;
+
     /**
      * Exclui um registro de consumo do sistema pelo seu ID.
      *
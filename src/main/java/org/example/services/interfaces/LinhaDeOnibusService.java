@@ -1,12 +1,19 @@
 package org.example.services.interfaces;
 
+import org.example.daos.Consulta;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.LinhaDeOnibus;
+import org.example.models.ResultadoLote;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Interface para operações de serviço relacionadas à entidade LinhaDeOnibus.
@@ -26,6 +33,35 @@ public interface LinhaDeOnibusService {
      */
     LinhaDeOnibus create(LinhaDeOnibus linhaDeOnibus) throws UnsupportedServiceOperationException, SQLException, NotSavedException;
 
+    /**
+     * Cria vários registros de uma vez, em blocos e na mesma transação. Itens recusados (por já possuírem ID
+     * ou por erro do banco) não impedem o cadastro dos demais.
+     *
+     * @param linhas Os registros a serem criados.
+     * @return O resultado de cada item, na ordem recebida: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Se ocorrer um erro de SQL que impeça concluir o lote.
+     */
+    List<ResultadoLote> createAll(List<LinhaDeOnibus> linhas) throws SQLException;
+
+    /**
+     * Cria ou atualiza uma linha de ônibus pelo código da linha, sem precisar conhecer o seu ID.
+     *
+     * @param linhaDeOnibus A linha de ônibus a ser gravada.
+     * @return A linha de ônibus gravada, com o ID atribuído.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    LinhaDeOnibus upsert(LinhaDeOnibus linhaDeOnibus) throws SQLException;
+
+    /**
+     * Cria ou atualiza vários registros pelo código da linha, em blocos e na mesma transação. Itens sem
+     * código da linha, ou repetidos no lote, são recusados sem impedir a gravação dos demais.
+     *
+     * @param linhas Os registros a serem gravados.
+     * @return O resultado de cada item, na ordem recebida: o ID gravado ou o motivo da recusa.
+     * @throws SQLException Se ocorrer um erro de SQL que impeça concluir o lote.
+     */
+    List<ResultadoLote> upsertAll(List<LinhaDeOnibus> linhas) throws SQLException;
+
     /**
      * Retorna uma lista de todas as linhas de ônibus.
      *
@@ -34,6 +70,101 @@ public interface LinhaDeOnibusService {
      */
     List<LinhaDeOnibus> findAll() throws SQLException;
 
+    /**
+     * Busca linhas de ônibus que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com as linhas de ônibus encontradas.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<LinhaDeOnibus> find(Consulta consulta) throws SQLException;
+
+    /**
+     * Busca linhas de ônibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException;
+
+    /**
+     * Percorre linhas de ônibus que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void streamAll(Consulta consulta, Consumer<LinhaDeOnibus> action) throws SQLException;
+
+    /**
+     * Percorre linhas de ônibus que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException;
+
+    /**
+     * Busca uma linha de ônibus pelo seu ID.
+     *
+     * @param id O ID da linha de ônibus a ser buscada.
+     * @return A linha de ônibus encontrada.
+     * @throws NotFoundException Se a linha de ônibus não for encontrada.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    LinhaDeOnibus findById(Long id) throws NotFoundException, SQLException;
+
+    /**
+     * Busca uma linha de ônibus pelo ID com apenas os campos informados.
+     *
+     * @param id O ID da linha de ônibus a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da linha de ônibus encontrada.
+     * @throws NotFoundException Se a linha de ônibus não for encontrada.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException;
+
+    /**
+     * Busca vários registros pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return Os registros encontrados, indexados pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    Map<Long, LinhaDeOnibus> findByIds(Collection<Long> ids) throws SQLException;
+
+    /**
+     * Busca as alterações posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<Alteracao<LinhaDeOnibus>> findAlteracoes(long desde, int limite) throws SQLException;
+
+    /**
+     * Percorre todas as alterações posteriores ao token, na ordem de commit, sem montá-las em memória.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void streamAlteracoes(long desde, Consumer<Alteracao<LinhaDeOnibus>> action) throws SQLException;
+
+    /**
+     * Busca o token da alteração mais recente, ponto de partida de uma sincronização.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    long findUltimaAlteracao() throws SQLException;
+
     /**
      * Atualiza os dados de uma linha de ônibus existente no sistema.
      *
@@ -44,6 +175,17 @@ public interface LinhaDeOnibusService {
      */
     LinhaDeOnibus update(LinhaDeOnibus linhaDeOnibus) throws NotFoundException, SQLException;
 
+    /**
+     * Atualiza apenas os campos informados de uma linha de ônibus: os campos presentes são gravados, {@code null} limpa o
+     * campo e os campos ausentes permanecem como estão.
+     *
+     * @param id O ID da linha de ônibus a ser atualizada.
+     * @param campos Campos JSON e os novos valores.
+     * @throws NotFoundException Se a linha de ônibus não for encontrada.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException;
+
     /**
      * Exclui uma linha de ônibus do sistema pelo seu ID.
      *
@@ -1,12 +1,19 @@
 package org.example.services.interfaces;
 
+import org.example.daos.Consulta;
 import org.example.exceptions.NotFoundException;
 import org.example.exceptions.NotSavedException;
 import org.example.exceptions.UnsupportedServiceOperationException;
+import org.example.models.Alteracao;
 import org.example.models.Moto;
+import org.example.models.ResultadoLote;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Interface para operações de serviço relacionadas à entidade Moto.
@@ -26,6 +33,35 @@ public interface MotoService {
      */
     Moto create(Moto moto) throws UnsupportedServiceOperationException, SQLException, NotSavedException;
 
+    /**
+     * Cria vários registros de uma vez, em blocos e na mesma transação. Itens recusados (por já possuírem ID
+     * ou por erro do banco) não impedem o cadastro dos demais.
+     *
+     * @param motos Os registros a serem criados.
+     * @return O resultado de cada item, na ordem recebida: o ID gerado ou o motivo da recusa.
+     * @throws SQLException Se ocorrer um erro de SQL que impeça concluir o lote.
+     */
+    List<ResultadoLote> createAll(List<Moto> motos) throws SQLException;
+
+    /**
+     * Cria ou atualiza uma moto pela placa, sem precisar conhecer o seu ID.
+     *
+     * @param moto A moto a ser gravada.
+     * @return A moto gravada, com o ID atribuído.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    Moto upsert(Moto moto) throws SQLException;
+
+    /**
+     * Cria ou atualiza vários registros pela placa, em blocos e na mesma transação. Itens sem placa, ou
+     * repetidos no lote, são recusados sem impedir a gravação dos demais.
+     *
+     * @param motos Os registros a serem gravados.
+     * @return O resultado de cada item, na ordem recebida: o ID gravado ou o motivo da recusa.
+     * @throws SQLException Se ocorrer um erro de SQL que impeça concluir o lote.
+     */
+    List<ResultadoLote> upsertAll(List<Moto> motos) throws SQLException;
+
     /**
      * Retorna uma lista de todas as motos.
      *
@@ -34,6 +70,101 @@ public interface MotoService {
      */
     List<Moto> findAll() throws SQLException;
 
+    /**
+     * Busca motos que atendem aos filtros, à ordenação e à paginação da consulta.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @return Lista com as motos encontradas.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<Moto> find(Consulta consulta) throws SQLException;
+
+    /**
+     * Busca motos que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros, ordenação e paginação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return Lista de objetos parciais encontrados.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<Map<String, Object>> find(Consulta consulta, Set<String> fields) throws SQLException;
+
+    /**
+     * Percorre motos que atendem à consulta sem acumulá-las em memória.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param action Ação executada para cada registro lido.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void streamAll(Consulta consulta, Consumer<Moto> action) throws SQLException;
+
+    /**
+     * Percorre motos que atendem à consulta, lendo apenas as colunas dos campos informados.
+     *
+     * @param consulta Filtros e ordenação da busca.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @param action Ação executada para cada objeto parcial lido.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void streamAll(Consulta consulta, Set<String> fields, Consumer<Map<String, Object>> action) throws SQLException;
+
+    /**
+     * Busca uma moto pelo seu ID.
+     *
+     * @param id O ID da moto a ser buscada.
+     * @return A moto encontrada.
+     * @throws NotFoundException Se a moto não for encontrada.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    Moto findById(Long id) throws NotFoundException, SQLException;
+
+    /**
+     * Busca uma moto pelo ID com apenas os campos informados.
+     *
+     * @param id O ID da moto a ser buscada.
+     * @param fields Campos JSON desejados; o ID é sempre incluído.
+     * @return O objeto parcial da moto encontrada.
+     * @throws NotFoundException Se a moto não for encontrada.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    Map<String, Object> findById(Long id, Set<String> fields) throws NotFoundException, SQLException;
+
+    /**
+     * Busca vários registros pelos IDs.
+     *
+     * @param ids Os IDs a serem buscados.
+     * @return Os registros encontrados, indexados pelo ID na ordem dos IDs informados; IDs sem registro ficam de fora.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    Map<Long, Moto> findByIds(Collection<Long> ids) throws SQLException;
+
+    /**
+     * Busca as alterações posteriores ao token, na ordem de commit.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param limite Quantidade de alterações, completada com as da mesma transação da última.
+     * @return As alterações, cada uma com o registro atual ou como exclusão.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<Alteracao<Moto>> findAlteracoes(long desde, int limite) throws SQLException;
+
+    /**
+     * Percorre todas as alterações posteriores ao token, na ordem de commit, sem montá-las em memória.
+     *
+     * @param desde Token da última alteração já recebida.
+     * @param action Ação executada para cada alteração.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void streamAlteracoes(long desde, Consumer<Alteracao<Moto>> action) throws SQLException;
+
+    /**
+     * Busca o token da alteração mais recente, ponto de partida de uma sincronização.
+     *
+     * @return O token, ou 0 se não houver alterações.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    long findUltimaAlteracao() throws SQLException;
+
     /**
      * Atualiza os dados de uma moto existente no sistema.
      *
@@ -44,6 +175,17 @@ public interface MotoService {
      */
     Moto update(Moto moto) throws NotFoundException, SQLException;
 
+    /**
+     * Atualiza apenas os campos informados de uma moto: os campos presentes são gravados, {@code null} limpa o
+     * campo e os campos ausentes permanecem como estão.
+     *
+     * @param id O ID da moto a ser atualizada.
+     * @param campos Campos JSON e os novos valores.
+     * @throws NotFoundException Se a moto não for encontrada.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    void patch(Long id, Map<String, Object> campos) throws NotFoundException, SQLException;
+
     /**
      * Exclui uma moto do sistema pelo seu ID.
      *
@@ -0,0 +1,35 @@
+package org.example.services.interfaces;
+
+import org.example.daos.Consulta;
+import org.example.exceptions.NotFoundException;
+import org.example.models.VeiculoComTipo;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Interface para as consultas de serviço que percorrem todos os tipos de veículo (ônibus, carros e motos).
+ *
+ * @since 1.1
+ */
+public interface VeiculoService {
+
+    /**
+     * Retorna os veículos de todos os tipos que atendem aos filtros e à ordenação da consulta.
+     *
+     * @param consulta Filtros e ordenação sobre {@code placa}, {@code idGaragem} e {@code anoFabricacao}.
+     * @return Lista de veículos encontrados, cada um com o seu tipo.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    List<VeiculoComTipo> findAll(Consulta consulta) throws SQLException;
+
+    /**
+     * Busca o veículo de qualquer tipo que usa a placa informada.
+     *
+     * @param placa A placa do veículo.
+     * @return O veículo encontrado, com o seu tipo.
+     * @throws NotFoundException Se nenhum veículo usar a placa.
+     * @throws SQLException Se ocorrer um erro de SQL.
+     */
+    VeiculoComTipo findByPlaca(String placa) throws NotFoundException, SQLException;
+}